@@ -0,0 +1,161 @@
+package main.benchmark;
+
+import main.geom.Vector;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.ZeroSource;
+import main.physics.goveqn.factory.*;
+
+import java.util.Random;
+
+import static main.util.DoubleArray.newFilledArray;
+
+/**
+ * Governing equations used in the benchmarks, with the parameters of the solver test cases and
+ * random states in the range seen in those cases.
+ */
+public enum BenchmarkEquations {
+    EULER {
+        @Override
+        public GoverningEquations create() {
+            return new EulerEquations(1.4);
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            // rho, u, v, w, p around Mach 2 free stream
+            return new double[]{
+                    uniform(rnd, 0.8, 1.5),
+                    uniform(rnd, 1.8, 2.6), uniform(rnd, -0.5, 0.5), uniform(rnd, -0.5, 0.5),
+                    uniform(rnd, 0.5, 1.2)
+            };
+        }
+    },
+    ARTIFICIAL_COMPRESSIBILITY {
+        @Override
+        public GoverningEquations create() {
+            return new ArtificialCompressibilityEquations(1.0, 0.01, new Vector(0, 0, 0));
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            // p, u, v, w of a lid driven cavity
+            return new double[]{
+                    uniform(rnd, -0.2, 0.2),
+                    uniform(rnd, -0.5, 1.0), uniform(rnd, -0.5, 0.5), uniform(rnd, -0.1, 0.1)
+            };
+        }
+    },
+    ARTIFICIAL_COMPRESSIBILITY_VOF {
+        @Override
+        public GoverningEquations create() {
+            return new ArtificialCompressibilityVOFEquations(1000.0, 0.001, 1.125, 0.001,
+                    new Vector(0, -9.81, 0), 10);
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            // p, u, v, w, C of a sloshing tank: most cells are either water or air
+            double C = rnd.nextDouble();
+            C = C < 0.45 ? 0.0 : C > 0.55 ? 1.0 : (C - 0.45) * 10;
+            return new double[]{
+                    uniform(rnd, 0, 1000),
+                    uniform(rnd, -0.5, 0.5), uniform(rnd, -0.5, 0.5), 0.0,
+                    C
+            };
+        }
+    },
+    GRAIN_GROWTH {
+        @Override
+        public GoverningEquations create() {
+            int numOrientations = 36;
+            return new GrainGrowthFanChenEquations(numOrientations, 1.0, 1.0, 1.0,
+                    newFilledArray(numOrientations, 0.0003), newFilledArray(numOrientations, 1));
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            // Mostly one grain, with a few orientations near a grain boundary
+            double[] eta = new double[numVars];
+            eta[rnd.nextInt(numVars)] = uniform(rnd, 0.8, 1.0);
+            eta[rnd.nextInt(numVars)] = uniform(rnd, 0.0, 0.2);
+            return eta;
+        }
+    },
+    POISSON {
+        @Override
+        public GoverningEquations create() {
+            return new PoissonEquation(1.0, new ZeroSource(1));
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            return new double[]{uniform(rnd, -1, 1)};
+        }
+    },
+    SCALAR_ADVECTION {
+        @Override
+        public GoverningEquations create() {
+            return new ScalarAdvection(1.0, 0.5, 0.25);
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            return new double[]{uniform(rnd, 0, 1)};
+        }
+    },
+    SCALAR_DIFFUSION {
+        @Override
+        public GoverningEquations create() {
+            return new ScalarDiffusion(3.5);
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            return new double[]{uniform(rnd, 1, 2)};
+        }
+    },
+    VOLUME_FRACTION_ADVECTION {
+        @Override
+        public GoverningEquations create() {
+            return new VolumeFractionAdvectionEquations();
+        }
+
+        @Override
+        double[] randomPrimitiveVars(Random rnd, int numVars) {
+            // C, u, v, w, interface normal
+            Vector n = new Vector(rnd.nextGaussian(), rnd.nextGaussian(), 0).unit();
+            return new double[]{
+                    rnd.nextDouble(),
+                    uniform(rnd, -1, 1), uniform(rnd, -1, 1), 0.0,
+                    n.x, n.y, n.z
+            };
+        }
+    };
+
+    public abstract GoverningEquations create();
+
+    abstract double[] randomPrimitiveVars(Random rnd, int numVars);
+
+    /**
+     * @return Random conservative variables in the range of the solver test cases.
+     */
+    public double[] randomConservativeVars(GoverningEquations govEqn, Random rnd) {
+        return govEqn.conservativeVars(randomPrimitiveVars(rnd, govEqn.numVars()));
+    }
+
+    /**
+     * @return Conservative variables close to the given ones, as seen across a face of a smooth solution.
+     */
+    public double[] perturbedConservativeVars(GoverningEquations govEqn, double[] conservativeVars, Random rnd) {
+        double[] primVars = govEqn.primitiveVars(conservativeVars);
+        double[] other = randomPrimitiveVars(rnd, govEqn.numVars());
+        for (int var = 0; var < primVars.length; var++) {
+            primVars[var] = 0.9 * primVars[var] + 0.1 * other[var];
+        }
+        return govEqn.conservativeVars(primVars);
+    }
+
+    private static double uniform(Random rnd, double min, double max) {
+        return min + rnd.nextDouble() * (max - min);
+    }
+}
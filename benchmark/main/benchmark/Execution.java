@@ -0,0 +1,27 @@
+package main.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs a kernel on a single thread or on all the threads of the common pool. The mesh streams are
+ * parallel, and a parallel stream started from a fork-join task uses the pool of that task, so the
+ * sequential run submits the kernel to a pool with a single worker.
+ */
+public enum Execution {
+    SEQUENTIAL {
+        @Override
+        public void run(Runnable kernel) {
+            SINGLE_THREAD_POOL.submit(kernel).join();
+        }
+    },
+    PARALLEL {
+        @Override
+        public void run(Runnable kernel) {
+            kernel.run();
+        }
+    };
+
+    private static final ForkJoinPool SINGLE_THREAD_POOL = new ForkJoinPool(1);
+
+    public abstract void run(Runnable kernel);
+}
@@ -0,0 +1,248 @@
+package main.benchmark;
+
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.solver.Norm;
+import main.solver.time.TimeIntegrator;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * End-to-end strong and weak scaling of the solver stacks on synthetic meshes.
+ * <p>
+ * Every combination of stack, mesh type, number of cells and number of threads is run in a
+ * fork-join pool with that many workers (the mesh streams run in the pool of the calling task):
+ * the mesh and the solver are set up, the solution is initialized, and after the warm-up
+ * iterations the given number of iterations is timed. The arguments are {@code key=value} pairs:
+ * <pre>
+ * stacks=EULER,VOF          solver stacks (default: all)
+ * meshes=QUAD_2D,TET_3D     mesh types (default: all)
+ * cells=10000,100000        number of cells, or cells per thread for weak scaling (default: 10000,100000)
+ * threads=1,2,4,8           number of threads (default: powers of 2 up to the available processors)
+ * iterations=100            timed iterations (default: 100)
+ * warmup=20                 iterations before timing (default: 20)
+ * scaling=strong            strong or weak (default: strong)
+ * deterministic=false       thread-count independent residual norms (default: false)
+ * output=scaling            report file names without extension (default: scaling)
+ * </pre>
+ * The report is written to {@code <output>.csv} and {@code <output>.json}. The efficiency is the
+ * throughput (cells * iterations / second) relative to the smallest number of threads, divided by
+ * the ratio of the number of threads. The peak heap is the sum of the peak usage of the heap memory
+ * pools during the run, and the GC time is the collection time during the timed iterations.
+ */
+public class ScalingBenchmark {
+    public record Result(ScalingStack stack, MeshType meshType, int requestedCells, int numCells,
+                         int threads, int iterations, double setupSeconds, double iterationSeconds,
+                         double throughput, double efficiency, long peakHeapBytes, long gcMillis) {
+    }
+
+    private final List<ScalingStack> stacks;
+    private final List<MeshType> meshTypes;
+    private final List<Integer> cells;
+    private final List<Integer> threads;
+    private final int iterations;
+    private final int warmup;
+    private final boolean weakScaling;
+    private boolean deterministicReductions = false;
+
+    public ScalingBenchmark(List<ScalingStack> stacks, List<MeshType> meshTypes, List<Integer> cells,
+                            List<Integer> threads, int iterations, int warmup, boolean weakScaling) {
+        if (iterations < 1) throw new IllegalArgumentException("The number of iterations must be positive.");
+        if (warmup < 0) throw new IllegalArgumentException("The number of warm-up iterations must not be negative.");
+        if (threads.stream().anyMatch(t -> t < 1))
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        this.stacks = List.copyOf(stacks);
+        this.meshTypes = List.copyOf(meshTypes);
+        this.cells = List.copyOf(cells);
+        this.threads = threads.stream().sorted().distinct().toList();
+        this.iterations = iterations;
+        this.warmup = warmup;
+        this.weakScaling = weakScaling;
+    }
+
+    public void setDeterministicReductions(boolean deterministic) {
+        this.deterministicReductions = deterministic;
+    }
+
+    public List<Result> run() {
+        List<Result> results = new ArrayList<>();
+        for (ScalingStack stack : stacks) {
+            for (MeshType meshType : meshTypes) {
+                for (int numCells : cells) {
+                    double baseThroughput = 0;
+                    for (int numThreads : threads) {
+                        int totalCells = weakScaling ? numCells * numThreads : numCells;
+                        // the first run (smallest number of threads) is the reference for the efficiency
+                        Result result = run(stack, meshType, numCells, totalCells, numThreads, baseThroughput);
+                        if (baseThroughput == 0) baseThroughput = result.throughput;
+                        System.out.println(format(result));
+                        results.add(result);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private Result run(ScalingStack stack, MeshType meshType, int requestedCells, int totalCells,
+                       int numThreads, double baseThroughput) {
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            return pool.submit(() -> {
+                long setupStart = System.nanoTime();
+                ScalingStack.Problem problem = stack.create(meshType, totalCells);
+                problem.initializer().initialize(problem.mesh(), problem.govEqn());
+                double setupSeconds = (System.nanoTime() - setupStart) * 1e-9;
+
+                TimeIntegrator timeIntegrator = problem.timeIntegrator();
+                timeIntegrator.setFusedResidualNorms(true);
+                timeIntegrator.setDeterministicReductions(deterministicReductions);
+                for (int iter = 0; iter < warmup; iter++) {
+                    iterate(timeIntegrator);
+                }
+                long gcStart = gcMillis();
+                long start = System.nanoTime();
+                for (int iter = 0; iter < iterations; iter++) {
+                    iterate(timeIntegrator);
+                }
+                double iterationSeconds = (System.nanoTime() - start) * 1e-9;
+                long gcTime = gcMillis() - gcStart;
+
+                int numCells = problem.mesh().cells().size();
+                double throughput = (double) numCells * iterations / iterationSeconds;
+                double efficiency = baseThroughput == 0 ? 1.0
+                        : throughput / baseThroughput / ((double) numThreads / threads.get(0));
+                long peakHeap = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+                return new Result(stack, meshType, requestedCells, numCells, numThreads, iterations,
+                        setupSeconds, iterationSeconds, throughput, efficiency, peakHeap, gcTime);
+            }).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void iterate(TimeIntegrator timeIntegrator) {
+        timeIntegrator.updateCellAverages();
+        double[] residual = timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+        for (double r : residual) {
+            if (Double.isNaN(r)) throw new IllegalStateException("The residual is NaN.");
+        }
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+
+    private static String format(Result r) {
+        return String.format(Locale.ROOT,
+                "%-26s %-11s %8d cells %3d threads: setup %8.3f s, %12.4e cells*iter/s, efficiency %5.3f, " +
+                "peak heap %6d MB, GC %6d ms",
+                r.stack, r.meshType, r.numCells, r.threads, r.setupSeconds, r.throughput, r.efficiency,
+                r.peakHeapBytes >> 20, r.gcMillis);
+    }
+
+    public static void writeCsv(List<Result> results, File file) throws FileNotFoundException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("stack,mesh,requestedCells,cells,threads,iterations,setupSeconds,iterationSeconds," +
+                           "cellIterationsPerSecond,efficiency,peakHeapBytes,gcMillis");
+            for (Result r : results) {
+                writer.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.6f,%.6f,%.6e,%.6f,%d,%d",
+                        r.stack, r.meshType, r.requestedCells, r.numCells, r.threads, r.iterations,
+                        r.setupSeconds, r.iterationSeconds, r.throughput, r.efficiency,
+                        r.peakHeapBytes, r.gcMillis));
+            }
+        }
+    }
+
+    public static void writeJson(List<Result> results, boolean weakScaling, File file) throws FileNotFoundException {
+        try (PrintWriter writer = new PrintWriter(file)) {
+            writer.println("{");
+            writer.println("  \"scaling\": \"" + (weakScaling ? "weak" : "strong") + "\",");
+            writer.println("  \"availableProcessors\": " + Runtime.getRuntime().availableProcessors() + ",");
+            writer.println("  \"maxHeapBytes\": " + Runtime.getRuntime().maxMemory() + ",");
+            writer.println("  \"results\": [");
+            for (int i = 0; i < results.size(); i++) {
+                Result r = results.get(i);
+                writer.print(String.format(Locale.ROOT,
+                        "    {\"stack\": \"%s\", \"mesh\": \"%s\", \"requestedCells\": %d, \"cells\": %d, " +
+                        "\"threads\": %d, \"iterations\": %d, \"setupSeconds\": %.6f, \"iterationSeconds\": %.6f, " +
+                        "\"cellIterationsPerSecond\": %.6e, \"efficiency\": %.6f, \"peakHeapBytes\": %d, " +
+                        "\"gcMillis\": %d}",
+                        r.stack, r.meshType, r.requestedCells, r.numCells, r.threads, r.iterations,
+                        r.setupSeconds, r.iterationSeconds, r.throughput, r.efficiency,
+                        r.peakHeapBytes, r.gcMillis));
+                writer.println(i < results.size() - 1 ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+        }
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) throw new IllegalArgumentException("The arguments must be key=value pairs: " + arg);
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        List<ScalingStack> stacks = list(options.remove("stacks"), ScalingStack::valueOf,
+                List.of(ScalingStack.values()));
+        List<MeshType> meshTypes = list(options.remove("meshes"), MeshType::valueOf,
+                List.of(MeshType.values()));
+        List<Integer> cells = list(options.remove("cells"), Integer::valueOf, List.of(10_000, 100_000));
+        List<Integer> threads = list(options.remove("threads"), Integer::valueOf, defaultThreads());
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "100"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "20"));
+        String scaling = options.getOrDefault("scaling", "strong");
+        if (!scaling.equals("strong") && !scaling.equals("weak"))
+            throw new IllegalArgumentException("The scaling must be strong or weak: " + scaling);
+        String output = options.getOrDefault("output", "scaling");
+        boolean deterministic = Boolean.parseBoolean(options.getOrDefault("deterministic", "false"));
+        options.keySet().removeAll(Set.of("iterations", "warmup", "scaling", "output", "deterministic"));
+        if (!options.isEmpty()) throw new IllegalArgumentException("Unknown arguments: " + options.keySet());
+
+        boolean weakScaling = scaling.equals("weak");
+        ScalingBenchmark benchmark = new ScalingBenchmark(stacks, meshTypes, cells, threads, iterations, warmup,
+                weakScaling);
+        benchmark.setDeterministicReductions(deterministic);
+        List<Result> results = benchmark.run();
+        writeCsv(results, new File(output + ".csv"));
+        writeJson(results, weakScaling, new File(output + ".json"));
+    }
+
+    private static <T> List<T> list(String values, Function<String, T> parser, List<T> defaultValues) {
+        if (values == null) return defaultValues;
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .map(parser)
+                .toList();
+    }
+
+    private static List<Integer> defaultThreads() {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        List<Integer> threads = new ArrayList<>();
+        for (int t = 1; t < maxThreads; t *= 2) {
+            threads.add(t);
+        }
+        threads.add(maxThreads);
+        return threads;
+    }
+}
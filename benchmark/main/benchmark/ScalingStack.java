@@ -0,0 +1,138 @@
+package main.benchmark;
+
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Mesh;
+import main.physics.bc.*;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.HLLC_AC_RiemannSolver;
+import main.solver.convection.riemann.HLLC_VOF_RiemannSolver;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.source.SourceResidual;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import main.solver.time.TwoPointTimeDiscretization;
+import main.util.DoubleArray;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The solver stacks of the solver test cases, on the synthetic meshes of the unit square or cube.
+ */
+public enum ScalingStack {
+    /**
+     * Mach 2 flow with a column of higher density, second-order with the Venkatakrishnan limiter and
+     * the Rusanov flux.
+     */
+    EULER {
+        @Override
+        public Problem create(MeshType meshType, int numCells) {
+            EulerEquations govEqn = new EulerEquations(1.4);
+            BoundaryCondition inlet = new NormalInletBC(govEqn, new NormalInletBC.InletProperties(2.0, 1.0, 1.0 / 1.4));
+            BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+            Mesh mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(),
+                    name -> name.equals("xi min") ? inlet : extrapolated);
+            CellNeighborCalculator neighborCalculator = new FaceBasedCellNeighbors();
+            ResidualCalculator convection = new ConvectionResidual(
+                    new VKLimiterReconstructor(mesh, govEqn, neighborCalculator), new RusanovRiemannSolver(govEqn), mesh);
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh,
+                    new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, neighborCalculator),
+                            List.of(convection)),
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+            SolutionInitializer initializer = new FunctionInitializer(p -> {
+                double rho = p.distance(new Point(0.5, 0.5, p.z)) < 0.25 ? 2.0 : 1.0;
+                double u = 2.0;
+                double pressure = 1.0 / 1.4;
+                return new double[]{rho, rho * u, 0.0, 0.0, pressure / 0.4 + rho * u * u / 2.0};
+            });
+            return new Problem(mesh, govEqn, initializer, timeIntegrator);
+        }
+    },
+    /**
+     * Lid driven cavity at Re = 100 with the HLLC flux.
+     */
+    ARTIFICIAL_COMPRESSIBILITY {
+        @Override
+        public Problem create(MeshType meshType, int numCells) {
+            ArtificialCompressibilityEquations govEqn = new ArtificialCompressibilityEquations(1.0, 0.01,
+                    new Vector(0, 0, 0));
+            BoundaryCondition wall = new WallBC(govEqn, new Vector(0, 0, 0));
+            BoundaryCondition lid = new WallBC(govEqn, new Vector(1, 0, 0));
+            Mesh mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(),
+                    name -> name.equals("eta max") ? lid : wall);
+            CellNeighborCalculator neighborCalculator = new FaceBasedCellNeighbors();
+            ResidualCalculator convection = new ConvectionResidual(
+                    new VKLimiterReconstructor(mesh, govEqn, neighborCalculator),
+                    new HLLC_AC_RiemannSolver(govEqn), mesh);
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh,
+                    new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, neighborCalculator),
+                            List.of(convection, new DiffusionResidual(mesh, govEqn))),
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+            SolutionInitializer initializer = new FunctionInitializer(p -> new double[]{0, 0, 0, 0});
+            return new Problem(mesh, govEqn, initializer, timeIntegrator);
+        }
+    },
+    /**
+     * Dam break of water in air with the HLLC flux, in dual time stepping.
+     */
+    VOF {
+        @Override
+        public Problem create(MeshType meshType, int numCells) {
+            ArtificialCompressibilityVOFEquations govEqn = (ArtificialCompressibilityVOFEquations)
+                    BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY_VOF.create();
+            BoundaryCondition wall = new InviscidWallVOFBC(govEqn);
+            Mesh mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(), name -> wall);
+            CellNeighborCalculator neighborCalculator = new FaceBasedCellNeighbors();
+            ResidualCalculator convection = new ConvectionResidual(
+                    new VKLimiterReconstructor(mesh, govEqn, neighborCalculator),
+                    new HLLC_VOF_RiemannSolver(govEqn), mesh);
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh,
+                    new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, neighborCalculator),
+                            List.of(convection, new DiffusionResidual(mesh, govEqn), new SourceResidual(mesh, govEqn))),
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+            timeIntegrator.setTimeDiscretization(new TwoPointTimeDiscretization(mesh, govEqn, 0.01));
+            SolutionInitializer initializer = new FunctionInitializer(
+                    p -> new double[]{0, 0, 0, 0, p.x < 0.4 && p.y < 0.6 ? 1.0 : 0.0});
+            return new Problem(mesh, govEqn, initializer, timeIntegrator);
+        }
+    },
+    /**
+     * Grain growth (Fan-Chen model) with 36 orientations from random nuclei, in dual time stepping.
+     */
+    GRAIN_GROWTH {
+        @Override
+        public Problem create(MeshType meshType, int numCells) {
+            GoverningEquations govEqn = BenchmarkEquations.GRAIN_GROWTH.create();
+            BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+            Mesh mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(), name -> extrapolated);
+            TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh,
+                    new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors()),
+                            List.of(new DiffusionResidual(mesh, govEqn), new SourceResidual(mesh, govEqn))),
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+            timeIntegrator.setTimeDiscretization(new TwoPointTimeDiscretization(mesh, govEqn, 0.1));
+            Random random = new Random(1324);
+            SolutionInitializer initializer = new FunctionInitializer(
+                    p -> DoubleArray.random(govEqn.numVars(), random, -0.001, 0.001));
+            return new Problem(mesh, govEqn, initializer, timeIntegrator);
+        }
+    };
+
+    public record Problem(Mesh mesh, GoverningEquations govEqn, SolutionInitializer initializer,
+                          TimeIntegrator timeIntegrator) {
+    }
+
+    /**
+     * Creates the mesh and the solver, including the setup of all the geometric tables.
+     */
+    public abstract Problem create(MeshType meshType, int numCells);
+}
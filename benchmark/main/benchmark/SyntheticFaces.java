@@ -0,0 +1,53 @@
+package main.benchmark;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Node;
+import main.mesh.Shape;
+import main.mesh.Surface;
+import main.physics.goveqn.GoverningEquations;
+
+import java.util.Random;
+
+/**
+ * Faces with random orientation between two cells with random states, for benchmarking flux and
+ * boundary condition kernels without a mesh. The states of the two cells are close to each other,
+ * as on the faces of a smooth solution.
+ */
+public class SyntheticFaces {
+
+    private SyntheticFaces() {
+    }
+
+    /**
+     * @param is2D true to keep the face normals in the x-y plane, as in the two-dimensional test cases.
+     */
+    public static Face[] create(BenchmarkEquations equations, GoverningEquations govEqn,
+                                int numFaces, boolean is2D, long seed) {
+        Random rnd = new Random(seed);
+        int numVars = govEqn.numVars();
+        Face[] faces = new Face[numFaces];
+        for (int i = 0; i < numFaces; i++) {
+            Vector normal = new Vector(rnd.nextGaussian(), rnd.nextGaussian(), is2D ? 0 : rnd.nextGaussian()).unit();
+            Point centroid = new Point(rnd.nextDouble(), rnd.nextDouble(), is2D ? 0 : rnd.nextDouble());
+            Cell left = cell(centroid.toVector().sub(normal.mult(0.5)).toPoint(), numVars);
+            Cell right = cell(centroid.toVector().add(normal.mult(0.5)).toPoint(), numVars);
+
+            double[] UL = equations.randomConservativeVars(govEqn, rnd);
+            double[] UR = equations.perturbedConservativeVars(govEqn, UL, rnd);
+            System.arraycopy(UL, 0, left.U, 0, numVars);
+            System.arraycopy(UR, 0, right.U, 0, numVars);
+
+            faces[i] = new Face(new Node[0], VTKType.VTK_QUAD, new Surface(1.0, centroid, normal),
+                    left, right, numVars);
+        }
+        return faces;
+    }
+
+    private static Cell cell(Point centroid, int numVars) {
+        return new Cell(new Node[0], VTKType.VTK_HEXAHEDRON, new Shape(1.0, centroid), numVars);
+    }
+}
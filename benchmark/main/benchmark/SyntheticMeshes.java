@@ -0,0 +1,120 @@
+package main.benchmark;
+
+import main.geom.Point;
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.physics.bc.BoundaryCondition;
+import main.physics.goveqn.GoverningEquations;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Meshes of the unit square or cube with approximately the requested number of cells, for benchmarks,
+ * built in memory by a {@link BoxMeshGenerator}.
+ * <p>
+ * The boundaries are named as in the structured meshes ("xi min", "xi max", "eta min", "eta max",
+ * "zeta min" and "zeta max") for all the mesh types. The interior nodes of the triangle and
+ * tetrahedron meshes are randomly displaced, so that they are not aligned with the axes.
+ */
+public class SyntheticMeshes {
+    public enum MeshType {
+        QUAD_2D, TRIANGLE_2D, HEX_3D, TET_3D;
+
+        public int dimension() {
+            return this == QUAD_2D || this == TRIANGLE_2D ? 2 : 3;
+        }
+
+        /**
+         * @return Number of cells along each direction, giving approximately numCells cells.
+         */
+        public int numDivisions(int numCells) {
+            return switch (this) {
+                case QUAD_2D -> (int) Math.max(1, Math.round(Math.sqrt(numCells)));
+                case TRIANGLE_2D -> (int) Math.max(1, Math.round(Math.sqrt(numCells / 2.0)));
+                case HEX_3D -> (int) Math.max(1, Math.round(Math.cbrt(numCells)));
+                case TET_3D -> (int) Math.max(1, Math.round(Math.cbrt(numCells / 6.0)));
+            };
+        }
+    }
+
+    private static final String[] BOUNDARY_NAMES = {"xi min", "xi max", "eta min", "eta max", "zeta min", "zeta max"};
+
+    private SyntheticMeshes() {
+    }
+
+    /**
+     * @param bcs Boundary condition of each named boundary, may return null.
+     */
+    public static Mesh create(MeshType type, int numCells, int numVars, Function<String, BoundaryCondition> bcs) {
+        int n = type.numDivisions(numCells);
+        return switch (type) {
+            case QUAD_2D -> new BoxMeshGenerator(n, n).structured2DMesh(numVars,
+                    bcs.apply("xi min"), bcs.apply("xi max"),
+                    bcs.apply("eta min"), bcs.apply("eta max"));
+            case HEX_3D -> new BoxMeshGenerator(n, n, n).structured3DMesh(numVars,
+                    bcs.apply("xi min"), bcs.apply("xi max"),
+                    bcs.apply("eta min"), bcs.apply("eta max"),
+                    bcs.apply("zeta min"), bcs.apply("zeta max"));
+            case TRIANGLE_2D -> {
+                BoxMeshGenerator generator = new BoxMeshGenerator(n, n);
+                generator.setMapping(jitter(n));
+                yield generator.triangleMesh(numVars, boundaryConditions(bcs, 4));
+            }
+            case TET_3D -> {
+                BoxMeshGenerator generator = new BoxMeshGenerator(n, n, n);
+                generator.setMapping(jitter(n));
+                yield generator.tetrahedronMesh(numVars, boundaryConditions(bcs, 6));
+            }
+        };
+    }
+
+    /**
+     * Sets random conservative variables in all the cells and the ghost cell values of the
+     * boundaries that have a boundary condition.
+     */
+    public static void initialize(Mesh mesh, BenchmarkEquations equations, GoverningEquations govEqn, long seed) {
+        Random rnd = new Random(seed);
+        for (Cell cell : mesh.cells()) {
+            System.arraycopy(equations.randomConservativeVars(govEqn, rnd), 0, cell.U, 0, cell.U.length);
+        }
+        mesh.boundaries().stream()
+                .filter(boundary -> boundary.bc().isPresent())
+                .forEach(boundary -> boundary.faces.forEach(boundary.bc().get()::setGhostCellValues));
+    }
+
+    private static Map<String, BoundaryCondition> boundaryConditions(Function<String, BoundaryCondition> bcs,
+                                                                     int numBoundaries) {
+        Map<String, BoundaryCondition> map = new HashMap<>();
+        for (int b = 0; b < numBoundaries; b++) {
+            BoundaryCondition bc = bcs.apply(BOUNDARY_NAMES[b]);
+            if (bc != null) map.put(BOUNDARY_NAMES[b], bc);
+        }
+        return map;
+    }
+
+    /**
+     * @return Mapping that randomly displaces the interior nodes of the unit square or cube with n
+     * divisions. The displacement of a node depends only on its indices, so that the mesh is the
+     * same when the nodes are mapped in parallel.
+     */
+    private static Function<Point, Point> jitter(int n) {
+        return p -> {
+            int i = (int) Math.round(p.x * n);
+            int j = (int) Math.round(p.y * n);
+            int k = (int) Math.round(p.z * n);
+            SplittableRandom rnd = new SplittableRandom(7 + ((long) i * (n + 1) + j) * (n + 1) + k);
+            return new Point(jitter(p.x, i, n, rnd), jitter(p.y, j, n, rnd), jitter(p.z, k, n, rnd));
+        };
+    }
+
+    private static double jitter(double x, int i, int n, SplittableRandom rnd) {
+        double displacement = (rnd.nextDouble() - 0.5) * 0.3 / n;
+        if (i == 0 || i == n) return x;
+        return x + displacement;
+    }
+}
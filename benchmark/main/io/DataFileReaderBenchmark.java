@@ -0,0 +1,91 @@
+package main.io;
+
+import main.geom.Point;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the points and the elements of a synthetic cfdu file with the {@link DataFileReader}, and
+ * with a line {@link Scanner} that splits each line by a regular expression as a baseline. The file
+ * size is printed in the setup, so that the time per operation gives the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataFileReaderBenchmark {
+    @Param({"100000", "1000000"})
+    public int numPoints;
+
+    private File meshFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        meshFile = File.createTempFile("data_file_reader_benchmark", ".cfdu");
+        meshFile.deleteOnExit();
+        Random random = new Random(17);
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(meshFile), StandardCharsets.UTF_8)))) {
+            writer.println("% Synthetic mesh");
+            writer.println("points = " + numPoints);
+            for (int i = 0; i < numPoints; i++) {
+                writer.printf("%1.8g %1.8g %1.8g%n", random.nextDouble(), random.nextDouble(), 0.0);
+            }
+            writer.println("elements = " + numPoints);
+            for (int i = 0; i < numPoints; i++) {
+                writer.println("5 " + random.nextInt(numPoints) + " " + random.nextInt(numPoints)
+                        + " " + random.nextInt(numPoints));
+            }
+        }
+        System.out.printf("%nFile size: %.1f MB%n", meshFile.length() / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!meshFile.delete()) System.out.println("Unable to delete temporary file: " + meshFile);
+    }
+
+    @Benchmark
+    public long dataFileReader() throws FileNotFoundException {
+        long checksum = 0;
+        try (DataFileReader reader = new DataFileReader(meshFile, "%")) {
+            int numPoints = reader.readIntParameter("points");
+            for (int i = 0; i < numPoints; i++) {
+                checksum += Double.doubleToLongBits(reader.readXYZ().x);
+            }
+            int numElements = reader.readIntParameter("elements");
+            for (int i = 0; i < numElements; i++) {
+                checksum += reader.readIntArray()[1];
+            }
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public long scannerBaseline() throws FileNotFoundException {
+        long checksum = 0;
+        try (Scanner scanner = new Scanner(meshFile)) {
+            scanner.nextLine();
+            int numPoints = Integer.parseInt(scanner.nextLine().split("=")[1].trim());
+            for (int i = 0; i < numPoints; i++) {
+                String[] tokens = scanner.nextLine().trim().split("\\s+");
+                Point point = new Point(Double.parseDouble(tokens[0]), Double.parseDouble(tokens[1]),
+                        Double.parseDouble(tokens[2]));
+                checksum += Double.doubleToLongBits(point.x);
+            }
+            int numElements = Integer.parseInt(scanner.nextLine().split("=")[1].trim());
+            for (int i = 0; i < numElements; i++) {
+                String[] tokens = scanner.nextLine().trim().split("\\s+");
+                checksum += Integer.parseInt(tokens[1]);
+            }
+        }
+        return checksum;
+    }
+}
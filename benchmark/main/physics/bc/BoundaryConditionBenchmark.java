@@ -0,0 +1,86 @@
+package main.physics.bc;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.SyntheticFaces;
+import main.geom.Vector;
+import main.mesh.Face;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of the boundary conditions per boundary face. Run with {@code -prof gc} to see the bytes
+ * allocated per face (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundaryConditionBenchmark {
+    private static final int NUM_FACES = 4096;
+
+    public enum Case {
+        EXTRAPOLATED(BenchmarkEquations.EULER, ExtrapolatedBC::new),
+        INVISCID_WALL(BenchmarkEquations.EULER,
+                govEqn -> new InviscidWallBC((EulerEquations) govEqn)),
+        INVISCID_WALL_VOF(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY_VOF,
+                govEqn -> new InviscidWallVOFBC((ArtificialCompressibilityVOFEquations) govEqn)),
+        NORMAL_INLET(BenchmarkEquations.EULER,
+                govEqn -> new NormalInletBC((EulerEquations) govEqn,
+                        new NormalInletBC.InletProperties(2.0, 1.0, 1.0 / 1.4))),
+        PRESSURE_OUTLET(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY,
+                govEqn -> new PressureOutletBC((ArtificialCompressibilityEquations) govEqn, 0.0)),
+        VELOCITY_INLET(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY,
+                govEqn -> new VelocityInletBC((ArtificialCompressibilityEquations) govEqn, new Vector(1, 0, 0))),
+        WALL(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY,
+                govEqn -> new WallBC((ArtificialCompressibilityEquations) govEqn, new Vector(1, 0, 0))),
+        WALL_VOF(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY_VOF,
+                govEqn -> new WallVOFBC((ArtificialCompressibilityVOFEquations) govEqn, new Vector(0, 0, 0)));
+
+        final BenchmarkEquations equations;
+        final Function<GoverningEquations, BoundaryCondition> bc;
+
+        Case(BenchmarkEquations equations, Function<GoverningEquations, BoundaryCondition> bc) {
+            this.equations = equations;
+            this.bc = bc;
+        }
+    }
+
+    @Param
+    public Case bcCase;
+
+    private BoundaryCondition bc;
+    private Face[] faces;
+
+    @Setup
+    public void setup() {
+        GoverningEquations govEqn = bcCase.equations.create();
+        bc = bcCase.bc.apply(govEqn);
+        // The right cell of each face is the ghost cell
+        faces = SyntheticFaces.create(bcCase.equations, govEqn, NUM_FACES, false, 23);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FACES)
+    public void setGhostCellValues() {
+        for (Face face : faces) {
+            bc.setGhostCellValues(face);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FACES)
+    public void convectiveFlux(Blackhole blackhole) {
+        for (Face face : faces) {
+            blackhole.consume(bc.convectiveFlux(face));
+        }
+    }
+}
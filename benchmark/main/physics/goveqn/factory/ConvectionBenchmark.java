@@ -0,0 +1,54 @@
+package main.physics.goveqn.factory;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.SyntheticFaces;
+import main.mesh.Face;
+import main.physics.goveqn.Convection;
+import main.physics.goveqn.GoverningEquations;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the convective flux and the maximum absolute eigenvalue per face for all the governing
+ * equations. Run with {@code -prof gc} to see the bytes allocated per face (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConvectionBenchmark {
+    private static final int NUM_FACES = 4096;
+
+    @Param
+    public BenchmarkEquations equations;
+
+    private Convection convection;
+    private Face[] faces;
+
+    @Setup
+    public void setup() {
+        GoverningEquations govEqn = equations.create();
+        convection = govEqn.convection();
+        faces = SyntheticFaces.create(equations, govEqn, NUM_FACES, false, 17);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FACES)
+    public void flux(Blackhole blackhole) {
+        for (Face face : faces) {
+            blackhole.consume(convection.flux(face.left.U, face.surface.unitNormal()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FACES)
+    public void maxAbsEigenvalues(Blackhole blackhole) {
+        for (Face face : faces) {
+            blackhole.consume(convection.maxAbsEigenvalues(face.left.U, face.surface.unitNormal()));
+        }
+    }
+}
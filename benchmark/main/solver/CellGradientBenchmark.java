@@ -0,0 +1,65 @@
+package main.solver;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.Execution;
+import main.benchmark.SyntheticMeshes;
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.mesh.Mesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.GoverningEquations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setup and per-iteration cost of the least-square and Green-Gauss cell gradients of the Euler
+ * equations. Run with {@code -prof gc} to see the bytes allocated per call (gc.alloc.rate.norm).
+ * The meshes with 10^6 cells need a larger heap, e.g. {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellGradientBenchmark {
+    @Param
+    public MeshType meshType;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numCells;
+
+    @Param
+    public Execution execution;
+
+    private Mesh mesh;
+    private LeastSquareCellGradient leastSquare;
+    private GreenGaussCellGradient greenGauss;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GoverningEquations govEqn = BenchmarkEquations.EULER.create();
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(), name -> bc);
+        SyntheticMeshes.initialize(mesh, BenchmarkEquations.EULER, govEqn, 11);
+        leastSquare = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors());
+        greenGauss = new GreenGaussCellGradient(mesh);
+    }
+
+    @Benchmark
+    public LeastSquareCellGradient leastSquareSetup() {
+        LeastSquareCellGradient[] gradient = new LeastSquareCellGradient[1];
+        execution.run(() -> gradient[0] = new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors()));
+        return gradient[0];
+    }
+
+    @Benchmark
+    public void leastSquare() {
+        execution.run(leastSquare::setupAllCells);
+    }
+
+    @Benchmark
+    public void greenGauss() {
+        execution.run(greenGauss::setupAllCells);
+    }
+}
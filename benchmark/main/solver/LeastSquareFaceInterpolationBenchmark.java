@@ -0,0 +1,59 @@
+package main.solver;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.Execution;
+import main.benchmark.SyntheticMeshes;
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.mesh.Mesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.GoverningEquations;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setup and per-iteration cost of the least-square face interpolation of the Euler equations. Run
+ * with {@code -prof gc} to see the bytes allocated per call (gc.alloc.rate.norm). The meshes with
+ * 10^6 cells need a larger heap, e.g. {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeastSquareFaceInterpolationBenchmark {
+    @Param
+    public MeshType meshType;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numCells;
+
+    @Param
+    public Execution execution;
+
+    private Mesh mesh;
+    private LeastSquareFaceInterpolation interpolation;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        GoverningEquations govEqn = BenchmarkEquations.EULER.create();
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(), name -> bc);
+        SyntheticMeshes.initialize(mesh, BenchmarkEquations.EULER, govEqn, 13);
+        new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors()).setupAllCells();
+        interpolation = new LeastSquareFaceInterpolation(mesh);
+    }
+
+    @Benchmark
+    public LeastSquareFaceInterpolation setupCost() {
+        LeastSquareFaceInterpolation[] interpolation = new LeastSquareFaceInterpolation[1];
+        execution.run(() -> interpolation[0] = new LeastSquareFaceInterpolation(mesh));
+        return interpolation[0];
+    }
+
+    @Benchmark
+    public void setupAllFaces() {
+        execution.run(interpolation::setupAllFaces);
+    }
+}
@@ -0,0 +1,63 @@
+package main.solver.convection.reconstructor;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.Execution;
+import main.benchmark.SyntheticMeshes;
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.mesh.Mesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.GoverningEquations;
+import main.solver.FaceBasedCellNeighbors;
+import main.solver.LeastSquareCellGradient;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setup and per-iteration cost of the Venkatakrishnan limiter reconstruction of the Euler
+ * equations. Only the limiter is measured, the gradients are calculated once in the setup. Run
+ * with {@code -prof gc} to see the bytes allocated per call (gc.alloc.rate.norm). The meshes with
+ * 10^6 cells need a larger heap, e.g. {@code -jvmArgsAppend -Xmx8g}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VKLimiterReconstructorBenchmark {
+    @Param
+    public MeshType meshType;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numCells;
+
+    @Param
+    public Execution execution;
+
+    private Mesh mesh;
+    private GoverningEquations govEqn;
+    private VKLimiterReconstructor reconstructor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        govEqn = BenchmarkEquations.EULER.create();
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        mesh = SyntheticMeshes.create(meshType, numCells, govEqn.numVars(), name -> bc);
+        SyntheticMeshes.initialize(mesh, BenchmarkEquations.EULER, govEqn, 17);
+        new LeastSquareCellGradient(mesh, new FaceBasedCellNeighbors()).setupAllCells();
+        reconstructor = new VKLimiterReconstructor(mesh, govEqn, new FaceBasedCellNeighbors());
+    }
+
+    @Benchmark
+    public VKLimiterReconstructor setupCost() {
+        VKLimiterReconstructor[] reconstructor = new VKLimiterReconstructor[1];
+        execution.run(() -> reconstructor[0] = new VKLimiterReconstructor(mesh, govEqn, new FaceBasedCellNeighbors()));
+        return reconstructor[0];
+    }
+
+    @Benchmark
+    public void reconstruct() {
+        execution.run(reconstructor::reconstruct);
+    }
+}
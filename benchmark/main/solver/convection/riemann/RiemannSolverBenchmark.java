@@ -0,0 +1,71 @@
+package main.solver.convection.riemann;
+
+import main.benchmark.BenchmarkEquations;
+import main.benchmark.SyntheticFaces;
+import main.mesh.Face;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of the Riemann solvers per face, for the governing equations they are used with in the
+ * solver test cases. Run with {@code -prof gc} to see the bytes allocated per face
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiemannSolverBenchmark {
+    private static final int NUM_FACES = 4096;
+
+    public enum Case {
+        HLL_EULER(BenchmarkEquations.EULER, HLLRiemannSolver::new),
+        HLL_AC(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY, HLLRiemannSolver::new),
+        HLL_AC_VOF(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY_VOF, HLLRiemannSolver::new),
+        RUSANOV_EULER(BenchmarkEquations.EULER, RusanovRiemannSolver::new),
+        RUSANOV_AC(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY, RusanovRiemannSolver::new),
+        RUSANOV_GRAIN_GROWTH(BenchmarkEquations.GRAIN_GROWTH, RusanovRiemannSolver::new),
+        RUSANOV_VOLUME_FRACTION(BenchmarkEquations.VOLUME_FRACTION_ADVECTION, RusanovRiemannSolver::new),
+        HLLC_AC(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY,
+                govEqn -> new HLLC_AC_RiemannSolver((ArtificialCompressibilityEquations) govEqn)),
+        HLLC_VOF(BenchmarkEquations.ARTIFICIAL_COMPRESSIBILITY_VOF,
+                govEqn -> new HLLC_VOF_RiemannSolver((ArtificialCompressibilityVOFEquations) govEqn));
+
+        final BenchmarkEquations equations;
+        final Function<GoverningEquations, RiemannSolver> riemannSolver;
+
+        Case(BenchmarkEquations equations, Function<GoverningEquations, RiemannSolver> riemannSolver) {
+            this.equations = equations;
+            this.riemannSolver = riemannSolver;
+        }
+    }
+
+    @Param
+    public Case riemannCase;
+
+    private RiemannSolver riemannSolver;
+    private Face[] faces;
+
+    @Setup
+    public void setup() {
+        GoverningEquations govEqn = riemannCase.equations.create();
+        riemannSolver = riemannCase.riemannSolver.apply(govEqn);
+        faces = SyntheticFaces.create(riemannCase.equations, govEqn, NUM_FACES, false, 31);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_FACES)
+    public void flux(Blackhole blackhole) {
+        for (Face face : faces) {
+            blackhole.consume(riemannSolver.flux(face.left.U, face.right.U, face));
+        }
+    }
+}
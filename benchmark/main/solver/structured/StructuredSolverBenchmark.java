@@ -0,0 +1,99 @@
+package main.solver.structured;
+
+import main.benchmark.Execution;
+import main.geom.Point;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.mesh.factory.Structured2DMesh;
+import main.mesh.factory.Structured3DMesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.FunctionInitializer;
+import main.solver.SpaceDiscretization;
+import main.solver.ZeroCellGradient;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.riemann.HLLRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * One first order iteration of the Euler equations with the HLL Riemann solver on a structured
+ * grid of about n x n cells: an n x n grid in 2D and an m x m x m grid in 3D, with m the cube root
+ * of n x n. The grid is solved with the cells and faces of a {@link Structured2DMesh} or a
+ * {@link Structured3DMesh}, and with the {@link StructuredSolver2D} or the
+ * {@link StructuredSolver3D}. Both give the same solution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StructuredSolverBenchmark {
+    @Param({"100", "300", "1000"})
+    public int n;
+
+    @Param({"2", "3"})
+    public int dimension;
+
+    @Param
+    public Execution execution;
+
+    private TimeIntegrator meshIntegrator;
+    private Runnable structuredIteration;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        Function<Point, double[]> initial = p -> govEqn.conservativeVars(
+                new double[]{1.2 + 0.2 * p.x, 100 + 20 * p.y, 10 * p.x, 5 * p.z, 101325});
+
+        Mesh mesh;
+        if (dimension == 2) {
+            BoxMeshGenerator generator = new BoxMeshGenerator(n, n);
+            generator.setMapping(p -> new Point(p.x + 0.1 * p.y, p.y, 0));
+            Point[][] nodes = generator.points2D();
+            mesh = new Structured2DMesh(nodes, govEqn.numVars(), bc, bc, bc, bc);
+
+            StructuredSolver2D solver = new StructuredSolver2D(new StructuredGrid2D(nodes), govEqn,
+                    new HLLRiemannSolver(govEqn), bc, bc, bc, bc);
+            solver.initialize(initial);
+            structuredIteration = solver::updateCellAverages;
+        } else {
+            int m = (int) Math.round(Math.cbrt((double) n * n));
+            BoxMeshGenerator generator = new BoxMeshGenerator(m, m, m);
+            generator.setMapping(p -> new Point(p.x + 0.1 * p.y, p.y + 0.1 * p.z, p.z));
+            Point[][][] nodes = generator.points3D();
+            mesh = new Structured3DMesh(nodes, govEqn.numVars(), bc, bc, bc, bc, bc, bc);
+
+            StructuredSolver3D solver = new StructuredSolver3D(new StructuredGrid3D(nodes), govEqn,
+                    new HLLRiemannSolver(govEqn), bc, bc, bc, bc, bc, bc);
+            solver.initialize(initial);
+            structuredIteration = solver::updateCellAverages;
+        }
+
+        new FunctionInitializer(initial).initialize(mesh, govEqn);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(new ConvectionResidual(new PiecewiseConstantReconstructor(), new HLLRiemannSolver(govEqn), mesh)));
+        meshIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+    }
+
+    @Benchmark
+    public void mesh() {
+        execution.run(meshIntegrator::updateCellAverages);
+    }
+
+    @Benchmark
+    public void structured() {
+        execution.run(structuredIteration);
+    }
+}
@@ -0,0 +1,100 @@
+package main.util;
+
+import main.benchmark.Execution;
+import main.benchmark.SyntheticMeshes;
+import main.benchmark.SyntheticMeshes.MeshType;
+import main.mesh.Mesh;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Block sparse kernels on the face graph of the synthetic meshes: matrix-vector product,
+ * block-Jacobi and block-ILU(0) factorization and application, and ten BiCGSTAB iterations with
+ * the reused Krylov workspace. The matrix has random values with dominant diagonal blocks. Run with
+ * {@code -prof gc} to check that the kernels do not allocate arrays (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BSRMatrixBenchmark {
+    @Param
+    public MeshType meshType;
+
+    @Param({"10000", "100000", "1000000"})
+    public int numCells;
+
+    @Param({"1", "5"})
+    public int blockSize;
+
+    @Param
+    public Execution execution;
+
+    private BSRMatrix matrix;
+    private BlockJacobi blockJacobi;
+    private BlockILU0 blockILU0;
+    private KrylovWorkspace workspace;
+    private double[] x;
+    private double[] y;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Mesh mesh = SyntheticMeshes.create(meshType, numCells, 1, name -> null);
+        matrix = new BSRMatrix(mesh, blockSize);
+        Random random = new Random(17);
+        double[] values = matrix.values();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble() - 0.5;
+        }
+        for (int row = 0; row < matrix.numBlockRows(); row++) {
+            for (int i = 0; i < blockSize; i++) {
+                matrix.add(matrix.diagonalIndex(row), i, i, 10.0 * blockSize);
+            }
+        }
+        blockJacobi = new BlockJacobi(matrix);
+        blockILU0 = new BlockILU0(matrix);
+        workspace = new KrylovWorkspace(matrix.numRows());
+        x = new double[matrix.numRows()];
+        y = new double[matrix.numRows()];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public double[] multiply() {
+        execution.run(() -> matrix.multiply(x, y));
+        return y;
+    }
+
+    @Benchmark
+    public double[] blockJacobiApply() {
+        execution.run(() -> blockJacobi.apply(x, y));
+        return y;
+    }
+
+    @Benchmark
+    public void blockILU0Factorize() {
+        execution.run(blockILU0::factorize);
+    }
+
+    @Benchmark
+    public double[] blockILU0Apply() {
+        execution.run(() -> blockILU0.apply(x, y));
+        return y;
+    }
+
+    @Benchmark
+    public double[] bicgstab10Iterations() {
+        execution.run(() -> {
+            Arrays.fill(y, 0.0);
+            workspace.bicgstab(matrix::multiply, blockILU0::apply, x, y, 0.0, 10);
+        });
+        return y;
+    }
+}
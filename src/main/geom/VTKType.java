@@ -1,6 +1,5 @@
 package main.geom;
 
-import java.util.Arrays;
 import java.util.NoSuchElementException;
 
 public enum VTKType {
@@ -32,10 +31,21 @@ public enum VTKType {
         this.dim = dim;
     }
 
+    private static final VTKType[] BY_ID = new VTKType[26];
+
+    static {
+        for (VTKType vtkType : values()) {
+            BY_ID[vtkType.ID] = vtkType;
+        }
+    }
+
     public static VTKType get(int id) {
-        return Arrays.stream(VTKType.values())
-                .filter(e -> e.ID == id)
-                .findAny().orElseThrow(() -> new NoSuchElementException("No VTKType for id: " + id));
+        // Looked up for each element of the mesh files
+        VTKType vtkType = id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+        if (vtkType == null) {
+            throw new NoSuchElementException("No VTKType for id: " + id);
+        }
+        return vtkType;
     }
 
     /**
@@ -0,0 +1,168 @@
+package main.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+
+/**
+ * A DataArray of a VTK XML file stored in the {@code <AppendedData encoding="raw">} section.
+ * The array is encoded once (little endian, UInt64 headers) and can be written any number of times.
+ * When compressed, the raw bytes are split into blocks of {@link #BLOCK_SIZE} which are
+ * compressed in parallel using zlib, as expected by vtkZLibDataCompressor.
+ */
+final class AppendedDataArray {
+    /**
+     * Same as the default block size used by VTK.
+     */
+    static final int BLOCK_SIZE = 1 << 15;
+    static final String ZLIB_COMPRESSOR = "vtkZLibDataCompressor";
+
+    private final String name;
+    private final String type;
+    private final int numComponents;
+    private final ByteBuffer[] encoded;
+    private final long numEncodedBytes;
+
+    private AppendedDataArray(String name, String type, int numComponents, ByteBuffer raw, int compressionLevel) {
+        this.name = name;
+        this.type = type;
+        this.numComponents = numComponents;
+        this.encoded = compressionLevel == Deflater.NO_COMPRESSION
+                ? rawBlocks(raw)
+                : compressedBlocks(raw, compressionLevel);
+
+        long numBytes = 0;
+        for (ByteBuffer buffer : encoded) {
+            numBytes += buffer.remaining();
+        }
+        this.numEncodedBytes = numBytes;
+    }
+
+    static AppendedDataArray float64(String name, int numComponents, double[] values, int compressionLevel) {
+        ByteBuffer raw = allocate(values.length * Double.BYTES);
+        raw.asDoubleBuffer().put(values);
+        return new AppendedDataArray(name, "Float64", numComponents, raw, compressionLevel);
+    }
+
+    static AppendedDataArray int64(String name, long[] values, int compressionLevel) {
+        ByteBuffer raw = allocate(values.length * Long.BYTES);
+        raw.asLongBuffer().put(values);
+        return new AppendedDataArray(name, "Int64", 1, raw, compressionLevel);
+    }
+
+    static AppendedDataArray uInt8(String name, byte[] values, int compressionLevel) {
+        ByteBuffer raw = allocate(values.length);
+        raw.put(values).flip();
+        return new AppendedDataArray(name, "UInt8", 1, raw, compressionLevel);
+    }
+
+    private static ByteBuffer allocate(int numBytes) {
+        return ByteBuffer.allocate(numBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static ByteBuffer[] rawBlocks(ByteBuffer raw) {
+        ByteBuffer header = allocate(Long.BYTES);
+        header.putLong(raw.remaining()).flip();
+
+        return new ByteBuffer[]{header, raw};
+    }
+
+    private static ByteBuffer[] compressedBlocks(ByteBuffer raw, int compressionLevel) {
+        int numBytes = raw.remaining();
+        int numBlocks = (numBytes + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        int lastBlockSize = numBytes % BLOCK_SIZE; // zero when the last block is full
+
+        byte[] rawBytes = raw.array();
+        ByteBuffer[] blocks = new ByteBuffer[numBlocks + 1];
+        IntStream.range(0, numBlocks).parallel().forEach(block -> {
+            int from = block * BLOCK_SIZE;
+            int length = Math.min(BLOCK_SIZE, numBytes - from);
+            blocks[block + 1] = deflate(rawBytes, from, length, compressionLevel);
+        });
+
+        ByteBuffer header = allocate((3 + numBlocks) * Long.BYTES);
+        header.putLong(numBlocks);
+        header.putLong(BLOCK_SIZE);
+        header.putLong(lastBlockSize);
+        for (int block = 0; block < numBlocks; block++) {
+            header.putLong(blocks[block + 1].remaining());
+        }
+        blocks[0] = header.flip();
+
+        return blocks;
+    }
+
+    private static ByteBuffer deflate(byte[] bytes, int from, int length, int compressionLevel) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(bytes, from, length);
+            deflater.finish();
+            // zlib never expands a block beyond this bound
+            byte[] output = new byte[length + length / 1000 + 64];
+            int compressedLength = 0;
+            while (!deflater.finished()) {
+                if (compressedLength == output.length) {
+                    output = Arrays.copyOf(output, output.length * 2);
+                }
+                compressedLength += deflater.deflate(output, compressedLength, output.length - compressedLength);
+            }
+            return ByteBuffer.wrap(output, 0, compressedLength);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    long numEncodedBytes() {
+        return numEncodedBytes;
+    }
+
+    /**
+     * @param offset Offset of the array from the start of the appended data.
+     * @return XML DataArray element referring to the appended data.
+     */
+    String xml(long offset) {
+        return "<DataArray type=\"" + type + "\" Name=\"" + escape(name) + "\""
+                + (numComponents > 1 ? " NumberOfComponents=\"" + numComponents + "\"" : "")
+                + " format=\"appended\" offset=\"" + offset + "\"/>";
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;")
+                .replace("\"", "&quot;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+
+    /**
+     * Writes the XML header, the appended arrays (in the same order as their offsets in the header)
+     * and the XML footer.
+     *
+     * @param channel File channel to write to.
+     * @param header  XML text up to and including the {@code <AppendedData encoding="raw">} tag.
+     * @param arrays  Arrays referred to in the header.
+     * @param footer  XML text after the appended data.
+     * @throws IOException if unable to write to the channel.
+     */
+    static void write(FileChannel channel, String header, List<AppendedDataArray> arrays, String footer) throws IOException {
+        writeFully(channel, ByteBuffer.wrap((header + "\n_").getBytes(StandardCharsets.UTF_8)));
+        for (AppendedDataArray array : arrays) {
+            for (ByteBuffer buffer : array.encoded) {
+                // duplicate, so that the same encoded array can be written again
+                writeFully(channel, buffer.duplicate());
+            }
+        }
+        writeFully(channel, ByteBuffer.wrap(("\n" + footer).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package main.io;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the tokens, lines and binary values of a file directly from a byte buffer, without creating
+ * a String for each line or number.
+ * <p>
+ * The tokens are separated by spaces, tabs and line ends. The text from the comment string to the
+ * end of a line is ignored, and so are the blank lines. The numbers are parsed from the bytes of the
+ * token. A decimal number with up to 18 significant digits and a small exponent is computed with
+ * one exact multiplication or division, which gives the same double as {@link Double#parseDouble}.
+ * The other numbers are parsed by {@link Double#parseDouble}.
+ */
+public class ByteTokenizer implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final ReadableByteChannel channel;
+    private final byte[] comment;
+    private final byte[] bytes;
+    private final ByteBuffer buffer;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private byte[] token = new byte[64];
+    private int tokenLength;
+
+    public ByteTokenizer(File file, String commentStr) throws FileNotFoundException {
+        this(new FileInputStream(file).getChannel(), commentStr, BUFFER_SIZE);
+    }
+
+    /**
+     * @param commentStr Start of the comments, or null if the file has no comments.
+     * @param bufferSize Size of the buffer, larger than the comment string.
+     */
+    public ByteTokenizer(ReadableByteChannel channel, String commentStr, int bufferSize) {
+        this.channel = channel;
+        this.comment = commentStr == null || commentStr.isEmpty() ? null : commentStr.getBytes(StandardCharsets.UTF_8);
+        if (bufferSize < 8 || (comment != null && bufferSize < comment.length)) {
+            throw new IllegalArgumentException("The buffer is too small.");
+        }
+        this.bytes = new byte[bufferSize];
+        this.buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param byteOrder Byte order of the binary values, little endian by default.
+     */
+    public void setByteOrder(ByteOrder byteOrder) {
+        buffer.order(byteOrder);
+    }
+
+    /**
+     * @return Whether there is another token in the file.
+     */
+    public boolean hasNext() {
+        skipBlank();
+        return peek() != -1;
+    }
+
+    /**
+     * @return Whether the rest of the current line is blank or a comment.
+     */
+    public boolean endOfLine() {
+        skipSpaces();
+        int next = peek();
+        return next == '\n' || next == -1;
+    }
+
+    /**
+     * Skips the rest of the current line, including its line end.
+     */
+    public void skipLine() {
+        while (true) {
+            if (position == limit && !fill(1)) return;
+            for (int i = position; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    position = i + 1;
+                    return;
+                }
+            }
+            position = limit;
+        }
+    }
+
+    /**
+     * @return Rest of the current line, without the comment and the surrounding spaces. The line
+     * end is skipped.
+     */
+    public String restOfLine() {
+        skipSpaces();
+        tokenLength = 0;
+        int next;
+        while ((next = peek()) != -1 && next != '\n' && !atComment()) {
+            append((byte) next);
+            position++;
+        }
+        skipLine();
+        while (tokenLength > 0 && isSpace(token[tokenLength - 1])) {
+            tokenLength--;
+        }
+
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the next non-blank line as "param = value".
+     *
+     * @return The value of the parameter.
+     */
+    public String readParameter(String param) {
+        skipBlank();
+        if (peek() == -1) {
+            throw new NoSuchElementException("No line found");
+        }
+        String[] tokens = restOfLine().split("=");
+        if (!tokens[0].trim().equals(param))
+            throw new IllegalArgumentException("The expected parameter \"" + param + "\" does not exist at the location.");
+
+        return tokens[1].trim();
+    }
+
+    /**
+     * Reads the next non-blank line as "param = value", where the integer value may be followed by
+     * other numbers, such as the number of points of the partition after the total number of points
+     * in a su2 file.
+     *
+     * @return The first number of the value.
+     */
+    public int readIntParameter(String param) {
+        return Integer.parseInt(readParameter(param).split("\\s+")[0]);
+    }
+
+    public String nextToken() {
+        readToken();
+        return new String(token, 0, tokenLength, StandardCharsets.UTF_8);
+    }
+
+    public int nextInt() {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("For input string: \"" + tokenString() + "\"");
+        }
+        return (int) value;
+    }
+
+    public long nextLong() {
+        readToken();
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') i++;
+        if (i == tokenLength || tokenLength - i > 18) {
+            return Long.parseLong(tokenString());
+        }
+        long value = 0;
+        for (; i < tokenLength; i++) {
+            int digit = token[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + tokenString() + "\"");
+            }
+            value = 10 * value + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    public double nextDouble() {
+        readToken();
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') i++;
+
+        long mantissa = 0;
+        int numDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        for (; i < tokenLength && isDigit(token[i]); i++) {
+            hasDigits = true;
+            if (mantissa != 0 || token[i] != '0') {
+                if (++numDigits > 18) return parseToken();
+                mantissa = 10 * mantissa + (token[i] - '0');
+            }
+        }
+        if (i < tokenLength && token[i] == '.') {
+            for (i++; i < tokenLength && isDigit(token[i]); i++) {
+                hasDigits = true;
+                if (mantissa != 0 || token[i] != '0') {
+                    if (++numDigits > 18) return parseToken();
+                    mantissa = 10 * mantissa + (token[i] - '0');
+                }
+                exponent--;
+            }
+        }
+        if (!hasDigits) return parseToken();
+        if (i < tokenLength && (token[i] == 'e' || token[i] == 'E')) {
+            i++;
+            boolean negativeExponent = i < tokenLength && token[i] == '-';
+            if (i < tokenLength && (token[i] == '-' || token[i] == '+')) i++;
+            if (i == tokenLength || tokenLength - i > 4) return parseToken();
+            int exponentValue = 0;
+            for (; i < tokenLength; i++) {
+                if (!isDigit(token[i])) return parseToken();
+                exponentValue = 10 * exponentValue + (token[i] - '0');
+            }
+            exponent += negativeExponent ? -exponentValue : exponentValue;
+        }
+        if (i != tokenLength || mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            return parseToken();
+        }
+
+        // The mantissa and the power of ten are exact, so the result is correctly rounded
+        double value = exponent < 0
+                ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    public int readBinaryInt() {
+        require(Integer.BYTES);
+        int value = buffer.getInt(position);
+        position += Integer.BYTES;
+        return value;
+    }
+
+    public long readBinaryLong() {
+        require(Long.BYTES);
+        long value = buffer.getLong(position);
+        position += Long.BYTES;
+        return value;
+    }
+
+    public double readBinaryDouble() {
+        require(Double.BYTES);
+        double value = buffer.getDouble(position);
+        position += Double.BYTES;
+        return value;
+    }
+
+    private double parseToken() {
+        return Double.parseDouble(tokenString());
+    }
+
+    private String tokenString() {
+        return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Copies the next token to the token array.
+     */
+    private void readToken() {
+        skipBlank();
+        tokenLength = 0;
+        while (position < limit || fill(1)) {
+            // Scans the buffer directly, and copies the bytes of the token once
+            int end = position;
+            while (end < limit && isTokenByte(bytes[end])) {
+                end++;
+            }
+            appendBytes(position, end);
+            position = end;
+            if (end < limit) {
+                if (comment == null || bytes[end] != comment[0] || atComment()) break;
+                // The first byte of the comment string without the rest of it, which is part of the token
+                append(bytes[position++]);
+            }
+        }
+        if (tokenLength == 0) {
+            throw new NoSuchElementException("No token found");
+        }
+    }
+
+    /**
+     * @return Whether the byte is part of a token: not a space, a line end or the start of a comment.
+     */
+    private boolean isTokenByte(byte b) {
+        return !isSpace(b) && b != '\n' && (comment == null || b != comment[0]);
+    }
+
+    private void appendBytes(int from, int to) {
+        int length = to - from;
+        if (tokenLength + length > token.length) {
+            byte[] larger = new byte[Math.max(2 * token.length, tokenLength + length)];
+            System.arraycopy(token, 0, larger, 0, tokenLength);
+            token = larger;
+        }
+        System.arraycopy(bytes, from, token, tokenLength, length);
+        tokenLength += length;
+    }
+
+    private void append(byte b) {
+        if (tokenLength == token.length) {
+            byte[] larger = new byte[2 * token.length];
+            System.arraycopy(token, 0, larger, 0, tokenLength);
+            token = larger;
+        }
+        token[tokenLength++] = b;
+    }
+
+    /**
+     * Skips the spaces, the comments and the line ends.
+     */
+    private void skipBlank() {
+        while (true) {
+            skipSpaces();
+            if (peek() != '\n') return;
+            position++;
+        }
+    }
+
+    /**
+     * Skips the spaces and the comment on the current line, but not the line end.
+     */
+    private void skipSpaces() {
+        int next;
+        while ((next = peek()) != -1) {
+            if (isSpace((byte) next)) {
+                position++;
+            } else if (atComment()) {
+                while ((next = peek()) != -1 && next != '\n') {
+                    position++;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean atComment() {
+        if (comment == null || bytes[position] != comment[0]) return false;
+        if (!fill(comment.length)) return false;
+        for (int i = 1; i < comment.length; i++) {
+            if (bytes[position + i] != comment[i]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * @return Next byte, or -1 at the end of the file.
+     */
+    private int peek() {
+        if (position == limit && !fill(1)) return -1;
+        return bytes[position] & 0xff;
+    }
+
+    private void require(int numBytes) {
+        if (!fill(numBytes)) {
+            throw new NoSuchElementException("Unexpected end of the file.");
+        }
+    }
+
+    /**
+     * Reads more of the file until the buffer has the number of bytes after the position.
+     *
+     * @return Whether the buffer has the bytes.
+     */
+    private boolean fill(int numBytes) {
+        if (limit - position >= numBytes) return true;
+        if (endOfInput) return false;
+
+        int remaining = limit - position;
+        System.arraycopy(bytes, position, bytes, 0, remaining);
+        position = 0;
+        limit = remaining;
+        try {
+            while (limit < numBytes) {
+                buffer.limit(bytes.length).position(limit);
+                int numRead = channel.read(buffer);
+                if (numRead < 0) {
+                    endOfInput = true;
+                    return false;
+                }
+                limit += numRead;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+}
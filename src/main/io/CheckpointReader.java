@@ -0,0 +1,185 @@
+package main.io;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.solver.time.TimeDiscretizationKind;
+import main.util.Dispatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static main.io.CheckpointWriter.*;
+
+/**
+ * Reads a checkpoint file written by {@link CheckpointWriter}. The header and the size of the file
+ * are checked when the reader is created. The solution is read by {@link #readInto(Mesh)} in chunks
+ * through a single buffer: a first pass verifies the checksum, so that the cells are not modified
+ * if the file is corrupted, and a second pass copies the values to the cells.
+ */
+public class CheckpointReader {
+    private final File file;
+    private final ByteBuffer header;
+
+    private final TimeDiscretizationKind timeDiscretizationKind;
+    private final long numCells;
+    private final int numVars;
+    private final double real_dt;
+    private final double realTime;
+    private final long realTimeIteration;
+    private final long pseudoIteration;
+
+    public CheckpointReader(File file) throws IOException {
+        this.file = file;
+        this.header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            readFully(channel, header);
+        }
+        header.flip();
+
+        if (header.getLong() != MAGIC) {
+            throw new IOException("Not a checkpoint file: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + " in file: " + file);
+        }
+        int kind = header.getInt();
+        if (kind < 0 || kind >= TimeDiscretizationKind.values().length) {
+            throw new IOException("Invalid time discretization kind " + kind + " in file: " + file);
+        }
+        this.timeDiscretizationKind = TimeDiscretizationKind.values()[kind];
+        this.numCells = header.getLong();
+        this.numVars = header.getInt();
+        header.getInt(); // reserved
+        this.real_dt = header.getDouble();
+        this.realTime = header.getDouble();
+        this.realTimeIteration = header.getLong();
+        this.pseudoIteration = header.getLong();
+        header.rewind();
+
+        if (numCells < 0 || numVars <= 0) {
+            throw new IOException("Invalid number of cells " + numCells + " or variables " + numVars
+                    + " in file: " + file);
+        }
+        long expectedSize;
+        try {
+            expectedSize = Math.addExact(HEADER_SIZE + TRAILER_SIZE,
+                    Math.multiplyExact(numCells, (long) NUM_STATE_ARRAYS * numVars * Double.BYTES));
+        } catch (ArithmeticException e) {
+            throw new IOException("Checkpoint file has invalid size: " + file);
+        }
+        if (file.length() != expectedSize) {
+            throw new IOException("Checkpoint file has invalid size: " + file);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of checkpoint file.");
+            }
+        }
+    }
+
+    public TimeDiscretizationKind timeDiscretizationKind() {
+        return timeDiscretizationKind;
+    }
+
+    public int numVars() {
+        return numVars;
+    }
+
+    /**
+     * @return Real time step, zero for steady state problems.
+     */
+    public double dt() {
+        return real_dt;
+    }
+
+    public double realTime() {
+        return realTime;
+    }
+
+    public long realTimeIteration() {
+        return realTimeIteration;
+    }
+
+    public long pseudoIteration() {
+        return pseudoIteration;
+    }
+
+    /**
+     * Restores U, Wn, Wnm1 and Wnm2 of all the cells of the mesh.
+     *
+     * @param mesh Mesh the checkpoint was written from.
+     * @throws IOException if unable to read the file, the file is corrupted or does not match the mesh.
+     */
+    public void readInto(Mesh mesh) throws IOException {
+        if (mesh.cells().size() != numCells) {
+            throw new IOException("Checkpoint has " + numCells + " cells, but the mesh has "
+                    + mesh.cells().size() + " cells.");
+        }
+        Cell anyCell = mesh.cells().get(0);
+        if (anyCell.U.length != numVars) {
+            throw new IOException("Checkpoint has " + numVars + " variables, but the mesh has "
+                    + anyCell.U.length + " variables.");
+        }
+
+        int chunkCells = chunkCells(numVars);
+        ByteBuffer chunk = ByteBuffer.allocateDirect(chunkCells * cellBytes(numVars)).order(ByteOrder.LITTLE_ENDIAN);
+        DoubleBuffer chunkValues = chunk.asDoubleBuffer();
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        List<Cell> cells = mesh.cells();
+        int cellSize = NUM_STATE_ARRAYS * numVars;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            CRC32C crc = new CRC32C();
+            crc.update(header);
+            header.rewind();
+            channel.position(HEADER_SIZE);
+            for (int start = 0; start < cells.size(); start += chunkCells) {
+                readChunk(channel, chunk, Math.min(chunkCells, cells.size() - start));
+                crc.update(chunk);
+            }
+            readFully(channel, trailer);
+            trailer.flip();
+            if (crc.getValue() != trailer.getLong()) {
+                throw new IOException("Checkpoint file is corrupted, checksum does not match: " + file);
+            }
+
+            channel.position(HEADER_SIZE);
+            for (int start = 0; start < cells.size(); start += chunkCells) {
+                int first = start;
+                int numChunkCells = Math.min(chunkCells, cells.size() - start);
+                readChunk(channel, chunk, numChunkCells);
+                Dispatch.range(numChunkCells).forEach(i -> get(chunkValues, i * cellSize, cells.get(first + i)));
+            }
+        }
+    }
+
+    private void readChunk(FileChannel channel, ByteBuffer chunk, int numChunkCells) throws IOException {
+        chunk.clear().limit(numChunkCells * cellBytes(numVars));
+        readFully(channel, chunk);
+        chunk.flip();
+    }
+
+    private void get(DoubleBuffer values, int position, Cell cell) {
+        position = get(values, position, cell.U);
+        position = get(values, position, cell.Wn);
+        position = get(values, position, cell.Wnm1);
+        get(values, position, cell.Wnm2);
+    }
+
+    private int get(DoubleBuffer values, int position, double[] array) {
+        for (int var = 0; var < numVars; var++) {
+            array[var] = values.get(position++);
+        }
+        return position;
+    }
+}
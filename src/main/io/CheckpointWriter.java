@@ -0,0 +1,153 @@
+package main.io;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.solver.time.TimeDiscretization;
+import main.solver.time.TimeDiscretizationKind;
+import main.util.Dispatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Writes the complete solver state to a binary checkpoint file, which can be restored using
+ * {@link CheckpointReader}.
+ * <p>
+ * The file contains a fixed size header (real time step, time discretization kind, real time and
+ * iteration counters), followed by U, Wn, Wnm1 and Wnm2 of every cell and a CRC32C checksum of
+ * everything before it. All values are little endian. The file is first written next to the
+ * target and then moved in place, so an interrupted write never destroys the previous checkpoint.
+ * <p>
+ * The cells are written in chunks of {@link #CHUNK_SIZE} bytes through a single reused buffer, so
+ * that the size of the checkpoint is not limited by the size of a buffer.
+ */
+public class CheckpointWriter {
+    static final long MAGIC = 0x54504B4355444643L; // "CFDUCKPT" in little endian
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int TRAILER_SIZE = Long.BYTES;
+    static final int NUM_STATE_ARRAYS = 4;
+    static final int CHUNK_SIZE = 1 << 20;
+
+    private final Mesh mesh;
+    private final int numVars;
+    private final int chunkCells;
+
+    /**
+     * Reused for every checkpoint.
+     */
+    private final ByteBuffer header;
+    private final ByteBuffer chunk;
+    private final DoubleBuffer chunkValues;
+    private final ByteBuffer trailer;
+
+    public CheckpointWriter(Mesh mesh, int numVars) {
+        this.mesh = mesh;
+        this.numVars = numVars;
+        this.chunkCells = chunkCells(numVars);
+
+        this.header = ByteBuffer.allocateDirect(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.chunk = ByteBuffer.allocateDirect(chunkCells * cellBytes(numVars)).order(ByteOrder.LITTLE_ENDIAN);
+        this.chunkValues = chunk.asDoubleBuffer();
+        this.trailer = ByteBuffer.allocateDirect(TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @return Number of bytes of the state of a cell.
+     */
+    static int cellBytes(int numVars) {
+        return NUM_STATE_ARRAYS * numVars * Double.BYTES;
+    }
+
+    /**
+     * @return Number of cells in a chunk, at least one.
+     */
+    static int chunkCells(int numVars) {
+        return Math.max(1, CHUNK_SIZE / cellBytes(numVars));
+    }
+
+    /**
+     * @param file               Checkpoint file, replaced if it exists.
+     * @param realTime           Current real (physical) time.
+     * @param realTimeIteration  Number of completed real time steps.
+     * @param pseudoIteration    Number of completed pseudo time iterations.
+     * @param timeDiscretization Current real time discretization, or null for steady state problems.
+     * @throws IOException if unable to write the file.
+     */
+    public void write(File file, double realTime, long realTimeIteration, long pseudoIteration,
+                      TimeDiscretization timeDiscretization) throws IOException {
+        TimeDiscretizationKind kind = TimeDiscretizationKind.of(timeDiscretization);
+
+        header.clear();
+        header.putLong(MAGIC)
+                .putInt(VERSION)
+                .putInt(kind.ordinal())
+                .putLong(mesh.cells().size())
+                .putInt(numVars)
+                .putInt(0)
+                .putDouble(timeDiscretization == null ? 0.0 : timeDiscretization.dt())
+                .putDouble(realTime)
+                .putLong(realTimeIteration)
+                .putLong(pseudoIteration)
+                .flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(header);
+        header.rewind();
+
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, header);
+
+            List<Cell> cells = mesh.cells();
+            int cellSize = NUM_STATE_ARRAYS * numVars;
+            for (int start = 0; start < cells.size(); start += chunkCells) {
+                int first = start;
+                int numChunkCells = Math.min(chunkCells, cells.size() - start);
+                Dispatch.range(numChunkCells).forEach(i -> put(chunkValues, i * cellSize, cells.get(first + i)));
+                chunk.clear().limit(numChunkCells * cellBytes(numVars));
+                crc.update(chunk);
+                chunk.rewind();
+                writeFully(channel, chunk);
+            }
+
+            trailer.clear();
+            trailer.putLong(crc.getValue()).flip();
+            writeFully(channel, trailer);
+            channel.force(false);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void put(DoubleBuffer values, int position, Cell cell) {
+        position = put(values, position, cell.U);
+        position = put(values, position, cell.Wn);
+        position = put(values, position, cell.Wnm1);
+        put(values, position, cell.Wnm2);
+    }
+
+    private int put(DoubleBuffer values, int position, double[] array) {
+        for (int var = 0; var < numVars; var++) {
+            values.put(position++, array[var]);
+        }
+        return position;
+    }
+}
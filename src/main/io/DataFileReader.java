@@ -4,55 +4,51 @@ import main.geom.Point;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
+/**
+ * Reads the lines of a data file, such as a cfdu or cfds mesh file, ignoring the blank lines and the
+ * text after the comment string. The file is parsed from a buffer of bytes by a {@link ByteTokenizer}.
+ */
 public class DataFileReader implements AutoCloseable {
 
-    private final Scanner fileScanner;
-    private final String commentStr;
+    private final ByteTokenizer tokenizer;
+    private int[] intBuffer = new int[16];
+    private double[] doubleBuffer = new double[16];
 
     public DataFileReader(File file) throws FileNotFoundException {
         this(file, null);
     }
 
     public DataFileReader(File file, String commentStr) throws FileNotFoundException {
-        this.fileScanner = new Scanner(file);
-        this.commentStr = commentStr;
+        this.tokenizer = new ByteTokenizer(file, commentStr);
     }
 
     public void close() {
-        fileScanner.close();
+        tokenizer.close();
     }
 
     /**
-     * Read the next line from the file ignoring blank lines and text after comment string.
-     *
-     * @return Next valid line.
+     * Moves to the next line which is not blank or a comment.
      */
-    private String nextLine() {
-        String nextLine = fileScanner.nextLine().trim();
-
-        if (commentStr != null) {
-            if (nextLine.equals(commentStr)) {
-                nextLine = "";
-            } else {
-                nextLine = nextLine.split(commentStr)[0].trim();
-            }
+    private void nextLine() {
+        if (!tokenizer.hasNext()) {
+            throw new NoSuchElementException("No line found");
         }
+    }
 
-        // Since blank lines are ignored
-        if (nextLine.length() == 0)
-            nextLine = nextLine();
-
-        return nextLine;
+    /**
+     * Checks that the current line has another value.
+     */
+    private void nextValue() {
+        if (tokenizer.endOfLine()) {
+            throw new NoSuchElementException("No more values on the line.");
+        }
     }
 
     public String readParameter(String param) {
-        String[] tokens = nextLine().split("=");
-        if (!tokens[0].trim().equals(param))
-            throw new IllegalArgumentException("The expected parameter \"" + param + "\" does not exist at the location.");
-
-        return tokens[1].trim();
+        return tokenizer.readParameter(param);
     }
 
     public int readIntParameter(String param) {
@@ -63,31 +59,46 @@ public class DataFileReader implements AutoCloseable {
         return Double.parseDouble(readParameter(param));
     }
 
+    /**
+     * Reads the first three values of the next line. The rest of the line is skipped.
+     */
     public Point readXYZ() {
-        String[] tokens = nextLine().split("\\s+");
-        double x = Double.parseDouble(tokens[0].trim());
-        double y = Double.parseDouble(tokens[1].trim());
-        double z = Double.parseDouble(tokens[2].trim());
+        nextLine();
+        double x = tokenizer.nextDouble();
+        nextValue();
+        double y = tokenizer.nextDouble();
+        nextValue();
+        double z = tokenizer.nextDouble();
+        tokenizer.skipLine();
 
         return new Point(x, y, z);
     }
 
     public int[] readIntArray() {
-        String[] tokens = nextLine().split("\\s+");
-        int[] intArray = new int[tokens.length];
-        for (int i = 0; i < intArray.length; i++) {
-            intArray[i] = Integer.parseInt(tokens[i]);
-        }
+        nextLine();
+        int length = 0;
+        do {
+            if (length == intBuffer.length) {
+                intBuffer = Arrays.copyOf(intBuffer, 2 * length);
+            }
+            intBuffer[length++] = tokenizer.nextInt();
+        } while (!tokenizer.endOfLine());
+        tokenizer.skipLine();
 
-        return intArray;
+        return Arrays.copyOf(intBuffer, length);
     }
 
     public double[] readDoubleArray() {
-        String[] tokens = nextLine().split("\\s+");
-        double[] doubleArray = new double[tokens.length];
-        for (int i = 0; i < doubleArray.length; i++) {
-            doubleArray[i] = Double.parseDouble(tokens[i]);
-        }
-        return doubleArray;
+        nextLine();
+        int length = 0;
+        do {
+            if (length == doubleBuffer.length) {
+                doubleBuffer = Arrays.copyOf(doubleBuffer, 2 * length);
+            }
+            doubleBuffer[length++] = tokenizer.nextDouble();
+        } while (!tokenizer.endOfLine());
+        tokenizer.skipLine();
+
+        return Arrays.copyOf(doubleBuffer, length);
     }
 }
@@ -0,0 +1,168 @@
+package main.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import main.solver.PhaseProfiler;
+import main.solver.SolverMetrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Serves the {@link SolverMetrics} of a running solver in the Prometheus text format at
+ * {@code http://localhost:<port>/metrics}. The server listens on the loopback address only and
+ * answers the requests on its own thread, reading the metrics without locking the solver.
+ * <p>
+ * The per-phase times are those of the {@link PhaseProfiler}, which must be enabled separately.
+ */
+public class MetricsServer implements AutoCloseable {
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final SolverMetrics metrics;
+    private final HttpServer server;
+
+    // Previous scrape, for the iteration rate (only accessed by the server thread)
+    private long previousIterations = 0;
+    private double previousSeconds = 0;
+
+    /**
+     * Starts the server.
+     *
+     * @param port Port number, or 0 to use any free port (see {@link #port()}).
+     */
+    public MetricsServer(SolverMetrics metrics, int port) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.server.createContext("/metrics", this::handle);
+        this.server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * @return The current metrics in the Prometheus text exposition format.
+     */
+    synchronized String scrape() {
+        StringBuilder text = new StringBuilder();
+
+        long iterations = metrics.iterations();
+        double seconds = metrics.elapsedSeconds();
+        double iterationRate = seconds > previousSeconds
+                ? (iterations - previousIterations) / (seconds - previousSeconds)
+                : 0.0;
+        previousIterations = iterations;
+        previousSeconds = seconds;
+
+        metric(text, "cfdsolver_iterations_total", "counter", "Completed pseudo-time iterations.");
+        sample(text, "cfdsolver_iterations_total", "", iterations);
+        metric(text, "cfdsolver_iterations_per_second", "gauge", "Iteration rate since the previous scrape.");
+        sample(text, "cfdsolver_iterations_per_second", "", iterationRate);
+        metric(text, "cfdsolver_cell_updates_per_second", "gauge", "Cell updates per second since the previous scrape.");
+        sample(text, "cfdsolver_cell_updates_per_second", "", iterationRate * metrics.numCells());
+        metric(text, "cfdsolver_cells", "gauge", "Number of cells in the mesh.");
+        sample(text, "cfdsolver_cells", "", metrics.numCells());
+        metric(text, "cfdsolver_uptime_seconds", "gauge", "Seconds since the metrics were created.");
+        sample(text, "cfdsolver_uptime_seconds", "", seconds);
+
+        metric(text, "cfdsolver_residual", "gauge", "Residual norm of the last iteration.");
+        String[] varNames = metrics.varNames();
+        double[] residual = metrics.residual();
+        for (int var = 0; var < varNames.length; var++) {
+            sample(text, "cfdsolver_residual", label("variable", varNames[var]), residual[var]);
+        }
+
+        metric(text, "cfdsolver_courant_number", "gauge", "Courant number of the pseudo-time step.");
+        sample(text, "cfdsolver_courant_number", "", metrics.courantNum());
+        metric(text, "cfdsolver_real_time_seconds", "gauge", "Physical time of the solution.");
+        sample(text, "cfdsolver_real_time_seconds", "", metrics.realTime());
+        metric(text, "cfdsolver_real_time_step_seconds", "gauge", "Physical time step.");
+        sample(text, "cfdsolver_real_time_step_seconds", "", metrics.realTimeStep());
+
+        metric(text, "cfdsolver_phase_seconds_total", "counter", "Time spent in each phase of the iterations.");
+        for (PhaseProfiler.PhaseTime phaseTime : PhaseProfiler.summary()) {
+            sample(text, "cfdsolver_phase_seconds_total", label("phase", phaseTime.phase().label),
+                    phaseTime.nanos() * 1e-9);
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        metric(text, "cfdsolver_heap_used_bytes", "gauge", "Used heap memory.");
+        sample(text, "cfdsolver_heap_used_bytes", "", heap.getUsed());
+        metric(text, "cfdsolver_heap_committed_bytes", "gauge", "Committed heap memory.");
+        sample(text, "cfdsolver_heap_committed_bytes", "", heap.getCommitted());
+        metric(text, "cfdsolver_heap_max_bytes", "gauge", "Maximum heap memory.");
+        sample(text, "cfdsolver_heap_max_bytes", "", heap.getMax());
+
+        metric(text, "cfdsolver_gc_collections_total", "counter", "Garbage collections.");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(text, "cfdsolver_gc_collections_total", label("gc", gc.getName()),
+                    Math.max(0, gc.getCollectionCount()));
+        }
+        metric(text, "cfdsolver_gc_seconds_total", "counter", "Time spent in garbage collections.");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(text, "cfdsolver_gc_seconds_total", label("gc", gc.getName()),
+                    Math.max(0, gc.getCollectionTime()) * 1e-3);
+        }
+
+        metric(text, "cfdsolver_last_output_timestamp_seconds", "gauge", "Time of writing the last output.");
+        sample(text, "cfdsolver_last_output_timestamp_seconds", "", metrics.lastOutputMillis() * 1e-3);
+        String lastOutput = metrics.lastOutput();
+        if (lastOutput != null) {
+            metric(text, "cfdsolver_last_output_info", "gauge", "Path of the last output file.");
+            sample(text, "cfdsolver_last_output_info", label("file", lastOutput), 1);
+        }
+
+        return text.toString();
+    }
+
+    private static void metric(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder text, String name, String labels, double value) {
+        text.append(name).append(labels).append(' ').append(format(value)).append('\n');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) return "NaN";
+        if (Double.isInfinite(value)) return value > 0 ? "+Inf" : "-Inf";
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+        return String.format(Locale.ROOT, "%.9g", value);
+    }
+
+    private static String label(String name, String value) {
+        String escaped = value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+        return "{" + name + "=\"" + escaped + "\"}";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,214 @@
+package main.io;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.Node;
+import main.physics.goveqn.GoverningEquations;
+import main.util.Dispatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a time series of the solution with the geometry stored only once.
+ * <p>
+ * The points and the cell connectivity are written to {@code <name>_mesh.bin} when the writer is
+ * created. Every call to {@link #write(double)} appends only the primitive variables of the cells
+ * to {@code <name>_fields.bin} and adds a time step to the XDMF collection {@code <name>.xmf}, which
+ * refers to the shared geometry. The collection can be opened directly in ParaView or VisIt.
+ * All the binary data is stored as little endian 64-bit values.
+ */
+public class TimeSeriesWriter {
+    private static final String FOOTER = """
+                </Grid>
+              </Domain>
+            </Xdmf>
+            """;
+
+    private final Mesh mesh;
+    private final GoverningEquations govEqn;
+    private final File seriesFile;
+    private final File fieldsFile;
+    private final String geometryXml;
+
+    /**
+     * Reused for every step, so that writing a step does not allocate memory.
+     */
+    private final ByteBuffer fieldBuffer;
+    private long fieldsFileSize;
+    private long seriesFooterPosition;
+    private int numSteps;
+
+    /**
+     * @param mesh      Mesh, which must not change during the time series.
+     * @param govEqn    Governing equations used to calculate the primitive variables.
+     * @param directory Output directory.
+     * @param name      Base name of the output files.
+     * @throws IOException if unable to write the geometry or the empty collection.
+     */
+    public TimeSeriesWriter(Mesh mesh, GoverningEquations govEqn, File directory, String name) throws IOException {
+        this.mesh = mesh;
+        this.govEqn = govEqn;
+        this.seriesFile = new File(directory, name + ".xmf");
+        this.fieldsFile = new File(directory, name + "_fields.bin");
+        File meshFile = new File(directory, name + "_mesh.bin");
+
+        int numNodes = mesh.nodes().size();
+        int numCells = mesh.cells().size();
+
+        Map<Node, Integer> nodeIndexing = new HashMap<>();
+        for (int i = 0; i < numNodes; i++) {
+            nodeIndexing.put(mesh.nodes().get(i), i);
+        }
+        int topologyLength = 0;
+        for (Cell cell : mesh.cells()) {
+            topologyLength += 1 + numNodesEntry(cell) + cell.nodes.length;
+        }
+
+        ByteBuffer geometry = allocate((numNodes * 3 + topologyLength) * Long.BYTES);
+        for (Node node : mesh.nodes()) {
+            geometry.putDouble(node.x).putDouble(node.y).putDouble(node.z);
+        }
+        for (Cell cell : mesh.cells()) {
+            geometry.putLong(xdmfType(cell));
+            if (numNodesEntry(cell) == 1) {
+                geometry.putLong(cell.nodes.length);
+            }
+            for (Node node : cell.nodes) {
+                geometry.putLong(nodeIndexing.get(node));
+            }
+        }
+        geometry.flip();
+        try (FileChannel channel = FileChannel.open(meshFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, geometry);
+        }
+
+        geometryXml = """
+                        <Topology TopologyType="Mixed" NumberOfElements="%d">
+                          <DataItem Format="Binary" NumberType="Int" Precision="8" Endian="Little" Seek="%d" Dimensions="%d">%s</DataItem>
+                        </Topology>
+                        <Geometry GeometryType="XYZ">
+                          <DataItem Format="Binary" NumberType="Float" Precision="8" Endian="Little" Seek="0" Dimensions="%d 3">%s</DataItem>
+                        </Geometry>
+                """.formatted(numCells, (long) numNodes * 3 * Double.BYTES, topologyLength,
+                meshFile.getName(), numNodes, meshFile.getName());
+
+        fieldBuffer = ByteBuffer.allocateDirect(govEqn.numVars() * numCells * Double.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        Files.deleteIfExists(fieldsFile.toPath());
+
+        String header = """
+                <?xml version="1.0"?>
+                <Xdmf Version="2.0">
+                  <Domain>
+                    <Grid Name="%s" GridType="Collection" CollectionType="Temporal">
+                """.formatted(name);
+        try (FileChannel channel = FileChannel.open(seriesFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.wrap((header + FOOTER).getBytes(StandardCharsets.UTF_8)));
+            seriesFooterPosition = header.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
+    /**
+     * @return 1 if the number of nodes of the cell must be written before the connectivity, 0 otherwise.
+     */
+    private static int numNodesEntry(Cell cell) {
+        return switch (cell.vtkType) {
+            case VTK_LINE, VTK_POLYGON -> 1;
+            default -> 0;
+        };
+    }
+
+    private static int xdmfType(Cell cell) {
+        return switch (cell.vtkType) {
+            case VTK_LINE -> 2;
+            case VTK_POLYGON -> 3;
+            case VTK_TRIANGLE -> 4;
+            case VTK_QUAD -> 5;
+            case VTK_TETRA -> 6;
+            case VTK_PYRAMID -> 7;
+            case VTK_WEDGE -> 8;
+            case VTK_HEXAHEDRON -> 9;
+            default -> throw new UnsupportedOperationException("Cell type " + cell.vtkType
+                    + " is not supported in time series output.");
+        };
+    }
+
+    private static ByteBuffer allocate(int numBytes) {
+        return ByteBuffer.allocate(numBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    public int numSteps() {
+        return numSteps;
+    }
+
+    /**
+     * Appends the primitive variables of the cells as a new step of the time series.
+     *
+     * @param time Physical time of the step.
+     * @throws IOException if unable to write the fields or the collection.
+     */
+    public void write(double time) throws IOException {
+        int numVars = govEqn.numVars();
+        int numCells = mesh.cells().size();
+
+        DoubleBuffer fields = fieldBuffer.clear().asDoubleBuffer();
+        Dispatch.range(numCells).forEach(i -> {
+            double[] primVars = govEqn.primitiveVars(mesh.cells().get(i).U);
+            for (int var = 0; var < numVars; var++) {
+                fields.put(var * numCells + i, primVars[var]);
+            }
+        });
+
+        long stepPosition = fieldsFileSize;
+        try (FileChannel channel = FileChannel.open(fieldsFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            channel.position(stepPosition);
+            writeFully(channel, fieldBuffer);
+        }
+        fieldsFileSize += (long) numVars * numCells * Double.BYTES;
+
+        String[] primVarNames = govEqn.primitiveVarNames();
+        StringBuilder step = new StringBuilder();
+        step.append("      <Grid Name=\"step ").append(numSteps).append("\" GridType=\"Uniform\">\n")
+                .append("        <Time Value=\"").append(time).append("\"/>\n")
+                .append(geometryXml);
+        for (int var = 0; var < numVars; var++) {
+            step.append("""
+                            <Attribute Name="%s" AttributeType="Scalar" Center="Cell">
+                              <DataItem Format="Binary" NumberType="Float" Precision="8" Endian="Little" Seek="%d" Dimensions="%d">%s</DataItem>
+                            </Attribute>
+                    """.formatted(primVarNames[var], stepPosition + (long) var * numCells * Double.BYTES,
+                    numCells, fieldsFile.getName()));
+        }
+        step.append("      </Grid>\n");
+
+        // Overwrite the footer with the new step, so that the earlier steps are not written again
+        byte[] stepBytes = step.toString().getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(seriesFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.position(seriesFooterPosition);
+            writeFully(channel, ByteBuffer.wrap(stepBytes));
+            writeFully(channel, ByteBuffer.wrap(FOOTER.getBytes(StandardCharsets.UTF_8)));
+        }
+        seriesFooterPosition += stepBytes.length;
+        numSteps++;
+    }
+}
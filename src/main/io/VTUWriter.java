@@ -0,0 +1,280 @@
+package main.io;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.Node;
+import main.physics.goveqn.GoverningEquations;
+import main.util.Dispatch;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the solution to a VTK XML unstructured grid file (.vtu) without any external library.
+ * All the arrays are written as binary raw appended data, optionally compressed using zlib.
+ * The cell data contains the primitive variables and, optionally, the gradients of the
+ * conservative variables. The point data contains the primitive variables interpolated to the
+ * nodes using inverse distance weighting of the neighboring cells.
+ * <p>
+ * The geometry (points and cells) is encoded only once and reused for every write.
+ */
+public class VTUWriter {
+    private final Mesh mesh;
+    private final GoverningEquations govEqn;
+
+    private final double[] points;
+    private final long[] connectivity;
+    private final long[] offsets;
+    private final byte[] types;
+
+    /**
+     * Cells and weights used for interpolating cell values to the nodes in compressed row format.
+     * The cells of node i are nodeCells[nodeCellStart[i]] to nodeCells[nodeCellStart[i + 1] - 1].
+     */
+    private final int[] nodeCellStart;
+    private final int[] nodeCells;
+    private final double[] nodeWeights;
+
+    private int compressionLevel = Deflater.NO_COMPRESSION;
+    private boolean writePointData = true;
+    private boolean writeGradients = false;
+
+    private int geometryCompressionLevel;
+    private List<AppendedDataArray> geometry;
+
+    public VTUWriter(Mesh mesh, GoverningEquations govEqn) {
+        this.mesh = mesh;
+        this.govEqn = govEqn;
+
+        List<Node> nodes = mesh.nodes();
+        List<Cell> cells = mesh.cells();
+        int numNodes = nodes.size();
+        int numCells = cells.size();
+
+        Map<Node, Integer> nodeIndexing = new HashMap<>();
+        points = new double[numNodes * 3];
+        for (int i = 0; i < numNodes; i++) {
+            Node node = nodes.get(i);
+            nodeIndexing.put(node, i);
+            points[i * 3] = node.x;
+            points[i * 3 + 1] = node.y;
+            points[i * 3 + 2] = node.z;
+        }
+
+        offsets = new long[numCells];
+        types = new byte[numCells];
+        int numConnectivity = 0;
+        for (int i = 0; i < numCells; i++) {
+            Cell cell = cells.get(i);
+            numConnectivity += cell.nodes.length;
+            offsets[i] = numConnectivity;
+            types[i] = (byte) cell.vtkType.ID;
+        }
+        connectivity = new long[numConnectivity];
+        int conn = 0;
+        for (Cell cell : cells) {
+            for (Node node : cell.nodes) {
+                connectivity[conn++] = nodeIndexing.get(node);
+            }
+        }
+
+        nodeCellStart = new int[numNodes + 1];
+        for (int i = 0; i < numNodes; i++) {
+            nodeCellStart[i + 1] = nodeCellStart[i] + (int) nodes.get(i).neighbors.stream()
+                    .filter(cell -> cell.index() != -1)
+                    .count();
+        }
+        nodeCells = new int[nodeCellStart[numNodes]];
+        nodeWeights = new double[nodeCellStart[numNodes]];
+        Dispatch.range(numNodes).forEach(i -> setupNodeWeights(nodes.get(i), nodeCellStart[i]));
+    }
+
+    private void setupNodeWeights(Node node, int start) {
+        int k = start;
+        double sumWeights = 0.0;
+        for (Cell cell : node.neighbors) {
+            if (cell.index() == -1) continue; // ghost cells lie outside the domain
+            double dx = cell.shape.centroid.x - node.x;
+            double dy = cell.shape.centroid.y - node.y;
+            double dz = cell.shape.centroid.z - node.z;
+            double weight = 1.0 / Math.sqrt(dx * dx + dy * dy + dz * dz);
+            nodeCells[k] = cell.index();
+            nodeWeights[k] = weight;
+            sumWeights += weight;
+            k++;
+        }
+        for (int i = start; i < k; i++) {
+            nodeWeights[i] /= sumWeights;
+        }
+    }
+
+    /**
+     * @param compressed true to compress the appended data using zlib. Default is false.
+     */
+    public void setCompressed(boolean compressed) {
+        setCompressionLevel(compressed ? Deflater.BEST_SPEED : Deflater.NO_COMPRESSION);
+    }
+
+    /**
+     * @param compressionLevel zlib compression level, from 0 (no compression) to 9 (best compression).
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between "
+                    + Deflater.NO_COMPRESSION + " and " + Deflater.BEST_COMPRESSION + ".");
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * @param writePointData true to write the primitive variables interpolated to the nodes. Default is true.
+     */
+    public void setWritePointData(boolean writePointData) {
+        this.writePointData = writePointData;
+    }
+
+    /**
+     * @param writeGradients true to write the gradients of the conservative variables. Default is false.
+     */
+    public void setWriteGradients(boolean writeGradients) {
+        this.writeGradients = writeGradients;
+    }
+
+    public void write(File file) throws IOException {
+        double[][] primVars = primitiveVars();
+        List<AppendedDataArray> pointData = writePointData ? pointData(primVars) : List.of();
+        List<AppendedDataArray> cellData = cellData(primVars);
+        List<AppendedDataArray> geometry = geometry();
+
+        List<AppendedDataArray> arrays = new ArrayList<>();
+        StringBuilder header = new StringBuilder();
+        header.append("<?xml version=\"1.0\"?>\n")
+                .append("<VTKFile type=\"UnstructuredGrid\" version=\"1.0\" byte_order=\"LittleEndian\" header_type=\"UInt64\"");
+        if (compressionLevel != Deflater.NO_COMPRESSION) {
+            header.append(" compressor=\"").append(AppendedDataArray.ZLIB_COMPRESSOR).append("\"");
+        }
+        header.append(">\n")
+                .append("<UnstructuredGrid>\n")
+                .append("<Piece NumberOfPoints=\"").append(mesh.nodes().size())
+                .append("\" NumberOfCells=\"").append(mesh.cells().size()).append("\">\n");
+
+        long offset = 0;
+        header.append("<PointData>\n");
+        offset = appendArrays(header, arrays, pointData, offset);
+        header.append("</PointData>\n")
+                .append("<CellData>\n");
+        offset = appendArrays(header, arrays, cellData, offset);
+        header.append("</CellData>\n")
+                .append("<Points>\n");
+        offset = appendArrays(header, arrays, geometry.subList(0, 1), offset);
+        header.append("</Points>\n")
+                .append("<Cells>\n");
+        appendArrays(header, arrays, geometry.subList(1, 4), offset);
+        header.append("</Cells>\n")
+                .append("</Piece>\n")
+                .append("</UnstructuredGrid>\n")
+                .append("<AppendedData encoding=\"raw\">");
+        String footer = "</AppendedData>\n</VTKFile>\n";
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            AppendedDataArray.write(channel, header.toString(), arrays, footer);
+        }
+    }
+
+    private static long appendArrays(StringBuilder header, List<AppendedDataArray> arrays,
+                                     List<AppendedDataArray> arraysToAppend, long offset) {
+        for (AppendedDataArray array : arraysToAppend) {
+            header.append(array.xml(offset)).append("\n");
+            offset += array.numEncodedBytes();
+            arrays.add(array);
+        }
+        return offset;
+    }
+
+    /**
+     * @return Points, connectivity, offsets and types, encoded using the current compression level.
+     */
+    private List<AppendedDataArray> geometry() {
+        if (geometry == null || geometryCompressionLevel != compressionLevel) {
+            geometry = List.of(
+                    AppendedDataArray.float64("Points", 3, points, compressionLevel),
+                    AppendedDataArray.int64("connectivity", connectivity, compressionLevel),
+                    AppendedDataArray.int64("offsets", offsets, compressionLevel),
+                    AppendedDataArray.uInt8("types", types, compressionLevel));
+            geometryCompressionLevel = compressionLevel;
+        }
+        return geometry;
+    }
+
+    /**
+     * @return Primitive variables of all the cells, stored variable-wise.
+     */
+    private double[][] primitiveVars() {
+        int numVars = govEqn.numVars();
+        int numCells = mesh.cells().size();
+        double[][] primVars = new double[numVars][numCells];
+        Dispatch.range(numCells).forEach(i -> {
+            double[] cellPrimVars = govEqn.primitiveVars(mesh.cells().get(i).U);
+            for (int var = 0; var < numVars; var++) {
+                primVars[var][i] = cellPrimVars[var];
+            }
+        });
+        return primVars;
+    }
+
+    private List<AppendedDataArray> cellData(double[][] primVars) {
+        String[] primVarNames = govEqn.primitiveVarNames();
+
+        List<AppendedDataArray> cellData = new ArrayList<>();
+        for (int var = 0; var < primVars.length; var++) {
+            cellData.add(AppendedDataArray.float64(primVarNames[var], 1, primVars[var], compressionLevel));
+        }
+
+        if (writeGradients) {
+            String[] consVarNames = govEqn.conservativeVarNames();
+            int numCells = mesh.cells().size();
+            for (int var = 0; var < consVarNames.length; var++) {
+                double[] gradients = new double[numCells * 3];
+                int v = var;
+                Dispatch.range(numCells).forEach(i -> {
+                    Cell cell = mesh.cells().get(i);
+                    gradients[i * 3] = cell.gradientU[v].x;
+                    gradients[i * 3 + 1] = cell.gradientU[v].y;
+                    gradients[i * 3 + 2] = cell.gradientU[v].z;
+                });
+                cellData.add(AppendedDataArray.float64("grad " + consVarNames[var], 3, gradients, compressionLevel));
+            }
+        }
+
+        return cellData;
+    }
+
+    private List<AppendedDataArray> pointData(double[][] primVars) {
+        String[] primVarNames = govEqn.primitiveVarNames();
+        int numNodes = mesh.nodes().size();
+
+        List<AppendedDataArray> pointData = new ArrayList<>();
+        for (int var = 0; var < primVars.length; var++) {
+            double[] cellValues = primVars[var];
+            double[] nodeValues = new double[numNodes];
+            Dispatch.range(numNodes).forEach(i -> {
+                double value = 0.0;
+                for (int k = nodeCellStart[i]; k < nodeCellStart[i + 1]; k++) {
+                    value += nodeWeights[k] * cellValues[nodeCells[k]];
+                }
+                nodeValues[i] = value;
+            });
+            pointData.add(AppendedDataArray.float64(primVarNames[var], 1, nodeValues, compressionLevel));
+        }
+
+        return pointData;
+    }
+}
@@ -3,6 +3,7 @@ package main.mesh;
 import main.geom.Point;
 import main.geom.VTKType;
 import main.geom.Vector;
+import main.util.Dispatch;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,7 +17,7 @@ public interface Mesh {
     List<Cell> cells();
 
     default Stream<Cell> cellStream() {
-        return cells().parallelStream();
+        return Dispatch.stream(cells());
     }
 
     /**
@@ -25,7 +26,7 @@ public interface Mesh {
     List<Face> internalFaces();
 
     default Stream<Face> internalFaceStream() {
-        return internalFaces().parallelStream();
+        return Dispatch.stream(internalFaces());
     }
 
     /**
@@ -35,7 +36,7 @@ public interface Mesh {
     List<Node> nodes();
 
     default Stream<Node> nodeStream() {
-        return nodes().parallelStream();
+        return Dispatch.stream(nodes());
     }
 
     /**
@@ -44,7 +45,12 @@ public interface Mesh {
     List<Boundary> boundaries();
 
     default Stream<Boundary> boundaryStream() {
-        return boundaries().parallelStream();
+        // The work of a boundary is the work of its faces
+        long numFaces = 0;
+        for (Boundary boundary : boundaries()) {
+            numFaces += boundary.faces.size();
+        }
+        return Dispatch.stream(boundaries(), numFaces);
     }
 
     default void setAllCellIndices() {
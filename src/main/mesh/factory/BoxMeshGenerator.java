@@ -0,0 +1,288 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.mesh.Mesh;
+import main.physics.bc.BoundaryCondition;
+import main.util.Dispatch;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * Meshes of a box, or of a domain mapped from a box, built in memory without a mesh file.
+ * <p>
+ * The node (i, j, k) is at the fractions s = i / ni, j / nj and k / nk of the box along x, y and z,
+ * after the stretching of each direction. The mapping, if any, then moves the node from the box to
+ * the domain. The structured meshes have the nodes and boundaries of the mesh files. The triangle
+ * and tetrahedron meshes split each quadrilateral into two triangles and each hexahedron into six
+ * tetrahedra (Kuhn triangulation), along the diagonals from the lowest to the highest indices, and
+ * have the boundaries of the structured meshes: "xi min", "xi max", "eta min", "eta max",
+ * "zeta min" and "zeta max".
+ */
+public class BoxMeshGenerator {
+    private static final String[] BOUNDARY_NAMES = {"xi min", "xi max", "eta min", "eta max", "zeta min", "zeta max"};
+
+    private final int[] numCells;
+    private final DoubleUnaryOperator[] stretching;
+    private Point min = new Point(0, 0, 0); // default
+    private Point max = new Point(1, 1, 1); // default
+    private Function<Point, Point> mapping = null; // default
+
+    /**
+     * @param numCells Number of cells along x, or along x and y, or along x, y and z.
+     */
+    public BoxMeshGenerator(int... numCells) {
+        if (numCells.length < 1 || numCells.length > 3) {
+            throw new IllegalArgumentException("The mesh must be 1D, 2D or 3D.");
+        }
+        if (Arrays.stream(numCells).anyMatch(n -> n < 1)) {
+            throw new IllegalArgumentException("The number of cells must be at least 1 along each direction.");
+        }
+        this.numCells = numCells.clone();
+        this.stretching = new DoubleUnaryOperator[numCells.length];
+        Arrays.fill(this.stretching, DoubleUnaryOperator.identity());
+    }
+
+    public void setBox(Point min, Point max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * @param mapping Moves a node from the box to the domain. It is called from several threads.
+     */
+    public void setMapping(Function<Point, Point> mapping) {
+        this.mapping = mapping;
+    }
+
+    /**
+     * @param direction  0, 1 or 2 for x, y or z.
+     * @param stretching Maps the uniform fractions of the direction, from 0 to 1, to the stretched
+     *                   fractions. It must be increasing, with 0 and 1 at the ends.
+     */
+    public void setStretching(int direction, DoubleUnaryOperator stretching) {
+        this.stretching[direction] = stretching;
+    }
+
+    /**
+     * @param beta Larger values cluster the nodes more.
+     * @return Stretching that clusters the nodes at both ends.
+     */
+    public static DoubleUnaryOperator clusterAtEnds(double beta) {
+        return s -> 0.5 * (1.0 + Math.tanh(beta * (2.0 * s - 1.0)) / Math.tanh(beta));
+    }
+
+    /**
+     * @param beta Larger values cluster the nodes more.
+     * @return Stretching that clusters the nodes at the min end, for example near a wall.
+     */
+    public static DoubleUnaryOperator clusterAtMin(double beta) {
+        return s -> 1.0 + Math.tanh(beta * (s - 1.0)) / Math.tanh(beta);
+    }
+
+    /**
+     * @return Location of the node (i, j, k), where the indices beyond the dimension are zero.
+     */
+    public Point point(int i, int j, int k) {
+        int[] index = {i, j, k};
+        double[] xyz = {min.x, min.y, min.z};
+        double[] length = {max.x - min.x, max.y - min.y, max.z - min.z};
+        for (int d = 0; d < numCells.length; d++) {
+            double s = (double) index[d] / numCells[d];
+            xyz[d] += length[d] * stretching[d].applyAsDouble(s);
+        }
+        Point point = new Point(xyz[0], xyz[1], xyz[2]);
+
+        return mapping == null ? point : mapping.apply(point);
+    }
+
+    public Point[] points1D() {
+        checkDimension(1);
+        Point[] points = new Point[numCells[0] + 1];
+        Dispatch.range(points.length).forEach(i -> points[i] = point(i, 0, 0));
+
+        return points;
+    }
+
+    public Point[][] points2D() {
+        checkDimension(2);
+        int num_xi = numCells[0] + 1;
+        int num_eta = numCells[1] + 1;
+        Point[][] points = new Point[num_xi][num_eta];
+        Dispatch.range(num_xi * num_eta).forEach(index -> {
+            int i = index / num_eta;
+            int j = index % num_eta;
+            points[i][j] = point(i, j, 0);
+        });
+
+        return points;
+    }
+
+    public Point[][][] points3D() {
+        checkDimension(3);
+        int num_xi = numCells[0] + 1;
+        int num_eta = numCells[1] + 1;
+        int num_zeta = numCells[2] + 1;
+        Point[][][] points = new Point[num_xi][num_eta][num_zeta];
+        Dispatch.range(num_xi * num_eta * num_zeta).forEach(index -> {
+            int i = index / (num_eta * num_zeta);
+            int j = index / num_zeta % num_eta;
+            int k = index % num_zeta;
+            points[i][j][k] = point(i, j, k);
+        });
+
+        return points;
+    }
+
+    public Mesh structured1DMesh(int numVars, BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) {
+        return new Structured1DMesh(points1D(), numVars, bc_xiMin, bc_xiMax);
+    }
+
+    public Mesh structured2DMesh(int numVars,
+                                 BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                                 BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) {
+        return new Structured2DMesh(points2D(), numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax);
+    }
+
+    public Mesh structured3DMesh(int numVars,
+                                 BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                                 BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                                 BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) {
+        return new Structured3DMesh(points3D(), numVars,
+                bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, bc_zetaMin, bc_zetaMax);
+    }
+
+    /**
+     * @param bcs Boundary conditions of the named boundaries.
+     */
+    public Mesh triangleMesh(int numVars, Map<String, BoundaryCondition> bcs) {
+        Point[][] gridPoints = points2D();
+        int ni = numCells[0];
+        int nj = numCells[1];
+        int num_eta = nj + 1;
+        Point[] points = Arrays.stream(gridPoints)
+                .flatMap(Arrays::stream)
+                .toArray(Point[]::new);
+
+        int[][] elements = new int[2 * ni * nj][];
+        Dispatch.range(ni * nj).forEach(index -> {
+            int i = index / nj;
+            int j = index % nj;
+            int n0 = i * num_eta + j;
+            int n1 = (i + 1) * num_eta + j;
+            int n2 = (i + 1) * num_eta + j + 1;
+            int n3 = i * num_eta + j + 1;
+            elements[2 * index] = new int[]{VTKType.VTK_TRIANGLE.ID, n0, n1, n2};
+            elements[2 * index + 1] = new int[]{VTKType.VTK_TRIANGLE.ID, n0, n2, n3};
+        });
+
+        Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+        int[][] xiMin = new int[nj][], xiMax = new int[nj][];
+        for (int j = 0; j < nj; j++) {
+            xiMin[j] = new int[]{VTKType.VTK_LINE.ID, j, j + 1};
+            xiMax[j] = new int[]{VTKType.VTK_LINE.ID, ni * num_eta + j, ni * num_eta + j + 1};
+        }
+        int[][] etaMin = new int[ni][], etaMax = new int[ni][];
+        for (int i = 0; i < ni; i++) {
+            etaMin[i] = new int[]{VTKType.VTK_LINE.ID, i * num_eta, (i + 1) * num_eta};
+            etaMax[i] = new int[]{VTKType.VTK_LINE.ID, i * num_eta + nj, (i + 1) * num_eta + nj};
+        }
+        boundaryFaces.put(BOUNDARY_NAMES[0], xiMin);
+        boundaryFaces.put(BOUNDARY_NAMES[1], xiMax);
+        boundaryFaces.put(BOUNDARY_NAMES[2], etaMin);
+        boundaryFaces.put(BOUNDARY_NAMES[3], etaMax);
+
+        return new Unstructured2DMesh(points, elements, boundaryFaces, numVars, bcs);
+    }
+
+    /**
+     * @param bcs Boundary conditions of the named boundaries.
+     */
+    public Mesh tetrahedronMesh(int numVars, Map<String, BoundaryCondition> bcs) {
+        Point[][][] gridPoints = points3D();
+        int[] n = numCells;
+        int[] numNodes = {n[0] + 1, n[1] + 1, n[2] + 1};
+        Point[] points = Arrays.stream(gridPoints)
+                .flatMap(Arrays::stream)
+                .flatMap(Arrays::stream)
+                .toArray(Point[]::new);
+
+        // The tetrahedra along the main diagonal of the hexahedron, one for each order of the axes,
+        // which split every quadrilateral face along the same diagonal on both sides
+        int[][] axisOrders = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+        int numHexahedra = n[0] * n[1] * n[2];
+        int[][] elements = new int[6 * numHexahedra][];
+        Dispatch.range(numHexahedra, 6L * numHexahedra).forEach(index -> {
+            int i = index / (n[1] * n[2]);
+            int j = index / n[2] % n[1];
+            int k = index % n[2];
+            for (int t = 0; t < 6; t++) {
+                int[] ijk = {i, j, k};
+                int[] tet = new int[5];
+                tet[0] = VTKType.VTK_TETRA.ID;
+                tet[1] = nodeIndex(ijk, numNodes);
+                for (int v = 2; v < 5; v++) {
+                    ijk[axisOrders[t][v - 2]]++;
+                    tet[v] = nodeIndex(ijk, numNodes);
+                }
+                // The mapping or the stretching may mirror the box
+                if (signedVolume(points[tet[1]], points[tet[2]], points[tet[3]], points[tet[4]]) < 0) {
+                    int temp = tet[2];
+                    tet[2] = tet[3];
+                    tet[3] = temp;
+                }
+                elements[6 * index + t] = tet;
+            }
+        });
+
+        Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+        for (int axis = 0; axis < 3; axis++) {
+            int axisA = (axis + 1) % 3;
+            int axisB = (axis + 2) % 3;
+            for (int side = 0; side < 2; side++) {
+                int[][] faces = new int[2 * n[axisA] * n[axisB]][];
+                for (int a = 0; a < n[axisA]; a++) {
+                    for (int b = 0; b < n[axisB]; b++) {
+                        // Corners (a, b), (a + 1, b), (a + 1, b + 1) and (a, b + 1) of the boundary plane
+                        int[][] ab = {{a, b}, {a + 1, b}, {a + 1, b + 1}, {a, b + 1}};
+                        int[] q = new int[4];
+                        for (int c = 0; c < 4; c++) {
+                            int[] ijk = new int[3];
+                            ijk[axis] = side * n[axis];
+                            ijk[axisA] = ab[c][0];
+                            ijk[axisB] = ab[c][1];
+                            q[c] = nodeIndex(ijk, numNodes);
+                        }
+                        int face = 2 * (a * n[axisB] + b);
+                        faces[face] = new int[]{VTKType.VTK_TRIANGLE.ID, q[0], q[1], q[2]};
+                        faces[face + 1] = new int[]{VTKType.VTK_TRIANGLE.ID, q[0], q[2], q[3]};
+                    }
+                }
+                boundaryFaces.put(BOUNDARY_NAMES[2 * axis + side], faces);
+            }
+        }
+
+        return new Unstructured3DMesh(points, elements, boundaryFaces, numVars, bcs);
+    }
+
+    private static int nodeIndex(int[] ijk, int[] numNodes) {
+        return (ijk[0] * numNodes[1] + ijk[1]) * numNodes[2] + ijk[2];
+    }
+
+    private static double signedVolume(Point p0, Point p1, Point p2, Point p3) {
+        double ax = p1.x - p0.x, ay = p1.y - p0.y, az = p1.z - p0.z;
+        double bx = p2.x - p0.x, by = p2.y - p0.y, bz = p2.z - p0.z;
+        double cx = p3.x - p0.x, cy = p3.y - p0.y, cz = p3.z - p0.z;
+        return ax * (by * cz - bz * cy) - ay * (bx * cz - bz * cx) + az * (bx * cy - by * cx);
+    }
+
+    private void checkDimension(int dimension) {
+        if (numCells.length != dimension) {
+            throw new IllegalStateException("The generator is " + numCells.length + "D, not " + dimension + "D.");
+        }
+    }
+}
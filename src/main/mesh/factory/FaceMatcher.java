@@ -0,0 +1,82 @@
+package main.mesh.factory;
+
+import main.mesh.Face;
+import main.mesh.Node;
+import main.util.Dispatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Matches the faces of the neighbouring cells, in parallel.
+ * <p>
+ * Each cell creates its own faces, with itself as the left cell and the normals pointing out of it.
+ * A face with the same nodes as a face of another cell is shared by the two cells: the face of the
+ * cell with the lower index is kept, with the other cell as its right cell and the average of the
+ * two normals (see {@link Face#equals(Object)}). This is the face kept by a set of the faces added in
+ * the order of the cells, so the result does not depend on the order of the threads.
+ */
+final class FaceMatcher {
+    private final List<? extends List<Face>> cellFaces;
+    private final Map<Set<Node>, Face> faces;
+
+    /**
+     * @param cellFaces Faces of each cell, in the order of the cells. The indices of the cells must be set.
+     */
+    FaceMatcher(List<? extends List<Face>> cellFaces) {
+        this.cellFaces = cellFaces;
+
+        // Sized for all the faces of the cells, so that the map is not resized while it is filled
+        long numFaces = cellFaces.stream().mapToLong(List::size).sum();
+        this.faces = new ConcurrentHashMap<>((int) Math.min(numFaces, 1 << 30));
+        Dispatch.range(cellFaces.size(), 4 * numFaces).forEach(cell -> {
+            for (Face face : cellFaces.get(cell)) {
+                faces.merge(key(face.nodes), face, FaceMatcher::match);
+            }
+        });
+    }
+
+    /**
+     * @return The distinct nodes of the face. A degenerate face, such as a face of a collapsed
+     * hexahedron, repeats some of its nodes.
+     */
+    private static Set<Node> key(Node[] nodes) {
+        return Set.copyOf(Arrays.asList(nodes));
+    }
+
+    private static Face match(Face face1, Face face2) {
+        Face kept = face1.left.index() < face2.left.index() ? face1 : face2;
+        Face other = kept == face1 ? face2 : face1;
+        kept.equals(other); // sets the right cells and the normals of both faces
+
+        return kept;
+    }
+
+    /**
+     * @return Faces shared by two cells, in the order of their left cells.
+     */
+    List<Face> internalFaces() {
+        List<Face> internalFaces = new ArrayList<>();
+        for (List<Face> faceList : cellFaces) {
+            for (Face face : faceList) {
+                if (face.right != null && face.left.index() < face.right.index()) {
+                    internalFaces.add(face);
+                }
+            }
+        }
+        return internalFaces;
+    }
+
+    /**
+     * @param faceNodes Nodes of a face on the boundary, in any order.
+     * @return The face with the nodes, or null if there is no such face on the boundary.
+     */
+    Face boundaryFace(Node[] faceNodes) {
+        Face face = faces.get(key(faceNodes));
+        return face == null || face.right != null ? null : face;
+    }
+}
@@ -0,0 +1,298 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.io.ByteTokenizer;
+import main.mesh.Mesh;
+import main.physics.bc.BoundaryCondition;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Reads a Gmsh mesh file of version 4.1, ASCII or binary, into an {@link Unstructured2DMesh} or
+ * {@link Unstructured3DMesh} in one pass.
+ * <p>
+ * The elements of the highest dimension (2 or 3) are the cells. The elements of one dimension less
+ * are the boundary faces, and the boundaries are the physical groups of their entities: named by the
+ * physical name, or by the physical tag if the group has no name. The faces of an entity without a
+ * physical group make a boundary named "entity" followed by the tag of the entity. The other
+ * elements, such as the points, are skipped. Only the first order elements are supported.
+ */
+public class GmshMshReader {
+    private final ByteTokenizer tokenizer;
+    private boolean binary;
+    private int dataSize;
+
+    private final Map<EntityKey, String> physicalNames = new HashMap<>();
+    private final Map<EntityKey, int[]> entityPhysicalTags = new HashMap<>();
+    private Point[] points;
+    private int[] nodeIndex;
+    private final List<ElementBlock> elementBlocks = new ArrayList<>();
+
+    private record EntityKey(int dim, int tag) {
+    }
+
+    /**
+     * @param elements Rows of the VTK type followed by the indices of the points.
+     */
+    private record ElementBlock(int dim, int entityTag, int[][] elements) {
+    }
+
+    private GmshMshReader(ByteTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    public static Mesh read(File mshFile, int numVars, Map<String, BoundaryCondition> bcs) throws FileNotFoundException {
+        try (ByteTokenizer tokenizer = new ByteTokenizer(mshFile, null)) {
+            GmshMshReader reader = new GmshMshReader(tokenizer);
+            reader.readSections();
+            return reader.createMesh(numVars, bcs);
+        }
+    }
+
+    private void readSections() {
+        while (tokenizer.hasNext()) {
+            String section = tokenizer.nextToken();
+            if (!section.startsWith("$")) {
+                throw new IllegalArgumentException("Expected a section of the msh file instead of \"" + section + "\".");
+            }
+            tokenizer.skipLine();
+            switch (section) {
+                case "$MeshFormat" -> readMeshFormat();
+                case "$PhysicalNames" -> readPhysicalNames();
+                case "$Entities" -> readEntities();
+                case "$Nodes" -> readNodes();
+                case "$Elements" -> readElements();
+                default -> {
+                    // Skip the other sections, such as $Periodic and $NodeData
+                    String end = "$End" + section.substring(1);
+                    while (!tokenizer.nextToken().equals(end)) {
+                        tokenizer.skipLine();
+                    }
+                    continue;
+                }
+            }
+            String end = tokenizer.nextToken();
+            if (!end.equals("$End" + section.substring(1))) {
+                throw new IllegalArgumentException("Expected the end of " + section + " instead of \"" + end + "\".");
+            }
+        }
+    }
+
+    private void readMeshFormat() {
+        String version = tokenizer.nextToken();
+        if (!version.equals("4.1")) {
+            throw new IllegalArgumentException("Only the version 4.1 of the msh format is supported, not " + version + ".");
+        }
+        binary = tokenizer.nextInt() == 1;
+        dataSize = tokenizer.nextInt();
+        if (dataSize != 4 && dataSize != 8) {
+            throw new IllegalArgumentException("Unsupported data size " + dataSize + " of the msh file.");
+        }
+        if (binary) {
+            tokenizer.skipLine();
+            // The integer 1, written in the byte order of the file
+            int one = tokenizer.readBinaryInt();
+            if (one != 1) {
+                if (Integer.reverseBytes(one) != 1) {
+                    throw new IllegalArgumentException("Unable to find the byte order of the msh file.");
+                }
+                tokenizer.setByteOrder(ByteOrder.BIG_ENDIAN);
+            }
+        }
+    }
+
+    private void readPhysicalNames() {
+        // Always in ASCII
+        int numNames = tokenizer.nextInt();
+        for (int i = 0; i < numNames; i++) {
+            int dim = tokenizer.nextInt();
+            int tag = tokenizer.nextInt();
+            String name = tokenizer.restOfLine();
+            if (name.length() >= 2 && name.startsWith("\"") && name.endsWith("\"")) {
+                name = name.substring(1, name.length() - 1);
+            }
+            physicalNames.put(new EntityKey(dim, tag), name);
+        }
+    }
+
+    private void readEntities() {
+        long[] numEntities = {readSize(), readSize(), readSize(), readSize()};
+        for (int dim = 0; dim < 4; dim++) {
+            for (long e = 0; e < numEntities[dim]; e++) {
+                int tag = readInt();
+                // The location of a point, or the bounding box of a curve, surface or volume
+                for (int i = 0; i < (dim == 0 ? 3 : 6); i++) {
+                    readDouble();
+                }
+                int[] physicalTags = new int[(int) readSize()];
+                for (int i = 0; i < physicalTags.length; i++) {
+                    physicalTags[i] = readInt();
+                }
+                entityPhysicalTags.put(new EntityKey(dim, tag), physicalTags);
+                if (dim > 0) {
+                    long numBoundingEntities = readSize();
+                    for (long i = 0; i < numBoundingEntities; i++) {
+                        readInt();
+                    }
+                }
+            }
+        }
+    }
+
+    private void readNodes() {
+        long numBlocks = readSize();
+        int numNodes = toInt(readSize());
+        readSize(); // minimum tag
+        int maxNodeTag = toInt(readSize());
+
+        points = new Point[numNodes];
+        nodeIndex = new int[maxNodeTag + 1];
+        Arrays.fill(nodeIndex, -1);
+        int index = 0;
+        for (long block = 0; block < numBlocks; block++) {
+            int entityDim = readInt();
+            readInt(); // entity tag
+            boolean parametric = readInt() == 1;
+            int numNodesInBlock = toInt(readSize());
+            for (int i = 0; i < numNodesInBlock; i++) {
+                nodeIndex[toInt(readSize())] = index + i;
+            }
+            for (int i = 0; i < numNodesInBlock; i++) {
+                double x = readDouble();
+                double y = readDouble();
+                double z = readDouble();
+                if (parametric) {
+                    for (int u = 0; u < entityDim; u++) {
+                        readDouble();
+                    }
+                }
+                points[index + i] = new Point(x, y, z);
+            }
+            index += numNodesInBlock;
+        }
+    }
+
+    private void readElements() {
+        long numBlocks = readSize();
+        readSize(); // number of elements
+        readSize(); // minimum tag
+        readSize(); // maximum tag
+
+        for (long block = 0; block < numBlocks; block++) {
+            int entityDim = readInt();
+            int entityTag = readInt();
+            int elementType = readInt();
+            int numElementsInBlock = toInt(readSize());
+            VTKType vtkType = vtkType(elementType);
+            int[] nodeOrder = nodeOrder(vtkType);
+
+            int[][] elements = new int[numElementsInBlock][];
+            int[] nodeTags = new int[nodeOrder.length];
+            for (int e = 0; e < numElementsInBlock; e++) {
+                readSize(); // element tag
+                for (int i = 0; i < nodeTags.length; i++) {
+                    nodeTags[i] = toInt(readSize());
+                }
+                int[] element = new int[nodeOrder.length + 1];
+                element[0] = vtkType.ID;
+                for (int i = 0; i < nodeOrder.length; i++) {
+                    element[i + 1] = nodeIndex[nodeTags[nodeOrder[i]]];
+                }
+                elements[e] = element;
+            }
+            if (entityDim > 0) {
+                elementBlocks.add(new ElementBlock(entityDim, entityTag, elements));
+            }
+        }
+    }
+
+    private Mesh createMesh(int numVars, Map<String, BoundaryCondition> bcs) {
+        if (points == null) {
+            throw new IllegalArgumentException("The msh file has no nodes.");
+        }
+        int dim = elementBlocks.stream().mapToInt(ElementBlock::dim).max().orElse(0);
+        if (dim < 2) {
+            throw new IllegalArgumentException("The msh file has no 2D or 3D elements.");
+        }
+
+        int[][] elements = elementBlocks.stream()
+                .filter(block -> block.dim == dim)
+                .flatMap(block -> Arrays.stream(block.elements))
+                .toArray(int[][]::new);
+
+        Map<String, List<int[][]>> boundaryBlocks = new LinkedHashMap<>();
+        for (ElementBlock block : elementBlocks) {
+            if (block.dim == dim - 1) {
+                boundaryBlocks.computeIfAbsent(boundaryName(block), name -> new ArrayList<>()).add(block.elements);
+            }
+        }
+        Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+        boundaryBlocks.forEach((name, blocks) -> boundaryFaces.put(name, blocks.stream()
+                .flatMap(Arrays::stream)
+                .toArray(int[][]::new)));
+
+        return dim == 2
+                ? new Unstructured2DMesh(points, elements, boundaryFaces, numVars, bcs)
+                : new Unstructured3DMesh(points, elements, boundaryFaces, numVars, bcs);
+    }
+
+    private String boundaryName(ElementBlock block) {
+        int[] physicalTags = entityPhysicalTags.getOrDefault(new EntityKey(block.dim, block.entityTag), new int[0]);
+        if (physicalTags.length == 0) {
+            return "entity " + block.entityTag;
+        }
+        int physicalTag = Math.abs(physicalTags[0]);
+        return physicalNames.getOrDefault(new EntityKey(block.dim, physicalTag), String.valueOf(physicalTag));
+    }
+
+    private static VTKType vtkType(int elementType) {
+        return switch (elementType) {
+            case 1 -> VTKType.VTK_LINE;
+            case 2 -> VTKType.VTK_TRIANGLE;
+            case 3 -> VTKType.VTK_QUAD;
+            case 4 -> VTKType.VTK_TETRA;
+            case 5 -> VTKType.VTK_HEXAHEDRON;
+            case 6 -> VTKType.VTK_WEDGE;
+            case 7 -> VTKType.VTK_PYRAMID;
+            case 15 -> VTKType.VTK_VERTEX;
+            default -> throw new UnsupportedOperationException("The element type " + elementType
+                    + " of the msh file is not supported.");
+        };
+    }
+
+    /**
+     * @return The node of the Gmsh element for each node of the VTK element.
+     */
+    private static int[] nodeOrder(VTKType vtkType) {
+        return switch (vtkType) {
+            // The first triangle of a Gmsh prism points towards the second, and that of a VTK wedge away from it
+            case VTK_WEDGE -> new int[]{0, 2, 1, 3, 5, 4};
+            default -> {
+                int[] order = new int[vtkType.numPoints()];
+                Arrays.setAll(order, i -> i);
+                yield order;
+            }
+        };
+    }
+
+    private int readInt() {
+        return binary ? tokenizer.readBinaryInt() : tokenizer.nextInt();
+    }
+
+    private long readSize() {
+        if (!binary) return tokenizer.nextLong();
+        return dataSize == 8 ? tokenizer.readBinaryLong() : tokenizer.readBinaryInt();
+    }
+
+    private double readDouble() {
+        return binary ? tokenizer.readBinaryDouble() : tokenizer.nextDouble();
+    }
+
+    private static int toInt(long value) {
+        return Math.toIntExact(value);
+    }
+}
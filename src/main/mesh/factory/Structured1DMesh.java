@@ -13,6 +13,7 @@ import main.io.DataFileReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -26,22 +27,19 @@ public class Structured1DMesh implements Mesh {
     final private List<Boundary> boundaries;
 
     public Structured1DMesh(File meshFile, int numVars, BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) throws FileNotFoundException {
-        int xi;
-        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
-            int dim = meshFileReader.readIntParameter("dimension");
-            if (dim != 1) {
-                throw new IllegalArgumentException("The mesh file dimension must be 1.");
-            }
-            String mode = meshFileReader.readParameter("mode");
-            if (!mode.equals("ASCII")) {
-                throw new IllegalArgumentException("Only ASCII mode is supported.");
-            }
-            xi = meshFileReader.readIntParameter("xi");
+        this(readPoints(meshFile), numVars, bc_xiMin, bc_xiMax);
+    }
 
-            this.nodes = IntStream.range(0, xi)
-                    .mapToObj(i -> new Node(meshFileReader.readXYZ(), numVars))
-                    .collect(toList());
-        }
+    /**
+     * Mesh of the points in memory, for example from a {@link BoxMeshGenerator}.
+     *
+     * @param points Nodes along xi.
+     */
+    public Structured1DMesh(Point[] points, int numVars, BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax) {
+        int xi = points.length;
+        this.nodes = Arrays.stream(points)
+                .map(point -> new Node(point, numVars))
+                .collect(toList());
 
         this.cells = new ArrayList<>();
         for (int i = 0; i < xi - 1; i++) {
@@ -144,6 +142,24 @@ public class Structured1DMesh implements Mesh {
         }
     }
 
+    private static Point[] readPoints(File meshFile) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != 1) {
+                throw new IllegalArgumentException("The mesh file dimension must be 1.");
+            }
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+            int xi = meshFileReader.readIntParameter("xi");
+
+            return IntStream.range(0, xi)
+                    .mapToObj(i -> meshFileReader.readXYZ())
+                    .toArray(Point[]::new);
+        }
+    }
+
     @Override
     public List<Cell> cells() {
         return cells;
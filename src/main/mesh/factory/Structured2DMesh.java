@@ -9,10 +9,12 @@ import main.geom.factory.Quad;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
 import main.io.DataFileReader;
+import main.util.Dispatch;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class Structured2DMesh implements Mesh {
     private final List<Cell> cells;
@@ -23,128 +25,58 @@ public class Structured2DMesh implements Mesh {
     public Structured2DMesh(File meshFile, int numVars,
                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) throws FileNotFoundException {
-        int num_xi, num_eta;
-        Node[][] nodeArray;
-        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
-            int dim = meshFileReader.readIntParameter("dimension");
-            if (dim != 2) {
-                throw new IllegalArgumentException("The mesh file dimension must be 2.");
-            }
-
-            String mode = meshFileReader.readParameter("mode");
-            if (!mode.equals("ASCII")) {
-                throw new IllegalArgumentException("Only ASCII mode is supported.");
-            }
-
-            num_xi = meshFileReader.readIntParameter("xi");
-            num_eta = meshFileReader.readIntParameter("eta");
+        this(readPoints(meshFile), numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax);
+    }
 
-            nodeArray = new Node[num_xi][num_eta];
-            this.nodes = new ArrayList<>();
-            for (int i = 0; i < num_xi; i++) {
-                for (int j = 0; j < num_eta; j++) {
-                    Node node = new Node(meshFileReader.readXYZ(), numVars);
-                    nodeArray[i][j] = node;
-                    this.nodes.add(node);
-                }
+    /**
+     * Mesh of the points in memory, for example from a {@link BoxMeshGenerator}.
+     *
+     * @param points Nodes points[i][j] along xi and eta.
+     */
+    public Structured2DMesh(Point[][] points, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) {
+        int num_xi = points.length;
+        int num_eta = points[0].length;
+        Node[][] nodeArray = new Node[num_xi][num_eta];
+        this.nodes = new ArrayList<>();
+        for (int i = 0; i < num_xi; i++) {
+            for (int j = 0; j < num_eta; j++) {
+                Node node = new Node(points[i][j], numVars);
+                nodeArray[i][j] = node;
+                this.nodes.add(node);
             }
         }
 
+        // The cells and the faces of each cell are independent, so they are built in parallel
+        int numCells = (num_xi - 1) * (num_eta - 1);
         Cell[][] cellArray = new Cell[num_xi - 1][num_eta - 1];
-        this.cells = new ArrayList<>();
-        for (int i = 0; i < num_xi - 1; i++) {
-            for (int j = 0; j < num_eta - 1; j++) {
-                Node[] n = new Node[]{nodeArray[i][j], nodeArray[i + 1][j], nodeArray[i + 1][j + 1], nodeArray[i][j + 1]};
-                Geometry cellGeom = new Quad(n[0].location(), n[1].location(),
-                        n[2].location(), n[3].location());
-                Cell cell = new Cell(n, VTKType.VTK_QUAD,
-                        new Shape(cellGeom.area(), cellGeom.centroid()), numVars);
-                cellArray[i][j] = cell;
-                this.cells.add(cell);
-            }
+        Dispatch.range(numCells, 4L * numCells).forEach(index -> {
+            int i = index / (num_eta - 1);
+            int j = index % (num_eta - 1);
+            Node[] n = new Node[]{nodeArray[i][j], nodeArray[i + 1][j], nodeArray[i + 1][j + 1], nodeArray[i][j + 1]};
+            Geometry cellGeom = new Quad(n[0].location(), n[1].location(),
+                    n[2].location(), n[3].location());
+            cellArray[i][j] = new Cell(n, VTKType.VTK_QUAD,
+                    new Shape(cellGeom.area(), cellGeom.centroid()), numVars);
+        });
+        this.cells = new ArrayList<>(numCells);
+        for (Cell[] cellRow : cellArray) {
+            this.cells.addAll(List.of(cellRow));
         }
         setAllCellIndices();
 
-        this.internalFaces = new ArrayList<>();
-        Set<Face> faceSet = new HashSet<>();
-        Node na, nb;
-        for (Cell cell : this.cells) {
-            Node n0 = cell.nodes[0];
-            Node n1 = cell.nodes[1];
-            Node n2 = cell.nodes[2];
-            Node n3 = cell.nodes[3];
-
-            Geometry cellGeom = new Quad(n0.location(), n1.location(), n2.location(), n3.location());
-            Vector cellNormal = cellGeom.unitNormal();
-
-            // Face 0
-            na = n0;
-            nb = n1;
-            Geometry faceGeom = new Line(na.location(), nb.location());
-            double area = faceGeom.length() * 1.0;
-            Point centroid = faceGeom.centroid();
-
-            Vector faceTangent = new Vector(na.location(), nb.location());
-            Vector unitNormal = faceTangent.cross(cellNormal).unit();
-
-            Surface surface = new Surface(area, centroid, unitNormal);
-
-            Face f0 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 1
-            na = n1;
-            nb = n2;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f1 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 2
-            na = n2;
-            nb = n3;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f2 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            // Face 3
-            na = n3;
-            nb = n0;
-            faceGeom = new Line(na.location(), nb.location());
-            area = faceGeom.length() * 1.0;
-            centroid = faceGeom.centroid();
-
-            faceTangent = new Vector(na.location(), nb.location());
-            unitNormal = faceTangent.cross(cellNormal).unit();
-
-            surface = new Surface(area, centroid, unitNormal);
-
-            Face f3 = new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
-
-            faceSet.addAll(List.of(f0, f1, f2, f3));
-        }
-        this.internalFaces.addAll(faceSet);
-
-        // Remove all boundary faces
-        this.internalFaces.removeIf(face -> face.right == null);
+        List<List<Face>> cellFaces = Dispatch.stream(this.cells, 8L * numCells)
+                .map(cell -> List.of(quadCellFaces(cell, numVars)))
+                .collect(Collectors.toList());
+        this.internalFaces = new FaceMatcher(cellFaces).internalFaces();
 
         this.boundaries = new ArrayList<>();
         Face[] xiMinFaces = new Face[num_eta - 1];
         Face[] xiMaxFaces = new Face[num_eta - 1];
         Face[] etaMinFaces = new Face[num_xi - 1];
         Face[] etaMaxFaces = new Face[num_xi - 1];
+        Node na, nb;
         int i, j;
         i = 0;
         for (j = 0; j < num_eta - 1; j++) {
@@ -283,6 +215,61 @@ public class Structured2DMesh implements Mesh {
         }
     }
 
+    private static Point[][] readPoints(File meshFile) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != 2) {
+                throw new IllegalArgumentException("The mesh file dimension must be 2.");
+            }
+
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
+
+            Point[][] points = new Point[num_xi][num_eta];
+            for (int i = 0; i < num_xi; i++) {
+                for (int j = 0; j < num_eta; j++) {
+                    points[i][j] = meshFileReader.readXYZ();
+                }
+            }
+            return points;
+        }
+    }
+
+    private static Face[] quadCellFaces(Cell cell, int numVars) {
+        Node n0 = cell.nodes[0];
+        Node n1 = cell.nodes[1];
+        Node n2 = cell.nodes[2];
+        Node n3 = cell.nodes[3];
+
+        Geometry cellGeom = new Quad(n0.location(), n1.location(), n2.location(), n3.location());
+        Vector cellNormal = cellGeom.unitNormal();
+
+        return new Face[]{
+                lineFace(n0, n1, cell, cellNormal, numVars),
+                lineFace(n1, n2, cell, cellNormal, numVars),
+                lineFace(n2, n3, cell, cellNormal, numVars),
+                lineFace(n3, n0, cell, cellNormal, numVars)
+        };
+    }
+
+    private static Face lineFace(Node na, Node nb, Cell cell, Vector cellNormal, int numVars) {
+        Geometry faceGeom = new Line(na.location(), nb.location());
+        double area = faceGeom.length() * 1.0;
+        Point centroid = faceGeom.centroid();
+
+        Vector faceTangent = new Vector(na.location(), nb.location());
+        Vector unitNormal = faceTangent.cross(cellNormal).unit();
+
+        Surface surface = new Surface(area, centroid, unitNormal);
+
+        return new Face(new Node[]{na, nb}, faceGeom.vtkType(), surface, cell, null, numVars);
+    }
+
     @Override
     public List<Cell> cells() {
         return cells;
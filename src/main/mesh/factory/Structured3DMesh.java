@@ -9,6 +9,7 @@ import main.geom.factory.Quad;
 import main.io.DataFileReader;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
+import main.util.Dispatch;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -30,56 +31,55 @@ public class Structured3DMesh implements Mesh {
                             BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
                             BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
                             BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) throws FileNotFoundException {
-        int num_xi, num_eta, num_zeta;
-        Node[][][] nodeArray;
-        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
-            int dim = meshFileReader.readIntParameter("dimension");
-            if (dim != 3) {
-                throw new IllegalArgumentException("The mesh file dimension must be 3.");
-            }
-
-            String mode = meshFileReader.readParameter("mode");
-            if (!mode.equals("ASCII")) {
-                throw new IllegalArgumentException("Only ASCII mode is supported.");
-            }
-
-            num_xi = meshFileReader.readIntParameter("xi");
-            num_eta = meshFileReader.readIntParameter("eta");
-            num_zeta = meshFileReader.readIntParameter("zeta");
+        this(readPoints(meshFile), numVars, bc_xiMin, bc_xiMax, bc_etaMin, bc_etaMax, bc_zetaMin, bc_zetaMax);
+    }
 
-            nodeArray = new Node[num_xi][num_eta][num_zeta];
-            this.nodes = new ArrayList<>();
-            for (int i = 0; i < num_xi; i++) {
-                for (int j = 0; j < num_eta; j++) {
-                    for (int k = 0; k < num_zeta; k++) {
-                        Node node = new Node(meshFileReader.readXYZ(), numVars);
-                        nodeArray[i][j][k] = node;
-                        this.nodes.add(node);
-                    }
+    /**
+     * Mesh of the points in memory, for example from a {@link BoxMeshGenerator}.
+     *
+     * @param points Nodes points[i][j][k] along xi, eta and zeta.
+     */
+    public Structured3DMesh(Point[][][] points, int numVars,
+                            BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                            BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                            BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) {
+        int num_xi = points.length;
+        int num_eta = points[0].length;
+        int num_zeta = points[0][0].length;
+        Node[][][] nodeArray = new Node[num_xi][num_eta][num_zeta];
+        this.nodes = new ArrayList<>();
+        for (int i = 0; i < num_xi; i++) {
+            for (int j = 0; j < num_eta; j++) {
+                for (int k = 0; k < num_zeta; k++) {
+                    Node node = new Node(points[i][j][k], numVars);
+                    nodeArray[i][j][k] = node;
+                    this.nodes.add(node);
                 }
             }
         }
 
-        this.cells = new ArrayList<>();
+        // The cells and the faces of each cell are independent, so they are built in parallel
+        int numCells = (num_xi - 1) * (num_eta - 1) * (num_zeta - 1);
         Cell[][][] cellArray = new Cell[num_xi - 1][num_eta - 1][num_zeta - 1];
-        for (int i = 0; i < num_xi - 1; i++) {
-            for (int j = 0; j < num_eta - 1; j++) {
-                for (int k = 0; k < num_zeta - 1; k++) {
-                    Cell cell = hexCell(nodeArray, i, j, k, numVars);
-                    cellArray[i][j][k] = cell;
-                    this.cells.add(cell);
-                }
+        Dispatch.range(numCells, 16L * numCells).forEach(index -> {
+            int i = index / ((num_eta - 1) * (num_zeta - 1));
+            int j = index / (num_zeta - 1) % (num_eta - 1);
+            int k = index % (num_zeta - 1);
+            cellArray[i][j][k] = hexCell(nodeArray, i, j, k, numVars);
+        });
+        this.cells = new ArrayList<>(numCells);
+        for (Cell[][] cellPlane : cellArray) {
+            for (Cell[] cellRow : cellPlane) {
+                this.cells.addAll(List.of(cellRow));
             }
         }
         setAllCellIndices();
 
-        this.internalFaces = this.cells.stream()
-                .flatMap(cell -> hexCellFaces(cell).stream())
-                .distinct()
+        List<List<Face>> cellFaces = Dispatch.stream(this.cells, 32L * numCells)
+                .map(this::hexCellFaces)
                 .collect(Collectors.toList());
 
-        // Remove all boundary faces
-        this.internalFaces.removeIf(face -> face.right == null);
+        this.internalFaces = new FaceMatcher(cellFaces).internalFaces();
 
         int i, j, k;
         List<Face> xiMinFaces = new ArrayList<>();
@@ -305,6 +305,34 @@ public class Structured3DMesh implements Mesh {
         }
     }
 
+    private static Point[][][] readPoints(File meshFile) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != 3) {
+                throw new IllegalArgumentException("The mesh file dimension must be 3.");
+            }
+
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
+            int num_zeta = meshFileReader.readIntParameter("zeta");
+
+            Point[][][] points = new Point[num_xi][num_eta][num_zeta];
+            for (int i = 0; i < num_xi; i++) {
+                for (int j = 0; j < num_eta; j++) {
+                    for (int k = 0; k < num_zeta; k++) {
+                        points[i][j][k] = meshFileReader.readXYZ();
+                    }
+                }
+            }
+            return points;
+        }
+    }
+
     @Override
     public List<Cell> cells() {
         return cells;
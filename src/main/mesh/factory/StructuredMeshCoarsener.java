@@ -0,0 +1,84 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.io.DataFileReader;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+/**
+ * Creates a coarser structured mesh file (.cfds) by taking every second node of a structured mesh
+ * file in each direction. The last node in each direction is always kept, so the coarse mesh covers
+ * the same domain even if the number of cells in a direction is odd.
+ */
+public class StructuredMeshCoarsener {
+
+    private StructuredMeshCoarsener() {
+    }
+
+    /**
+     * @param fineMeshFile   Structured mesh file of dimension 1, 2 or 3.
+     * @param coarseMeshFile File to write the coarse mesh to.
+     * @throws IOException if unable to read or write the files.
+     */
+    public static void coarsen(File fineMeshFile, File coarseMeshFile) throws IOException {
+        int dim;
+        int[] numNodes = {1, 1, 1};
+        Point[][][] points;
+        try (DataFileReader reader = new DataFileReader(fineMeshFile, "%")) {
+            dim = reader.readIntParameter("dimension");
+            if (dim < 1 || dim > 3) {
+                throw new IllegalArgumentException("The mesh file dimension must be 1, 2 or 3.");
+            }
+            String mode = reader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+            String[] directions = {"xi", "eta", "zeta"};
+            for (int d = 0; d < dim; d++) {
+                numNodes[d] = reader.readIntParameter(directions[d]);
+            }
+
+            points = new Point[numNodes[0]][numNodes[1]][numNodes[2]];
+            for (int i = 0; i < numNodes[0]; i++) {
+                for (int j = 0; j < numNodes[1]; j++) {
+                    for (int k = 0; k < numNodes[2]; k++) {
+                        points[i][j][k] = reader.readXYZ();
+                    }
+                }
+            }
+        }
+
+        int[][] coarseIndices = new int[3][];
+        for (int d = 0; d < 3; d++) {
+            coarseIndices[d] = coarseIndices(numNodes[d]);
+        }
+
+        try (FileWriter writer = new FileWriter(coarseMeshFile)) {
+            writer.write("dimension = " + dim + "\n");
+            writer.write("mode = ASCII\n");
+            writer.write("xi = " + coarseIndices[0].length + "\n");
+            if (dim > 1) writer.write("eta = " + coarseIndices[1].length + "\n");
+            if (dim > 2) writer.write("zeta = " + coarseIndices[2].length + "\n");
+            for (int i : coarseIndices[0]) {
+                for (int j : coarseIndices[1]) {
+                    for (int k : coarseIndices[2]) {
+                        Point p = points[i][j][k];
+                        writer.write(String.format("%-25.17g %-25.17g %-25.17g\n", p.x, p.y, p.z));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Every second index from 0 to numNodes - 1, including numNodes - 1.
+     */
+    private static int[] coarseIndices(int numNodes) {
+        return IntStream.concat(IntStream.range(0, numNodes).filter(i -> i % 2 == 0),
+                        (numNodes - 1) % 2 == 0 ? IntStream.empty() : IntStream.of(numNodes - 1))
+                .toArray();
+    }
+}
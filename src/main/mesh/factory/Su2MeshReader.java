@@ -0,0 +1,79 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.io.ByteTokenizer;
+import main.mesh.Mesh;
+import main.physics.bc.BoundaryCondition;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads an SU2 mesh file into an {@link Unstructured2DMesh} or {@link Unstructured3DMesh} in one
+ * pass, without converting it to a cfdu file. The markers are the boundaries of the mesh.
+ */
+public class Su2MeshReader {
+
+    private Su2MeshReader() {
+    }
+
+    public static Mesh read(File su2File, int numVars, Map<String, BoundaryCondition> bcs) throws FileNotFoundException {
+        try (ByteTokenizer tokenizer = new ByteTokenizer(su2File, "%")) {
+            int numDimensions = tokenizer.readIntParameter("NDIME");
+            if (numDimensions != 2 && numDimensions != 3) {
+                throw new IllegalArgumentException("Unable to create mesh of dimension " + numDimensions);
+            }
+
+            int numElements = tokenizer.readIntParameter("NELEM");
+            int[][] elements = new int[numElements][];
+            for (int ei = 0; ei < numElements; ei++) {
+                elements[ei] = readElement(tokenizer);
+            }
+
+            int numPoints = tokenizer.readIntParameter("NPOIN");
+            Point[] points = new Point[numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                double x = tokenizer.nextDouble();
+                double y = tokenizer.nextDouble();
+                double z = numDimensions == 3 ? tokenizer.nextDouble() : 0.0;
+                tokenizer.skipLine(); // index of the point
+                points[i] = new Point(x, y, z);
+            }
+
+            int numBndMarkers = tokenizer.readIntParameter("NMARK");
+            Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+            for (int bnd = 0; bnd < numBndMarkers; bnd++) {
+                String markerTag = tokenizer.readParameter("MARKER_TAG");
+                int numBndElements = tokenizer.readIntParameter("MARKER_ELEMS");
+                int[][] bndElements = new int[numBndElements][];
+                for (int ei = 0; ei < numBndElements; ei++) {
+                    bndElements[ei] = readElement(tokenizer);
+                }
+                boundaryFaces.put(markerTag, bndElements);
+            }
+
+            return numDimensions == 2
+                    ? new Unstructured2DMesh(points, elements, boundaryFaces, numVars, bcs)
+                    : new Unstructured3DMesh(points, elements, boundaryFaces, numVars, bcs);
+        }
+    }
+
+    /**
+     * @return The VTK type followed by the indices of the points, as in the cfdu file. The index of
+     * the element after the points is skipped.
+     */
+    private static int[] readElement(ByteTokenizer tokenizer) {
+        int vtkId = tokenizer.nextInt();
+        int[] element = new int[VTKType.get(vtkId).numPoints() + 1];
+        element[0] = vtkId;
+        for (int i = 1; i < element.length; i++) {
+            element[i] = tokenizer.nextInt();
+        }
+        tokenizer.skipLine();
+
+        return element;
+    }
+}
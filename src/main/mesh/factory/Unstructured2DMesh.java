@@ -7,12 +7,11 @@ import main.geom.Vector;
 import main.geom.factory.*;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
-import main.io.DataFileReader;
+import main.util.Dispatch;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.*;
-import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -23,26 +22,35 @@ public class Unstructured2DMesh implements Mesh {
     private final List<Boundary> boundaries;
 
     public Unstructured2DMesh(File meshFile, int numVars, Map<String, BoundaryCondition> bcs) throws FileNotFoundException {
-        DataFileReader meshFileReader = new DataFileReader(meshFile, "%");
-        int dim = meshFileReader.readIntParameter("dimension");
-        if (dim != 2) {
-            throw new IllegalArgumentException("The mesh file dimension must be 2.");
-        }
-        String mode = meshFileReader.readParameter("mode");
-        if (!mode.equals("ASCII")) {
-            throw new IllegalArgumentException("Only ASCII mode is supported.");
-        }
+        this(UnstructuredMeshData.read(meshFile, 2), numVars, bcs);
+    }
+
+    /**
+     * Mesh of the elements in memory, for example from a {@link BoxMeshGenerator}.
+     *
+     * @param points        Locations of the nodes.
+     * @param elements      Rows of the VTK type of the element followed by the indices of its points,
+     *                      as in the mesh file.
+     * @param boundaryFaces Rows of the faces of each boundary, in the same layout as the elements.
+     *                      The boundaries are in the iteration order of the map.
+     */
+    public Unstructured2DMesh(Point[] points, int[][] elements, Map<String, int[][]> boundaryFaces,
+                              int numVars, Map<String, BoundaryCondition> bcs) {
+        this(new UnstructuredMeshData(points, elements, boundaryFaces), numVars, bcs);
+    }
 
-        int numPoints = meshFileReader.readIntParameter("points");
-        this.nodes = List.copyOf(IntStream.range(0, numPoints)
-                .mapToObj(i -> new Node(meshFileReader.readXYZ(), numVars))
+    private Unstructured2DMesh(UnstructuredMeshData meshData, int numVars, Map<String, BoundaryCondition> bcs) {
+        this.nodes = List.copyOf(Arrays.stream(meshData.points())
+                .map(point -> new Node(point, numVars))
                 .collect(toList()));
 
-        int numElements = meshFileReader.readIntParameter("elements");
-        List<Cell> cellList = new ArrayList<>();
-        Set<Face> faceSet = new HashSet<>();
-        for (int i = 0; i < numElements; i++) {
-            int[] connectivity = meshFileReader.readIntArray();
+        // The cells and the faces of each cell are independent, so they are built in parallel
+        int[][] elements = meshData.elements();
+        int numElements = elements.length;
+        Cell[] cellArray = new Cell[numElements];
+        List<List<Face>> cellFaces = new ArrayList<>(Collections.nCopies(numElements, null));
+        Dispatch.range(numElements, 8L * numElements).forEach(i -> {
+            int[] connectivity = elements[i];
             VTKType vtkType = VTKType.get(connectivity[0]);
             Node[] cellNodes = new Node[connectivity.length - 1];
             Point[] cellPoints = new Point[cellNodes.length];
@@ -62,30 +70,20 @@ public class Unstructured2DMesh implements Mesh {
             };
             Shape cellShape = new Shape(cellGeom.area() * 1.0, cellGeom.centroid());
             Cell cell = new Cell(cellNodes, vtkType, cellShape, numVars);
-            cellList.add(cell);
-
-            // Create and add faces of the cell to Set
-            faceSet.addAll(createCellFaces(cell, cellGeom));
-        }
-        this.cells = List.copyOf(cellList);
+            cellArray[i] = cell;
+            cellFaces.set(i, createCellFaces(cell, cellGeom));
+        });
+        this.cells = List.of(cellArray);
         setAllCellIndices();
 
-        List<Face> allBoundaryFaces = faceSet.stream()
-                .filter(f -> f.right == null)
-                .collect(toList());
+        FaceMatcher faceMatcher = new FaceMatcher(cellFaces);
+        this.internalFaces = List.copyOf(faceMatcher.internalFaces());
 
-        this.internalFaces = List.copyOf(faceSet.stream()
-                .filter(f -> f.right != null)
-                .collect(toList()));
-
-        int numBoundaries = meshFileReader.readIntParameter("boundaries");
-        Boundary[] boundaryArray = new Boundary[numBoundaries];
-        for (int bi = 0; bi < numBoundaries; bi++) {
-            String bndName = meshFileReader.readParameter("bname");
-            int numBndFaces = meshFileReader.readIntParameter("bfaces");
+        List<Boundary> boundaryList = new ArrayList<>();
+        for (Map.Entry<String, int[][]> boundaryEntry : meshData.boundaryFaces().entrySet()) {
+            String bndName = boundaryEntry.getKey();
             List<Face> bndFaces = new ArrayList<>();
-            for (int fi = 0; fi < numBndFaces; fi++) {
-                int[] connectivity = meshFileReader.readIntArray();
+            for (int[] connectivity : boundaryEntry.getValue()) {
                 VTKType vtkType = VTKType.get(connectivity[0]);
                 if (vtkType != VTKType.VTK_LINE) {
                     throw new UnsupportedOperationException("Face: The geometry type " + vtkType + " is not supported.");
@@ -94,19 +92,19 @@ public class Unstructured2DMesh implements Mesh {
                 for (int ni = 0; ni < faceNodes.length; ni++) {
                     faceNodes[ni] = nodes.get(connectivity[ni + 1]);
                 }
-                Face bndFace = search(faceNodes, allBoundaryFaces)
-                        .orElseThrow(() -> new IllegalStateException("Couldn't locate boundary face in mesh."));
+                Face bndFace = faceMatcher.boundaryFace(faceNodes);
+                if (bndFace == null) {
+                    throw new IllegalStateException("Couldn't locate boundary face in mesh.");
+                }
                 bndFace.right = Mesh.ghostCell(bndFace.left, bndFace);
                 bndFaces.add(bndFace);
             }
-            boundaryArray[bi] = new Boundary(bndName, bndFaces, bcs.get(bndName));
+            boundaryList.add(new Boundary(bndName, bndFaces, bcs.get(bndName)));
         }
-        this.boundaries = List.of(boundaryArray);
+        this.boundaries = List.copyOf(boundaryList);
 
         setAllFaceIndices();
 
-        meshFileReader.close();
-
         // Setup node neighbors
         for (Cell cell : cells) {
             for (Node node : cell.nodes) {
@@ -159,24 +157,6 @@ public class Unstructured2DMesh implements Mesh {
         return edgeTangent.cross(cellNormal).unit();
     }
 
-    private Optional<Face> search(Node[] faceNodes, List<Face> faces) {
-        for (Face face : faces) {
-            if (sameNodes(faceNodes, face.nodes))
-                return Optional.of(face);
-        }
-
-        return Optional.empty();
-    }
-
-    private boolean sameNodes(Node[] na1, Node[] na2) {
-        if (na1.length != na2.length) return false;
-
-        List<Node> nl1 = List.of(na1);
-        List<Node> nl2 = List.of(na2);
-
-        return nl1.containsAll(nl2);
-    }
-
     @Override
     public List<Cell> cells() {
         return cells;
@@ -1,16 +1,16 @@
 package main.mesh.factory;
 
 import main.geom.Geometry;
+import main.geom.Point;
 import main.geom.VTKType;
 import main.geom.factory.*;
-import main.io.DataFileReader;
 import main.mesh.*;
 import main.physics.bc.BoundaryCondition;
+import main.util.Dispatch;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.util.*;
-import java.util.stream.IntStream;
 
 import static java.util.stream.Collectors.toList;
 
@@ -21,80 +21,82 @@ public class Unstructured3DMesh implements Mesh {
     private final List<Boundary> boundaries;
 
     public Unstructured3DMesh(File meshFile, int numVars, Map<String, BoundaryCondition> bcs) throws FileNotFoundException {
-        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
-            int dim = meshFileReader.readIntParameter("dimension");
-            if (dim != 3) {
-                throw new IllegalArgumentException("The mesh file dimension must be 3.");
-            }
-            String mode = meshFileReader.readParameter("mode");
-            if (!mode.equals("ASCII")) {
-                throw new IllegalArgumentException("Only ASCII mode is supported.");
-            }
+        this(UnstructuredMeshData.read(meshFile, 3), numVars, bcs);
+    }
 
-            int numPoints = meshFileReader.readIntParameter("points");
-            this.nodes = List.copyOf(IntStream.range(0, numPoints)
-                    .mapToObj(i -> new Node(meshFileReader.readXYZ(), numVars))
-                    .collect(toList()));
+    /**
+     * Mesh of the elements in memory, for example from a {@link BoxMeshGenerator}.
+     *
+     * @param points        Locations of the nodes.
+     * @param elements      Rows of the VTK type of the element followed by the indices of its points,
+     *                      as in the mesh file.
+     * @param boundaryFaces Rows of the faces of each boundary, in the same layout as the elements.
+     *                      The boundaries are in the iteration order of the map.
+     */
+    public Unstructured3DMesh(Point[] points, int[][] elements, Map<String, int[][]> boundaryFaces,
+                              int numVars, Map<String, BoundaryCondition> bcs) {
+        this(new UnstructuredMeshData(points, elements, boundaryFaces), numVars, bcs);
+    }
 
-            int numElements = meshFileReader.readIntParameter("elements");
-            List<Cell> cellList = new ArrayList<>();
-            Set<Face> faceSet = new HashSet<>();
+    private Unstructured3DMesh(UnstructuredMeshData meshData, int numVars, Map<String, BoundaryCondition> bcs) {
+        this.nodes = List.copyOf(Arrays.stream(meshData.points())
+                .map(point -> new Node(point, numVars))
+                .collect(toList()));
+
+        // The cells and the faces of each cell are independent, so they are built in parallel
+        int[][] elements = meshData.elements();
+        int numElements = elements.length;
+        CellAndFaces[] cellsAndFaces = new CellAndFaces[numElements];
+        Dispatch.range(numElements, 16L * numElements).forEach(i -> {
+            int[] connectivity = elements[i];
+            VTKType vtkType = VTKType.get(connectivity[0]);
+            Node[] cellNodes = new Node[connectivity.length - 1];
+            for (int ni = 0; ni < cellNodes.length; ni++) {
+                cellNodes[ni] = nodes.get(connectivity[ni + 1]);
+            }
+
+            if (vtkType.dim != 3) {
+                throw new IllegalArgumentException("The elements are not 3D.");
+            }
 
-            for (int i = 0; i < numElements; i++) {
-                int[] connectivity = meshFileReader.readIntArray();
+            cellsAndFaces[i] = createNewCellAndFaces(vtkType, cellNodes);
+        });
+        this.cells = Arrays.stream(cellsAndFaces)
+                .map(CellAndFaces::cell)
+                .toList();
+        setAllCellIndices();
+
+        FaceMatcher faceMatcher = new FaceMatcher(Arrays.stream(cellsAndFaces)
+                .map(CellAndFaces::faces)
+                .toList());
+        this.internalFaces = List.copyOf(faceMatcher.internalFaces());
+
+        List<Boundary> boundaryList = new ArrayList<>();
+        for (Map.Entry<String, int[][]> boundaryEntry : meshData.boundaryFaces().entrySet()) {
+            String bndName = boundaryEntry.getKey();
+            List<Face> bndFaces = new ArrayList<>();
+            for (int[] connectivity : boundaryEntry.getValue()) {
                 VTKType vtkType = VTKType.get(connectivity[0]);
-                Node[] cellNodes = new Node[connectivity.length - 1];
-                for (int ni = 0; ni < cellNodes.length; ni++) {
-                    cellNodes[ni] = nodes.get(connectivity[ni + 1]);
+                if (vtkType.dim != 2) {
+                    throw new UnsupportedOperationException("Face dimension must be 2D. The geometry type " + vtkType + " is not supported.");
                 }
-
-                if (vtkType.dim != 3) {
-                    throw new IllegalArgumentException("The elements are not 3D.");
+                Node[] faceNodes = new Node[connectivity.length - 1];
+                for (int ni = 0; ni < faceNodes.length; ni++) {
+                    faceNodes[ni] = nodes.get(connectivity[ni + 1]);
                 }
-
-                CellAndFaces cellAndFaces = createNewCellAndFaces(vtkType, cellNodes);
-                cellList.add(cellAndFaces.cell);
-                faceSet.addAll(cellAndFaces.faces);
-            }
-            this.cells = List.copyOf(cellList);
-            setAllCellIndices();
-
-            List<Face> allBoundaryFaces = faceSet.stream()
-                    .filter(f -> f.right == null)
-                    .toList();
-
-            this.internalFaces = List.copyOf(faceSet.stream()
-                    .filter(f -> f.right != null)
-                    .toList());
-
-            int numBoundaries = meshFileReader.readIntParameter("boundaries");
-            Boundary[] boundaryArray = new Boundary[numBoundaries];
-            for (int bi = 0; bi < numBoundaries; bi++) {
-                String bndName = meshFileReader.readParameter("bname");
-                int numBndFaces = meshFileReader.readIntParameter("bfaces");
-                List<Face> bndFaces = new ArrayList<>();
-                for (int fi = 0; fi < numBndFaces; fi++) {
-                    int[] connectivity = meshFileReader.readIntArray();
-                    VTKType vtkType = VTKType.get(connectivity[0]);
-                    if (vtkType.dim != 2) {
-                        throw new UnsupportedOperationException("Face dimension must be 2D. The geometry type " + vtkType + " is not supported.");
-                    }
-                    Node[] faceNodes = new Node[connectivity.length - 1];
-                    for (int ni = 0; ni < faceNodes.length; ni++) {
-                        faceNodes[ni] = nodes.get(connectivity[ni + 1]);
-                    }
-                    Face bndFace = search(faceNodes, allBoundaryFaces)
-                            .orElseThrow(() -> new IllegalStateException("Couldn't locate boundary face in mesh.\n" +
-                                    "The error occurred while reading '" + bndName + "' boundary."));
-                    bndFace.right = Mesh.ghostCell(bndFace.left, bndFace);
-                    bndFaces.add(bndFace);
+                Face bndFace = faceMatcher.boundaryFace(faceNodes);
+                if (bndFace == null) {
+                    throw new IllegalStateException("Couldn't locate boundary face in mesh.\n" +
+                            "The error occurred while reading '" + bndName + "' boundary.");
                 }
-                boundaryArray[bi] = new Boundary(bndName, bndFaces, bcs.get(bndName));
+                bndFace.right = Mesh.ghostCell(bndFace.left, bndFace);
+                bndFaces.add(bndFace);
             }
-            this.boundaries = List.of(boundaryArray);
-
-            setAllFaceIndices();
+            boundaryList.add(new Boundary(bndName, bndFaces, bcs.get(bndName)));
         }
+        this.boundaries = List.copyOf(boundaryList);
+
+        setAllFaceIndices();
 
         // Setup node neighbors
         for (Cell cell : cells) {
@@ -219,24 +221,6 @@ public class Unstructured3DMesh implements Mesh {
         return new Face(faceNodes, faceGeom.vtkType(), surface, cell, null, cell.U.length);
     }
 
-    private Optional<Face> search(Node[] faceNodes, List<Face> faces) {
-        for (Face face : faces) {
-            if (sameNodes(faceNodes, face.nodes))
-                return Optional.of(face);
-        }
-
-        return Optional.empty();
-    }
-
-    private boolean sameNodes(Node[] na1, Node[] na2) {
-        if (na1.length != na2.length) return false;
-
-        List<Node> nl1 = List.of(na1);
-        List<Node> nl2 = List.of(na2);
-
-        return nl1.containsAll(nl2);
-    }
-
     @Override
     public List<Cell> cells() {
         return cells;
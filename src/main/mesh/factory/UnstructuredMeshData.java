@@ -0,0 +1,59 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.io.DataFileReader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Points, elements and boundary faces of an unstructured mesh, in the layout of the cfdu mesh file.
+ *
+ * @param points        Locations of the nodes.
+ * @param elements      Rows of the VTK type of the element followed by the indices of its points.
+ * @param boundaryFaces Rows of the faces of each boundary, in the same layout as the elements.
+ *                      The boundaries of the mesh are in the iteration order of the map.
+ */
+record UnstructuredMeshData(Point[] points, int[][] elements, Map<String, int[][]> boundaryFaces) {
+
+    static UnstructuredMeshData read(File meshFile, int dimension) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != dimension) {
+                throw new IllegalArgumentException("The mesh file dimension must be " + dimension + ".");
+            }
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+
+            int numPoints = meshFileReader.readIntParameter("points");
+            Point[] points = new Point[numPoints];
+            for (int i = 0; i < numPoints; i++) {
+                points[i] = meshFileReader.readXYZ();
+            }
+
+            int numElements = meshFileReader.readIntParameter("elements");
+            int[][] elements = new int[numElements][];
+            for (int i = 0; i < numElements; i++) {
+                elements[i] = meshFileReader.readIntArray();
+            }
+
+            int numBoundaries = meshFileReader.readIntParameter("boundaries");
+            Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+            for (int bi = 0; bi < numBoundaries; bi++) {
+                String bndName = meshFileReader.readParameter("bname");
+                int numBndFaces = meshFileReader.readIntParameter("bfaces");
+                int[][] faces = new int[numBndFaces][];
+                for (int fi = 0; fi < numBndFaces; fi++) {
+                    faces[fi] = meshFileReader.readIntArray();
+                }
+                boundaryFaces.put(bndName, faces);
+            }
+
+            return new UnstructuredMeshData(points, elements, boundaryFaces);
+        }
+    }
+}
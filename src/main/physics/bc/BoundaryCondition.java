@@ -6,4 +6,19 @@ public interface BoundaryCondition {
     void setGhostCellValues(Face face);
 
     double[] convectiveFlux(Face face);
+
+    /**
+     * Same as {@link #setGhostCellValues(Face)}, for boundary conditions that can use the primitive
+     * variables of the inside (left) cell when they are already available.
+     */
+    default void setGhostCellValues(Face face, double[] insidePrimitiveVars) {
+        setGhostCellValues(face);
+    }
+
+    /**
+     * Same as {@link #convectiveFlux(Face)}, using the primitive variables of the inside (left) cell.
+     */
+    default double[] convectiveFlux(Face face, double[] insidePrimitiveVars) {
+        return convectiveFlux(face);
+    }
 }
@@ -15,9 +15,13 @@ public class InviscidWallBC implements BoundaryCondition {
 
     @Override
     public void setGhostCellValues(Face face) {
+        setGhostCellValues(face, govEqn.primitiveVars(face.left.U));
+    }
+
+    @Override
+    public void setGhostCellValues(Face face, double[] insidePrimVars) {
         // extrapolate pressure and density
         // mirror velocity vector
-        double[] insidePrimVars = govEqn.primitiveVars(face.left.U);
         double rho = insidePrimVars[0];
         double u = insidePrimVars[1];
         double v = insidePrimVars[2];
@@ -41,8 +45,12 @@ public class InviscidWallBC implements BoundaryCondition {
 
     @Override
     public double[] convectiveFlux(Face face) {
+        return convectiveFlux(face, govEqn.primitiveVars(face.left.U));
+    }
+
+    @Override
+    public double[] convectiveFlux(Face face, double[] insidePrimVars) {
         Vector n = face.surface.unitNormal();
-        double[] insidePrimVars = govEqn.primitiveVars(face.left.U);
         double p = insidePrimVars[4];
         return new double[]{
                 0, p * n.x, p * n.y, p * n.z, 0
@@ -31,4 +31,54 @@ public interface Convection {
      * @return maximum of absolute eigenvalues
      */
     double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal);
+
+    /**
+     * Same as {@link #flux(double[], Vector)}, for equations that can use the primitive variables
+     * of the state when they are already available (for example, from a primitive variable cache).
+     *
+     * @param conservativeVars U
+     * @param primitiveVars    Primitive variables of U
+     * @param unitNormal       n
+     * @return Fc nx + Gc ny + Hc nz
+     */
+    default double[] flux(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
+        return flux(conservativeVars, unitNormal);
+    }
+
+    /**
+     * Same as {@link #sortedEigenvalues(double[], Vector)}, using the primitive variables of the state.
+     */
+    default double[] sortedEigenvalues(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
+        return sortedEigenvalues(conservativeVars, unitNormal);
+    }
+
+    /**
+     * Same as {@link #maxAbsEigenvalues(double[], Vector)}, using the primitive variables of the state.
+     */
+    default double maxAbsEigenvalues(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
+        return maxAbsEigenvalues(conservativeVars, unitNormal);
+    }
+
+    /**
+     * Jacobian of the flux Fc nx + Gc ny + Hc nz with respect to the conservative variables.
+     * The default uses one-sided finite differences of {@link #flux(double[], Vector)}, which
+     * costs one flux evaluation per variable. Equations override it with the analytic Jacobian.
+     *
+     * @param conservativeVars U
+     * @param unitNormal       n
+     * @param jacobian         numVars x numVars array, set to d(flux)_i / dU_j in jacobian[i][j].
+     */
+    default void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+        double[] flux = flux(conservativeVars, unitNormal).clone();
+        double[] U = conservativeVars.clone();
+        for (int j = 0; j < U.length; j++) {
+            double h = 1e-7 * Math.max(1.0, Math.abs(U[j]));
+            U[j] = conservativeVars[j] + h;
+            double[] perturbedFlux = flux(U, unitNormal);
+            for (int i = 0; i < flux.length; i++) {
+                jacobian[i][j] = (perturbedFlux[i] - flux[i]) / h;
+            }
+            U[j] = conservativeVars[j];
+        }
+    }
 }
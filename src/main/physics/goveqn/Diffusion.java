@@ -2,8 +2,36 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public interface Diffusion {
     double[] flux(double[] conservativeVars, Vector[] gradConservativeVars, Vector unitNormal);
 
     double maxAbsDiffusivity(double[] conservativeVars);
+
+    /**
+     * Thin-layer Jacobian of the flux: the derivative of the flux with respect to the normal
+     * derivatives dU/dn of the conservative variables, when the gradients are approximated by
+     * their normal components (dU/dn) n. An implicit method multiplies it by 1 / (normal distance
+     * between the cells) for the two-point gradient. The default evaluates the flux with the
+     * gradient of one variable at a time, which is exact for fluxes linear in the gradients.
+     *
+     * @param conservativeVars U
+     * @param unitNormal       n
+     * @param jacobian         numVars x numVars array, set to d(flux)_i / d(dU_j/dn) in jacobian[i][j].
+     */
+    default void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+        int numVars = conservativeVars.length;
+        Vector[] gradients = new Vector[numVars];
+        Arrays.fill(gradients, Vector.ZERO);
+        double[] flux = flux(conservativeVars, gradients, unitNormal).clone();
+        for (int j = 0; j < numVars; j++) {
+            gradients[j] = unitNormal;
+            double[] perturbedFlux = flux(conservativeVars, gradients, unitNormal);
+            for (int i = 0; i < flux.length; i++) {
+                jacobian[i][j] = perturbedFlux[i] - flux[i];
+            }
+            gradients[j] = Vector.ZERO;
+        }
+    }
 }
@@ -5,4 +5,26 @@ import main.geom.Vector;
 
 public interface Source {
     double[] sourceVector(Point at, double[] conservativeVars, Vector[] gradConservativeVars);
+
+    /**
+     * Jacobian of the source with respect to the conservative variables, at constant gradients.
+     * The default uses one-sided finite differences of
+     * {@link #sourceVector(Point, double[], Vector[])}, which costs one source evaluation per
+     * variable. Equations override it with the analytic Jacobian.
+     *
+     * @param jacobian numVars x numVars array, set to d(source)_i / dU_j in jacobian[i][j].
+     */
+    default void jacobian(Point at, double[] conservativeVars, Vector[] gradConservativeVars, double[][] jacobian) {
+        double[] source = sourceVector(at, conservativeVars, gradConservativeVars).clone();
+        double[] U = conservativeVars.clone();
+        for (int j = 0; j < U.length; j++) {
+            double h = 1e-7 * Math.max(1.0, Math.abs(U[j]));
+            U[j] = conservativeVars[j] + h;
+            double[] perturbedSource = sourceVector(at, U, gradConservativeVars);
+            for (int i = 0; i < source.length; i++) {
+                jacobian[i][j] = (perturbedSource[i] - source[i]) / h;
+            }
+            U[j] = conservativeVars[j];
+        }
+    }
 }
@@ -2,6 +2,8 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroConvection implements Convection {
 
     private final double[] flux;
@@ -26,4 +28,11 @@ public class ZeroConvection implements Convection {
     public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
         return 0;
     }
+
+    @Override
+    public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+        for (double[] row : jacobian) {
+            Arrays.fill(row, 0.0);
+        }
+    }
 }
@@ -2,6 +2,8 @@ package main.physics.goveqn;
 
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroDiffusion implements Diffusion {
     private final double[] zeroFlux;
 
@@ -18,4 +20,11 @@ public class ZeroDiffusion implements Diffusion {
     public double maxAbsDiffusivity(double[] conservativeVars) {
         return 0;
     }
+
+    @Override
+    public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+        for (double[] row : jacobian) {
+            Arrays.fill(row, 0.0);
+        }
+    }
 }
@@ -3,6 +3,8 @@ package main.physics.goveqn;
 import main.geom.Point;
 import main.geom.Vector;
 
+import java.util.Arrays;
+
 public class ZeroSource implements Source {
     private final double[] zeroVector;
 
@@ -14,4 +16,11 @@ public class ZeroSource implements Source {
     public double[] sourceVector(Point at, double[] conservativeVars, Vector[] gradConservativeVars) {
         return zeroVector;
     }
+
+    @Override
+    public void jacobian(Point at, double[] conservativeVars, Vector[] gradConservativeVars, double[][] jacobian) {
+        for (double[] row : jacobian) {
+            Arrays.fill(row, 0.0);
+        }
+    }
 }
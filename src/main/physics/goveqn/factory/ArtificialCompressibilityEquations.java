@@ -168,6 +168,45 @@ public class ArtificialCompressibilityEquations implements GoverningEquations {
 
             return Math.abs(Vp) + a;
         }
+
+        @Override
+        public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+            double u = conservativeVars[1];
+            double v = conservativeVars[2];
+            double w = conservativeVars[3];
+
+            double beta_rho = BETA / RHO;
+
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            double Vp = u * nx + v * ny + w * nz;
+
+            double[] J0 = jacobian[0];
+            J0[0] = 0.0;
+            J0[1] = nx;
+            J0[2] = ny;
+            J0[3] = nz;
+
+            double[] J1 = jacobian[1];
+            J1[0] = beta_rho * nx;
+            J1[1] = Vp + u * nx;
+            J1[2] = u * ny;
+            J1[3] = u * nz;
+
+            double[] J2 = jacobian[2];
+            J2[0] = beta_rho * ny;
+            J2[1] = v * nx;
+            J2[2] = Vp + v * ny;
+            J2[3] = v * nz;
+
+            double[] J3 = jacobian[3];
+            J3[0] = beta_rho * nz;
+            J3[1] = w * nx;
+            J3[2] = w * ny;
+            J3[3] = Vp + w * nz;
+        }
     };
 
     public double[] F(double[] conservativeVars) {
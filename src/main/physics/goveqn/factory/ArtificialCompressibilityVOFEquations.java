@@ -4,6 +4,8 @@ import main.geom.Point;
 import main.geom.Vector;
 import main.physics.goveqn.*;
 
+import java.util.Arrays;
+
 public class ArtificialCompressibilityVOFEquations implements GoverningEquations {
     private final double BETA;
     private final double RHO1;
@@ -213,6 +215,62 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
 
             return Math.abs(Vp) + a;
         }
+
+        @Override
+        public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+            double[] primitiveVars = primitiveVars(conservativeVars);
+            double p = primitiveVars[0];
+            double u = primitiveVars[1];
+            double v = primitiveVars[2];
+            double w = primitiveVars[3];
+            double C = primitiveVars[4];
+
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            double rho = rho(C);
+            // d rho / dC, zero where the density is clipped to the density of one fluid
+            double drho_rho = (C > 0 && C < 1 ? RHO1_MINUS_RHO2 : 0.0) / rho;
+
+            double Vp = u * nx + v * ny + w * nz;
+            double beta_rho = BETA * rho;
+
+            double[] J0 = jacobian[0];
+            J0[0] = 0.0;
+            J0[1] = nx / rho;
+            J0[2] = ny / rho;
+            J0[3] = nz / rho;
+            J0[4] = -Vp * drho_rho;
+
+            double[] J1 = jacobian[1];
+            J1[0] = beta_rho * nx;
+            J1[1] = Vp + u * nx;
+            J1[2] = u * ny;
+            J1[3] = u * nz;
+            J1[4] = drho_rho * (p * nx - rho * u * Vp);
+
+            double[] J2 = jacobian[2];
+            J2[0] = beta_rho * ny;
+            J2[1] = v * nx;
+            J2[2] = Vp + v * ny;
+            J2[3] = v * nz;
+            J2[4] = drho_rho * (p * ny - rho * v * Vp);
+
+            double[] J3 = jacobian[3];
+            J3[0] = beta_rho * nz;
+            J3[1] = w * nx;
+            J3[2] = w * ny;
+            J3[3] = Vp + w * nz;
+            J3[4] = drho_rho * (p * nz - rho * w * Vp);
+
+            double[] J4 = jacobian[4];
+            J4[0] = 0.0;
+            J4[1] = C * nx / rho;
+            J4[2] = C * ny / rho;
+            J4[3] = C * nz / rho;
+            J4[4] = Vp * (1.0 - C * drho_rho);
+        }
     };
 
     public double[] F(double[] conservativeVars) {
@@ -324,6 +382,21 @@ public class ArtificialCompressibilityVOFEquations implements GoverningEquations
                     0
             };
         }
+
+        @Override
+        public void jacobian(Point at, double[] conservativeVars, Vector[] gradConservativeVars,
+                             double[][] jacobian) {
+            for (double[] row : jacobian) {
+                Arrays.fill(row, 0.0);
+            }
+            double C = conservativeVars[4];
+            if (C > 0 && C < 1) {
+                // only the density of the gravity source depends on the volume fraction
+                jacobian[1][4] = RHO1_MINUS_RHO2 * GRAVITY.x;
+                jacobian[2][4] = RHO1_MINUS_RHO2 * GRAVITY.y;
+                jacobian[3][4] = RHO1_MINUS_RHO2 * GRAVITY.z;
+            }
+        }
     };
 
     @Override
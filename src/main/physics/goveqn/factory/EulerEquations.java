@@ -110,7 +110,11 @@ public class EulerEquations implements GoverningEquations {
     private final Convection convection = new Convection() {
         @Override
         public double[] flux(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
+            return flux(conservativeVars, primitiveVars(conservativeVars), unitNormal);
+        }
+
+        @Override
+        public double[] flux(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
             double rho = primitiveVars[0];
             double u = primitiveVars[1];
             double v = primitiveVars[2];
@@ -138,7 +142,11 @@ public class EulerEquations implements GoverningEquations {
 
         @Override
         public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
+            return sortedEigenvalues(conservativeVars, primitiveVars(conservativeVars), unitNormal);
+        }
+
+        @Override
+        public double[] sortedEigenvalues(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
             double rho = primitiveVars[0];
             double u = primitiveVars[1];
             double v = primitiveVars[2];
@@ -159,7 +167,11 @@ public class EulerEquations implements GoverningEquations {
 
         @Override
         public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
-            double[] primitiveVars = primitiveVars(conservativeVars);
+            return maxAbsEigenvalues(conservativeVars, primitiveVars(conservativeVars), unitNormal);
+        }
+
+        @Override
+        public double maxAbsEigenvalues(double[] conservativeVars, double[] primitiveVars, Vector unitNormal) {
             double rho = primitiveVars[0];
             double u = primitiveVars[1];
             double v = primitiveVars[2];
@@ -175,6 +187,60 @@ public class EulerEquations implements GoverningEquations {
 
             return Math.abs(vn) + a;
         }
+
+        @Override
+        public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+            double[] primitiveVars = primitiveVars(conservativeVars);
+            double rho = primitiveVars[0];
+            double u = primitiveVars[1];
+            double v = primitiveVars[2];
+            double w = primitiveVars[3];
+            double p = primitiveVars[4];
+
+            double nx = unitNormal.x;
+            double ny = unitNormal.y;
+            double nz = unitNormal.z;
+
+            double gm1 = GAMMA - 1.0;
+            double Vn = u * nx + v * ny + w * nz;
+            double phi = 0.5 * gm1 * (u * u + v * v + w * w);
+            double H = (conservativeVars[4] + p) / rho;
+
+            double[] J0 = jacobian[0];
+            J0[0] = 0.0;
+            J0[1] = nx;
+            J0[2] = ny;
+            J0[3] = nz;
+            J0[4] = 0.0;
+
+            double[] J1 = jacobian[1];
+            J1[0] = phi * nx - u * Vn;
+            J1[1] = Vn + u * nx - gm1 * u * nx;
+            J1[2] = u * ny - gm1 * v * nx;
+            J1[3] = u * nz - gm1 * w * nx;
+            J1[4] = gm1 * nx;
+
+            double[] J2 = jacobian[2];
+            J2[0] = phi * ny - v * Vn;
+            J2[1] = v * nx - gm1 * u * ny;
+            J2[2] = Vn + v * ny - gm1 * v * ny;
+            J2[3] = v * nz - gm1 * w * ny;
+            J2[4] = gm1 * ny;
+
+            double[] J3 = jacobian[3];
+            J3[0] = phi * nz - w * Vn;
+            J3[1] = w * nx - gm1 * u * nz;
+            J3[2] = w * ny - gm1 * v * nz;
+            J3[3] = Vn + w * nz - gm1 * w * nz;
+            J3[4] = gm1 * nz;
+
+            double[] J4 = jacobian[4];
+            J4[0] = Vn * (phi - H);
+            J4[1] = H * nx - gm1 * u * Vn;
+            J4[2] = H * ny - gm1 * v * Vn;
+            J4[3] = H * nz - gm1 * w * Vn;
+            J4[4] = GAMMA * Vn;
+        }
     };
 
     @Override
@@ -39,6 +39,49 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
     }
 
 
+    public int numOrientations() {
+        return NUM_ORIENTATIONS;
+    }
+
+    /**
+     * @return Diffusivity L_i kappa_i of the orientation i.
+     */
+    public double diffusivity(int i) {
+        return L[i] * kappa[i];
+    }
+
+    /**
+     * Source of the orientation i. The orientations which are zero have zero source, so that the
+     * source can be evaluated only for the non-zero orientations.
+     *
+     * @param eta_i         Order parameter of the orientation i.
+     * @param sum_eta_i_sqr Sum of the squares of the order parameters of all the orientations.
+     * @return Source of the orientation i.
+     */
+    public double source(int i, double eta_i, double sum_eta_i_sqr) {
+        double eta_i_sqr = eta_i * eta_i;
+        double eta_i_cubed = eta_i_sqr * eta_i;
+        double sum_eta_j_sqr = sum_eta_i_sqr - eta_i_sqr;
+
+        double source = -alpha * eta_i + beta * eta_i_cubed
+                + 2.0 * gamma * eta_i * sum_eta_j_sqr;
+        source *= -L[i];
+
+        return source;
+    }
+
+    /**
+     * @return Upper bound of |d source_i / d eta_i| for order parameters between 0 and 1, which
+     * limits the time step of explicit time integration.
+     */
+    public double maxSourceRate() {
+        double maxL = 0.0;
+        for (double Li : L) {
+            maxL = Math.max(maxL, Math.abs(Li));
+        }
+        return maxL * (Math.abs(alpha) + 3.0 * Math.abs(beta) + 2.0 * Math.abs(gamma));
+    }
+
     @Override
     public String description() {
         return "Grain Growth using a Continuum Field Model - Fan & Chen.";
@@ -124,18 +167,30 @@ public class GrainGrowthFanChenEquations implements GoverningEquations {
                 sum_eta_i_sqr += eta * eta;
             }
 
+            for (int i = 0; i < NUM_ORIENTATIONS; i++) {
+                sourceFlux[i] = source(i, conservativeVars[i], sum_eta_i_sqr);
+            }
+
+            return sourceFlux;
+        }
+
+        @Override
+        public void jacobian(Point at, double[] conservativeVars, Vector[] gradConservativeVars,
+                             double[][] jacobian) {
+            double sum_eta_i_sqr = 0.0;
+            for (double eta : conservativeVars) {
+                sum_eta_i_sqr += eta * eta;
+            }
+
             for (int i = 0; i < NUM_ORIENTATIONS; i++) {
                 double eta_i = conservativeVars[i];
                 double eta_i_sqr = eta_i * eta_i;
-                double eta_i_cubed = eta_i_sqr * eta_i;
                 double sum_eta_j_sqr = sum_eta_i_sqr - eta_i_sqr;
-
-                sourceFlux[i] = -alpha * eta_i + beta * eta_i_cubed
-                        + 2.0 * gamma * eta_i * sum_eta_j_sqr;
-                sourceFlux[i] *= -L[i];
+                for (int j = 0; j < NUM_ORIENTATIONS; j++) {
+                    jacobian[i][j] = -L[i] * 4.0 * gamma * eta_i * conservativeVars[j];
+                }
+                jacobian[i][i] = -L[i] * (-alpha + 3.0 * beta * eta_i_sqr + 2.0 * gamma * sum_eta_j_sqr);
             }
-
-            return sourceFlux;
         }
     };
 
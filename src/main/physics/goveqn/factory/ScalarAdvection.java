@@ -92,6 +92,11 @@ public class ScalarAdvection implements GoverningEquations {
 
             return Math.abs(ev);
         }
+
+        @Override
+        public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+            jacobian[0][0] = ax * unitNormal.x + ay * unitNormal.y + az * unitNormal.z;
+        }
     };
 
     @Override
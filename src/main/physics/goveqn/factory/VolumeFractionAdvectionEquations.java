@@ -3,6 +3,8 @@ package main.physics.goveqn.factory;
 import main.geom.Vector;
 import main.physics.goveqn.*;
 
+import java.util.Arrays;
+
 import static main.util.DoubleArray.copyOf;
 
 public class VolumeFractionAdvectionEquations implements GoverningEquations {
@@ -137,6 +139,45 @@ public class VolumeFractionAdvectionEquations implements GoverningEquations {
 
             return (u + Vr.x) * fnx + (v + Vr.y) * fny + (w + Vr.z) * fnz;
         }
+
+        @Override
+        public void fluxJacobian(double[] conservativeVars, Vector unitNormal, double[][] jacobian) {
+            double fnx = unitNormal.x;
+            double fny = unitNormal.y;
+            double fnz = unitNormal.z;
+
+            double C = conservativeVars[0];
+            double u = conservativeVars[1];
+            double v = conservativeVars[2];
+            double w = conservativeVars[3];
+            double inx = conservativeVars[4];
+            double iny = conservativeVars[5];
+            double inz = conservativeVars[6];
+
+            // Vn = a + zeta (1 - C) |a| |b|^0.5 b, with a = V.n and b = unitGradC.n
+            double zeta = 1.2;
+            double a = u * fnx + v * fny + w * fnz;
+            double b = inx * fnx + iny * fny + inz * fnz;
+            double sqrtAbsB = Math.sqrt(Math.abs(b));
+            double g = sqrtAbsB * b;
+            double Vn = a + zeta * (1 - C) * Math.abs(a) * g;
+
+            double dVn_da = 1 + zeta * (1 - C) * Math.signum(a) * g;
+            double dVn_db = zeta * (1 - C) * Math.abs(a) * 1.5 * sqrtAbsB;
+            double dVn_dC = -zeta * Math.abs(a) * g;
+
+            for (double[] row : jacobian) {
+                Arrays.fill(row, 0.0);
+            }
+            double[] J0 = jacobian[0];
+            J0[0] = Vn + C * dVn_dC;
+            J0[1] = C * dVn_da * fnx;
+            J0[2] = C * dVn_da * fny;
+            J0[3] = C * dVn_da * fnz;
+            J0[4] = C * dVn_db * fnx;
+            J0[5] = C * dVn_db * fny;
+            J0[6] = C * dVn_db * fnz;
+        }
     };
 
     @Override
@@ -0,0 +1,57 @@
+package main.solver;
+
+import main.io.CheckpointReader;
+import main.mesh.Mesh;
+import main.physics.goveqn.GoverningEquations;
+import main.solver.time.TimeDiscretization;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Restores the solution from a checkpoint file written by {@link main.io.CheckpointWriter}.
+ * The real time, the iteration counters and the real time discretization of the checkpoint
+ * are available for resuming the run.
+ */
+public class CheckpointInitializer implements SolutionInitializer {
+
+    private final CheckpointReader reader;
+
+    public CheckpointInitializer(File checkpointFile) throws IOException {
+        this.reader = new CheckpointReader(checkpointFile);
+    }
+
+    @Override
+    public void initialize(Mesh mesh, GoverningEquations govEqn) {
+        if (reader.numVars() != govEqn.numVars()) {
+            throw new IllegalArgumentException("Checkpoint has " + reader.numVars()
+                    + " variables, but the governing equations have " + govEqn.numVars() + " variables.");
+        }
+        try {
+            reader.readInto(mesh);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public double realTime() {
+        return reader.realTime();
+    }
+
+    public long realTimeIteration() {
+        return reader.realTimeIteration();
+    }
+
+    public long pseudoIteration() {
+        return reader.pseudoIteration();
+    }
+
+    /**
+     * @return New real time discretization of the same kind and time step as the checkpoint,
+     * or null for steady state problems.
+     */
+    public TimeDiscretization timeDiscretization(Mesh mesh, GoverningEquations govEqn) {
+        return reader.timeDiscretizationKind().create(mesh, govEqn, reader.dt());
+    }
+}
@@ -20,6 +20,7 @@ public class LeastSquareCellGradient implements CellGradientCalculator {
     private final Cell[][] neighbors;
     private final double[][][] inverseMatrix;
     private final Mesh mesh;
+    private NarrowBand narrowBand = null; // default
 
     /**
      * This gradient calculator can be used for 3D.
@@ -77,6 +78,14 @@ public class LeastSquareCellGradient implements CellGradientCalculator {
         return divide(positiveWeights, sum(positiveWeights));
     }
 
+    /**
+     * Calculates the gradient of the volume fraction only in the narrow band, and sets it to zero
+     * in the other cells.
+     */
+    public void setNarrowBand(NarrowBand narrowBand) {
+        this.narrowBand = narrowBand;
+    }
+
     @Override
     public void setupAllCells() {
         mesh.cellStream().forEach(this::setCell);
@@ -84,8 +93,9 @@ public class LeastSquareCellGradient implements CellGradientCalculator {
 
     private void setCell(Cell cell) {
         int numVars = cell.U.length;
+        int zeroVar = narrowBand != null && !narrowBand.contains(cell) ? narrowBand.var() : -1;
         for (int var = 0; var < numVars; var++) {
-            cell.gradientU[var] = forVar(cell, var);
+            cell.gradientU[var] = var == zeroVar ? Vector.ZERO : forVar(cell, var);
         }
     }
 
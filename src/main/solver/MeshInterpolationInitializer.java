@@ -0,0 +1,124 @@
+package main.solver;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.physics.goveqn.GoverningEquations;
+import main.util.DoubleArray;
+import main.util.KDTree;
+import main.util.Util;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Initializes the solution by interpolating the solution of another mesh, for example a converged
+ * solution on a coarser mesh.
+ * <p>
+ * The source cell of every target cell is the source cell containing the target centroid, or the
+ * nearest source cell (by centroid) if no source cell near it contains it. The source cells are
+ * found using a k-d tree of the source centroids. The value is linearly reconstructed using the
+ * gradients stored in the source cells and limited to the range of the source cell and its
+ * neighbors, so that no new extrema are created.
+ */
+public class MeshInterpolationInitializer implements SolutionInitializer {
+
+    private final Mesh sourceMesh;
+    private final KDTree tree;
+    private boolean useGradients = true;
+
+    /**
+     * @param sourceMesh Mesh with the solution (and optionally the gradients) to be interpolated.
+     * @throws IllegalArgumentException if the source mesh has no cells.
+     */
+    public MeshInterpolationInitializer(Mesh sourceMesh) {
+        if (sourceMesh.cells().isEmpty()) {
+            throw new IllegalArgumentException("The source mesh has no cells to interpolate from.");
+        }
+        this.sourceMesh = sourceMesh;
+        List<Point> centroids = sourceMesh.cellStream()
+                .map(cell -> cell.shape.centroid)
+                .collect(Collectors.toList());
+        this.tree = new KDTree(centroids);
+    }
+
+    /**
+     * @param useGradients true to use the gradients of the source cells for linear interpolation.
+     *                     Default is true. Use false if the gradients of the source mesh are not set up.
+     */
+    public void setUseGradients(boolean useGradients) {
+        this.useGradients = useGradients;
+    }
+
+    @Override
+    public void initialize(Mesh mesh, GoverningEquations govEqn) {
+        mesh.cellStream().forEach(cell -> initialize(cell, govEqn));
+    }
+
+    private void initialize(Cell cell, GoverningEquations govEqn) {
+        Point centroid = cell.shape.centroid;
+        Cell source = sourceCell(centroid);
+
+        double[] U = interpolate(source, centroid);
+        DoubleArray.copy(U, cell.U);
+        DoubleArray.copy(govEqn.realVars(U), cell.Wn);
+    }
+
+    /**
+     * @return The source cell containing the point, searched in the nearest cell and its neighbors,
+     * or the nearest cell if the point is not contained in any of them.
+     */
+    Cell sourceCell(Point p) {
+        Cell nearest = sourceMesh.cells().get(tree.nearest(p));
+        if (contains(nearest, p)) {
+            return nearest;
+        }
+        for (Face face : nearest.faces) {
+            Cell neighbor = face.left == nearest ? face.right : face.left;
+            if (neighbor.index() != -1 && contains(neighbor, p)) {
+                return neighbor;
+            }
+        }
+
+        return nearest;
+    }
+
+    private static boolean contains(Cell cell, Point p) {
+        for (Face face : cell.faces) {
+            Vector outwardNormal = face.left == cell
+                    ? face.surface.unitNormal()
+                    : face.surface.unitNormal().mult(-1);
+            Vector fromFace = new Vector(face.surface.centroid, p);
+            if (fromFace.dot(outwardNormal) > 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private double[] interpolate(Cell source, Point p) {
+        double[] U = source.U.clone();
+        if (!useGradients) {
+            return U;
+        }
+
+        Vector dx = new Vector(source.shape.centroid, p);
+        for (int var = 0; var < U.length; var++) {
+            double min = source.U[var];
+            double max = source.U[var];
+            for (Face face : source.faces) {
+                Cell neighbor = face.left == source ? face.right : face.left;
+                if (neighbor.index() == -1) continue;
+                min = Math.min(min, neighbor.U[var]);
+                max = Math.max(max, neighbor.U[var]);
+            }
+            double value = U[var] + source.gradientU[var].dot(dx);
+            U[var] = Util.clip(value, min, max);
+        }
+
+        return U;
+    }
+}
@@ -0,0 +1,87 @@
+package main.solver;
+
+import main.mesh.Mesh;
+import main.solver.problem.ProblemDefinition;
+import main.solver.time.TimeIntegrator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves a steady state problem on a sequence of meshes, from the coarsest to the finest.
+ * <p>
+ * Each level is a {@link ProblemDefinition} of the same problem on a different mesh. The coarsest
+ * level is initialized using its own {@link SolutionInitializer}. Every other level is initialized
+ * by interpolating the solution of the previous level using {@link MeshInterpolationInitializer}.
+ * All the levels except the finest are solved to the loose convergence criteria, and the finest
+ * level is solved to the convergence criteria of its problem definition. Most of the iterations are
+ * thereby spent on the cheaper coarse meshes.
+ */
+public class MeshSequencingSolver {
+    private final List<ProblemDefinition> levels;
+    private final Convergence looseConvergence;
+
+    /**
+     * @param levels           Problem definitions ordered from the coarsest to the finest mesh.
+     * @param looseConvergence Convergence criteria for all the levels except the finest.
+     */
+    public MeshSequencingSolver(List<ProblemDefinition> levels, Convergence looseConvergence) {
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("At least one mesh level is required.");
+        }
+        this.levels = levels;
+        this.looseConvergence = looseConvergence;
+    }
+
+    /**
+     * Result of solving a level.
+     *
+     * @param numCells   Number of cells of the mesh of the level.
+     * @param iterations Number of iterations performed on the level.
+     * @param converged  Whether the level reached its convergence criteria before the maximum
+     *                   number of iterations.
+     * @param residual   Residual norm of each variable at the last iteration.
+     */
+    public record LevelResult(int numCells, int iterations, boolean converged, double[] residual) {
+    }
+
+    /**
+     * @return Result of each level, from the coarsest to the finest.
+     */
+    public List<LevelResult> solve() {
+        List<LevelResult> results = new ArrayList<>();
+        Mesh previousMesh = null;
+        for (int level = 0; level < levels.size(); level++) {
+            ProblemDefinition problem = levels.get(level);
+            Mesh mesh = problem.mesh();
+            SolutionInitializer initializer = previousMesh == null
+                    ? problem.solutionInitializer()
+                    : new MeshInterpolationInitializer(previousMesh);
+            initializer.initialize(mesh, problem.govEqn());
+
+            boolean finest = level == levels.size() - 1;
+            Convergence convergence = finest ? problem.convergence() : looseConvergence;
+            results.add(solve(problem, convergence));
+
+            previousMesh = mesh;
+        }
+
+        return results;
+    }
+
+    private static LevelResult solve(ProblemDefinition problem, Convergence convergence) {
+        TimeIntegrator timeIntegrator = problem.timeIntegrator();
+        Config config = problem.config();
+        int numCells = problem.mesh().cells().size();
+        double[] residual = null;
+        for (int iter = 0; iter < config.getMaxIterations(); iter++) {
+            timeIntegrator.updateCellAverages();
+            residual = timeIntegrator.currentTotalResidual(config.getConvergenceNorm());
+            if (convergence.hasConverged(residual)) {
+                return new LevelResult(numCells, iter + 1, true, residual);
+            }
+        }
+
+        return new LevelResult(numCells, config.getMaxIterations(), false, residual);
+    }
+}
@@ -0,0 +1,221 @@
+package main.solver;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.util.Dispatch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cells around the interface of a volume fraction C, where the gradient and the limited
+ * reconstruction of C are non-zero. Away from the interface C is uniformly 0 or 1, so that its
+ * gradient and reconstruction are zero and need not be calculated.
+ * <p>
+ * The neighbours of a cell are the cells of the stencil of the {@link LeastSquareCellGradient} (for
+ * example the node neighbours on unstructured meshes) and the face neighbours, including the ghost
+ * cells. A cell is on the interface when C is between 0 and 1, or when C differs from the C of a
+ * neighbour by more than the tolerance. The band contains the interface cells and the given number
+ * of layers of neighbours around them. With zero tolerance, the gradients of C calculated only in
+ * the band are the same as in all the cells, and so are the reconstructions of the
+ * {@link main.solver.convection.reconstructor.VKLimiterReconstructor}, which limits the gradient.
+ * <p>
+ * By default, {@link #update()} checks all the cells. With {@link #setIncremental(boolean)}, it
+ * checks only the cells of the previous band, their neighbours and the boundary cells, which is
+ * valid only when C changes nowhere else in one stage of an explicit time integrator. This is the
+ * case for the advection of C by a divergence free velocity, but not for example with the
+ * {@link main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations}, where the flux of C is
+ * C times the velocity, so that C changes wherever the velocity is not divergence free.
+ */
+public class NarrowBand {
+    private final Mesh mesh;
+    private final int var;
+    private final double tolerance;
+    private final int bufferLayers;
+
+    // Stencil and face neighbours of each cell (including ghost cells) from neighborStart[cell] to
+    // neighborStart[cell + 1] - 1
+    private final int[] neighborStart;
+    private final Cell[] neighbors;
+    private final int[] boundaryCells;
+
+    private final boolean[] inBand;
+    private final boolean[] onInterface;
+    private final int[] checked; // update at which the cell was last added to the candidates
+    private final int[] candidates;
+    private final int[] band;
+    private int[] bandCells = null;
+    private int numUpdates = 0;
+    private boolean incremental = false; // default
+
+    /**
+     * Band with one buffer layer.
+     *
+     * @see #NarrowBand(Mesh, int, double, CellNeighborCalculator, int)
+     */
+    public NarrowBand(Mesh mesh, int var, double tolerance, CellNeighborCalculator stencil) {
+        this(mesh, var, tolerance, stencil, 1);
+    }
+
+    /**
+     * @param var          Index of the volume fraction in the conservative variables.
+     * @param tolerance    Tolerance for C being 0 or 1, and for neighbouring values being equal.
+     * @param stencil      Neighbours of the {@link LeastSquareCellGradient} of C.
+     * @param bufferLayers Number of layers of neighbours around the interface cells.
+     */
+    public NarrowBand(Mesh mesh, int var, double tolerance, CellNeighborCalculator stencil, int bufferLayers) {
+        if (bufferLayers < 1) {
+            throw new IllegalArgumentException("The narrow band needs at least one buffer layer.");
+        }
+        this.mesh = mesh;
+        this.var = var;
+        this.tolerance = tolerance;
+        this.bufferLayers = bufferLayers;
+
+        List<Cell> cells = mesh.cells();
+        int numCells = cells.size();
+        Cell[][] cellNeighbors = new Cell[numCells][];
+        Dispatch.stream(cells).forEach(cell -> cellNeighbors[cell.index()] = Stream.concat(
+                        stencil.calculateFor(cell).stream(),
+                        cell.faces.stream().map(face -> face.left == cell ? face.right : face.left))
+                .filter(neighbor -> neighbor != cell)
+                .distinct()
+                .toArray(Cell[]::new));
+        this.neighborStart = new int[numCells + 1];
+        for (int cell = 0; cell < numCells; cell++) {
+            neighborStart[cell + 1] = neighborStart[cell] + cellNeighbors[cell].length;
+        }
+        this.neighbors = new Cell[neighborStart[numCells]];
+        for (int cell = 0; cell < numCells; cell++) {
+            System.arraycopy(cellNeighbors[cell], 0, neighbors, neighborStart[cell], cellNeighbors[cell].length);
+        }
+        this.boundaryCells = cells.stream()
+                .filter(cell -> cell.faces.stream().anyMatch(face -> face.right.index() < 0))
+                .mapToInt(Cell::index)
+                .toArray();
+
+        this.inBand = new boolean[numCells];
+        this.onInterface = new boolean[numCells];
+        this.checked = new int[numCells];
+        this.candidates = new int[numCells];
+        this.band = new int[numCells];
+    }
+
+    /**
+     * @return Index of the volume fraction in the conservative variables.
+     */
+    public int var() {
+        return var;
+    }
+
+    public boolean contains(Cell cell) {
+        return inBand[cell.index()];
+    }
+
+    /**
+     * @return Number of cells in the band.
+     */
+    public int size() {
+        return bandCells == null ? 0 : bandCells.length;
+    }
+
+    /**
+     * Checks only the cells around the previous band in {@link #update()}, instead of all the cells.
+     * Only for a volume fraction which changes only next to the band in one stage.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Rebuilds the band checking all the cells.
+     */
+    public void rebuild() {
+        int numCells = mesh.cells().size();
+        for (int cell = 0; cell < numCells; cell++) {
+            candidates[cell] = cell;
+        }
+        rebuildFrom(numCells);
+    }
+
+    /**
+     * Rebuilds the band checking all the cells or, when incremental, the cells of the current band,
+     * their neighbours and the boundary cells. The first update checks all the cells.
+     */
+    public void update() {
+        if (!incremental || bandCells == null) {
+            rebuild();
+            return;
+        }
+
+        numUpdates++;
+        int numCandidates = 0;
+        for (int cell : bandCells) {
+            numCandidates = addCandidate(numCandidates, cell);
+            for (int k = neighborStart[cell]; k < neighborStart[cell + 1]; k++) {
+                int neighbor = neighbors[k].index();
+                if (neighbor >= 0) numCandidates = addCandidate(numCandidates, neighbor);
+            }
+        }
+        for (int cell : boundaryCells) {
+            numCandidates = addCandidate(numCandidates, cell);
+        }
+        rebuildFrom(numCandidates);
+    }
+
+    private int addCandidate(int numCandidates, int cell) {
+        if (checked[cell] == numUpdates) return numCandidates;
+        checked[cell] = numUpdates;
+        candidates[numCandidates] = cell;
+        return numCandidates + 1;
+    }
+
+    private void rebuildFrom(int numCandidates) {
+        if (bandCells != null) {
+            for (int cell : bandCells) {
+                inBand[cell] = false;
+            }
+        }
+
+        List<Cell> cells = mesh.cells();
+        Dispatch.range(numCandidates).forEach(i -> {
+            int cell = candidates[i];
+            onInterface[cell] = isOnInterface(cells.get(cell));
+        });
+
+        // interface cells and the buffer layers around them, breadth first
+        int size = 0;
+        for (int i = 0; i < numCandidates; i++) {
+            int cell = candidates[i];
+            if (onInterface[cell]) {
+                band[size++] = cell;
+                inBand[cell] = true;
+            }
+        }
+        int layerStart = 0;
+        for (int layer = 0; layer < bufferLayers; layer++) {
+            int layerEnd = size;
+            for (int i = layerStart; i < layerEnd; i++) {
+                int cell = band[i];
+                for (int k = neighborStart[cell]; k < neighborStart[cell + 1]; k++) {
+                    int neighbor = neighbors[k].index();
+                    if (neighbor < 0 || inBand[neighbor]) continue;
+                    inBand[neighbor] = true;
+                    band[size++] = neighbor;
+                }
+            }
+            layerStart = layerEnd;
+        }
+        bandCells = Arrays.copyOf(band, size);
+    }
+
+    private boolean isOnInterface(Cell cell) {
+        double C = cell.U[var];
+        if (C > tolerance && C < 1.0 - tolerance) return true;
+        for (int k = neighborStart[cell.index()]; k < neighborStart[cell.index() + 1]; k++) {
+            if (Math.abs(neighbors[k].U[var] - C) > tolerance) return true;
+        }
+        return false;
+    }
+}
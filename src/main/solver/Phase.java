@@ -0,0 +1,25 @@
+package main.solver;
+
+/**
+ * Parts of an iteration timed by the {@link PhaseProfiler}.
+ */
+public enum Phase {
+    PRIMITIVE_CACHE("primitive cache"),
+    GHOST_CELLS("ghost cells"),
+    NARROW_BAND("narrow band"),
+    FACE_INTERPOLATION("face interpolation"),
+    CELL_GRADIENTS("cell gradients"),
+    RECONSTRUCTION("reconstruction"),
+    CONVECTIVE_FLUX("convective flux"),
+    DIFFUSION("diffusion"),
+    SOURCE("source"),
+    REAL_TIME("real time"),
+    TIME_STEP("time step"),
+    UPDATE("update");
+
+    public final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+}
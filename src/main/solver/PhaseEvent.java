@@ -0,0 +1,20 @@
+package main.solver;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event committed at the end of each profiled phase.
+ */
+@Name("main.solver.Phase")
+@Label("Solver Phase")
+@Category("CFDSolver")
+@Description("Time spent in a phase of a solver iteration.")
+@StackTrace(false)
+class PhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Elapsed")
+    @Timespan(Timespan.NANOSECONDS)
+    long elapsed;
+}
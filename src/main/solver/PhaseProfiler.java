@@ -0,0 +1,156 @@
+package main.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in each {@link Phase} of the solver iterations, summed over all the iterations since
+ * the profiler was enabled or reset.
+ * <p>
+ * The profiler is disabled by default, and then a phase costs a single read of a volatile flag.
+ * When enabled, the phases are timed with {@link System#nanoTime()} and also committed as
+ * {@code main.solver.Phase} flight recorder events, which are recorded when the JVM is started
+ * with {@code -XX:StartFlightRecording}. The counters are updated without locks, so that the
+ * profiler can be read from another thread while the solver is running.
+ * <pre>
+ * long start = PhaseProfiler.start();
+ * // ... work of the phase
+ * PhaseProfiler.stop(Phase.SOURCE, start);
+ * </pre>
+ */
+public final class PhaseProfiler {
+    public record PhaseTime(Phase phase, long calls, long nanos) {
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final LongAdder[] NANOS = newAdders(PHASES.length);
+    private static final LongAdder[] CALLS = newAdders(PHASES.length);
+    private static final LongAdder ITERATIONS = new LongAdder();
+
+    private static volatile boolean enabled = false;
+    private static volatile int logInterval = 0;
+
+    // Values at the last log line, to log the time of the interval
+    private static final long[] loggedNanos = new long[PHASES.length];
+    private static long loggedIterations = 0;
+
+    private PhaseProfiler() {
+    }
+
+    private static LongAdder[] newAdders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        Arrays.setAll(adders, i -> new LongAdder());
+        return adders;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Prints the share of each phase in the last {@code iterations} iterations, every
+     * {@code iterations} iterations, while the profiler is enabled. Zero (default) disables the log.
+     */
+    public static void setLogInterval(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("The log interval must not be negative.");
+        }
+        logInterval = iterations;
+    }
+
+    /**
+     * @return Start time of a phase, or 0 if the profiler is disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since {@code start} to the phase. Does nothing if the phase was started while
+     * the profiler was disabled.
+     */
+    public static void stop(Phase phase, long start) {
+        if (start == 0) return;
+        long elapsed = System.nanoTime() - start;
+        NANOS[phase.ordinal()].add(elapsed);
+        CALLS[phase.ordinal()].increment();
+
+        PhaseEvent event = new PhaseEvent();
+        if (event.shouldCommit()) {
+            event.phase = phase.label;
+            event.elapsed = elapsed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Called by the time integrators at the end of each pseudo-time iteration.
+     */
+    public static void iterationCompleted() {
+        if (!enabled) return;
+        ITERATIONS.increment();
+        int interval = logInterval;
+        if (interval > 0 && ITERATIONS.sum() % interval == 0) {
+            log();
+        }
+    }
+
+    private static synchronized void log() {
+        long iterations = ITERATIONS.sum();
+        long[] nanos = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            long total = NANOS[i].sum();
+            nanos[i] = total - loggedNanos[i];
+            loggedNanos[i] = total;
+        }
+        System.out.println("Profile of " + (iterations - loggedIterations) + " iterations: " + format(nanos));
+        loggedIterations = iterations;
+    }
+
+    public static long iterations() {
+        return ITERATIONS.sum();
+    }
+
+    public static List<PhaseTime> summary() {
+        return Arrays.stream(PHASES)
+                .map(phase -> new PhaseTime(phase, CALLS[phase.ordinal()].sum(), NANOS[phase.ordinal()].sum()))
+                .toList();
+    }
+
+    /**
+     * @return Total time and share of each phase since the profiler was enabled or reset.
+     */
+    public static String summaryLine() {
+        return format(summary().stream().mapToLong(PhaseTime::nanos).toArray());
+    }
+
+    private static String format(long[] nanos) {
+        long total = Arrays.stream(nanos).sum();
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%.3f s", total * 1e-9));
+        for (int i = 0; i < PHASES.length; i++) {
+            if (nanos[i] == 0) continue;
+            line.append(String.format(Locale.ROOT, ", %s %.1f%%", PHASES[i].label, 100.0 * nanos[i] / total));
+        }
+        return line.toString();
+    }
+
+    public static synchronized void reset() {
+        for (int i = 0; i < PHASES.length; i++) {
+            NANOS[i].reset();
+            CALLS[i].reset();
+            loggedNanos[i] = 0;
+        }
+        ITERATIONS.reset();
+        loggedIterations = 0;
+    }
+}
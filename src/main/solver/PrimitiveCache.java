@@ -0,0 +1,55 @@
+package main.solver;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.physics.goveqn.GoverningEquations;
+
+/**
+ * Primitive variables of all the cells, calculated once per stage and shared by the convective
+ * flux, the time step and the boundary conditions, which otherwise convert the same conservative
+ * variables many times.
+ * <p>
+ * The cache is optional. When it is set in {@link SpaceDiscretization}, it is passed on to its
+ * residuals and to the time steps of the time integrators, it is updated at the start of
+ * {@link SpaceDiscretization#setResiduals()}, and it is valid until the conservative variables of
+ * the cells are updated by the time integrator. The ghost cells are not cached.
+ */
+public class PrimitiveCache {
+    private final Mesh mesh;
+    private final GoverningEquations govEqn;
+    // Allocated once and overwritten at every update, indexed by the cell index
+    private final double[][] primitiveVars;
+
+    public PrimitiveCache(Mesh mesh, GoverningEquations govEqn) {
+        this.mesh = mesh;
+        this.govEqn = govEqn;
+        this.primitiveVars = new double[mesh.cells().size()][govEqn.numVars()];
+    }
+
+    /**
+     * Calculates the primitive variables of all the cells from their current conservative variables.
+     */
+    public void update() {
+        mesh.cellStream().forEach(cell -> {
+            double[] cellPrimitiveVars = govEqn.primitiveVars(cell.U);
+            System.arraycopy(cellPrimitiveVars, 0, primitiveVars[cell.index()], 0, cellPrimitiveVars.length);
+        });
+    }
+
+    /**
+     * @return Primitive variables of the cell at the last update, or calculated from the
+     * conservative variables for the ghost cells. The returned array must not be modified.
+     */
+    public double[] primitiveVars(Cell cell) {
+        int index = cell.index();
+        return index < 0 ? govEqn.primitiveVars(cell.U) : primitiveVars[index];
+    }
+
+    /**
+     * @return Primitive variables of conservative variables which are not of a cell, such as the
+     * reconstructed states at a face. They are calculated and not cached.
+     */
+    public double[] primitiveVars(double[] U) {
+        return govEqn.primitiveVars(U);
+    }
+}
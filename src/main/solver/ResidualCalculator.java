@@ -2,4 +2,12 @@ package main.solver;
 
 public interface ResidualCalculator {
     void updateCellResiduals();
+
+    /**
+     * Uses the primitive variables of the cells from the cache. Set by the
+     * {@link SpaceDiscretization} which updates the cache. Ignored by the residuals which do not use
+     * the primitive variables.
+     */
+    default void setPrimitiveCache(PrimitiveCache primitiveCache) {
+    }
 }
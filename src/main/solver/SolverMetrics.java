@@ -0,0 +1,125 @@
+package main.solver;
+
+import main.mesh.Mesh;
+import main.physics.goveqn.GoverningEquations;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a running solver, updated by the solver loop and read from another thread (for
+ * example by {@link main.io.MetricsServer}). The values are published through volatile fields and
+ * an atomic counter, so that recording never blocks the solver loop.
+ * <pre>
+ * metrics.recordIteration(residual);
+ * metrics.setCourantNum(courantNum);
+ * metrics.setRealTime(time, real_dt);
+ * metrics.recordOutput(file);
+ * </pre>
+ */
+public class SolverMetrics {
+    private final String[] varNames;
+    private final int numCells;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong iterations = new AtomicLong();
+
+    private volatile double[] residual;
+    private volatile double courantNum = Double.NaN;
+    private volatile double realTime = Double.NaN;
+    private volatile double realTimeStep = Double.NaN;
+    private volatile String lastOutput = null;
+    private volatile long lastOutputMillis = 0;
+
+    public SolverMetrics(Mesh mesh, GoverningEquations govEqn) {
+        this.varNames = govEqn.conservativeVarNames().clone();
+        this.numCells = mesh.cells().size();
+        this.residual = new double[varNames.length];
+    }
+
+    /**
+     * Records a completed pseudo-time iteration and its residual norm of each variable.
+     */
+    public void recordIteration(double[] residual) {
+        if (residual.length != varNames.length) {
+            throw new IllegalArgumentException("The residual must have " + varNames.length + " values.");
+        }
+        this.residual = residual.clone();
+        iterations.incrementAndGet();
+    }
+
+    public void setCourantNum(double courantNum) {
+        this.courantNum = courantNum;
+    }
+
+    /**
+     * @param realTime     Current physical time.
+     * @param realTimeStep Physical time step of the real-time discretization.
+     */
+    public void setRealTime(double realTime, double realTimeStep) {
+        this.realTime = realTime;
+        this.realTimeStep = realTimeStep;
+    }
+
+    public void recordOutput(File file) {
+        this.lastOutputMillis = System.currentTimeMillis();
+        this.lastOutput = file.getPath();
+    }
+
+    public String[] varNames() {
+        return varNames.clone();
+    }
+
+    public int numCells() {
+        return numCells;
+    }
+
+    public long iterations() {
+        return iterations.get();
+    }
+
+    /**
+     * @return Seconds since this object was created.
+     */
+    public double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) * 1e-9;
+    }
+
+    public double[] residual() {
+        return residual.clone();
+    }
+
+    /**
+     * @return The Courant number, or NaN if it has not been set.
+     */
+    public double courantNum() {
+        return courantNum;
+    }
+
+    /**
+     * @return The physical time, or NaN if it has not been set.
+     */
+    public double realTime() {
+        return realTime;
+    }
+
+    /**
+     * @return The physical time step, or NaN if it has not been set.
+     */
+    public double realTimeStep() {
+        return realTimeStep;
+    }
+
+    /**
+     * @return Path of the last output file, or null if nothing has been written.
+     */
+    public String lastOutput() {
+        return lastOutput;
+    }
+
+    /**
+     * @return Time of writing the last output in milliseconds since the epoch, or 0.
+     */
+    public long lastOutputMillis() {
+        return lastOutputMillis;
+    }
+}
@@ -3,7 +3,9 @@ package main.solver;
 import main.mesh.Boundary;
 import main.mesh.Mesh;
 import main.physics.bc.BoundaryCondition;
+import main.solver.time.TimeStep;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -13,6 +15,10 @@ public class SpaceDiscretization {
     private final List<ResidualCalculator> residuals;
     private final LeastSquareFaceInterpolation faceInterpolation;
     private final CellGradientCalculator cellGradientCalculator;
+    // Time steps of the time integrators, which share the primitive variable cache
+    private final List<TimeStep> timeSteps = new ArrayList<>();
+    private PrimitiveCache primitiveCache = null; // default
+    private NarrowBand narrowBand = null; // default
 
     public SpaceDiscretization(Mesh mesh, CellGradientCalculator cellGradientCalculator, List<ResidualCalculator> residuals) {
         this.mesh = mesh;
@@ -21,10 +27,64 @@ public class SpaceDiscretization {
         this.faceInterpolation = new LeastSquareFaceInterpolation(mesh);
     }
 
+    /**
+     * Sets the primitive variable cache, which is then updated at the start of each
+     * {@link #setResiduals()} and used for the boundary conditions. The cache is also set in the
+     * residuals and in the time steps added by the time integrators, so that it is set only here.
+     */
+    public void setPrimitiveCache(PrimitiveCache primitiveCache) {
+        this.primitiveCache = primitiveCache;
+        residuals.forEach(residual -> residual.setPrimitiveCache(primitiveCache));
+        timeSteps.forEach(timeStep -> timeStep.setPrimitiveCache(primitiveCache));
+    }
+
+    /**
+     * Adds the time step of a time integrator, which then uses the primitive variable cache of this
+     * space discretization. The time steps are calculated after {@link #setResiduals()}, while the
+     * cache is valid.
+     */
+    public void addTimeStep(TimeStep timeStep) {
+        timeSteps.add(timeStep);
+        if (primitiveCache != null) {
+            timeStep.setPrimitiveCache(primitiveCache);
+        }
+    }
+
+    /**
+     * Sets the narrow band of the volume fraction, which is then updated after the ghost cells in
+     * each {@link #setResiduals()}. The same band should be set in the
+     * {@link LeastSquareCellGradient} and the
+     * {@link main.solver.convection.reconstructor.VKLimiterReconstructor}.
+     */
+    public void setNarrowBand(NarrowBand narrowBand) {
+        this.narrowBand = narrowBand;
+    }
+
     public void setResiduals() {
+        long start;
+        if (primitiveCache != null) {
+            start = PhaseProfiler.start();
+            primitiveCache.update();
+            PhaseProfiler.stop(Phase.PRIMITIVE_CACHE, start);
+        }
+
+        start = PhaseProfiler.start();
         setGhostCellValues();
+        PhaseProfiler.stop(Phase.GHOST_CELLS, start);
+
+        if (narrowBand != null) {
+            start = PhaseProfiler.start();
+            narrowBand.update();
+            PhaseProfiler.stop(Phase.NARROW_BAND, start);
+        }
+
+        start = PhaseProfiler.start();
         faceInterpolation.setupAllFaces();
+        PhaseProfiler.stop(Phase.FACE_INTERPOLATION, start);
+
+        start = PhaseProfiler.start();
         cellGradientCalculator.setupAllCells();
+        PhaseProfiler.stop(Phase.CELL_GRADIENTS, start);
 
         mesh.cellStream().forEach(cell -> Arrays.fill(cell.residual, 0.0));
         residuals.forEach(ResidualCalculator::updateCellResiduals);
@@ -37,6 +97,10 @@ public class SpaceDiscretization {
     private void setGhostCellValues(Boundary boundary) {
         BoundaryCondition bc = boundary.bc().orElseThrow(
                 () -> new IllegalArgumentException("Boundary condition is not defined for \"" + boundary.name + "\"."));
-        boundary.faces.forEach(bc::setGhostCellValues);
+        if (primitiveCache == null) {
+            boundary.faces.forEach(bc::setGhostCellValues);
+        } else {
+            boundary.faces.forEach(face -> bc.setGhostCellValues(face, primitiveCache.primitiveVars(face.left)));
+        }
     }
 }
@@ -5,8 +5,12 @@ import main.mesh.Cell;
 import main.mesh.Face;
 import main.mesh.Mesh;
 import main.physics.bc.BoundaryCondition;
+import main.solver.Phase;
+import main.solver.PhaseProfiler;
+import main.solver.PrimitiveCache;
 import main.solver.ResidualCalculator;
 import main.solver.convection.riemann.RiemannSolver;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
 import main.solver.convection.reconstructor.SolutionReconstructor;
 
 import static main.util.DoubleArray.*;
@@ -15,6 +19,7 @@ public class ConvectionResidual implements ResidualCalculator {
     private final SolutionReconstructor reconstructor;
     private final RiemannSolver riemannSolver;
     private final Mesh mesh;
+    private PrimitiveCache primitiveCache = null; // default
 
     public ConvectionResidual(SolutionReconstructor reconstructor, RiemannSolver riemannSolver, Mesh mesh) {
         this.reconstructor = reconstructor;
@@ -22,10 +27,25 @@ public class ConvectionResidual implements ResidualCalculator {
         this.mesh = mesh;
     }
 
+    /**
+     * Uses the primitive variables of the cells from the cache for the boundary fluxes, and also
+     * for the internal faces when the face states are the cell averages (first order). With the
+     * other reconstructors, the primitive variables of each face state are calculated once and
+     * shared by the flux and the eigenvalues of the Riemann solver.
+     */
+    @Override
+    public void setPrimitiveCache(PrimitiveCache primitiveCache) {
+        this.primitiveCache = primitiveCache;
+    }
+
     @Override
     public void updateCellResiduals() {
         // solution reconstruction for all cells
+        long start = PhaseProfiler.start();
         reconstructor.reconstruct();
+        PhaseProfiler.stop(Phase.RECONSTRUCTION, start);
+
+        start = PhaseProfiler.start();
 
         // Calculate the flux at the internal faces and save
         mesh.internalFaceStream().forEach(this::setFlux);
@@ -35,6 +55,7 @@ public class ConvectionResidual implements ResidualCalculator {
 
         // add / subtract (flux * face.area) to the cells residual
         mesh.cellStream().forEach(this::updateResidual);
+        PhaseProfiler.stop(Phase.CONVECTIVE_FLUX, start);
     }
 
     private void updateResidual(Cell cell) {
@@ -59,14 +80,25 @@ public class ConvectionResidual implements ResidualCalculator {
     }
 
     private void setFlux(Face face, BoundaryCondition bc) {
-        double[] flux = bc.convectiveFlux(face);
+        double[] flux = primitiveCache == null
+                ? bc.convectiveFlux(face)
+                : bc.convectiveFlux(face, primitiveCache.primitiveVars(face.left));
         copy(flux, face.flux);
     }
 
     private void setFlux(Face face) {
-        double[] UL = reconstructor.conservativeVars(face.left, face.surface.centroid);
-        double[] UR = reconstructor.conservativeVars(face.right, face.surface.centroid);
-        double[] flux = riemannSolver.flux(UL, UR, face);
+        if (primitiveCache != null && reconstructor instanceof PiecewiseConstantReconstructor) {
+            double[] flux = riemannSolver.flux(
+                    face.left.U, primitiveCache.primitiveVars(face.left),
+                    face.right.U, primitiveCache.primitiveVars(face.right), face);
+            copy(flux, face.flux);
+            return;
+        }
+        double[] UL = reconstructor.conservativeVars(face, face.left);
+        double[] UR = reconstructor.conservativeVars(face, face.right);
+        double[] flux = primitiveCache == null
+                ? riemannSolver.flux(UL, UR, face)
+                : riemannSolver.flux(UL, primitiveCache.primitiveVars(UL), UR, primitiveCache.primitiveVars(UR), face);
         copy(flux, face.flux);
     }
 }
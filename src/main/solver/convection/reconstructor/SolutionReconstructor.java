@@ -2,9 +2,18 @@ package main.solver.convection.reconstructor;
 
 import main.geom.Point;
 import main.mesh.Cell;
+import main.mesh.Face;
 
 public interface SolutionReconstructor {
     void reconstruct();
 
     double[] conservativeVars(Cell cell, Point atPoint);
+
+    /**
+     * @param cell Left or right cell of the face.
+     * @return Conservative variables of the cell, reconstructed at the centroid of the face.
+     */
+    default double[] conservativeVars(Face face, Cell cell) {
+        return conservativeVars(cell, face.surface.centroid);
+    }
 }
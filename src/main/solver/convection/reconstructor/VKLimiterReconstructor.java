@@ -3,14 +3,15 @@ package main.solver.convection.reconstructor;
 import main.geom.Point;
 import main.geom.Vector;
 import main.mesh.Cell;
+import main.mesh.Face;
 import main.mesh.Mesh;
-import main.mesh.Node;
 import main.physics.goveqn.GoverningEquations;
 import main.physics.goveqn.Limits;
 import main.solver.CellNeighborCalculator;
+import main.solver.NarrowBand;
 import main.util.Util;
 
-import static main.util.DoubleArray.add;
+import static main.util.DoubleArray.copyOf;
 
 public class VKLimiterReconstructor implements SolutionReconstructor {
     private final Mesh mesh;
@@ -18,6 +19,18 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
     private final Cell[][] neighbors;
     private final GoverningEquations govEqn;
 
+    // Displacement from the cell centroid to each of its nodes, (dx, dy, dz) per node, starting at
+    // 3 * nodeStart[cell index]
+    private final int[] nodeStart;
+    private final double[] nodeDisplacements;
+
+    // Displacement from the left and right cell centroids to the centroid of each internal face,
+    // (dx, dy, dz) of the left cell followed by the right cell, starting at 6 * face index
+    private final Face[] internalFaces;
+    private final double[] faceDisplacements;
+
+    private NarrowBand narrowBand = null; // default
+
     public VKLimiterReconstructor(Mesh mesh, GoverningEquations govEqn, CellNeighborCalculator neighCalc) {
         this.govEqn = govEqn;
         int numCells = mesh.cells().size();
@@ -25,6 +38,20 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
         this.neighCalc = neighCalc;
         this.neighbors = new Cell[numCells][];
 
+        this.nodeStart = new int[numCells + 1];
+        for (int i = 0; i < numCells; i++) {
+            nodeStart[i + 1] = nodeStart[i] + mesh.cells().get(i).nodes.length;
+        }
+        this.nodeDisplacements = new double[3 * nodeStart[numCells]];
+
+        this.internalFaces = mesh.internalFaces().toArray(new Face[0]);
+        this.faceDisplacements = new double[6 * internalFaces.length];
+        for (int i = 0; i < internalFaces.length; i++) {
+            Face face = internalFaces[i];
+            setDisplacement(faceDisplacements, 6 * i, face.left.shape.centroid, face.surface.centroid);
+            setDisplacement(faceDisplacements, 6 * i + 3, face.right.shape.centroid, face.surface.centroid);
+        }
+
         mesh.cellStream().forEach(this::setup);
     }
 
@@ -34,6 +61,25 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
         for (int var = 0; var < cell.U.length; var++) {
             cell.reconstructCoeffs[var] = new double[3];
         }
+
+        int start = 3 * nodeStart[cell.index()];
+        for (int n = 0; n < cell.nodes.length; n++) {
+            setDisplacement(nodeDisplacements, start + 3 * n, cell.shape.centroid, cell.nodes[n].location());
+        }
+    }
+
+    private static void setDisplacement(double[] table, int offset, Point from, Point to) {
+        table[offset] = to.x - from.x;
+        table[offset + 1] = to.y - from.y;
+        table[offset + 2] = to.z - from.z;
+    }
+
+    /**
+     * Reconstructs the volume fraction only in the narrow band, and uses the cell average (zero
+     * reconstruction coefficients) in the other cells.
+     */
+    public void setNarrowBand(NarrowBand narrowBand) {
+        this.narrowBand = narrowBand;
     }
 
     @Override
@@ -42,47 +88,56 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
     }
 
     private void reconstructCell(Cell cell) {
+        int numVars = cell.U.length;
+        Limits[] physicalLimits = govEqn.physicalLimits();
+        double[] ui = cell.U;
+        int skipVar = narrowBand != null && !narrowBand.contains(cell) ? narrowBand.var() : -1;
+
+        double[] duMax = new double[numVars];
+        double[] duMin = new double[numVars];
+        double[] phi = new double[numVars];
+        double[] uMax = copyOf(ui);
+        double[] uMin = copyOf(ui);
+        for (Cell neighbor : neighbors[cell.index()]) {
+            for (int var = 0; var < numVars; var++) {
+                if (var == skipVar) continue;
+                double value = neighbor.U[var];
+                if (value > uMax[var]) uMax[var] = value;
+                if (value < uMin[var]) uMin[var] = value;
+            }
+        }
+        for (int var = 0; var < numVars; var++) {
+            duMax[var] = Util.clip(uMax[var], physicalLimits[var].min, physicalLimits[var].max) - ui[var];
+            duMin[var] = Util.clip(uMin[var], physicalLimits[var].min, physicalLimits[var].max) - ui[var];
+            phi[var] = Double.POSITIVE_INFINITY;
+        }
+
         Vector[] gradients = cell.gradientU;
-        for (int var = 0; var < cell.U.length; var++) {
-            reconstructVar(cell, gradients, var);
+        int start = 3 * nodeStart[cell.index()];
+        int end = 3 * nodeStart[cell.index() + 1];
+        for (int n = start; n < end; n += 3) {
+            double dx = nodeDisplacements[n];
+            double dy = nodeDisplacements[n + 1];
+            double dz = nodeDisplacements[n + 2];
+            for (int var = 0; var < numVars; var++) {
+                if (var == skipVar) continue;
+                Vector gradient = gradients[var];
+                double nodeValue = ui[var] + (gradient.x * dx + gradient.y * dy + gradient.z * dz);
+                double nodePhi = Phi(duMin[var], duMax[var], ui[var], nodeValue);
+                if (nodePhi < phi[var]) phi[var] = nodePhi;
+            }
         }
-    }
 
-    private void reconstructVar(Cell cell, Vector[] gradients, int var) {
-        Limits physicalLimits = govEqn.physicalLimits()[var];
-
-        Cell[] cellNeighbors = neighbors[cell.index()];
-        double ui = cell.U[var];
-        double uMax = ui;
-        double uMin = ui;
-        for (Cell neighbor : cellNeighbors) {
-            double value = neighbor.U[var];
-            if (value > uMax) uMax = value;
-            if (value < uMin) uMin = value;
+        if (skipVar >= 0) {
+            phi[skipVar] = 0.0;
         }
-        uMax = Util.clip(uMax, physicalLimits.min, physicalLimits.max);
-        double duMax = uMax - ui;
-
-        uMin = Util.clip(uMin, physicalLimits.min, physicalLimits.max);
-        double duMin = uMin - ui;
-
-        Vector gradient_unlimited = gradients[var];
-        double phi_i = Double.POSITIVE_INFINITY;
-        for (Node node : cell.nodes) {
-            double nodeValue = reconstructValueAt(cell, var, gradient_unlimited, node.location());
-            double nodePhi = Phi(duMin, duMax, ui, nodeValue);
-            if (nodePhi < phi_i) phi_i = nodePhi;
+        for (int var = 0; var < numVars; var++) {
+            Vector gradient = gradients[var];
+            double[] coeffs = cell.reconstructCoeffs[var];
+            coeffs[0] = gradient.x * phi[var];
+            coeffs[1] = gradient.y * phi[var];
+            coeffs[2] = gradient.z * phi[var];
         }
-
-        Vector gradient_limited = gradient_unlimited.mult(phi_i);
-        cell.reconstructCoeffs[var][0] = gradient_limited.x;
-        cell.reconstructCoeffs[var][1] = gradient_limited.y;
-        cell.reconstructCoeffs[var][2] = gradient_limited.z;
-    }
-
-    private double reconstructValueAt(Cell cell, int var, Vector gradient, Point at) {
-        Vector distanceVector = new Vector(cell.shape.centroid, at);
-        return cell.U[var] + gradient.dot(distanceVector);
     }
 
     private double Phi(double duMin, double duMax, double ui, double uj) {
@@ -103,18 +158,29 @@ public class VKLimiterReconstructor implements SolutionReconstructor {
 
     @Override
     public double[] conservativeVars(Cell cell, Point atPoint) {
+        return conservativeVars(cell, atPoint.x - cell.shape.centroid.x,
+                atPoint.y - cell.shape.centroid.y, atPoint.z - cell.shape.centroid.z);
+    }
+
+    @Override
+    public double[] conservativeVars(Face face, Cell cell) {
+        int index = face.index();
+        if (index < 0 || index >= internalFaces.length || internalFaces[index] != face) {
+            return conservativeVars(cell, face.surface.centroid);
+        }
+        int offset = 6 * index + (cell == face.left ? 0 : 3);
+        return conservativeVars(cell, faceDisplacements[offset],
+                faceDisplacements[offset + 1], faceDisplacements[offset + 2]);
+    }
+
+    private double[] conservativeVars(Cell cell, double dx, double dy, double dz) {
         int numVars = cell.U.length;
-        Vector r = new Vector(cell.shape.centroid, atPoint);
-        double[] dU = new double[numVars];
+        double[] U = new double[numVars];
         for (int var = 0; var < numVars; var++) {
-            double du_dx = cell.reconstructCoeffs[var][0];
-            double du_dy = cell.reconstructCoeffs[var][1];
-            double du_dz = cell.reconstructCoeffs[var][2];
-            Vector gradient = new Vector(du_dx, du_dy, du_dz);
-
-            dU[var] = gradient.dot(r);
+            double[] coeffs = cell.reconstructCoeffs[var];
+            U[var] = cell.U[var] + (coeffs[0] * dx + coeffs[1] * dy + coeffs[2] * dz);
         }
 
-        return add(cell.U, dU);
+        return U;
     }
 }
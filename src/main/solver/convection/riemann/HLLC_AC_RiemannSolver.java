@@ -1,7 +1,6 @@
 package main.solver.convection.riemann;
 
 import main.geom.Vector;
-import main.mesh.Face;
 import main.mesh.Surface;
 import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
 
@@ -18,8 +17,7 @@ public class HLLC_AC_RiemannSolver implements RiemannSolver {
     }
 
     @Override
-    public double[] flux(double[] UL, double[] UR, Face face) {
-        Surface surface = face.surface;
+    public double[] flux(double[] UL, double[] UR, Surface surface) {
         Vector n = surface.unitNormal();
         Vector t1 = surface.unitTangent1();
         Vector t2 = surface.unitTangent2();
@@ -1,7 +1,6 @@
 package main.solver.convection.riemann;
 
 import main.geom.Vector;
-import main.mesh.Face;
 import main.mesh.Surface;
 import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
 
@@ -16,8 +15,7 @@ public class HLLC_VOF_RiemannSolver implements RiemannSolver {
     }
 
     @Override
-    public double[] flux(double[] UL, double[] UR, Face face) {
-        Surface surface = face.surface;
+    public double[] flux(double[] UL, double[] UR, Surface surface) {
         Vector unitNormal = surface.unitNormal();
         double[] eigenvaluesL = govEqn.convection().sortedEigenvalues(UL, unitNormal);
         double[] eigenvaluesR = govEqn.convection().sortedEigenvalues(UR, unitNormal);
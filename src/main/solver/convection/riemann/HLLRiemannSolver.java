@@ -1,7 +1,6 @@
 package main.solver.convection.riemann;
 
 import main.geom.Vector;
-import main.mesh.Face;
 import main.mesh.Surface;
 import main.physics.goveqn.Convection;
 import main.physics.goveqn.GoverningEquations;
@@ -22,18 +21,32 @@ public class HLLRiemannSolver implements RiemannSolver {
     }
 
     @Override
-    public double[] flux(double[] UL, double[] UR, Face face) {
-        Surface surface = face.surface;
+    public double[] flux(double[] UL, double[] UR, Surface surface) {
         Vector unitNormal = surface.unitNormal();
         double[] leftSideEigenvalues = convection.sortedEigenvalues(UL, unitNormal);
         double[] rightSideEigenvalues = convection.sortedEigenvalues(UR, unitNormal);
+        double[] FL = convection.flux(UL, unitNormal);
+        double[] FR = convection.flux(UR, unitNormal);
+
+        return flux(UL, UR, leftSideEigenvalues, rightSideEigenvalues, FL, FR);
+    }
+
+    @Override
+    public double[] flux(double[] UL, double[] VL, double[] UR, double[] VR, Surface surface) {
+        Vector unitNormal = surface.unitNormal();
+        double[] leftSideEigenvalues = convection.sortedEigenvalues(UL, VL, unitNormal);
+        double[] rightSideEigenvalues = convection.sortedEigenvalues(UR, VR, unitNormal);
+        double[] FL = convection.flux(UL, VL, unitNormal);
+        double[] FR = convection.flux(UR, VR, unitNormal);
+
+        return flux(UL, UR, leftSideEigenvalues, rightSideEigenvalues, FL, FR);
+    }
 
+    private double[] flux(double[] UL, double[] UR, double[] leftSideEigenvalues, double[] rightSideEigenvalues,
+                          double[] FL, double[] FR) {
         double SL = Math.min(leftSideEigenvalues[0], rightSideEigenvalues[0]);
         double SR = Math.max(leftSideEigenvalues[numVars_m1], rightSideEigenvalues[numVars_m1]);
 
-        double[] FL = convection.flux(UL, unitNormal);
-        double[] FR = convection.flux(UR, unitNormal);
-
         if (SL >= 0.0) {
             return FL;
         } else if (SR <= 0.0) {
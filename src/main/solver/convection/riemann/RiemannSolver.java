@@ -1,7 +1,28 @@
 package main.solver.convection.riemann;
 
 import main.mesh.Face;
+import main.mesh.Surface;
 
 public interface RiemannSolver {
-    double[] flux(double[] UL, double[] UR, Face face);
+    /**
+     * Flux at a face from its surface only, so that the Riemann solvers can also be used on grids
+     * without Face objects.
+     */
+    double[] flux(double[] UL, double[] UR, Surface surface);
+
+    default double[] flux(double[] UL, double[] UR, Face face) {
+        return flux(UL, UR, face.surface);
+    }
+
+    /**
+     * Same as {@link #flux(double[], double[], Surface)}, for Riemann solvers that can use the
+     * primitive variables VL and VR of the left and right states when they are already available.
+     */
+    default double[] flux(double[] UL, double[] VL, double[] UR, double[] VR, Surface surface) {
+        return flux(UL, UR, surface);
+    }
+
+    default double[] flux(double[] UL, double[] VL, double[] UR, double[] VR, Face face) {
+        return flux(UL, VL, UR, VR, face.surface);
+    }
 }
@@ -1,7 +1,6 @@
 package main.solver.convection.riemann;
 
 import main.geom.Vector;
-import main.mesh.Face;
 import main.mesh.Surface;
 import main.physics.goveqn.Convection;
 import main.physics.goveqn.GoverningEquations;
@@ -14,8 +13,7 @@ public class RusanovRiemannSolver implements RiemannSolver {
     }
 
     @Override
-    public double[] flux(double[] UL, double[] UR, Face face) {
-        Surface surface = face.surface;
+    public double[] flux(double[] UL, double[] UR, Surface surface) {
         Vector unitNormal = surface.unitNormal();
         Convection convection = govEqn.convection();
         double[] FL = convection.flux(UL, unitNormal);
@@ -23,6 +21,25 @@ public class RusanovRiemannSolver implements RiemannSolver {
 
         double maxAbsEigenvalueL = convection.maxAbsEigenvalues(UL, unitNormal);
         double maxAbsEigenvalueR = convection.maxAbsEigenvalues(UR, unitNormal);
+
+        return flux(UL, UR, FL, FR, maxAbsEigenvalueL, maxAbsEigenvalueR);
+    }
+
+    @Override
+    public double[] flux(double[] UL, double[] VL, double[] UR, double[] VR, Surface surface) {
+        Vector unitNormal = surface.unitNormal();
+        Convection convection = govEqn.convection();
+        double[] FL = convection.flux(UL, VL, unitNormal);
+        double[] FR = convection.flux(UR, VR, unitNormal);
+
+        double maxAbsEigenvalueL = convection.maxAbsEigenvalues(UL, VL, unitNormal);
+        double maxAbsEigenvalueR = convection.maxAbsEigenvalues(UR, VR, unitNormal);
+
+        return flux(UL, UR, FL, FR, maxAbsEigenvalueL, maxAbsEigenvalueR);
+    }
+
+    private double[] flux(double[] UL, double[] UR, double[] FL, double[] FR,
+                          double maxAbsEigenvalueL, double maxAbsEigenvalueR) {
         double ev = Math.max(maxAbsEigenvalueL, maxAbsEigenvalueR);
 
         int numVars = govEqn.numVars();
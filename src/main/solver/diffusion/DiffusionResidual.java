@@ -4,6 +4,8 @@ import main.mesh.Cell;
 import main.mesh.Face;
 import main.mesh.Mesh;
 import main.physics.goveqn.GoverningEquations;
+import main.solver.Phase;
+import main.solver.PhaseProfiler;
 import main.solver.ResidualCalculator;
 
 import static main.util.DoubleArray.*;
@@ -20,6 +22,7 @@ public class DiffusionResidual implements ResidualCalculator {
     @Override
     public void updateCellResiduals() {
         // Assuming that the conservative variable gradients at the faces are already calculated
+        long start = PhaseProfiler.start();
 
         // For all the internal faces set flux
         mesh.internalFaceStream()
@@ -32,6 +35,7 @@ public class DiffusionResidual implements ResidualCalculator {
 
         // For all cells add / subtract face flux
         mesh.cellStream().forEach(this::updateResidual);
+        PhaseProfiler.stop(Phase.DIFFUSION, start);
     }
 
     private void setFlux(Face face) {
@@ -0,0 +1,227 @@
+package main.solver.graingrowth;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.physics.goveqn.factory.GrainGrowthFanChenEquations;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Explicit time integration of the Fan & Chen grain growth model, where each cell stores only its
+ * active orientations ({@link SparseOrderParameters}). The memory and the work per cell depend on
+ * the capacity (the number of orientations which can coexist in a cell, usually less than 10 in
+ * 3D) instead of the number of orientations, so that simulations with hundreds or thousands of
+ * orientations are possible.
+ * <p>
+ * An orientation is active in a cell when its order parameter is above the threshold. An
+ * orientation of a neighbour above the threshold is activated in the cell, so that the grains
+ * grow across the grain boundaries. The source and the diffusion are evaluated only for the
+ * active orientations (the source of a zero order parameter is zero).
+ * <p>
+ * The diffusion flux at the faces uses the two-point gradient between the cell centroids, and the
+ * boundaries have zero flux (same as the extrapolated boundary condition). The conservative
+ * variables of the mesh cells are not used, so that the mesh can be created with a single
+ * variable.
+ */
+public class SparseGrainGrowth {
+    private final Mesh mesh;
+    private final GrainGrowthFanChenEquations govEqn;
+    private final double threshold;
+
+    // Neighbours of each cell, from neighborStart[cell] to neighborStart[cell + 1] - 1, and the
+    // diffusion coefficient (face area / distance / cell volume) of the face between them
+    private final int[] neighborStart;
+    private final int[] neighbors;
+    private final double[] coefficients;
+    private final int maxNeighbors;
+    // Candidate orientations and values of a cell, reused by the cells updated on the same thread
+    private final ThreadLocal<Candidates> threadCandidates;
+
+    private SparseOrderParameters current;
+    private SparseOrderParameters next;
+
+    /**
+     * @param capacity  Maximum number of active orientations in a cell.
+     * @param threshold Order parameters less than or equal to the threshold are set to zero.
+     */
+    public SparseGrainGrowth(Mesh mesh, GrainGrowthFanChenEquations govEqn, int capacity, double threshold) {
+        this.mesh = mesh;
+        this.govEqn = govEqn;
+        this.threshold = threshold;
+
+        List<Cell> cells = mesh.cells();
+        int numCells = cells.size();
+        this.current = new SparseOrderParameters(numCells, capacity);
+        this.next = new SparseOrderParameters(numCells, capacity);
+
+        this.neighborStart = new int[numCells + 1];
+        for (Cell cell : cells) {
+            int numNeighbors = 0;
+            for (Face face : cell.faces) {
+                if (neighbor(cell, face).index() >= 0) numNeighbors++;
+            }
+            neighborStart[cell.index() + 1] = numNeighbors;
+        }
+        int maxNeighbors = 0;
+        for (int i = 0; i < numCells; i++) {
+            maxNeighbors = Math.max(maxNeighbors, neighborStart[i + 1]);
+            neighborStart[i + 1] += neighborStart[i];
+        }
+        this.maxNeighbors = maxNeighbors;
+        this.threadCandidates = ThreadLocal.withInitial(() -> new Candidates(capacity * (1 + this.maxNeighbors)));
+
+        this.neighbors = new int[neighborStart[numCells]];
+        this.coefficients = new double[neighborStart[numCells]];
+        for (Cell cell : cells) {
+            int k = neighborStart[cell.index()];
+            for (Face face : cell.faces) {
+                Cell neighbor = neighbor(cell, face);
+                if (neighbor.index() < 0) continue; // zero flux at the boundaries
+                Vector d = new Vector(cell.shape.centroid, neighbor.shape.centroid);
+                double normalDistance = Math.abs(d.dot(face.surface.unitNormal()));
+                neighbors[k] = neighbor.index();
+                coefficients[k] = face.surface.area / normalDistance / cell.shape.volume;
+                k++;
+            }
+        }
+    }
+
+    private static Cell neighbor(Cell cell, Face face) {
+        return face.left == cell ? face.right : face.left;
+    }
+
+    /**
+     * @return Order parameters at the current time.
+     */
+    public SparseOrderParameters orderParameters() {
+        return current;
+    }
+
+    /**
+     * Sets the order parameters of each cell to the largest values of the dense initial condition.
+     *
+     * @param initialCondition Order parameters of all the orientations at a cell centroid.
+     */
+    public void initialize(Function<Point, double[]> initialCondition) {
+        int numOrientations = govEqn.numOrientations();
+        int[] allOrientations = IntStream.range(0, numOrientations).toArray();
+        for (Cell cell : mesh.cells()) {
+            double[] values = initialCondition.apply(cell.shape.centroid);
+            if (values.length != numOrientations) {
+                throw new IllegalArgumentException("The initial condition must have " + numOrientations
+                                                   + " order parameters.");
+            }
+            current.set(cell.index(), allOrientations.clone(), values.clone(), numOrientations, threshold);
+        }
+    }
+
+    /**
+     * @return Largest stable time step of the explicit diffusion and source, multiplied by the
+     * Courant number.
+     */
+    public double stableTimeStep(double courantNum) {
+        double maxDiffusivity = 0.0;
+        for (int i = 0; i < govEqn.numOrientations(); i++) {
+            maxDiffusivity = Math.max(maxDiffusivity, Math.abs(govEqn.diffusivity(i)));
+        }
+        double maxCoefficientSum = 0.0;
+        for (int cell = 0; cell < neighborStart.length - 1; cell++) {
+            double sum = 0.0;
+            for (int k = neighborStart[cell]; k < neighborStart[cell + 1]; k++) {
+                sum += coefficients[k];
+            }
+            maxCoefficientSum = Math.max(maxCoefficientSum, sum);
+        }
+        return courantNum / (2.0 * maxDiffusivity * maxCoefficientSum + govEqn.maxSourceRate());
+    }
+
+    /**
+     * Advances the order parameters by one explicit (forward Euler) time step.
+     */
+    public void step(double dt) {
+        mesh.cellStream().forEach(cell -> update(cell.index(), dt));
+
+        SparseOrderParameters previous = current;
+        current = next;
+        next = previous;
+    }
+
+    private void update(int cell, double dt) {
+        Candidates scratch = threadCandidates.get();
+        int[] candidates = scratch.orientations;
+        double[] newValues = scratch.values;
+        int numCandidates = 0;
+
+        double sum_eta_sqr = 0.0;
+        for (int k = 0; k < current.count(cell); k++) {
+            double eta = current.value(cell, k);
+            sum_eta_sqr += eta * eta;
+        }
+
+        // orientations active in the cell
+        for (int k = 0; k < current.count(cell); k++) {
+            int orientation = current.orientation(cell, k);
+            double eta = current.value(cell, k);
+            double source = govEqn.source(orientation, eta, sum_eta_sqr);
+            candidates[numCandidates] = orientation;
+            newValues[numCandidates] = eta + dt * (diffusion(cell, orientation, eta) + source);
+            numCandidates++;
+        }
+
+        // orientations of the neighbours, activated across the grain boundaries
+        for (int n = neighborStart[cell]; n < neighborStart[cell + 1]; n++) {
+            int neighbor = neighbors[n];
+            for (int k = 0; k < current.count(neighbor); k++) {
+                int orientation = current.orientation(neighbor, k);
+                if (current.value(neighbor, k) <= threshold
+                    || contains(candidates, numCandidates, orientation)) continue;
+                candidates[numCandidates] = orientation;
+                newValues[numCandidates] = dt * diffusion(cell, orientation, 0.0);
+                numCandidates++;
+            }
+        }
+
+        next.set(cell, candidates, newValues, numCandidates, threshold);
+    }
+
+    private double diffusion(int cell, int orientation, double eta) {
+        double sum = 0.0;
+        for (int n = neighborStart[cell]; n < neighborStart[cell + 1]; n++) {
+            sum += coefficients[n] * (current.get(neighbors[n], orientation) - eta);
+        }
+        return govEqn.diffusivity(orientation) * sum;
+    }
+
+    private record Candidates(int[] orientations, double[] values) {
+        Candidates(int size) {
+            this(new int[size], new double[size]);
+        }
+    }
+
+    private static boolean contains(int[] orientations, int length, int orientation) {
+        for (int i = 0; i < length; i++) {
+            if (orientations[i] == orientation) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies the order parameters of all the orientations to the conservative variables of the
+     * cells, for writing the solution with the dense writers. The mesh must have one variable per
+     * orientation.
+     */
+    public void copyToCells() {
+        int numOrientations = govEqn.numOrientations();
+        mesh.cellStream().forEach(cell -> {
+            if (cell.U.length != numOrientations) {
+                throw new IllegalStateException("The cells must have one variable per orientation.");
+            }
+            System.arraycopy(current.toDense(cell.index(), numOrientations), 0, cell.U, 0, numOrientations);
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package main.solver.graingrowth;
+
+/**
+ * Order parameters of the cells, where only a few orientations are non-zero in each cell. Each
+ * cell stores up to {@link #capacity()} (orientation, value) pairs, sorted by orientation, in flat
+ * arrays. The orientations which are not stored are zero.
+ */
+public class SparseOrderParameters {
+    private final int numCells;
+    private final int capacity;
+    private final int[] counts;
+    private final int[] orientations;
+    private final double[] values;
+
+    public SparseOrderParameters(int numCells, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least one orientation per cell.");
+        }
+        this.numCells = numCells;
+        this.capacity = capacity;
+        this.counts = new int[numCells];
+        this.orientations = new int[numCells * capacity];
+        this.values = new double[numCells * capacity];
+    }
+
+    public int numCells() {
+        return numCells;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Number of active (non-zero) orientations of the cell.
+     */
+    public int count(int cell) {
+        return counts[cell];
+    }
+
+    /**
+     * @param k Position of the active orientation, from 0 to count(cell) - 1.
+     */
+    public int orientation(int cell, int k) {
+        return orientations[cell * capacity + k];
+    }
+
+    /**
+     * @param k Position of the active orientation, from 0 to count(cell) - 1.
+     */
+    public double value(int cell, int k) {
+        return values[cell * capacity + k];
+    }
+
+    /**
+     * @return Order parameter of the orientation in the cell, zero if the orientation is not active.
+     */
+    public double get(int cell, int orientation) {
+        int start = cell * capacity;
+        int low = start;
+        int high = start + counts[cell] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midOrientation = orientations[mid];
+            if (midOrientation < orientation) {
+                low = mid + 1;
+            } else if (midOrientation > orientation) {
+                high = mid - 1;
+            } else {
+                return values[mid];
+            }
+        }
+        return 0.0;
+    }
+
+    /**
+     * @return Orientation with the largest order parameter in the cell (the grain of the cell),
+     * or -1 if no orientation is active.
+     */
+    public int maxOrientation(int cell) {
+        int start = cell * capacity;
+        int max = -1;
+        double maxValue = Double.NEGATIVE_INFINITY;
+        for (int k = start; k < start + counts[cell]; k++) {
+            if (values[k] > maxValue) {
+                maxValue = values[k];
+                max = orientations[k];
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Sets the active orientations of the cell to the {@link #capacity()} largest values which are
+     * above the threshold. The candidate arrays are reordered.
+     *
+     * @param candidateOrientations Distinct orientations.
+     * @param candidateValues       Order parameters of the candidate orientations.
+     * @param numCandidates         Number of candidates in the arrays.
+     * @param threshold             Values less than or equal to the threshold are dropped.
+     */
+    public void set(int cell, int[] candidateOrientations, double[] candidateValues, int numCandidates,
+                    double threshold) {
+        // select the largest values to the front
+        int count = 0;
+        for (int i = 0; i < numCandidates && count < capacity; i++) {
+            int max = -1;
+            double maxValue = threshold;
+            for (int j = i; j < numCandidates; j++) {
+                if (candidateValues[j] > maxValue) {
+                    maxValue = candidateValues[j];
+                    max = j;
+                }
+            }
+            if (max == -1) break;
+            swap(candidateOrientations, candidateValues, i, max);
+            count++;
+        }
+
+        // store sorted by orientation
+        int start = cell * capacity;
+        for (int i = 0; i < count; i++) {
+            int orientation = candidateOrientations[i];
+            double value = candidateValues[i];
+            int k = start + i;
+            while (k > start && orientations[k - 1] > orientation) {
+                orientations[k] = orientations[k - 1];
+                values[k] = values[k - 1];
+                k--;
+            }
+            orientations[k] = orientation;
+            values[k] = value;
+        }
+        counts[cell] = count;
+    }
+
+    /**
+     * @return Order parameters of all the orientations of the cell.
+     */
+    public double[] toDense(int cell, int numOrientations) {
+        double[] dense = new double[numOrientations];
+        int start = cell * capacity;
+        for (int k = start; k < start + counts[cell]; k++) {
+            dense[orientations[k]] = values[k];
+        }
+        return dense;
+    }
+
+    private static void swap(int[] orientations, double[] values, int i, int j) {
+        int orientation = orientations[i];
+        orientations[i] = orientations[j];
+        orientations[j] = orientation;
+
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
@@ -0,0 +1,33 @@
+package main.solver.linear;
+
+import main.util.BSRMatrix;
+import main.util.KrylovWorkspace;
+
+/**
+ * Right-preconditioned stabilized bi-conjugate gradient method (BiCGSTAB), for non-symmetric
+ * matrices.
+ */
+public class BiCGSTABSolver implements LinearSolver {
+    private final Preconditioner preconditioner;
+    private final double tolerance;
+    private final int maxIterations;
+    private KrylovWorkspace workspace = null; // reused by the solves of the same size
+
+    /**
+     * @param tolerance Relative residual |b - A x| / |b| at which the iterations stop.
+     */
+    public BiCGSTABSolver(Preconditioner preconditioner, double tolerance, int maxIterations) {
+        this.preconditioner = preconditioner;
+        this.tolerance = tolerance;
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public Result solve(BSRMatrix A, double[] b, double[] x) {
+        if (workspace == null || workspace.size() != b.length) {
+            workspace = new KrylovWorkspace(b.length);
+        }
+        boolean converged = workspace.bicgstab(A::multiply, preconditioner::apply, b, x, tolerance, maxIterations);
+        return new Result(workspace.iterations(), workspace.relativeResidual(), converged);
+    }
+}
@@ -0,0 +1,21 @@
+package main.solver.linear;
+
+import main.util.BSRMatrix;
+
+/**
+ * Iterative solver of A x = b.
+ */
+public interface LinearSolver {
+    /**
+     * @param iterations       Number of iterations performed.
+     * @param relativeResidual Final |b - A x| / |b|.
+     * @param converged        Whether the relative residual reached the tolerance.
+     */
+    record Result(int iterations, double relativeResidual, boolean converged) {
+    }
+
+    /**
+     * Solves A x = b, starting from the initial guess in x. The solution is written to x.
+     */
+    Result solve(BSRMatrix A, double[] b, double[] x);
+}
@@ -0,0 +1,172 @@
+package main.solver.linear;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.Node;
+import main.solver.SpaceDiscretization;
+import main.util.BSRMatrix;
+import main.util.Dispatch;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Steady state of a linear scalar equation, such as the
+ * {@link main.physics.goveqn.factory.PoissonEquation} and the
+ * {@link main.physics.goveqn.factory.ScalarDiffusion}, solved with a sparse linear solver instead
+ * of marching the explicit time integrators in pseudo-time.
+ * <p>
+ * When the fluxes, the source and the boundary conditions are linear, the residual calculated by
+ * the {@link SpaceDiscretization} is affine in the cell values: R(U) = A U + R(0). The matrix A is
+ * assembled by probing the residual with the cells of one colour set to one and the others to
+ * zero, where no two cells of a colour are in the stencil of the same cell. The stencil of a cell
+ * is taken as the cells sharing a node with it, which contains the stencils of the least square
+ * face interpolation and of the cell gradients. The steady state is then the solution of
+ * A U = -R(0), which is the same discrete operator as the pseudo-time marching. The matrix is a
+ * {@link BSRMatrix} with blocks of one entry, preconditioned like the block matrices by the
+ * {@link main.util.BlockJacobi} or the {@link main.util.BlockILU0}.
+ */
+public class LinearSteadyState {
+    private final Mesh mesh;
+    private final BSRMatrix matrix;
+    private final double[] rhs;
+    private final int numColors;
+
+    public LinearSteadyState(Mesh mesh, SpaceDiscretization spaceDiscretization) {
+        this.mesh = mesh;
+        List<Cell> cells = mesh.cells();
+        int numCells = cells.size();
+        if (cells.stream().anyMatch(cell -> cell.U.length != 1)) {
+            throw new IllegalArgumentException("The linear steady state is implemented for a single variable.");
+        }
+
+        int[][] stencils = new int[numCells][];
+        for (Cell cell : cells) {
+            stencils[cell.index()] = Arrays.stream(cell.nodes)
+                    .flatMap((Node node) -> node.neighbors.stream())
+                    .mapToInt(Cell::index)
+                    .filter(index -> index >= 0)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+        }
+        int[] colors = color(stencils);
+        this.numColors = Arrays.stream(colors).max().orElse(-1) + 1;
+
+        double[] savedU = cells.stream().mapToDouble(cell -> cell.U[0]).toArray();
+
+        // R(0)
+        cells.forEach(cell -> cell.U[0] = 0.0);
+        spaceDiscretization.setResiduals();
+        double[] residual0 = cells.stream().mapToDouble(cell -> cell.residual[0]).toArray();
+
+        // A e_j = R(e_j) - R(0), for all the cells j of a color together
+        double[][] stencilValues = new double[numCells][];
+        for (int i = 0; i < numCells; i++) {
+            stencilValues[i] = new double[stencils[i].length];
+        }
+        for (int color = 0; color < numColors; color++) {
+            int probeColor = color;
+            cells.forEach(cell -> cell.U[0] = colors[cell.index()] == probeColor ? 1.0 : 0.0);
+            spaceDiscretization.setResiduals();
+            Dispatch.range(numCells).forEach(i -> {
+                int[] stencil = stencils[i];
+                for (int k = 0; k < stencil.length; k++) {
+                    if (colors[stencil[k]] == probeColor) {
+                        stencilValues[i][k] = cells.get(i).residual[0] - residual0[i];
+                    }
+                }
+            });
+        }
+
+        cells.forEach(cell -> cell.U[0] = savedU[cell.index()]);
+
+        this.matrix = compress(stencils, stencilValues);
+        this.rhs = new double[numCells];
+        for (int i = 0; i < numCells; i++) {
+            rhs[i] = -residual0[i];
+        }
+    }
+
+    /**
+     * Greedy distance-2 coloring: two cells which are in the stencil of the same cell have
+     * different colors. The stencils are symmetric (sharing a node).
+     */
+    private static int[] color(int[][] stencils) {
+        int numCells = stencils.length;
+        int[] colors = new int[numCells];
+        Arrays.fill(colors, -1);
+        int[] forbidden = new int[numCells + 1]; // cell + 1 for which the color is forbidden
+        for (int j = 0; j < numCells; j++) {
+            for (int i : stencils[j]) {
+                for (int k : stencils[i]) {
+                    if (colors[k] >= 0) forbidden[colors[k]] = j + 1;
+                }
+            }
+            int color = 0;
+            while (forbidden[color] == j + 1) color++;
+            colors[j] = color;
+        }
+        return colors;
+    }
+
+    private static BSRMatrix compress(int[][] stencils, double[][] stencilValues) {
+        int numRows = stencils.length;
+        int[] rowStart = new int[numRows + 1];
+        for (int i = 0; i < numRows; i++) {
+            int count = 0;
+            for (int k = 0; k < stencils[i].length; k++) {
+                if (stencilValues[i][k] != 0.0 || stencils[i][k] == i) count++;
+            }
+            rowStart[i + 1] = rowStart[i] + count;
+        }
+        int[] columns = new int[rowStart[numRows]];
+        double[] values = new double[rowStart[numRows]];
+        for (int i = 0; i < numRows; i++) {
+            int p = rowStart[i];
+            for (int k = 0; k < stencils[i].length; k++) {
+                if (stencilValues[i][k] != 0.0 || stencils[i][k] == i) {
+                    columns[p] = stencils[i][k];
+                    values[p] = stencilValues[i][k];
+                    p++;
+                }
+            }
+        }
+        BSRMatrix matrix = new BSRMatrix(numRows, 1, rowStart, columns);
+        System.arraycopy(values, 0, matrix.values(), 0, values.length);
+        return matrix;
+    }
+
+    /**
+     * @return Matrix A of the residual R(U) = A U + R(0).
+     */
+    public BSRMatrix matrix() {
+        return matrix;
+    }
+
+    /**
+     * @return Right-hand side -R(0) of the steady state A U = -R(0).
+     */
+    public double[] rhs() {
+        return rhs;
+    }
+
+    /**
+     * @return Number of residual evaluations, besides R(0), used to assemble the matrix.
+     */
+    public int numColors() {
+        return numColors;
+    }
+
+    /**
+     * Solves the steady state, starting from the current cell values, and sets the solution to the
+     * cells.
+     */
+    public LinearSolver.Result solve(LinearSolver solver) {
+        List<Cell> cells = mesh.cells();
+        double[] x = cells.stream().mapToDouble(cell -> cell.U[0]).toArray();
+        LinearSolver.Result result = solver.solve(matrix, rhs, x);
+        cells.forEach(cell -> cell.U[0] = x[cell.index()]);
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package main.solver.linear;
+
+/**
+ * Approximate inverse M^-1 of a matrix, applied in each iteration of the iterative solvers.
+ */
+public interface Preconditioner {
+    /**
+     * Sets z = M^-1 r.
+     */
+    void apply(double[] r, double[] z);
+}
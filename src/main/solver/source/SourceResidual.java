@@ -3,6 +3,8 @@ package main.solver.source;
 import main.mesh.Cell;
 import main.mesh.Mesh;
 import main.physics.goveqn.GoverningEquations;
+import main.solver.Phase;
+import main.solver.PhaseProfiler;
 import main.solver.ResidualCalculator;
 
 import static main.util.DoubleArray.decrement;
@@ -20,7 +22,9 @@ public class SourceResidual implements ResidualCalculator {
 
     @Override
     public void updateCellResiduals() {
+        long start = PhaseProfiler.start();
         mesh.cellStream().forEach(this::updateResidual);
+        PhaseProfiler.stop(Phase.SOURCE, start);
     }
 
     private void updateResidual(Cell cell) {
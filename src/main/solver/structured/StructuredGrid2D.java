@@ -0,0 +1,159 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.geom.factory.Line;
+import main.geom.factory.Quad;
+import main.io.DataFileReader;
+import main.mesh.Surface;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+/**
+ * Metrics of a structured 2D grid, kept in arrays indexed by the logical (i, j) indices instead of
+ * Cell and Face objects.
+ * <p>
+ * The grid has ni x nj cells. The cell (i, j) has the index {@code i * nj + j}, which is also its
+ * index in a {@link main.mesh.factory.Structured2DMesh} of the same nodes. The xi face (i, j),
+ * 0 <= i <= ni, is between the cells (i - 1, j) and (i, j), and its normal points towards
+ * increasing i. The eta face (i, j), 0 <= j <= nj, is between the cells (i, j - 1) and (i, j), and
+ * its normal points towards increasing j. The normals of the faces on the boundaries point the
+ * same way, into the grid on the min sides.
+ */
+public class StructuredGrid2D {
+    public final int ni, nj;
+    private final Point[][] nodes;
+    private final double[] volumes;
+    private final Point[] centroids;
+    private final Surface[] xiFaces;
+    private final Surface[] etaFaces;
+
+    public StructuredGrid2D(File meshFile) throws FileNotFoundException {
+        this(readNodes(meshFile));
+    }
+
+    /**
+     * @param nodes Locations of the nodes, nodes[i][j] for (ni + 1) x (nj + 1) nodes.
+     */
+    public StructuredGrid2D(Point[][] nodes) {
+        if (nodes.length < 2 || nodes[0].length < 2) {
+            throw new IllegalArgumentException("The grid must have at least 2 x 2 nodes.");
+        }
+        this.nodes = nodes;
+        this.ni = nodes.length - 1;
+        this.nj = nodes[0].length - 1;
+
+        this.volumes = new double[ni * nj];
+        this.centroids = new Point[ni * nj];
+        Vector[] cellNormals = new Vector[ni * nj];
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                Quad quad = new Quad(nodes[i][j], nodes[i + 1][j], nodes[i + 1][j + 1], nodes[i][j + 1]);
+                int cell = cellIndex(i, j);
+                volumes[cell] = quad.area();
+                centroids[cell] = quad.centroid();
+                cellNormals[cell] = quad.unitNormal();
+            }
+        }
+
+        this.xiFaces = new Surface[(ni + 1) * nj];
+        for (int i = 0; i <= ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                Vector normalL = i > 0 ? cellNormals[cellIndex(i - 1, j)] : null;
+                Vector normalR = i < ni ? cellNormals[cellIndex(i, j)] : null;
+                xiFaces[xiFaceIndex(i, j)] = surface(nodes[i][j], nodes[i][j + 1], normalL, normalR);
+            }
+        }
+
+        this.etaFaces = new Surface[ni * (nj + 1)];
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j <= nj; j++) {
+                Vector normalL = j > 0 ? cellNormals[cellIndex(i, j - 1)] : null;
+                Vector normalR = j < nj ? cellNormals[cellIndex(i, j)] : null;
+                etaFaces[etaFaceIndex(i, j)] = surface(nodes[i + 1][j], nodes[i][j], normalL, normalR);
+            }
+        }
+    }
+
+    private static Point[][] readNodes(File meshFile) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != 2) {
+                throw new IllegalArgumentException("The mesh file dimension must be 2.");
+            }
+
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
+            Point[][] nodes = new Point[num_xi][num_eta];
+            for (int i = 0; i < num_xi; i++) {
+                for (int j = 0; j < num_eta; j++) {
+                    nodes[i][j] = meshFileReader.readXYZ();
+                }
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Surface of the face from node a to node b. The normal is the tangent crossed with the normal
+     * of the cells, averaged over the cells on both sides of the face like in the meshes.
+     */
+    private static Surface surface(Point a, Point b, Vector cellNormalL, Vector cellNormalR) {
+        Line line = new Line(a, b);
+        Vector tangent = new Vector(a, b);
+        Vector unitNormal;
+        if (cellNormalL == null) {
+            unitNormal = tangent.cross(cellNormalR).unit();
+        } else if (cellNormalR == null) {
+            unitNormal = tangent.cross(cellNormalL).unit();
+        } else {
+            unitNormal = tangent.cross(cellNormalL).unit()
+                    .add(tangent.cross(cellNormalR).unit())
+                    .unit();
+        }
+
+        return new Surface(line.length(), line.centroid(), unitNormal);
+    }
+
+    public int numCells() {
+        return ni * nj;
+    }
+
+    public int cellIndex(int i, int j) {
+        return i * nj + j;
+    }
+
+    public int xiFaceIndex(int i, int j) {
+        return i * nj + j;
+    }
+
+    public int etaFaceIndex(int i, int j) {
+        return i * (nj + 1) + j;
+    }
+
+    public Point node(int i, int j) {
+        return nodes[i][j];
+    }
+
+    public double volume(int i, int j) {
+        return volumes[cellIndex(i, j)];
+    }
+
+    public Point centroid(int i, int j) {
+        return centroids[cellIndex(i, j)];
+    }
+
+    public Surface xiFace(int i, int j) {
+        return xiFaces[xiFaceIndex(i, j)];
+    }
+
+    public Surface etaFace(int i, int j) {
+        return etaFaces[etaFaceIndex(i, j)];
+    }
+}
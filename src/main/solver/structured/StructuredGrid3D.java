@@ -0,0 +1,190 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.geom.factory.Hexahedron;
+import main.geom.factory.Quad;
+import main.io.DataFileReader;
+import main.mesh.Surface;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+
+/**
+ * Metrics of a structured 3D grid, kept in arrays indexed by the logical (i, j, k) indices instead
+ * of Cell and Face objects.
+ * <p>
+ * The grid has ni x nj x nk cells. The cell (i, j, k) has the index {@code (i * nj + j) * nk + k},
+ * which is also its index in a {@link main.mesh.factory.Structured3DMesh} of the same nodes. The xi
+ * face (i, j, k), 0 <= i <= ni, is between the cells (i - 1, j, k) and (i, j, k), and its normal
+ * points towards increasing i. The eta and the zeta faces are between the cells along j and k in
+ * the same way. The normals of the faces on the boundaries point the same way, into the grid on
+ * the min sides.
+ */
+public class StructuredGrid3D {
+    public final int ni, nj, nk;
+    private final Point[][][] nodes;
+    private final double[] volumes;
+    private final Point[] centroids;
+    private final Surface[] xiFaces;
+    private final Surface[] etaFaces;
+    private final Surface[] zetaFaces;
+
+    public StructuredGrid3D(File meshFile) throws FileNotFoundException {
+        this(readNodes(meshFile));
+    }
+
+    /**
+     * @param nodes Locations of the nodes, nodes[i][j][k] for (ni + 1) x (nj + 1) x (nk + 1) nodes.
+     */
+    public StructuredGrid3D(Point[][][] nodes) {
+        if (nodes.length < 2 || nodes[0].length < 2 || nodes[0][0].length < 2) {
+            throw new IllegalArgumentException("The grid must have at least 2 x 2 x 2 nodes.");
+        }
+        this.nodes = nodes;
+        this.ni = nodes.length - 1;
+        this.nj = nodes[0].length - 1;
+        this.nk = nodes[0][0].length - 1;
+
+        this.volumes = new double[ni * nj * nk];
+        this.centroids = new Point[ni * nj * nk];
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k < nk; k++) {
+                    Hexahedron hexahedron = new Hexahedron(
+                            nodes[i][j][k], nodes[i + 1][j][k], nodes[i + 1][j + 1][k], nodes[i][j + 1][k],
+                            nodes[i][j][k + 1], nodes[i + 1][j][k + 1], nodes[i + 1][j + 1][k + 1], nodes[i][j + 1][k + 1]);
+                    int cell = cellIndex(i, j, k);
+                    volumes[cell] = hexahedron.volume();
+                    centroids[cell] = hexahedron.centroid();
+                }
+            }
+        }
+
+        this.xiFaces = new Surface[(ni + 1) * nj * nk];
+        for (int i = 0; i <= ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k < nk; k++) {
+                    Quad quad = new Quad(nodes[i][j][k], nodes[i][j + 1][k], nodes[i][j + 1][k + 1], nodes[i][j][k + 1]);
+                    xiFaces[xiFaceIndex(i, j, k)] = surface(quad,
+                            i > 0 ? centroids[cellIndex(i - 1, j, k)] : null,
+                            i < ni ? centroids[cellIndex(i, j, k)] : null);
+                }
+            }
+        }
+
+        this.etaFaces = new Surface[ni * (nj + 1) * nk];
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j <= nj; j++) {
+                for (int k = 0; k < nk; k++) {
+                    Quad quad = new Quad(nodes[i + 1][j][k], nodes[i][j][k], nodes[i][j][k + 1], nodes[i + 1][j][k + 1]);
+                    etaFaces[etaFaceIndex(i, j, k)] = surface(quad,
+                            j > 0 ? centroids[cellIndex(i, j - 1, k)] : null,
+                            j < nj ? centroids[cellIndex(i, j, k)] : null);
+                }
+            }
+        }
+
+        this.zetaFaces = new Surface[ni * nj * (nk + 1)];
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k <= nk; k++) {
+                    Quad quad = new Quad(nodes[i][j][k], nodes[i + 1][j][k], nodes[i + 1][j + 1][k], nodes[i][j + 1][k]);
+                    zetaFaces[zetaFaceIndex(i, j, k)] = surface(quad,
+                            k > 0 ? centroids[cellIndex(i, j, k - 1)] : null,
+                            k < nk ? centroids[cellIndex(i, j, k)] : null);
+                }
+            }
+        }
+    }
+
+    private static Point[][][] readNodes(File meshFile) throws FileNotFoundException {
+        try (DataFileReader meshFileReader = new DataFileReader(meshFile, "%")) {
+            int dim = meshFileReader.readIntParameter("dimension");
+            if (dim != 3) {
+                throw new IllegalArgumentException("The mesh file dimension must be 3.");
+            }
+
+            String mode = meshFileReader.readParameter("mode");
+            if (!mode.equals("ASCII")) {
+                throw new IllegalArgumentException("Only ASCII mode is supported.");
+            }
+
+            int num_xi = meshFileReader.readIntParameter("xi");
+            int num_eta = meshFileReader.readIntParameter("eta");
+            int num_zeta = meshFileReader.readIntParameter("zeta");
+            Point[][][] nodes = new Point[num_xi][num_eta][num_zeta];
+            for (int i = 0; i < num_xi; i++) {
+                for (int j = 0; j < num_eta; j++) {
+                    for (int k = 0; k < num_zeta; k++) {
+                        nodes[i][j][k] = meshFileReader.readXYZ();
+                    }
+                }
+            }
+            return nodes;
+        }
+    }
+
+    /**
+     * Surface of the quad, with the normal turned towards the cell on the max side of the face.
+     * The nodes of the quad are in the order of the face of the cell on the min side in the
+     * {@link main.mesh.factory.Structured3DMesh}, so that the metrics are the same.
+     *
+     * @param centroidL Centroid of the cell on the min side, null on the min boundary.
+     * @param centroidR Centroid of the cell on the max side, null on the max boundary.
+     */
+    private static Surface surface(Quad quad, Point centroidL, Point centroidR) {
+        Point from = centroidL == null ? quad.centroid() : centroidL;
+        Point to = centroidR == null ? quad.centroid() : centroidR;
+        Vector unitNormal = quad.unitNormal();
+        if (unitNormal.dot(new Vector(from, to)) < 0.0) {
+            unitNormal = unitNormal.mult(-1);
+        }
+
+        return new Surface(quad.area(), quad.centroid(), unitNormal);
+    }
+
+    public int numCells() {
+        return ni * nj * nk;
+    }
+
+    public int cellIndex(int i, int j, int k) {
+        return (i * nj + j) * nk + k;
+    }
+
+    public int xiFaceIndex(int i, int j, int k) {
+        return (i * nj + j) * nk + k;
+    }
+
+    public int etaFaceIndex(int i, int j, int k) {
+        return (i * (nj + 1) + j) * nk + k;
+    }
+
+    public int zetaFaceIndex(int i, int j, int k) {
+        return (i * nj + j) * (nk + 1) + k;
+    }
+
+    public Point node(int i, int j, int k) {
+        return nodes[i][j][k];
+    }
+
+    public double volume(int i, int j, int k) {
+        return volumes[cellIndex(i, j, k)];
+    }
+
+    public Point centroid(int i, int j, int k) {
+        return centroids[cellIndex(i, j, k)];
+    }
+
+    public Surface xiFace(int i, int j, int k) {
+        return xiFaces[xiFaceIndex(i, j, k)];
+    }
+
+    public Surface etaFace(int i, int j, int k) {
+        return etaFaces[etaFaceIndex(i, j, k)];
+    }
+
+    public Surface zetaFace(int i, int j, int k) {
+        return zetaFaces[zetaFaceIndex(i, j, k)];
+    }
+}
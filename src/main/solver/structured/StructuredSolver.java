@@ -0,0 +1,427 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.Surface;
+import main.physics.bc.BoundaryCondition;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.ZeroDiffusion;
+import main.physics.goveqn.ZeroSource;
+import main.solver.Norm;
+import main.solver.Phase;
+import main.solver.PhaseProfiler;
+import main.solver.convection.riemann.RiemannSolver;
+import main.solver.time.ResidualNorms;
+import main.util.Dispatch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static main.util.DoubleArray.copy;
+
+/**
+ * Dimension independent part of the {@link StructuredSolver2D} and the {@link StructuredSolver3D}:
+ * the cell values with the ghost cells, the face fluxes, the Green-Gauss gradients, the source,
+ * the local time steps and the update. The subclasses index the cells of their grid and loop over
+ * the faces along the grid lines.
+ * <p>
+ * A cell has its index in the grid, and a padded index in the arrays of the cell values, which
+ * also hold the ghost cells.
+ */
+abstract class StructuredSolver {
+    protected final GoverningEquations govEqn;
+    protected final RiemannSolver riemannSolver;
+    protected final int numVars;
+    protected final int numCells;
+    protected final boolean hasDiffusion;
+    protected final boolean needsGradients;
+    // Boundary faces of the sides of the grid, added by the subclasses
+    protected final List<BoundaryFaces> boundaries = new ArrayList<>();
+
+    // Cell values including the ghost cells, indexed by the padded index
+    protected final double[][] U;
+    protected final double[][] gradX, gradY, gradZ;
+    // Values of the cells, indexed by the cell index
+    protected final double[][] oldU;
+    protected final double[][] residual;
+    protected final double[] dt;
+
+    private boolean secondOrder = false; // default
+    private double courantNum = 1.0; // default
+    private ResidualNorms residualNorms = null;
+
+    /**
+     * Boundary faces of one side of the grid, with the padded indices of the cells inside and of
+     * the ghost cells.
+     */
+    protected static class BoundaryFaces {
+        final BoundaryCondition bc;
+        final Face[] faces;
+        final int[] inside;
+        final int[] ghost;
+
+        BoundaryFaces(String name, BoundaryCondition bc, int numFaces) {
+            if (bc == null) {
+                throw new IllegalArgumentException("Boundary condition is not defined for \"" + name + "\".");
+            }
+            this.bc = bc;
+            this.faces = new Face[numFaces];
+            this.inside = new int[numFaces];
+            this.ghost = new int[numFaces];
+        }
+    }
+
+    /**
+     * @param numPadded Number of cells including the ghost cells.
+     */
+    StructuredSolver(GoverningEquations govEqn, RiemannSolver riemannSolver, int numCells, int numPadded) {
+        this.govEqn = govEqn;
+        this.riemannSolver = riemannSolver;
+        this.numVars = govEqn.numVars();
+        this.numCells = numCells;
+        this.hasDiffusion = !(govEqn.diffusion() instanceof ZeroDiffusion);
+        this.needsGradients = hasDiffusion || !(govEqn.source() instanceof ZeroSource);
+
+        this.U = new double[numPadded][numVars];
+        this.gradX = needsGradients ? new double[numPadded][numVars] : null;
+        this.gradY = needsGradients ? new double[numPadded][numVars] : null;
+        this.gradZ = needsGradients ? new double[numPadded][numVars] : null;
+        this.oldU = new double[numCells][numVars];
+        this.residual = new double[numCells][numVars];
+        this.dt = new double[numCells];
+    }
+
+    /**
+     * @return Padded index of the cell.
+     */
+    protected abstract int paddedIndexOf(int cell);
+
+    protected abstract double volume(int cell);
+
+    protected abstract Point centroid(int cell);
+
+    /**
+     * Adds the values of the faces of the cell to its gradient sums, with {@link #addFaceValue}.
+     */
+    protected abstract void addFaceValues(int cell);
+
+    /**
+     * Adds the convective fluxes of all the faces to the residuals, with {@link #addInternalFlux}
+     * and {@link #addBoundaryFlux}.
+     */
+    protected abstract void setConvectionResiduals();
+
+    /**
+     * Adds the diffusion fluxes of all the faces to the residuals, with {@link #addDiffusionFlux}.
+     */
+    protected abstract void setDiffusionResiduals();
+
+    /**
+     * @return Sum of the spectral radii of the convection times the area over the faces of the cell.
+     */
+    protected abstract double convectionRadius(int cell);
+
+    /**
+     * @return Sum of the spectral radii of the diffusion times the area squared over the faces of
+     * the cell.
+     */
+    protected abstract double diffusionRadius(int cell);
+
+    /**
+     * Uses the second order reconstruction of the face states (default is first order).
+     */
+    public void setSecondOrder(boolean secondOrder) {
+        this.secondOrder = secondOrder;
+    }
+
+    public void setCourantNum(double courantNum) {
+        this.courantNum = courantNum;
+    }
+
+    /**
+     * Sets the conservative variables of each cell from its centroid.
+     */
+    public void initialize(Function<Point, double[]> conservativeVars) {
+        for (int cell = 0; cell < numCells; cell++) {
+            copy(conservativeVars.apply(centroid(cell)), U[paddedIndexOf(cell)]);
+        }
+    }
+
+    /**
+     * Copies the solution to the cells of a structured mesh of the same nodes, for example to write
+     * it with the mesh writers.
+     */
+    public void copyTo(Mesh mesh) {
+        checkCells(mesh);
+        for (int cell = 0; cell < numCells; cell++) {
+            copy(U[paddedIndexOf(cell)], mesh.cells().get(cell).U);
+        }
+    }
+
+    /**
+     * Copies the solution from the cells of a structured mesh of the same nodes, for example after
+     * the initialization of the mesh.
+     */
+    public void copyFrom(Mesh mesh) {
+        checkCells(mesh);
+        for (int cell = 0; cell < numCells; cell++) {
+            copy(mesh.cells().get(cell).U, U[paddedIndexOf(cell)]);
+        }
+    }
+
+    private void checkCells(Mesh mesh) {
+        if (mesh.cells().size() != numCells) {
+            throw new IllegalArgumentException("The mesh has " + mesh.cells().size()
+                    + " cells and the grid has " + numCells + " cells.");
+        }
+    }
+
+    /**
+     * Updates the cell averages with one explicit Euler step in local pseudo-time.
+     */
+    public void updateCellAverages() {
+        long start = PhaseProfiler.start();
+        for (int cell = 0; cell < numCells; cell++) {
+            copy(U[paddedIndexOf(cell)], oldU[cell]);
+        }
+        PhaseProfiler.stop(Phase.UPDATE, start);
+
+        start = PhaseProfiler.start();
+        boundaries.forEach(this::setGhostCellValues);
+        PhaseProfiler.stop(Phase.GHOST_CELLS, start);
+
+        if (needsGradients) {
+            start = PhaseProfiler.start();
+            setCellGradients();
+            PhaseProfiler.stop(Phase.CELL_GRADIENTS, start);
+        }
+
+        for (double[] cellResidual : residual) {
+            Arrays.fill(cellResidual, 0.0);
+        }
+
+        start = PhaseProfiler.start();
+        setConvectionResiduals();
+        PhaseProfiler.stop(Phase.CONVECTIVE_FLUX, start);
+
+        if (hasDiffusion) {
+            start = PhaseProfiler.start();
+            setDiffusionResiduals();
+            PhaseProfiler.stop(Phase.DIFFUSION, start);
+        }
+
+        if (needsGradients) {
+            start = PhaseProfiler.start();
+            setSourceResiduals();
+            PhaseProfiler.stop(Phase.SOURCE, start);
+        }
+
+        start = PhaseProfiler.start();
+        setTimeSteps();
+        PhaseProfiler.stop(Phase.TIME_STEP, start);
+
+        start = PhaseProfiler.start();
+        residualNorms = ResidualNorms.blocked(numVars, numCells, (norms, cell) -> {
+            double[] cellU = U[paddedIndexOf(cell)];
+            double dt_vol = dt[cell] / volume(cell);
+            double[] cellResidual = residual[cell];
+            for (int var = 0; var < numVars; var++) {
+                cellU[var] -= cellResidual[var] * dt_vol;
+            }
+            norms.accumulate(cellU, oldU[cell], dt[cell]);
+        });
+        PhaseProfiler.stop(Phase.UPDATE, start);
+        PhaseProfiler.iterationCompleted();
+    }
+
+    /**
+     * @return The norms of the change of the conservative variables per unit pseudo-time in the last
+     * update, normalized like the norms of the time integrators.
+     */
+    public double[] currentTotalResidual(Norm norm) {
+        if (residualNorms == null) {
+            throw new IllegalStateException("The residual is available after the cell averages are updated.");
+        }
+        return residualNorms.norm(norm);
+    }
+
+    private void setGhostCellValues(BoundaryFaces boundary) {
+        for (int b = 0; b < boundary.faces.length; b++) {
+            Face face = boundary.faces[b];
+            copy(U[boundary.inside[b]], face.left.U);
+            boundary.bc.setGhostCellValues(face);
+            copy(face.right.U, U[boundary.ghost[b]]);
+        }
+    }
+
+    private void setCellGradients() {
+        // Green-Gauss gradients, with the face values averaged from the cells on both sides
+        Dispatch.range(numCells).forEach(cell -> {
+            int p = paddedIndexOf(cell);
+            Arrays.fill(gradX[p], 0.0);
+            Arrays.fill(gradY[p], 0.0);
+            Arrays.fill(gradZ[p], 0.0);
+            addFaceValues(cell);
+            double volume = volume(cell);
+            for (int var = 0; var < numVars; var++) {
+                gradX[p][var] /= volume;
+                gradY[p][var] /= volume;
+                gradZ[p][var] /= volume;
+            }
+        });
+
+        // The ghost cells have the gradients of the cells inside
+        for (BoundaryFaces boundary : boundaries) {
+            for (int b = 0; b < boundary.faces.length; b++) {
+                copy(gradX[boundary.inside[b]], gradX[boundary.ghost[b]]);
+                copy(gradY[boundary.inside[b]], gradY[boundary.ghost[b]]);
+                copy(gradZ[boundary.inside[b]], gradZ[boundary.ghost[b]]);
+            }
+        }
+    }
+
+    /**
+     * Adds the face value times the outward area vector to the gradient sums of the cell p.
+     *
+     * @param sign 1 if the normal of the face points out of the cell p, -1 otherwise.
+     */
+    protected void addFaceValue(int p, int neighbor, Surface surface, double sign) {
+        Vector normal = surface.unitNormal();
+        double scale = 0.5 * sign * surface.area;
+        for (int var = 0; var < numVars; var++) {
+            double value = scale * (U[p][var] + U[neighbor][var]);
+            gradX[p][var] += value * normal.x;
+            gradY[p][var] += value * normal.y;
+            gradZ[p][var] += value * normal.z;
+        }
+    }
+
+    private Vector[] gradients(int p) {
+        Vector[] gradients = new Vector[numVars];
+        for (int var = 0; var < numVars; var++) {
+            gradients[var] = new Vector(gradX[p][var], gradY[p][var], gradZ[p][var]);
+        }
+        return gradients;
+    }
+
+    /**
+     * @param side 0.5 for the state at the face after the cell U0, -0.5 for the face before it.
+     * @return U0 plus the minmod limited slope of the cells Um, U0 and Up, times side.
+     */
+    private double[] reconstruct(double[] Um, double[] U0, double[] Up, double side) {
+        double[] face = new double[numVars];
+        for (int var = 0; var < numVars; var++) {
+            double backward = U0[var] - Um[var];
+            double forward = Up[var] - U0[var];
+            double slope = backward * forward <= 0.0 ? 0.0
+                    : Math.abs(backward) < Math.abs(forward) ? backward : forward;
+            face[var] = U0[var] + side * slope;
+        }
+        return face;
+    }
+
+    /**
+     * Adds the flux of the face between the cells pL and pR, with the cells pLL before and pRR
+     * after them along the grid line (padded indices) for the second order reconstruction.
+     */
+    protected void addInternalFlux(int pLL, int pL, int pR, int pRR, int cellL, int cellR,
+                                   Surface surface, double[] convectionRadius, int faceIndex) {
+        double[] UL, UR;
+        if (secondOrder) {
+            UL = reconstruct(U[pLL], U[pL], U[pR], 0.5);
+            UR = reconstruct(U[pL], U[pR], U[pRR], -0.5);
+        } else {
+            UL = U[pL];
+            UR = U[pR];
+        }
+        double[] flux = riemannSolver.flux(UL, UR, surface);
+        double area = surface.area;
+        double[] residualL = residual[cellL];
+        double[] residualR = residual[cellR];
+        for (int var = 0; var < numVars; var++) {
+            residualL[var] += flux[var] * area;
+            residualR[var] -= flux[var] * area;
+        }
+
+        Vector unitNormal = surface.unitNormal();
+        convectionRadius[faceIndex] = area * Math.max(
+                govEqn.convection().maxAbsEigenvalues(U[pL], unitNormal),
+                govEqn.convection().maxAbsEigenvalues(U[pR], unitNormal));
+    }
+
+    protected void addBoundaryFlux(BoundaryFaces boundary, int b, int cell, double[] convectionRadius, int faceIndex) {
+        Face face = boundary.faces[b];
+        double[] flux = boundary.bc.convectiveFlux(face);
+        double area = face.surface.area;
+        double[] cellResidual = residual[cell];
+        for (int var = 0; var < numVars; var++) {
+            cellResidual[var] += flux[var] * area;
+        }
+
+        Vector unitNormal = face.surface.unitNormal();
+        convectionRadius[faceIndex] = area * Math.max(
+                govEqn.convection().maxAbsEigenvalues(U[boundary.inside[b]], unitNormal),
+                govEqn.convection().maxAbsEigenvalues(U[boundary.ghost[b]], unitNormal));
+    }
+
+    /**
+     * Adds the diffusion flux of the face between the cells pL and pR (padded indices). The face
+     * gradient is the average of the cell gradients, with the component along the line of the
+     * centroids replaced by the difference of the cell values.
+     *
+     * @param cellL Index of the left cell, -1 for a ghost cell.
+     * @param cellR Index of the right cell, -1 for a ghost cell.
+     */
+    protected void addDiffusionFlux(int pL, int pR, int cellL, int cellR, Point centroidL, Point centroidR,
+                                    Surface surface, double[] diffusionRadius, int faceIndex) {
+        Vector d = new Vector(centroidL, centroidR);
+        double distance = d.mag();
+        Vector e = d.mult(1.0 / distance);
+
+        double[] faceU = new double[numVars];
+        Vector[] faceGradients = new Vector[numVars];
+        for (int var = 0; var < numVars; var++) {
+            faceU[var] = 0.5 * (U[pL][var] + U[pR][var]);
+            Vector average = new Vector(
+                    0.5 * (gradX[pL][var] + gradX[pR][var]),
+                    0.5 * (gradY[pL][var] + gradY[pR][var]),
+                    0.5 * (gradZ[pL][var] + gradZ[pR][var]));
+            double correction = (U[pR][var] - U[pL][var]) / distance - average.dot(e);
+            faceGradients[var] = average.add(e.mult(correction));
+        }
+
+        double[] flux = govEqn.diffusion().flux(faceU, faceGradients, surface.unitNormal());
+        double area = surface.area;
+        for (int var = 0; var < numVars; var++) {
+            if (cellL != -1) residual[cellL][var] -= flux[var] * area;
+            if (cellR != -1) residual[cellR][var] += flux[var] * area;
+        }
+        diffusionRadius[faceIndex] = govEqn.diffusion().maxAbsDiffusivity(faceU) * area * area;
+    }
+
+    private void setSourceResiduals() {
+        Dispatch.range(numCells).forEach(cell -> {
+            int p = paddedIndexOf(cell);
+            double[] source = govEqn.source().sourceVector(centroid(cell), U[p], gradients(p));
+            double volume = volume(cell);
+            double[] cellResidual = residual[cell];
+            for (int var = 0; var < numVars; var++) {
+                cellResidual[var] -= source[var] * volume;
+            }
+        });
+    }
+
+    private void setTimeSteps() {
+        Dispatch.range(numCells).forEach(cell -> {
+            double volume = volume(cell);
+            double spectralRadiusDiffusion = hasDiffusion ? diffusionRadius(cell) / volume : 0.0;
+
+            double C = 4.0; // Constant multiplying diffusion spectral radius, 4 for central discretization
+            dt[cell] = courantNum * (volume / (convectionRadius(cell) + C * spectralRadiusDiffusion));
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.geom.Vector;
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import main.physics.goveqn.GoverningEquations;
+import main.solver.convection.riemann.RiemannSolver;
+import main.util.Dispatch;
+
+import java.util.List;
+
+/**
+ * Finite volume solver on a {@link StructuredGrid2D}, with explicit Euler steps in local
+ * pseudo-time. It uses the same {@link GoverningEquations}, {@link RiemannSolver} and
+ * {@link BoundaryCondition} as the solvers on a {@link Mesh}. For the first order convection, it
+ * gives the same results as the {@link main.solver.convection.ConvectionResidual} with the
+ * {@link main.solver.time.LocalTimeStep} on a {@link main.mesh.factory.Structured2DMesh}. The
+ * diffusion and the source are discretized differently from the
+ * {@link main.solver.diffusion.DiffusionResidual} and the {@link main.solver.source.SourceResidual}
+ * with least squares gradients, so that their results agree only up to the discretization error.
+ * <p>
+ * The cell values are indexed by the logical (i, j) indices, with one layer of ghost cells around
+ * the grid. The fluxes are calculated along the grid lines: the xi faces of each j line, then the
+ * eta faces of each i line, with the lines in parallel. The second order reconstruction is
+ * direction split, with minmod limited slopes along the grid lines. The cell gradients are
+ * calculated with the Green-Gauss method, only when the diffusion or the source need them. The
+ * face gradient of the diffusion is the average of the cell gradients, with its component along
+ * the line of the centroids replaced by the difference of the cell values.
+ * <p>
+ * Only the faces on the boundaries have Face objects (with a cell inside and a ghost cell), for
+ * the boundary conditions. The parts that do not depend on the dimension are shared with the
+ * {@link StructuredSolver3D} in the {@link StructuredSolver}.
+ */
+public class StructuredSolver2D extends StructuredSolver {
+    private final StructuredGrid2D grid;
+    private final int ni, nj;
+
+    // Spectral radius of the convection and the diffusion times the area, of each face
+    private final double[] xiConvectionRadius, etaConvectionRadius;
+    private final double[] xiDiffusionRadius, etaDiffusionRadius;
+
+    public StructuredSolver2D(StructuredGrid2D grid, GoverningEquations govEqn, RiemannSolver riemannSolver,
+                              BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                              BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax) {
+        super(govEqn, riemannSolver, grid.numCells(), (grid.ni + 2) * (grid.nj + 2));
+        this.grid = grid;
+        this.ni = grid.ni;
+        this.nj = grid.nj;
+
+        this.xiConvectionRadius = new double[(ni + 1) * nj];
+        this.etaConvectionRadius = new double[ni * (nj + 1)];
+        this.xiDiffusionRadius = new double[(ni + 1) * nj];
+        this.etaDiffusionRadius = new double[ni * (nj + 1)];
+
+        BoundaryFaces xiMin = new BoundaryFaces("xi min", bc_xiMin, nj);
+        BoundaryFaces xiMax = new BoundaryFaces("xi max", bc_xiMax, nj);
+        for (int j = 0; j < nj; j++) {
+            setBoundaryFace(xiMin, j, 0, j, -1, j, grid.xiFace(0, j), true);
+            setBoundaryFace(xiMax, j, ni - 1, j, ni, j, grid.xiFace(ni, j), false);
+        }
+        BoundaryFaces etaMin = new BoundaryFaces("eta min", bc_etaMin, ni);
+        BoundaryFaces etaMax = new BoundaryFaces("eta max", bc_etaMax, ni);
+        for (int i = 0; i < ni; i++) {
+            setBoundaryFace(etaMin, i, i, 0, i, -1, grid.etaFace(i, 0), true);
+            setBoundaryFace(etaMax, i, i, nj - 1, i, nj, grid.etaFace(i, nj), false);
+        }
+        boundaries.addAll(List.of(xiMin, xiMax, etaMin, etaMax));
+    }
+
+    /**
+     * Sets up the boundary face with the cell (i, j) inside and the ghost cell (gi, gj). The
+     * normal of the face is reversed on the min sides so that it points out of the grid.
+     */
+    private void setBoundaryFace(BoundaryFaces boundary, int k, int i, int j, int gi, int gj,
+                                 Surface gridSurface, boolean reverse) {
+        Node[] nodes = {
+                new Node(grid.node(i, j), numVars), new Node(grid.node(i + 1, j), numVars),
+                new Node(grid.node(i + 1, j + 1), numVars), new Node(grid.node(i, j + 1), numVars)
+        };
+        Cell inside = new Cell(nodes, VTKType.VTK_QUAD,
+                new Shape(grid.volume(i, j), grid.centroid(i, j)), numVars);
+
+        Node[] faceNodes;
+        if (gi == -1) faceNodes = new Node[]{nodes[3], nodes[0]};
+        else if (gi == ni) faceNodes = new Node[]{nodes[1], nodes[2]};
+        else if (gj == -1) faceNodes = new Node[]{nodes[0], nodes[1]};
+        else faceNodes = new Node[]{nodes[2], nodes[3]};
+
+        Vector unitNormal = reverse ? gridSurface.unitNormal().mult(-1) : gridSurface.unitNormal();
+        Surface surface = new Surface(gridSurface.area, gridSurface.centroid, unitNormal);
+        Face face = new Face(faceNodes, VTKType.VTK_LINE, surface, inside, null, numVars);
+        face.right = Mesh.ghostCell(inside, face);
+
+        boundary.faces[k] = face;
+        boundary.inside[k] = paddedIndex(i, j);
+        boundary.ghost[k] = paddedIndex(gi, gj);
+    }
+
+    private int paddedIndex(int i, int j) {
+        return (i + 1) * (nj + 2) + j + 1;
+    }
+
+    @Override
+    protected int paddedIndexOf(int cell) {
+        return paddedIndex(cell / nj, cell % nj);
+    }
+
+    @Override
+    protected double volume(int cell) {
+        return grid.volume(cell / nj, cell % nj);
+    }
+
+    @Override
+    protected Point centroid(int cell) {
+        return grid.centroid(cell / nj, cell % nj);
+    }
+
+    public StructuredGrid2D grid() {
+        return grid;
+    }
+
+    /**
+     * @return Conservative variables of the cell (i, j), which can be modified in place.
+     */
+    public double[] U(int i, int j) {
+        return U[paddedIndex(i, j)];
+    }
+
+    /**
+     * @return Local pseudo-time step of the cell (i, j) in the last update.
+     */
+    public double dt(int i, int j) {
+        return dt[grid.cellIndex(i, j)];
+    }
+
+    @Override
+    protected void addFaceValues(int cell) {
+        int i = cell / nj, j = cell % nj;
+        int p = paddedIndex(i, j);
+        addFaceValue(p, paddedIndex(i - 1, j), grid.xiFace(i, j), -1.0);
+        addFaceValue(p, paddedIndex(i + 1, j), grid.xiFace(i + 1, j), 1.0);
+        addFaceValue(p, paddedIndex(i, j - 1), grid.etaFace(i, j), -1.0);
+        addFaceValue(p, paddedIndex(i, j + 1), grid.etaFace(i, j + 1), 1.0);
+    }
+
+    @Override
+    protected void setConvectionResiduals() {
+        // xi faces, the j lines in parallel
+        Dispatch.range(nj, (long) (ni + 1) * nj).forEach(j -> {
+            addBoundaryFlux(boundaries.get(0), j, grid.cellIndex(0, j), xiConvectionRadius, grid.xiFaceIndex(0, j));
+            for (int i = 1; i < ni; i++) {
+                addInternalFlux(paddedIndex(i - 2, j), paddedIndex(i - 1, j), paddedIndex(i, j), paddedIndex(i + 1, j),
+                        grid.cellIndex(i - 1, j), grid.cellIndex(i, j),
+                        grid.xiFace(i, j), xiConvectionRadius, grid.xiFaceIndex(i, j));
+            }
+            addBoundaryFlux(boundaries.get(1), j, grid.cellIndex(ni - 1, j), xiConvectionRadius, grid.xiFaceIndex(ni, j));
+        });
+
+        // eta faces, the i lines in parallel
+        Dispatch.range(ni, (long) ni * (nj + 1)).forEach(i -> {
+            addBoundaryFlux(boundaries.get(2), i, grid.cellIndex(i, 0), etaConvectionRadius, grid.etaFaceIndex(i, 0));
+            for (int j = 1; j < nj; j++) {
+                addInternalFlux(paddedIndex(i, j - 2), paddedIndex(i, j - 1), paddedIndex(i, j), paddedIndex(i, j + 1),
+                        grid.cellIndex(i, j - 1), grid.cellIndex(i, j),
+                        grid.etaFace(i, j), etaConvectionRadius, grid.etaFaceIndex(i, j));
+            }
+            addBoundaryFlux(boundaries.get(3), i, grid.cellIndex(i, nj - 1), etaConvectionRadius, grid.etaFaceIndex(i, nj));
+        });
+    }
+
+    @Override
+    protected void setDiffusionResiduals() {
+        Dispatch.range(nj, (long) (ni + 1) * nj).forEach(j -> {
+            for (int i = 0; i <= ni; i++) {
+                addDiffusionFlux(paddedIndex(i - 1, j), paddedIndex(i, j),
+                        i > 0 ? grid.cellIndex(i - 1, j) : -1, i < ni ? grid.cellIndex(i, j) : -1,
+                        centroid(i - 1, j, i == 0 ? boundaries.get(0).faces[j] : null),
+                        centroid(i, j, i == ni ? boundaries.get(1).faces[j] : null),
+                        grid.xiFace(i, j), xiDiffusionRadius, grid.xiFaceIndex(i, j));
+            }
+        });
+
+        Dispatch.range(ni, (long) ni * (nj + 1)).forEach(i -> {
+            for (int j = 0; j <= nj; j++) {
+                addDiffusionFlux(paddedIndex(i, j - 1), paddedIndex(i, j),
+                        j > 0 ? grid.cellIndex(i, j - 1) : -1, j < nj ? grid.cellIndex(i, j) : -1,
+                        centroid(i, j - 1, j == 0 ? boundaries.get(2).faces[i] : null),
+                        centroid(i, j, j == nj ? boundaries.get(3).faces[i] : null),
+                        grid.etaFace(i, j), etaDiffusionRadius, grid.etaFaceIndex(i, j));
+            }
+        });
+    }
+
+    /**
+     * @return Centroid of the cell (i, j), or of the ghost cell of the boundary face.
+     */
+    private Point centroid(int i, int j, Face boundaryFace) {
+        return boundaryFace == null ? grid.centroid(i, j) : boundaryFace.right.shape.centroid;
+    }
+
+    @Override
+    protected double convectionRadius(int cell) {
+        return sumOverFaces(xiConvectionRadius, etaConvectionRadius, cell);
+    }
+
+    @Override
+    protected double diffusionRadius(int cell) {
+        return sumOverFaces(xiDiffusionRadius, etaDiffusionRadius, cell);
+    }
+
+    private double sumOverFaces(double[] xiValues, double[] etaValues, int cell) {
+        int i = cell / nj, j = cell % nj;
+        return xiValues[grid.xiFaceIndex(i, j)] + xiValues[grid.xiFaceIndex(i + 1, j)]
+                + etaValues[grid.etaFaceIndex(i, j)] + etaValues[grid.etaFaceIndex(i, j + 1)];
+    }
+}
@@ -0,0 +1,279 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.geom.Vector;
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import main.physics.goveqn.GoverningEquations;
+import main.solver.convection.riemann.RiemannSolver;
+import main.util.Dispatch;
+
+import java.util.List;
+
+/**
+ * Finite volume solver on a {@link StructuredGrid3D}, with explicit Euler steps in local
+ * pseudo-time. It is the 3D version of the {@link StructuredSolver2D}, with the same
+ * discretization: for the first order convection, it gives the same results as the
+ * {@link main.solver.convection.ConvectionResidual} with the {@link main.solver.time.LocalTimeStep}
+ * on a {@link main.mesh.factory.Structured3DMesh}, and the diffusion and the source agree with the
+ * mesh solvers only up to the discretization error.
+ * <p>
+ * The cell values are indexed by the logical (i, j, k) indices, with one layer of ghost cells
+ * around the grid. The fluxes are calculated along the grid lines: the xi faces of each (j, k)
+ * line, then the eta faces of each (i, k) line and the zeta faces of each (i, j) line, with the
+ * lines in parallel. The second order reconstruction is direction split, with minmod limited
+ * slopes along the grid lines. The cell gradients are calculated with the Green-Gauss method, only
+ * when the diffusion or the source need them.
+ * <p>
+ * Only the faces on the boundaries have Face objects (with a cell inside and a ghost cell), for
+ * the boundary conditions. The parts that do not depend on the dimension are shared with the
+ * {@link StructuredSolver2D} in the {@link StructuredSolver}.
+ */
+public class StructuredSolver3D extends StructuredSolver {
+    private final StructuredGrid3D grid;
+    private final int ni, nj, nk;
+
+    // Spectral radius of the convection and the diffusion times the area, of each face
+    private final double[] xiConvectionRadius, etaConvectionRadius, zetaConvectionRadius;
+    private final double[] xiDiffusionRadius, etaDiffusionRadius, zetaDiffusionRadius;
+
+    public StructuredSolver3D(StructuredGrid3D grid, GoverningEquations govEqn, RiemannSolver riemannSolver,
+                              BoundaryCondition bc_xiMin, BoundaryCondition bc_xiMax,
+                              BoundaryCondition bc_etaMin, BoundaryCondition bc_etaMax,
+                              BoundaryCondition bc_zetaMin, BoundaryCondition bc_zetaMax) {
+        super(govEqn, riemannSolver, grid.numCells(), (grid.ni + 2) * (grid.nj + 2) * (grid.nk + 2));
+        this.grid = grid;
+        this.ni = grid.ni;
+        this.nj = grid.nj;
+        this.nk = grid.nk;
+
+        this.xiConvectionRadius = new double[(ni + 1) * nj * nk];
+        this.etaConvectionRadius = new double[ni * (nj + 1) * nk];
+        this.zetaConvectionRadius = new double[ni * nj * (nk + 1)];
+        this.xiDiffusionRadius = new double[(ni + 1) * nj * nk];
+        this.etaDiffusionRadius = new double[ni * (nj + 1) * nk];
+        this.zetaDiffusionRadius = new double[ni * nj * (nk + 1)];
+
+        // The boundary faces of each side are indexed by the line of cells normal to the side
+        BoundaryFaces xiMin = new BoundaryFaces("xi min", bc_xiMin, nj * nk);
+        BoundaryFaces xiMax = new BoundaryFaces("xi max", bc_xiMax, nj * nk);
+        for (int j = 0; j < nj; j++) {
+            for (int k = 0; k < nk; k++) {
+                int b = j * nk + k;
+                setBoundaryFace(xiMin, b, 0, j, k, -1, j, k, grid.xiFace(0, j, k), true);
+                setBoundaryFace(xiMax, b, ni - 1, j, k, ni, j, k, grid.xiFace(ni, j, k), false);
+            }
+        }
+        BoundaryFaces etaMin = new BoundaryFaces("eta min", bc_etaMin, ni * nk);
+        BoundaryFaces etaMax = new BoundaryFaces("eta max", bc_etaMax, ni * nk);
+        for (int i = 0; i < ni; i++) {
+            for (int k = 0; k < nk; k++) {
+                int b = i * nk + k;
+                setBoundaryFace(etaMin, b, i, 0, k, i, -1, k, grid.etaFace(i, 0, k), true);
+                setBoundaryFace(etaMax, b, i, nj - 1, k, i, nj, k, grid.etaFace(i, nj, k), false);
+            }
+        }
+        BoundaryFaces zetaMin = new BoundaryFaces("zeta min", bc_zetaMin, ni * nj);
+        BoundaryFaces zetaMax = new BoundaryFaces("zeta max", bc_zetaMax, ni * nj);
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                int b = i * nj + j;
+                setBoundaryFace(zetaMin, b, i, j, 0, i, j, -1, grid.zetaFace(i, j, 0), true);
+                setBoundaryFace(zetaMax, b, i, j, nk - 1, i, j, nk, grid.zetaFace(i, j, nk), false);
+            }
+        }
+        boundaries.addAll(List.of(xiMin, xiMax, etaMin, etaMax, zetaMin, zetaMax));
+    }
+
+    /**
+     * Sets up the boundary face with the cell (i, j, k) inside and the ghost cell (gi, gj, gk).
+     * The normal of the face is reversed on the min sides so that it points out of the grid.
+     */
+    private void setBoundaryFace(BoundaryFaces boundary, int b, int i, int j, int k, int gi, int gj, int gk,
+                                 Surface gridSurface, boolean reverse) {
+        Node[] nodes = {
+                new Node(grid.node(i, j, k), numVars), new Node(grid.node(i + 1, j, k), numVars),
+                new Node(grid.node(i + 1, j + 1, k), numVars), new Node(grid.node(i, j + 1, k), numVars),
+                new Node(grid.node(i, j, k + 1), numVars), new Node(grid.node(i + 1, j, k + 1), numVars),
+                new Node(grid.node(i + 1, j + 1, k + 1), numVars), new Node(grid.node(i, j + 1, k + 1), numVars)
+        };
+        Cell inside = new Cell(nodes, VTKType.VTK_HEXAHEDRON,
+                new Shape(grid.volume(i, j, k), grid.centroid(i, j, k)), numVars);
+
+        // The nodes of the face in the order of the boundary faces of the Structured3DMesh
+        Node[] faceNodes;
+        if (gi == -1) faceNodes = new Node[]{nodes[0], nodes[4], nodes[7], nodes[3]};
+        else if (gi == ni) faceNodes = new Node[]{nodes[1], nodes[2], nodes[6], nodes[5]};
+        else if (gj == -1) faceNodes = new Node[]{nodes[0], nodes[1], nodes[5], nodes[4]};
+        else if (gj == nj) faceNodes = new Node[]{nodes[3], nodes[7], nodes[6], nodes[2]};
+        else if (gk == -1) faceNodes = new Node[]{nodes[0], nodes[3], nodes[2], nodes[1]};
+        else faceNodes = new Node[]{nodes[4], nodes[5], nodes[6], nodes[7]};
+
+        Vector unitNormal = reverse ? gridSurface.unitNormal().mult(-1) : gridSurface.unitNormal();
+        Surface surface = new Surface(gridSurface.area, gridSurface.centroid, unitNormal);
+        Face face = new Face(faceNodes, VTKType.VTK_QUAD, surface, inside, null, numVars);
+        face.right = Mesh.ghostCell(inside, face);
+
+        boundary.faces[b] = face;
+        boundary.inside[b] = paddedIndex(i, j, k);
+        boundary.ghost[b] = paddedIndex(gi, gj, gk);
+    }
+
+    private int paddedIndex(int i, int j, int k) {
+        return ((i + 1) * (nj + 2) + j + 1) * (nk + 2) + k + 1;
+    }
+
+    @Override
+    protected int paddedIndexOf(int cell) {
+        return paddedIndex(cell / (nj * nk), cell / nk % nj, cell % nk);
+    }
+
+    @Override
+    protected double volume(int cell) {
+        return grid.volume(cell / (nj * nk), cell / nk % nj, cell % nk);
+    }
+
+    @Override
+    protected Point centroid(int cell) {
+        return grid.centroid(cell / (nj * nk), cell / nk % nj, cell % nk);
+    }
+
+    public StructuredGrid3D grid() {
+        return grid;
+    }
+
+    /**
+     * @return Conservative variables of the cell (i, j, k), which can be modified in place.
+     */
+    public double[] U(int i, int j, int k) {
+        return U[paddedIndex(i, j, k)];
+    }
+
+    /**
+     * @return Local pseudo-time step of the cell (i, j, k) in the last update.
+     */
+    public double dt(int i, int j, int k) {
+        return dt[grid.cellIndex(i, j, k)];
+    }
+
+    @Override
+    protected void addFaceValues(int cell) {
+        int i = cell / (nj * nk), j = cell / nk % nj, k = cell % nk;
+        int p = paddedIndex(i, j, k);
+        addFaceValue(p, paddedIndex(i - 1, j, k), grid.xiFace(i, j, k), -1.0);
+        addFaceValue(p, paddedIndex(i + 1, j, k), grid.xiFace(i + 1, j, k), 1.0);
+        addFaceValue(p, paddedIndex(i, j - 1, k), grid.etaFace(i, j, k), -1.0);
+        addFaceValue(p, paddedIndex(i, j + 1, k), grid.etaFace(i, j + 1, k), 1.0);
+        addFaceValue(p, paddedIndex(i, j, k - 1), grid.zetaFace(i, j, k), -1.0);
+        addFaceValue(p, paddedIndex(i, j, k + 1), grid.zetaFace(i, j, k + 1), 1.0);
+    }
+
+    @Override
+    protected void setConvectionResiduals() {
+        // xi faces, the (j, k) lines in parallel
+        Dispatch.range(nj * nk, (long) (ni + 1) * nj * nk).forEach(line -> {
+            int j = line / nk, k = line % nk;
+            addBoundaryFlux(boundaries.get(0), line, grid.cellIndex(0, j, k),
+                    xiConvectionRadius, grid.xiFaceIndex(0, j, k));
+            for (int i = 1; i < ni; i++) {
+                addInternalFlux(paddedIndex(i - 2, j, k), paddedIndex(i - 1, j, k),
+                        paddedIndex(i, j, k), paddedIndex(i + 1, j, k),
+                        grid.cellIndex(i - 1, j, k), grid.cellIndex(i, j, k),
+                        grid.xiFace(i, j, k), xiConvectionRadius, grid.xiFaceIndex(i, j, k));
+            }
+            addBoundaryFlux(boundaries.get(1), line, grid.cellIndex(ni - 1, j, k),
+                    xiConvectionRadius, grid.xiFaceIndex(ni, j, k));
+        });
+
+        // eta faces, the (i, k) lines in parallel
+        Dispatch.range(ni * nk, (long) ni * (nj + 1) * nk).forEach(line -> {
+            int i = line / nk, k = line % nk;
+            addBoundaryFlux(boundaries.get(2), line, grid.cellIndex(i, 0, k),
+                    etaConvectionRadius, grid.etaFaceIndex(i, 0, k));
+            for (int j = 1; j < nj; j++) {
+                addInternalFlux(paddedIndex(i, j - 2, k), paddedIndex(i, j - 1, k),
+                        paddedIndex(i, j, k), paddedIndex(i, j + 1, k),
+                        grid.cellIndex(i, j - 1, k), grid.cellIndex(i, j, k),
+                        grid.etaFace(i, j, k), etaConvectionRadius, grid.etaFaceIndex(i, j, k));
+            }
+            addBoundaryFlux(boundaries.get(3), line, grid.cellIndex(i, nj - 1, k),
+                    etaConvectionRadius, grid.etaFaceIndex(i, nj, k));
+        });
+
+        // zeta faces, the (i, j) lines in parallel
+        Dispatch.range(ni * nj, (long) ni * nj * (nk + 1)).forEach(line -> {
+            int i = line / nj, j = line % nj;
+            addBoundaryFlux(boundaries.get(4), line, grid.cellIndex(i, j, 0),
+                    zetaConvectionRadius, grid.zetaFaceIndex(i, j, 0));
+            for (int k = 1; k < nk; k++) {
+                addInternalFlux(paddedIndex(i, j, k - 2), paddedIndex(i, j, k - 1),
+                        paddedIndex(i, j, k), paddedIndex(i, j, k + 1),
+                        grid.cellIndex(i, j, k - 1), grid.cellIndex(i, j, k),
+                        grid.zetaFace(i, j, k), zetaConvectionRadius, grid.zetaFaceIndex(i, j, k));
+            }
+            addBoundaryFlux(boundaries.get(5), line, grid.cellIndex(i, j, nk - 1),
+                    zetaConvectionRadius, grid.zetaFaceIndex(i, j, nk));
+        });
+    }
+
+    @Override
+    protected void setDiffusionResiduals() {
+        Dispatch.range(nj * nk, (long) (ni + 1) * nj * nk).forEach(line -> {
+            int j = line / nk, k = line % nk;
+            for (int i = 0; i <= ni; i++) {
+                addDiffusionFlux(paddedIndex(i - 1, j, k), paddedIndex(i, j, k),
+                        i > 0 ? grid.cellIndex(i - 1, j, k) : -1, i < ni ? grid.cellIndex(i, j, k) : -1,
+                        centroid(i - 1, j, k, i == 0 ? boundaries.get(0).faces[line] : null),
+                        centroid(i, j, k, i == ni ? boundaries.get(1).faces[line] : null),
+                        grid.xiFace(i, j, k), xiDiffusionRadius, grid.xiFaceIndex(i, j, k));
+            }
+        });
+
+        Dispatch.range(ni * nk, (long) ni * (nj + 1) * nk).forEach(line -> {
+            int i = line / nk, k = line % nk;
+            for (int j = 0; j <= nj; j++) {
+                addDiffusionFlux(paddedIndex(i, j - 1, k), paddedIndex(i, j, k),
+                        j > 0 ? grid.cellIndex(i, j - 1, k) : -1, j < nj ? grid.cellIndex(i, j, k) : -1,
+                        centroid(i, j - 1, k, j == 0 ? boundaries.get(2).faces[line] : null),
+                        centroid(i, j, k, j == nj ? boundaries.get(3).faces[line] : null),
+                        grid.etaFace(i, j, k), etaDiffusionRadius, grid.etaFaceIndex(i, j, k));
+            }
+        });
+
+        Dispatch.range(ni * nj, (long) ni * nj * (nk + 1)).forEach(line -> {
+            int i = line / nj, j = line % nj;
+            for (int k = 0; k <= nk; k++) {
+                addDiffusionFlux(paddedIndex(i, j, k - 1), paddedIndex(i, j, k),
+                        k > 0 ? grid.cellIndex(i, j, k - 1) : -1, k < nk ? grid.cellIndex(i, j, k) : -1,
+                        centroid(i, j, k - 1, k == 0 ? boundaries.get(4).faces[line] : null),
+                        centroid(i, j, k, k == nk ? boundaries.get(5).faces[line] : null),
+                        grid.zetaFace(i, j, k), zetaDiffusionRadius, grid.zetaFaceIndex(i, j, k));
+            }
+        });
+    }
+
+    /**
+     * @return Centroid of the cell (i, j, k), or of the ghost cell of the boundary face.
+     */
+    private Point centroid(int i, int j, int k, Face boundaryFace) {
+        return boundaryFace == null ? grid.centroid(i, j, k) : boundaryFace.right.shape.centroid;
+    }
+
+    @Override
+    protected double convectionRadius(int cell) {
+        return sumOverFaces(xiConvectionRadius, etaConvectionRadius, zetaConvectionRadius, cell);
+    }
+
+    @Override
+    protected double diffusionRadius(int cell) {
+        return sumOverFaces(xiDiffusionRadius, etaDiffusionRadius, zetaDiffusionRadius, cell);
+    }
+
+    private double sumOverFaces(double[] xiValues, double[] etaValues, double[] zetaValues, int cell) {
+        int i = cell / (nj * nk), j = cell / nk % nj, k = cell % nk;
+        return xiValues[grid.xiFaceIndex(i, j, k)] + xiValues[grid.xiFaceIndex(i + 1, j, k)]
+                + etaValues[grid.etaFaceIndex(i, j, k)] + etaValues[grid.etaFaceIndex(i, j + 1, k)]
+                + zetaValues[grid.zetaFaceIndex(i, j, k)] + zetaValues[grid.zetaFaceIndex(i, j, k + 1)];
+    }
+}
@@ -3,10 +3,9 @@ package main.solver.time;
 import main.mesh.Cell;
 import main.mesh.Mesh;
 import main.solver.Norm;
+import main.solver.Phase;
+import main.solver.PhaseProfiler;
 import main.solver.SpaceDiscretization;
-import main.util.DoubleArray;
-
-import java.util.stream.Stream;
 
 import static main.util.DoubleArray.*;
 
@@ -19,11 +18,16 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
     private final TimeStep timeStep;
     private double courantNum = 1.0; // default
     private TimeDiscretization realTimeDiscretization = null; // default
+    private boolean fusedResidualNorms = false; // default
+    private boolean deterministicReductions = false; // default
+    private PointImplicitSource pointImplicitSource = null; // default
+    private ResidualNorms residualNorms = null;
 
     public ExplicitSSPRK3TimeIntegrator(Mesh mesh, SpaceDiscretization spaceDiscretization, TimeStep timeStep, int numVars) {
         this.mesh = mesh;
         this.spaceDiscretization = spaceDiscretization;
         this.timeStep = timeStep;
+        spaceDiscretization.addTimeStep(timeStep);
         this.numVars = numVars;
         int numCells = mesh.cells().size();
         this.U = new double[numCells][numVars];
@@ -55,86 +59,89 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
         // Second stage
         setResidualForAllCells();
         calculateNewAveragesStage2();
+        PhaseProfiler.iterationCompleted();
     }
 
     @Override
-    public double[] currentTotalResidual(Norm norm) {
-        double[] zeros = new double[numVars];
+    public void setFusedResidualNorms(boolean fused) {
+        this.fusedResidualNorms = fused;
+    }
 
-        Stream<double[]> absResidualStream = mesh.cellStream()
-                .map(cell -> apply(cell.U, U[cell.index()], (e1, e2) -> (e1 - e2) / cell.dt))
-                .map(DoubleArray::abs);
+    @Override
+    public void setDeterministicReductions(boolean deterministic) {
+        this.deterministicReductions = deterministic;
+    }
 
-        int numCells = mesh.cells().size();
-        double[] totalResidue;
-        switch (norm) {
-            case ONE_NORM:
-                totalResidue = absResidualStream
-                        .reduce(zeros, DoubleArray::add);
-                totalResidue = multiply(totalResidue, 1.0 / numCells);
-                break;
-
-            case TWO_NORM:
-                totalResidue = absResidualStream
-                        .map(DoubleArray::sqr)
-                        .reduce(zeros, DoubleArray::add);
-                totalResidue = multiply(totalResidue, 1.0 / numCells);
-                totalResidue = apply(totalResidue, Math::sqrt);
-                break;
-
-            case INFINITY_NORM:
-                totalResidue = absResidualStream
-                        .reduce(zeros, (d1, d2) -> apply(d1, d2, Math::max));
-                break;
-
-            default:
-                throw new IllegalArgumentException("Norm " + norm + " is not implemented.");
-        }
+    @Override
+    public void setPointImplicitSource(PointImplicitSource pointImplicitSource) {
+        this.pointImplicitSource = pointImplicitSource;
+    }
 
-        // normalize
-        double[] varMagnitude = mesh.cellStream()
-                .map(cell -> cell.U)
-                .map(DoubleArray::abs)
-                .reduce(zeros, DoubleArray::add);
-        varMagnitude = multiply(varMagnitude, 1.0 / numCells);
-        varMagnitude = apply(varMagnitude, e -> (e < 1e-12 ? 1.0 : e)); // avoid div by zero
-        for (int i = 0; i < numVars; i++) {
-            totalResidue[i] /= varMagnitude[i];
+    @Override
+    public double[] currentTotalResidual(Norm norm) {
+        if (residualNorms == null) {
+            throw new IllegalStateException("The residual is available after the cell averages are updated.");
         }
-
-        return totalResidue;
+        if (!fusedResidualNorms) {
+            residualNorms = ResidualNorms.accumulate(mesh, numVars, U, deterministicReductions);
+        }
+        // The two norm of this integrator is the root mean square, unlike the other integrators
+        return residualNorms.norm(norm, true);
     }
 
     private void saveCurrentAverages() {
+        long start = PhaseProfiler.start();
         mesh.cellStream().forEach(cell -> copy(cell.U, U[cell.index()]));
+        PhaseProfiler.stop(Phase.UPDATE, start);
     }
 
     private void setResidualForAllCells() {
         spaceDiscretization.setResiduals();
-        if (realTimeDiscretization != null)
+        if (realTimeDiscretization != null) {
+            long start = PhaseProfiler.start();
             realTimeDiscretization.updateCellResiduals();
+            PhaseProfiler.stop(Phase.REAL_TIME, start);
+        }
     }
 
     private void setTimeStepForAllCells() {
         double real_dt = realTimeDiscretization != null
                 ? realTimeDiscretization.dt()
                 : Double.POSITIVE_INFINITY;
+        long start = PhaseProfiler.start();
         timeStep.updateCellTimeSteps(courantNum, real_dt * 0.66);
+        PhaseProfiler.stop(Phase.TIME_STEP, start);
     }
 
     private void calculateNewAveragesStage0() {
+        long start = PhaseProfiler.start();
         mesh.cellStream().forEach(this::calculateNewAveragesStage0);
+        PhaseProfiler.stop(Phase.UPDATE, start);
     }
 
     private void calculateNewAveragesStage1() {
+        long start = PhaseProfiler.start();
         mesh.cellStream().forEach(this::calculateNewAveragesStage1);
+        PhaseProfiler.stop(Phase.UPDATE, start);
     }
 
     private void calculateNewAveragesStage2() {
-        mesh.cellStream().forEach(this::calculateNewAveragesStage2);
+        long start = PhaseProfiler.start();
+        if (fusedResidualNorms) {
+            // the residual norms are accumulated along with the update of the last stage
+            residualNorms = ResidualNorms.accumulate(mesh, numVars, U, this::calculateNewAveragesStage2,
+                    deterministicReductions);
+        } else {
+            mesh.cellStream().forEach(this::calculateNewAveragesStage2);
+            residualNorms = new ResidualNorms(numVars); // calculated when requested
+        }
+        PhaseProfiler.stop(Phase.UPDATE, start);
     }
 
     private void calculateNewAveragesStage0(Cell cell) {
+        if (pointImplicitSource != null) {
+            pointImplicitSource.updateResidual(cell);
+        }
         double dt_vol = cell.dt / cell.shape.volume;
         int numVars = cell.U.length;
         for (int var = 0; var < numVars; var++) {
@@ -146,6 +153,9 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
     private static final double ONE_FOURTH = 1.0 / 4.0;
 
     private void calculateNewAveragesStage1(Cell cell) {
+        if (pointImplicitSource != null) {
+            pointImplicitSource.updateResidual(cell);
+        }
         double dt_vol = cell.dt / cell.shape.volume;
         int numVars = cell.U.length;
         for (int var = 0; var < numVars; var++) {
@@ -158,6 +168,9 @@ public class ExplicitSSPRK3TimeIntegrator implements TimeIntegrator {
     private static final double TWO_THIRD = 2.0 / 3.0;
 
     private void calculateNewAveragesStage2(Cell cell) {
+        if (pointImplicitSource != null) {
+            pointImplicitSource.updateResidual(cell);
+        }
         double dt_vol = cell.dt / cell.shape.volume;
         int numVars = cell.U.length;
 
@@ -2,6 +2,7 @@ package main.solver.time;
 
 import main.mesh.Mesh;
 import main.physics.goveqn.GoverningEquations;
+import main.solver.PrimitiveCache;
 
 public class GlobalTimeStep implements TimeStep {
 
@@ -13,12 +14,18 @@ public class GlobalTimeStep implements TimeStep {
         this.mesh = mesh;
     }
 
+    @Override
+    public void setPrimitiveCache(PrimitiveCache primitiveCache) {
+        localTimeStep.setPrimitiveCache(primitiveCache);
+    }
+
     @Override
     public void updateCellTimeSteps(double courantNum, double timeStepLimit) {
         // Calculate the local dt
         localTimeStep.updateCellTimeSteps(courantNum, timeStepLimit);
 
         // Calculate minimum time step in the entire domain
+        // (the minimum does not depend on the order of the parallel reduction)
         double minTimeStep = mesh.cellStream()
                 .mapToDouble(cell -> cell.dt)
                 .min().orElseThrow(() -> new ArithmeticException("Unable to calculate global time step."));
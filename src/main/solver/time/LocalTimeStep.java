@@ -3,18 +3,29 @@ package main.solver.time;
 import main.mesh.Cell;
 import main.mesh.Face;
 import main.mesh.Mesh;
+import main.physics.goveqn.Convection;
 import main.physics.goveqn.GoverningEquations;
+import main.solver.PrimitiveCache;
 
 public class LocalTimeStep implements TimeStep {
 
     private final Mesh mesh;
     private final GoverningEquations govEqn;
+    private PrimitiveCache primitiveCache = null; // default
 
     public LocalTimeStep(Mesh mesh, GoverningEquations govEqn) {
         this.mesh = mesh;
         this.govEqn = govEqn;
     }
 
+    /**
+     * Uses the primitive variables of the cells from the cache for the eigenvalues at the faces.
+     */
+    @Override
+    public void setPrimitiveCache(PrimitiveCache primitiveCache) {
+        this.primitiveCache = primitiveCache;
+    }
+
     @Override
     public void updateCellTimeSteps(double courantNum, double timeStepLimit) {
         // Go through all the internal faces and save maxAbsEigenvalue
@@ -57,6 +68,16 @@ public class LocalTimeStep implements TimeStep {
     }
 
     private void updateEigenvalue(Face face) {
+        if (primitiveCache != null) {
+            Convection convection = govEqn.convection();
+            face.maxAbsEigenvalue = Math.max(
+                    convection.maxAbsEigenvalues(face.left.U, primitiveCache.primitiveVars(face.left),
+                            face.surface.unitNormal()),
+                    convection.maxAbsEigenvalues(face.right.U, primitiveCache.primitiveVars(face.right),
+                            face.surface.unitNormal())
+            );
+            return;
+        }
         face.maxAbsEigenvalue = Math.max(
                 govEqn.convection().maxAbsEigenvalues(face.left.U, face.surface.unitNormal()),
                 govEqn.convection().maxAbsEigenvalues(face.right.U, face.surface.unitNormal())
@@ -0,0 +1,93 @@
+package main.solver.time;
+
+import main.mesh.Cell;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.Source;
+
+/**
+ * Point-implicit treatment of a stiff source in the explicit time integrators. The source is
+ * linearized about the current values of the cell, so that each stage solves
+ * (I/dt - dS/dU) dU = -R / volume
+ * instead of dU = -dt R / volume. The time step is then limited by the convection and the
+ * diffusion only, and not by the rate of the source.
+ * <p>
+ * The system is solved by replacing the residual of the cell with (I - dt dS/dU)^-1 R, so that
+ * the update formulas of the integrators are unchanged. The Jacobian is the analytic one of the
+ * equations, or else the finite difference one of {@link Source#jacobian}.
+ */
+public class PointImplicitSource {
+    private final Source source;
+    // Jacobian and matrix of a cell, reused by the cells updated on the same thread
+    private final ThreadLocal<Matrices> threadMatrices;
+
+    public PointImplicitSource(GoverningEquations govEqn) {
+        this.source = govEqn.source();
+        int numVars = govEqn.numVars();
+        this.threadMatrices = ThreadLocal.withInitial(() -> new Matrices(numVars));
+    }
+
+    /**
+     * Replaces the residual of the cell with the point-implicit residual. Must be called before
+     * the conservative variables of the cell are updated.
+     */
+    public void updateResidual(Cell cell) {
+        Matrices matrices = threadMatrices.get();
+        double[][] jacobian = matrices.jacobian;
+        double[][] A = matrices.A;
+        source.jacobian(cell.shape.centroid, cell.U, cell.gradientU, jacobian);
+        int numVars = cell.residual.length;
+        for (int i = 0; i < numVars; i++) {
+            for (int j = 0; j < numVars; j++) {
+                A[i][j] = -cell.dt * jacobian[i][j];
+            }
+            A[i][i] += 1.0;
+        }
+        solve(A, cell.residual);
+    }
+
+    private record Matrices(double[][] jacobian, double[][] A) {
+        Matrices(int numVars) {
+            this(new double[numVars][numVars], new double[numVars][numVars]);
+        }
+    }
+
+    /**
+     * Solves A x = b by Gaussian elimination with partial pivoting. Both A and b are overwritten,
+     * and b contains the solution.
+     */
+    static void solve(double[][] A, double[] b) {
+        int n = b.length;
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(A[i][k]) > Math.abs(A[pivot][k])) pivot = i;
+            }
+            if (A[pivot][k] == 0.0) {
+                throw new ArithmeticException("The point-implicit matrix is singular.");
+            }
+            if (pivot != k) {
+                double[] row = A[k];
+                A[k] = A[pivot];
+                A[pivot] = row;
+                double value = b[k];
+                b[k] = b[pivot];
+                b[pivot] = value;
+            }
+            for (int i = k + 1; i < n; i++) {
+                double factor = A[i][k] / A[k][k];
+                if (factor == 0.0) continue;
+                for (int j = k + 1; j < n; j++) {
+                    A[i][j] -= factor * A[k][j];
+                }
+                b[i] -= factor * b[k];
+            }
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            double sum = b[i];
+            for (int j = i + 1; j < n; j++) {
+                sum -= A[i][j] * b[j];
+            }
+            b[i] = sum / A[i][i];
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package main.solver.time;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.solver.Norm;
+import main.util.Dispatch;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Accumulates the norms of the change of the conservative variables per unit pseudo-time
+ * {@code (U_new - U_old) / dt} and the mean magnitude of {@code U_new}, cell by cell, while the
+ * time integrators update the cells. One instance is used by each thread of the update pass and
+ * the instances are combined at the end, so that the norms need no separate pass over the mesh.
+ * <p>
+ * In the deterministic mode the cells are summed in blocks of consecutive cell indices, and the
+ * block sums are combined pairwise in the order of the blocks. The sums are then independent of
+ * the number of threads, at the cost of one small object per block.
+ */
+public final class ResidualNorms {
+    static final int BLOCK_SIZE = 1024;
+
+    private final double[] sumAbs;
+    private final double[] sumSqr;
+    private final double[] maxAbs;
+    private final double[] sumAbsU;
+    private int numCells = 0;
+
+    ResidualNorms(int numVars) {
+        this.sumAbs = new double[numVars];
+        this.sumSqr = new double[numVars];
+        this.maxAbs = new double[numVars];
+        this.sumAbsU = new double[numVars];
+    }
+
+    /**
+     * Updates all the cells and accumulates their residual norms.
+     *
+     * @param oldU          Conservative variables of each cell before the update.
+     * @param update        Update of a cell, may do nothing.
+     * @param deterministic Whether the sums must be independent of the number of threads.
+     */
+    static ResidualNorms accumulate(Mesh mesh, int numVars, double[][] oldU, Consumer<Cell> update,
+                                    boolean deterministic) {
+        if (deterministic) {
+            List<Cell> cells = mesh.cells();
+            return blocked(numVars, cells.size(), (norms, i) -> {
+                Cell cell = cells.get(i);
+                update.accept(cell);
+                norms.accumulate(cell.U, oldU[cell.index()], cell.dt);
+            });
+        }
+        return mesh.cellStream().collect(() -> new ResidualNorms(numVars), (norms, cell) -> {
+            update.accept(cell);
+            norms.accumulate(cell.U, oldU[cell.index()], cell.dt);
+        }, ResidualNorms::combine);
+    }
+
+    /**
+     * Accumulates the residual norms of all the cells, without updating them.
+     */
+    static ResidualNorms accumulate(Mesh mesh, int numVars, double[][] oldU, boolean deterministic) {
+        return accumulate(mesh, numVars, oldU, cell -> {
+        }, deterministic);
+    }
+
+    /**
+     * Accumulates the items 0 to size - 1 in blocks of {@link #BLOCK_SIZE} consecutive items, and
+     * combines the blocks pairwise, independent of the number of threads.
+     */
+    public static ResidualNorms blocked(int numVars, int size, ObjIntConsumer<ResidualNorms> accumulator) {
+        int numBlocks = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (numBlocks == 0) return new ResidualNorms(numVars);
+
+        ResidualNorms[] blocks = new ResidualNorms[numBlocks];
+        Dispatch.range(numBlocks, size).forEach(block -> {
+            ResidualNorms norms = new ResidualNorms(numVars);
+            int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                accumulator.accept(norms, i);
+            }
+            blocks[block] = norms;
+        });
+
+        for (int width = 1; width < numBlocks; width *= 2) {
+            for (int block = 0; block + width < numBlocks; block += 2 * width) {
+                blocks[block].combine(blocks[block + width]);
+            }
+        }
+        return blocks[0];
+    }
+
+    /**
+     * @param U     Updated conservative variables of the cell.
+     * @param oldU  Conservative variables of the cell before the update.
+     * @param dt    Pseudo-time step of the cell.
+     */
+    public void accumulate(double[] U, double[] oldU, double dt) {
+        for (int var = 0; var < sumAbs.length; var++) {
+            double r = Math.abs((U[var] - oldU[var]) / dt);
+            sumAbs[var] += r;
+            sumSqr[var] += r * r;
+            maxAbs[var] = Math.max(maxAbs[var], r);
+            sumAbsU[var] += Math.abs(U[var]);
+        }
+        numCells++;
+    }
+
+    void combine(ResidualNorms other) {
+        for (int var = 0; var < sumAbs.length; var++) {
+            sumAbs[var] += other.sumAbs[var];
+            sumSqr[var] += other.sumSqr[var];
+            maxAbs[var] = Math.max(maxAbs[var], other.maxAbs[var]);
+            sumAbsU[var] += other.sumAbsU[var];
+        }
+        numCells += other.numCells;
+    }
+
+    /**
+     * @return The norm of each variable, normalized by the mean magnitude of the variable. The two
+     * norm is {@code sqrt(sum) / n}, as in the Euler and the SSPRK2 integrators.
+     */
+    public double[] norm(Norm norm) {
+        return norm(norm, false);
+    }
+
+    /**
+     * @param rootMeanSquare Whether the two norm is the root mean square {@code sqrt(sum / n)}, as
+     *                       in the SSPRK3 integrator, instead of {@code sqrt(sum) / n}.
+     * @return The norm of each variable, normalized by the mean magnitude of the variable.
+     */
+    public double[] norm(Norm norm, boolean rootMeanSquare) {
+        int numVars = sumAbs.length;
+        double[] totalResidue = new double[numVars];
+        for (int var = 0; var < numVars; var++) {
+            totalResidue[var] = switch (norm) {
+                case ONE_NORM -> sumAbs[var] * (1.0 / numCells);
+                case TWO_NORM -> rootMeanSquare
+                        ? Math.sqrt(sumSqr[var] * (1.0 / numCells))
+                        : Math.sqrt(sumSqr[var]) * (1.0 / numCells);
+                case INFINITY_NORM -> maxAbs[var];
+            };
+            double varMagnitude = sumAbsU[var] * (1.0 / numCells);
+            if (varMagnitude < 1e-12) varMagnitude = 1.0; // avoid div by zero
+            totalResidue[var] /= varMagnitude;
+        }
+
+        return totalResidue;
+    }
+}
@@ -0,0 +1,44 @@
+package main.solver.time;
+
+import main.mesh.Mesh;
+import main.physics.goveqn.GoverningEquations;
+
+/**
+ * Kind of real time discretization, used to store and restore the state of a transient run.
+ */
+public enum TimeDiscretizationKind {
+    /**
+     * Steady state, no real time discretization.
+     */
+    NONE,
+    TWO_POINT,
+    THREE_POINT;
+
+    /**
+     * @param timeDiscretization Real time discretization, or null for steady state problems.
+     * @return Kind of the time discretization.
+     */
+    public static TimeDiscretizationKind of(TimeDiscretization timeDiscretization) {
+        if (timeDiscretization == null) {
+            return NONE;
+        } else if (timeDiscretization instanceof TwoPointTimeDiscretization) {
+            return TWO_POINT;
+        } else if (timeDiscretization instanceof ThreePointTimeDiscretization) {
+            return THREE_POINT;
+        } else {
+            throw new IllegalArgumentException("Unknown time discretization: "
+                    + timeDiscretization.getClass().getName());
+        }
+    }
+
+    /**
+     * @return New time discretization of this kind, or null for {@link #NONE}.
+     */
+    public TimeDiscretization create(Mesh mesh, GoverningEquations govEqn, double real_dt) {
+        return switch (this) {
+            case NONE -> null;
+            case TWO_POINT -> new TwoPointTimeDiscretization(mesh, govEqn, real_dt);
+            case THREE_POINT -> new ThreePointTimeDiscretization(mesh, govEqn, real_dt);
+        };
+    }
+}
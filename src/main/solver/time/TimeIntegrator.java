@@ -9,5 +9,32 @@ public interface TimeIntegrator {
 
     void setTimeDiscretization(TimeDiscretization timeDiscretization);
 
+    /**
+     * When fused, the residual norms are accumulated while the cells are updated, and
+     * {@link #currentTotalResidual(Norm)} returns them without another pass over the mesh. The norms
+     * are then those of the solution at the end of {@link #updateCellAverages()}, so fusion must not
+     * be switched on when the solution is modified before {@link #currentTotalResidual(Norm)} is
+     * called. Not fused by default. Ignored by the time integrators which do not support it.
+     */
+    default void setFusedResidualNorms(boolean fused) {
+    }
+
+    /**
+     * When deterministic, the residual norms are summed in a fixed order of the cells, so that they
+     * (and the iterations needed for convergence) do not depend on the number of threads.
+     * The default is the faster unordered summation of the parallel streams. Ignored by the time
+     * integrators which do not support it.
+     */
+    default void setDeterministicReductions(boolean deterministic) {
+    }
+
+    /**
+     * Treats the source point-implicitly in each stage (default is explicit), when it limits the
+     * time step more than the convection and the diffusion. Ignored by the time integrators which
+     * do not support it.
+     */
+    default void setPointImplicitSource(PointImplicitSource pointImplicitSource) {
+    }
+
     double[] currentTotalResidual(Norm norm);
 }
@@ -1,5 +1,15 @@
 package main.solver.time;
 
+import main.solver.PrimitiveCache;
+
 public interface TimeStep {
     void updateCellTimeSteps(double courantNum, double timeStepLimit);
+
+    /**
+     * Uses the primitive variables of the cells from the cache. Set by the
+     * {@link main.solver.SpaceDiscretization} which updates the cache. Ignored by the time steps
+     * which do not use the primitive variables.
+     */
+    default void setPrimitiveCache(PrimitiveCache primitiveCache) {
+    }
 }
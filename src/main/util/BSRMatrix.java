@@ -0,0 +1,209 @@
+package main.util;
+
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Block compressed sparse row matrix, with square blocks of blockSize x blockSize (usually the
+ * number of conservative variables). The blocks of the block row i are in the block columns
+ * {@code columns[rowStart[i]]} to {@code columns[rowStart[i + 1] - 1]}, sorted in increasing
+ * order, and the block k is stored row-major in {@code values[k * blockSize * blockSize]} onwards.
+ * Every block row has its diagonal block.
+ * <p>
+ * The sparsity pattern is fixed when the matrix is created, and the values are set in place, so
+ * that an implicit method can reassemble the matrix in every iteration without allocation.
+ */
+public class BSRMatrix {
+    private final int numBlockRows;
+    private final int blockSize;
+    private final int[] rowStart;
+    private final int[] columns;
+    private final int[] diagonalIndex;
+    private final double[] values;
+
+    /**
+     * @param rowStart Start of the blocks of each block row, with numBlockRows + 1 entries.
+     * @param columns  Sorted block columns of the blocks of each block row.
+     */
+    public BSRMatrix(int numBlockRows, int blockSize, int[] rowStart, int[] columns) {
+        if (rowStart.length != numBlockRows + 1 || columns.length != rowStart[numBlockRows]) {
+            throw new IllegalArgumentException("Array lengths are not compatible.");
+        }
+        this.numBlockRows = numBlockRows;
+        this.blockSize = blockSize;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.values = new double[columns.length * blockSize * blockSize];
+
+        this.diagonalIndex = new int[numBlockRows];
+        for (int row = 0; row < numBlockRows; row++) {
+            diagonalIndex[row] = -1;
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                if (k > rowStart[row] && columns[k] <= columns[k - 1]) {
+                    throw new IllegalArgumentException("The block columns of row " + row + " are not sorted.");
+                }
+                if (columns[k] == row) diagonalIndex[row] = k;
+            }
+            if (diagonalIndex[row] == -1) {
+                throw new IllegalArgumentException("The diagonal block of row " + row + " is missing.");
+            }
+        }
+    }
+
+    /**
+     * Matrix with the pattern of the face graph of the mesh: the block row of each cell has the
+     * blocks of the cell and of its face neighbours (the ghost cells are not included).
+     */
+    public BSRMatrix(Mesh mesh, int blockSize) {
+        this(mesh.cells().size(), blockSize, facePatternRowStart(mesh), facePatternColumns(mesh));
+    }
+
+    private static int[] facePatternRowStart(Mesh mesh) {
+        List<Cell> cells = mesh.cells();
+        int[] rowStart = new int[cells.size() + 1];
+        for (Cell cell : cells) {
+            int count = 1;
+            for (Face face : cell.faces) {
+                if (neighbor(cell, face).index() >= 0) count++;
+            }
+            rowStart[cell.index() + 1] = count;
+        }
+        for (int i = 0; i < cells.size(); i++) {
+            rowStart[i + 1] += rowStart[i];
+        }
+        return rowStart;
+    }
+
+    private static int[] facePatternColumns(Mesh mesh) {
+        int[] rowStart = facePatternRowStart(mesh);
+        int[] columns = new int[rowStart[rowStart.length - 1]];
+        for (Cell cell : mesh.cells()) {
+            int k = rowStart[cell.index()];
+            columns[k++] = cell.index();
+            for (Face face : cell.faces) {
+                int neighbor = neighbor(cell, face).index();
+                if (neighbor >= 0) columns[k++] = neighbor;
+            }
+            Arrays.sort(columns, rowStart[cell.index()], k);
+        }
+        return columns;
+    }
+
+    private static Cell neighbor(Cell cell, Face face) {
+        return face.left == cell ? face.right : face.left;
+    }
+
+    public int numBlockRows() {
+        return numBlockRows;
+    }
+
+    public int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * @return Number of rows of the matrix, numBlockRows * blockSize.
+     */
+    public int numRows() {
+        return numBlockRows * blockSize;
+    }
+
+    public int numBlocks() {
+        return columns.length;
+    }
+
+    public int[] rowStart() {
+        return rowStart;
+    }
+
+    public int[] columns() {
+        return columns;
+    }
+
+    /**
+     * @return Values of all the blocks, which can be modified in place.
+     */
+    public double[] values() {
+        return values;
+    }
+
+    public int diagonalIndex(int blockRow) {
+        return diagonalIndex[blockRow];
+    }
+
+    /**
+     * @return Index of the block in the block row and the block column, -1 if it is not in the
+     * pattern.
+     */
+    public int blockIndex(int blockRow, int blockColumn) {
+        int low = rowStart[blockRow];
+        int high = rowStart[blockRow + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (columns[mid] < blockColumn) {
+                low = mid + 1;
+            } else if (columns[mid] > blockColumn) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return Offset of the block in {@link #values()}.
+     */
+    public int offset(int blockIndex) {
+        return blockIndex * blockSize * blockSize;
+    }
+
+    /**
+     * @return Entry of the matrix in the (scalar) row and column, zero if it is not in the pattern.
+     */
+    public double get(int row, int column) {
+        int k = blockIndex(row / blockSize, column / blockSize);
+        if (k == -1) return 0.0;
+        return values[offset(k) + (row % blockSize) * blockSize + column % blockSize];
+    }
+
+    /**
+     * Adds the value to the entry (i, j) of the block.
+     */
+    public void add(int blockIndex, int i, int j, double value) {
+        values[offset(blockIndex) + i * blockSize + j] += value;
+    }
+
+    public void setZero() {
+        Dispatch.range(values.length).forEach(i -> values[i] = 0.0);
+    }
+
+    /**
+     * Sets y = A x, in parallel over the block rows.
+     */
+    public void multiply(double[] x, double[] y) {
+        int blockSqr = blockSize * blockSize;
+        Dispatch.range(numBlockRows, (long) values.length).forEach(row -> {
+            int yOffset = row * blockSize;
+            for (int i = 0; i < blockSize; i++) {
+                y[yOffset + i] = 0.0;
+            }
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                int aOffset = k * blockSqr;
+                int xOffset = columns[k] * blockSize;
+                for (int i = 0; i < blockSize; i++) {
+                    double sum = 0.0;
+                    int aRow = aOffset + i * blockSize;
+                    for (int j = 0; j < blockSize; j++) {
+                        sum += values[aRow + j] * x[xOffset + j];
+                    }
+                    y[yOffset + i] += sum;
+                }
+            }
+        });
+    }
+}
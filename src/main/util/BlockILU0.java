@@ -0,0 +1,168 @@
+package main.util;
+
+import main.solver.linear.Preconditioner;
+
+import java.util.Arrays;
+
+/**
+ * Block incomplete LU factorization of a {@link BSRMatrix} with the sparsity pattern of the
+ * matrix (block-ILU(0)). The factors are stored in one array with the layout of the matrix values:
+ * the blocks left of the diagonal hold L (with identity diagonal blocks), the blocks right of the
+ * diagonal hold U, and the diagonal blocks hold the inverses of the diagonal blocks of U.
+ * <p>
+ * The triangular solves use level scheduling: a block row of the lower (upper) solve depends only
+ * on the block rows of lower levels, so that the rows of each level are solved in parallel.
+ * {@link #factorize()} and {@link #apply(double[], double[])} do not allocate arrays.
+ */
+public final class BlockILU0 implements Preconditioner {
+    private final BSRMatrix A;
+    private final int blockSize;
+    private final double[] LU;
+    private final double[] y;
+    private final int[] position;
+    private final double[] block;
+    private final double[] work;
+
+    // Block rows of the triangular solves, grouped by level
+    private final int[] lowerLevelStart;
+    private final int[] lowerLevelRows;
+    private final int[] upperLevelStart;
+    private final int[] upperLevelRows;
+
+    public BlockILU0(BSRMatrix A) {
+        this.A = A;
+        this.blockSize = A.blockSize();
+        this.LU = new double[A.values().length];
+        this.y = new double[A.numRows()];
+        this.position = new int[A.numBlockRows()];
+        Arrays.fill(position, -1);
+        this.block = new double[blockSize * blockSize];
+        this.work = new double[blockSize * blockSize];
+
+        int numBlockRows = A.numBlockRows();
+        int[] rowStart = A.rowStart();
+        int[] columns = A.columns();
+        int[] level = new int[numBlockRows];
+        for (int row = 0; row < numBlockRows; row++) {
+            for (int k = rowStart[row]; k < A.diagonalIndex(row); k++) {
+                level[row] = Math.max(level[row], level[columns[k]] + 1);
+            }
+        }
+        this.lowerLevelStart = groupByLevel(level);
+        this.lowerLevelRows = rowsByLevel(level, lowerLevelStart);
+
+        Arrays.fill(level, 0);
+        for (int row = numBlockRows - 1; row >= 0; row--) {
+            for (int k = A.diagonalIndex(row) + 1; k < rowStart[row + 1]; k++) {
+                level[row] = Math.max(level[row], level[columns[k]] + 1);
+            }
+        }
+        this.upperLevelStart = groupByLevel(level);
+        this.upperLevelRows = rowsByLevel(level, upperLevelStart);
+
+        factorize();
+    }
+
+    private static int[] groupByLevel(int[] level) {
+        int numLevels = Arrays.stream(level).max().orElse(-1) + 1;
+        int[] levelStart = new int[numLevels + 1];
+        for (int l : level) {
+            levelStart[l + 1]++;
+        }
+        for (int l = 0; l < numLevels; l++) {
+            levelStart[l + 1] += levelStart[l];
+        }
+        return levelStart;
+    }
+
+    private static int[] rowsByLevel(int[] level, int[] levelStart) {
+        int[] next = Arrays.copyOf(levelStart, levelStart.length - 1);
+        int[] rows = new int[level.length];
+        for (int row = 0; row < level.length; row++) {
+            rows[next[level[row]]++] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @return Number of levels of the lower and the upper triangular solves.
+     */
+    public int[] numLevels() {
+        return new int[]{lowerLevelStart.length - 1, upperLevelStart.length - 1};
+    }
+
+    /**
+     * Factorizes the current values of the matrix.
+     */
+    public void factorize() {
+        System.arraycopy(A.values(), 0, LU, 0, LU.length);
+        int blockSqr = blockSize * blockSize;
+        int[] rowStart = A.rowStart();
+        int[] columns = A.columns();
+
+        for (int row = 0; row < A.numBlockRows(); row++) {
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                position[columns[k]] = k;
+            }
+            for (int k = rowStart[row]; k < A.diagonalIndex(row); k++) {
+                int pivotRow = columns[k];
+                int pivotDiagonal = A.diagonalIndex(pivotRow);
+                // L = A D^-1, with the inverse stored in the diagonal block of the pivot row
+                Blocks.multiplyBlock(LU, k * blockSqr, LU, pivotDiagonal * blockSqr, block, 0, blockSize);
+                System.arraycopy(block, 0, LU, k * blockSqr, blockSqr);
+                for (int j = pivotDiagonal + 1; j < rowStart[pivotRow + 1]; j++) {
+                    int p = position[columns[j]];
+                    if (p != -1) {
+                        Blocks.multiplySubtractBlock(LU, k * blockSqr, LU, j * blockSqr, LU, p * blockSqr, blockSize);
+                    }
+                }
+            }
+            int diagonal = A.diagonalIndex(row) * blockSqr;
+            Blocks.invert(LU, diagonal, block, 0, blockSize, work);
+            System.arraycopy(block, 0, LU, diagonal, blockSqr);
+            for (int k = rowStart[row]; k < rowStart[row + 1]; k++) {
+                position[columns[k]] = -1;
+            }
+        }
+    }
+
+    /**
+     * Sets z = (LU)^-1 r.
+     */
+    @Override
+    public void apply(double[] r, double[] z) {
+        int blockSqr = blockSize * blockSize;
+        int[] rowStart = A.rowStart();
+        int[] columns = A.columns();
+        long workPerRow = (long) blockSqr * A.numBlocks() / Math.max(1, A.numBlockRows());
+
+        // L y = r
+        for (int l = 0; l + 1 < lowerLevelStart.length; l++) {
+            int start = lowerLevelStart[l];
+            int count = lowerLevelStart[l + 1] - start;
+            Dispatch.range(count, count * workPerRow).forEach(i -> {
+                int row = lowerLevelRows[start + i];
+                int offset = row * blockSize;
+                System.arraycopy(r, offset, y, offset, blockSize);
+                for (int k = rowStart[row]; k < A.diagonalIndex(row); k++) {
+                    Blocks.multiplySubtract(LU, k * blockSqr, y, columns[k] * blockSize, y, offset, blockSize);
+                }
+            });
+        }
+
+        // U z = y
+        for (int l = 0; l + 1 < upperLevelStart.length; l++) {
+            int start = upperLevelStart[l];
+            int count = upperLevelStart[l + 1] - start;
+            Dispatch.range(count, count * workPerRow).forEach(i -> {
+                int row = upperLevelRows[start + i];
+                int offset = row * blockSize;
+                int diagonal = A.diagonalIndex(row);
+                for (int k = diagonal + 1; k < rowStart[row + 1]; k++) {
+                    Blocks.multiplySubtract(LU, k * blockSqr, z, columns[k] * blockSize, y, offset, blockSize);
+                }
+                Blocks.multiply(LU, diagonal * blockSqr, y, offset, z, offset, blockSize);
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package main.util;
+
+import main.solver.linear.Preconditioner;
+
+/**
+ * Block-Jacobi preconditioner of a {@link BSRMatrix}: z = D^-1 r with the inverted diagonal blocks
+ * D, applied in parallel over the block rows. {@link #factorize()} inverts the diagonal blocks of
+ * the current values of the matrix, without allocation.
+ */
+public final class BlockJacobi implements Preconditioner {
+    private final BSRMatrix A;
+    private final double[] inverseDiagonal;
+    private final double[] work;
+
+    public BlockJacobi(BSRMatrix A) {
+        this.A = A;
+        int blockSize = A.blockSize();
+        this.inverseDiagonal = new double[A.numBlockRows() * blockSize * blockSize];
+        this.work = new double[blockSize * blockSize];
+        factorize();
+    }
+
+    public void factorize() {
+        int blockSqr = A.blockSize() * A.blockSize();
+        for (int row = 0; row < A.numBlockRows(); row++) {
+            Blocks.invert(A.values(), A.offset(A.diagonalIndex(row)), inverseDiagonal, row * blockSqr,
+                    A.blockSize(), work);
+        }
+    }
+
+    /**
+     * Sets z = D^-1 r.
+     */
+    @Override
+    public void apply(double[] r, double[] z) {
+        int blockSize = A.blockSize();
+        int blockSqr = blockSize * blockSize;
+        Dispatch.range(A.numBlockRows(), (long) inverseDiagonal.length).forEach(row ->
+                Blocks.multiply(inverseDiagonal, row * blockSqr, r, row * blockSize, z, row * blockSize, blockSize));
+    }
+}
@@ -0,0 +1,129 @@
+package main.util;
+
+/**
+ * Dense operations on the square blocks of a {@link BSRMatrix}, stored row-major in flat arrays at
+ * a given offset. Nothing is allocated.
+ */
+final class Blocks {
+    private Blocks() {
+    }
+
+    /**
+     * Sets y = y - A x, for the block A at aOffset and the vectors at xOffset and yOffset.
+     */
+    static void multiplySubtract(double[] A, int aOffset, double[] x, int xOffset,
+                                 double[] y, int yOffset, int size) {
+        for (int i = 0; i < size; i++) {
+            double sum = 0.0;
+            int row = aOffset + i * size;
+            for (int j = 0; j < size; j++) {
+                sum += A[row + j] * x[xOffset + j];
+            }
+            y[yOffset + i] -= sum;
+        }
+    }
+
+    /**
+     * Sets y = A x, for the block A at aOffset and the vectors at xOffset and yOffset, which must
+     * not overlap.
+     */
+    static void multiply(double[] A, int aOffset, double[] x, int xOffset, double[] y, int yOffset, int size) {
+        for (int i = 0; i < size; i++) {
+            double sum = 0.0;
+            int row = aOffset + i * size;
+            for (int j = 0; j < size; j++) {
+                sum += A[row + j] * x[xOffset + j];
+            }
+            y[yOffset + i] = sum;
+        }
+    }
+
+    /**
+     * Sets C = C - A B for the blocks at the offsets.
+     */
+    static void multiplySubtractBlock(double[] A, int aOffset, double[] B, int bOffset,
+                                      double[] C, int cOffset, int size) {
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < size; k++) {
+                double a = A[aOffset + i * size + k];
+                if (a == 0.0) continue;
+                int bRow = bOffset + k * size;
+                int cRow = cOffset + i * size;
+                for (int j = 0; j < size; j++) {
+                    C[cRow + j] -= a * B[bRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets C = A B for the blocks at the offsets. C must not overlap A or B.
+     */
+    static void multiplyBlock(double[] A, int aOffset, double[] B, int bOffset,
+                              double[] C, int cOffset, int size) {
+        for (int i = 0; i < size * size; i++) {
+            C[cOffset + i] = 0.0;
+        }
+        for (int i = 0; i < size; i++) {
+            for (int k = 0; k < size; k++) {
+                double a = A[aOffset + i * size + k];
+                int bRow = bOffset + k * size;
+                int cRow = cOffset + i * size;
+                for (int j = 0; j < size; j++) {
+                    C[cRow + j] += a * B[bRow + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets inverse to the inverse of the block A by Gauss-Jordan elimination with partial pivoting.
+     *
+     * @param work Array of at least size * size entries, overwritten.
+     */
+    static void invert(double[] A, int aOffset, double[] inverse, int inverseOffset, int size, double[] work) {
+        System.arraycopy(A, aOffset, work, 0, size * size);
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                inverse[inverseOffset + i * size + j] = i == j ? 1.0 : 0.0;
+            }
+        }
+
+        for (int k = 0; k < size; k++) {
+            int pivot = k;
+            for (int i = k + 1; i < size; i++) {
+                if (Math.abs(work[i * size + k]) > Math.abs(work[pivot * size + k])) pivot = i;
+            }
+            if (work[pivot * size + k] == 0.0) {
+                throw new ArithmeticException("The block is singular.");
+            }
+            if (pivot != k) {
+                swapRows(work, 0, k, pivot, size);
+                swapRows(inverse, inverseOffset, k, pivot, size);
+            }
+
+            double scale = 1.0 / work[k * size + k];
+            for (int j = 0; j < size; j++) {
+                work[k * size + j] *= scale;
+                inverse[inverseOffset + k * size + j] *= scale;
+            }
+            for (int i = 0; i < size; i++) {
+                if (i == k) continue;
+                double factor = work[i * size + k];
+                if (factor == 0.0) continue;
+                for (int j = 0; j < size; j++) {
+                    work[i * size + j] -= factor * work[k * size + j];
+                    inverse[inverseOffset + i * size + j] -= factor * inverse[inverseOffset + k * size + j];
+                }
+            }
+        }
+    }
+
+    private static void swapRows(double[] A, int offset, int row1, int row2, int size) {
+        for (int j = 0; j < size; j++) {
+            double value = A[offset + row1 * size + j];
+            A[offset + row1 * size + j] = A[offset + row2 * size + j];
+            A[offset + row2 * size + j] = value;
+        }
+    }
+}
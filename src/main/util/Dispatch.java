@@ -0,0 +1,356 @@
+package main.util;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Chooses between sequential and parallel execution of the loops over the mesh elements.
+ * <p>
+ * A parallel stream costs a fork and a join per task, which is more than the work of a small mesh
+ * (1D and single cell cases, coarse 2D grids). The loops are run in parallel only when the work
+ * of each thread of the current fork-join pool is larger than {@link #MIN_TASK_RATIO} times the
+ * cost of a task. The cost of a task and of an element of a typical mesh kernel are calibrated
+ * once, on the first use, after warming up the measured loops. The work of a loop is given in
+ * number of elements of the typical kernel, so that a loop over a few heavy elements (for example,
+ * the faces of the boundaries) is still run in parallel.
+ * <p>
+ * The calibration only decides between sequential and parallel execution. A parallel loop is split
+ * into tasks of {@link #grainSize(int, int)} elements, which depends only on the number of elements
+ * and the parallelism, as the default parallel streams. The parallel reductions over the mesh are
+ * thereby summed in the same order in every run with the same parallelism.
+ * <p>
+ * The calibration and the mode can be overridden with the system properties
+ * {@code cfdsolver.dispatch} ({@code auto}, {@code sequential} or {@code parallel}),
+ * {@code cfdsolver.dispatch.taskNanos} and {@code cfdsolver.dispatch.elementNanos}.
+ */
+public final class Dispatch {
+    public enum Mode {
+        /**
+         * Sequential or parallel with grain size, depending on the work of the loop.
+         */
+        AUTO,
+        /**
+         * Always sequential.
+         */
+        SEQUENTIAL,
+        /**
+         * Always parallel, split down to single elements as the default parallel streams.
+         */
+        PARALLEL
+    }
+
+    /**
+     * Cost of forking and joining a task, and of a single element of a typical mesh kernel.
+     */
+    public record Calibration(double taskNanos, double elementNanos) {
+        public Calibration {
+            if (!(taskNanos > 0) || !(elementNanos > 0)) {
+                throw new IllegalArgumentException("The calibrated costs must be positive.");
+            }
+        }
+    }
+
+    /**
+     * Decision for a loop: whether to run it in parallel, and the minimum number of elements of a
+     * task.
+     */
+    public record Decision(boolean parallel, int grainSize) {
+    }
+
+    /**
+     * Minimum work of a thread, in multiples of the cost of forking and joining a task.
+     */
+    static final int MIN_TASK_RATIO = 16;
+
+    /**
+     * Number of tasks of each thread of a parallel loop, as the leaf tasks of the default parallel
+     * streams.
+     */
+    static final int TASKS_PER_THREAD = 4;
+
+    private static final int CALIBRATION_ELEMENTS = 4096;
+    private static final int CALIBRATION_ROUNDS = 50;
+    // Rounds run before the timed rounds, so that the measured loops are compiled
+    private static final int WARMUP_ROUNDS = 2000;
+
+    private static volatile Mode mode = parseMode(System.getProperty("cfdsolver.dispatch", "auto"));
+    private static volatile Calibration calibration = null;
+
+    private Dispatch() {
+    }
+
+    public static Mode mode() {
+        return mode;
+    }
+
+    public static void setMode(Mode mode) {
+        Dispatch.mode = mode;
+    }
+
+    /**
+     * @return The calibration, measured on the first call unless set with
+     * {@link #setCalibration(Calibration)} or the system properties.
+     */
+    public static Calibration calibration() {
+        Calibration current = calibration;
+        if (current == null) {
+            synchronized (Dispatch.class) {
+                if (calibration == null) {
+                    calibration = initialCalibration();
+                }
+                current = calibration;
+            }
+        }
+        return current;
+    }
+
+    public static void setCalibration(Calibration calibration) {
+        Dispatch.calibration = calibration;
+    }
+
+    /**
+     * @return Number of threads a parallel stream would use when started from the current thread.
+     */
+    public static int parallelism() {
+        return ForkJoinTask.inForkJoinPool()
+                ? ForkJoinTask.getPool().getParallelism()
+                : ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /**
+     * @param numElements Number of elements of the loop.
+     * @param work        Work of the loop, in number of elements of a typical mesh kernel.
+     * @param parallelism Number of threads available to the loop.
+     * @return Whether to run the loop in parallel, and its grain size.
+     */
+    public static Decision decide(int numElements, long work, int parallelism) {
+        return switch (mode) {
+            case SEQUENTIAL -> new Decision(false, numElements);
+            case PARALLEL -> new Decision(numElements > 1, 1);
+            case AUTO -> decide(numElements, work, parallelism, calibration());
+        };
+    }
+
+    static Decision decide(int numElements, long work, int parallelism, Calibration calibration) {
+        if (parallelism < 2 || numElements < 2 || work <= 0) {
+            return new Decision(false, numElements);
+        }
+        double minThreadNanos = MIN_TASK_RATIO * calibration.taskNanos();
+        double totalNanos = calibration.elementNanos() * work;
+        if (totalNanos < minThreadNanos * parallelism) {
+            return new Decision(false, numElements);
+        }
+        return new Decision(true, grainSize(numElements, parallelism));
+    }
+
+    /**
+     * @return Minimum number of elements of a task of a parallel loop. It does not depend on the
+     * calibration, so that the loop is split at the same elements in every run.
+     */
+    static int grainSize(int numElements, int parallelism) {
+        long numTasks = (long) TASKS_PER_THREAD * parallelism;
+        return (int) Math.max(1, (numElements + numTasks - 1) / numTasks);
+    }
+
+    /**
+     * @return Stream over the elements, where each element is a unit of work.
+     */
+    public static <T> Stream<T> stream(List<T> elements) {
+        return stream(elements, elements.size());
+    }
+
+    /**
+     * @param work Work of the loop, in number of elements of a typical mesh kernel.
+     * @return Stream over the elements, sequential or parallel depending on the work.
+     */
+    public static <T> Stream<T> stream(List<T> elements, long work) {
+        Decision decision = decide(elements.size(), work, parallelism());
+        if (!decision.parallel()) {
+            return elements.stream();
+        }
+        return StreamSupport.stream(
+                new GrainSpliterator<>(elements.spliterator(), decision.grainSize()), true);
+    }
+
+    /**
+     * @return Stream over 0 to count - 1, where each index is a unit of work.
+     */
+    public static IntStream range(int count) {
+        return range(count, count);
+    }
+
+    /**
+     * @param work Work of the loop, in number of elements of a typical mesh kernel.
+     * @return Stream over 0 to count - 1, sequential or parallel depending on the work.
+     */
+    public static IntStream range(int count, long work) {
+        Decision decision = decide(count, work, parallelism());
+        IntStream range = IntStream.range(0, count);
+        if (!decision.parallel()) {
+            return range;
+        }
+        return StreamSupport.intStream(
+                new IntGrainSpliterator(range.spliterator(), decision.grainSize()), true);
+    }
+
+    /**
+     * Splits like the wrapped spliterator, but not below the grain size.
+     */
+    private static class GrainSpliterator<T, S extends Spliterator<T>> implements Spliterator<T> {
+        final S spliterator;
+        final int grainSize;
+
+        GrainSpliterator(S spliterator, int grainSize) {
+            this.spliterator = spliterator;
+            this.grainSize = grainSize;
+        }
+
+        S splitPrefix() {
+            if (spliterator.estimateSize() < 2L * grainSize) return null;
+            @SuppressWarnings("unchecked")
+            S prefix = (S) spliterator.trySplit();
+            return prefix;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            S prefix = splitPrefix();
+            return prefix == null ? null : new GrainSpliterator<>(prefix, grainSize);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            return spliterator.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            spliterator.forEachRemaining(action);
+        }
+
+        @Override
+        public long estimateSize() {
+            return spliterator.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return spliterator.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return spliterator.getComparator();
+        }
+    }
+
+    private static class IntGrainSpliterator extends GrainSpliterator<Integer, Spliterator.OfInt>
+            implements Spliterator.OfInt {
+        IntGrainSpliterator(Spliterator.OfInt spliterator, int grainSize) {
+            super(spliterator, grainSize);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            Spliterator.OfInt prefix = splitPrefix();
+            return prefix == null ? null : new IntGrainSpliterator(prefix, grainSize);
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            return spliterator.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            spliterator.forEachRemaining(action);
+        }
+    }
+
+    private static Mode parseMode(String value) {
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown dispatch mode: " + value
+                                               + " (expected auto, sequential or parallel)");
+        }
+    }
+
+    private static Calibration initialCalibration() {
+        String taskNanos = System.getProperty("cfdsolver.dispatch.taskNanos");
+        String elementNanos = System.getProperty("cfdsolver.dispatch.elementNanos");
+        double task = taskNanos == null ? measureTaskNanos() : Double.parseDouble(taskNanos);
+        double element = elementNanos == null ? measureElementNanos() : Double.parseDouble(elementNanos);
+        return new Calibration(task, element);
+    }
+
+    /**
+     * Best time per task of a parallel loop with an empty body, over a few rounds.
+     */
+    private static double measureTaskNanos() {
+        int numTasks = 4 * Math.max(2, ForkJoinPool.getCommonPoolParallelism());
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 2 * CALIBRATION_ROUNDS; round++) {
+            long start = System.nanoTime();
+            IntStream.range(0, numTasks).parallel().forEach(i -> {
+            });
+            if (round >= CALIBRATION_ROUNDS) { // the first rounds start the threads of the pool
+                best = Math.min(best, System.nanoTime() - start);
+            }
+        }
+        return Math.max(1.0, (double) best / numTasks);
+    }
+
+    /**
+     * Best time per element, over a few rounds, of a loop resembling the lightest mesh kernels: an
+     * upwind flux of five variables between neighbouring elements added to the residuals.
+     */
+    private static double measureElementNanos() {
+        int numVars = 5;
+        double[][] U = new double[CALIBRATION_ELEMENTS + 1][numVars];
+        double[][] residual = new double[CALIBRATION_ELEMENTS + 1][numVars];
+        for (int i = 0; i < U.length; i++) {
+            for (int var = 0; var < numVars; var++) {
+                U[i][var] = 1.0 + 1e-3 * ((i * 31 + var * 17) % 97);
+            }
+        }
+
+        // The loop is in its own method, so that it is compiled during the warm-up rounds
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            upwindFluxes(U, residual);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < CALIBRATION_ROUNDS; round++) {
+            long start = System.nanoTime();
+            upwindFluxes(U, residual);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        // The residuals are read, so that the loop is not removed as dead code
+        double check = 0.0;
+        for (double[] r : residual) check += r[0];
+        return Math.max(1e-3, Double.isNaN(check) ? 1.0 : (double) best / CALIBRATION_ELEMENTS);
+    }
+
+    private static void upwindFluxes(double[][] U, double[][] residual) {
+        int numVars = U[0].length;
+        for (int i = 0; i < CALIBRATION_ELEMENTS; i++) {
+            double[] left = U[i];
+            double[] right = U[i + 1];
+            double lambda = Math.max(Math.abs(left[1] / left[0]), Math.abs(right[1] / right[0]));
+            for (int var = 0; var < numVars; var++) {
+                double flux = 0.5 * (left[var] + right[var]) - 0.5 * lambda * (right[var] - left[var]);
+                residual[i][var] += flux;
+                residual[i + 1][var] -= flux;
+            }
+        }
+    }
+}
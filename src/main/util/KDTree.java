@@ -0,0 +1,175 @@
+package main.util;
+
+import main.geom.Point;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Balanced k-d tree of three-dimensional points for nearest neighbor queries.
+ * <p>
+ * The tree is stored implicitly in a permutation of the point indices: the median of the range
+ * [lo, hi) is the splitting point of that range, and the left and right halves are the sub-trees.
+ * The tree is built in parallel, and the queries are thread safe.
+ */
+public class KDTree {
+    private static final int LEAF_SIZE = 8;
+    private static final int PARALLEL_BUILD_SIZE = 1 << 14;
+
+    private final double[] coords;
+    private final int[] indices;
+    private final byte[] splitAxis;
+
+    public KDTree(List<Point> points) {
+        int numPoints = points.size();
+        this.coords = new double[numPoints * 3];
+        this.indices = new int[numPoints];
+        this.splitAxis = new byte[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            Point p = points.get(i);
+            coords[i * 3] = p.x;
+            coords[i * 3 + 1] = p.y;
+            coords[i * 3 + 2] = p.z;
+            indices[i] = i;
+        }
+
+        ForkJoinPool.commonPool().invoke(new Build(0, numPoints));
+    }
+
+    public int size() {
+        return indices.length;
+    }
+
+    private class Build extends RecursiveAction {
+        private final int lo, hi;
+
+        Build(int lo, int hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= LEAF_SIZE) return;
+
+            int axis = widestAxis(lo, hi);
+            int mid = (lo + hi) >>> 1;
+            select(lo, hi - 1, mid, axis);
+            splitAxis[mid] = (byte) axis;
+
+            if (hi - lo > PARALLEL_BUILD_SIZE) {
+                invokeAll(new Build(lo, mid), new Build(mid + 1, hi));
+            } else {
+                new Build(lo, mid).compute();
+                new Build(mid + 1, hi).compute();
+            }
+        }
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int axis = 0;
+        double maxExtent = -1.0;
+        for (int d = 0; d < 3; d++) {
+            double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double c = coords[indices[i] * 3 + d];
+                min = Math.min(min, c);
+                max = Math.max(max, c);
+            }
+            if (max - min > maxExtent) {
+                maxExtent = max - min;
+                axis = d;
+            }
+        }
+        return axis;
+    }
+
+    /**
+     * Rearranges indices[left..right] such that the k-th index is at its sorted position along the axis.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = coord(indices[(left + right) >>> 1], axis);
+            int i = left, j = right;
+            while (i <= j) {
+                while (coord(indices[i], axis) < pivot) i++;
+                while (coord(indices[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int temp = indices[i];
+                    indices[i] = indices[j];
+                    indices[j] = temp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coord(int index, int axis) {
+        return coords[index * 3 + axis];
+    }
+
+    /**
+     * @return Index, in the list used to create the tree, of the point nearest to (x, y, z),
+     * or -1 if the tree is empty.
+     */
+    public int nearest(double x, double y, double z) {
+        Nearest nearest = new Nearest(x, y, z);
+        nearest.search(0, indices.length);
+        return nearest.index;
+    }
+
+    public int nearest(Point p) {
+        return nearest(p.x, p.y, p.z);
+    }
+
+    private class Nearest {
+        private final double[] p;
+        private int index = -1;
+        private double distanceSqr = Double.POSITIVE_INFINITY;
+
+        Nearest(double x, double y, double z) {
+            this.p = new double[]{x, y, z};
+        }
+
+        void search(int lo, int hi) {
+            if (hi - lo <= LEAF_SIZE) {
+                for (int i = lo; i < hi; i++) {
+                    check(indices[i]);
+                }
+                return;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            check(indices[mid]);
+            int axis = splitAxis[mid];
+            double diff = p[axis] - coord(indices[mid], axis);
+            if (diff < 0) {
+                search(lo, mid);
+                if (diff * diff < distanceSqr) search(mid + 1, hi);
+            } else {
+                search(mid + 1, hi);
+                if (diff * diff < distanceSqr) search(lo, mid);
+            }
+        }
+
+        private void check(int i) {
+            double dx = coords[i * 3] - p[0];
+            double dy = coords[i * 3 + 1] - p[1];
+            double dz = coords[i * 3 + 2] - p[2];
+            double d = dx * dx + dy * dy + dz * dz;
+            if (d < distanceSqr) {
+                distanceSqr = d;
+                index = i;
+            }
+        }
+    }
+}
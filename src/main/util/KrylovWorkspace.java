@@ -0,0 +1,213 @@
+package main.util;
+
+/**
+ * Vectors of the preconditioned Krylov methods, allocated once for a system size and reused by
+ * every solve. The vector updates run in parallel. The dot products are summed in blocks of
+ * consecutive entries and the block sums are added in the order of the blocks, so that the
+ * iterations do not depend on the number of threads.
+ */
+public class KrylovWorkspace {
+    /**
+     * Linear operator y = A x, e.g. a matrix-vector product or a preconditioner.
+     */
+    @FunctionalInterface
+    public interface Operator {
+        void apply(double[] x, double[] y);
+    }
+
+    static final int BLOCK_SIZE = 4096;
+
+    private final int size;
+    private final double[] r, rHat, p, v, pHat, sHat, t;
+    private final double[] blockSums;
+    private int iterations = 0;
+    private double relativeResidual = Double.NaN;
+
+    public KrylovWorkspace(int size) {
+        this.size = size;
+        this.r = new double[size];
+        this.rHat = new double[size];
+        this.p = new double[size];
+        this.v = new double[size];
+        this.pHat = new double[size];
+        this.sHat = new double[size];
+        this.t = new double[size];
+        this.blockSums = new double[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of iterations of the last solve.
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * @return Final |b - A x| / |b| of the last solve.
+     */
+    public double relativeResidual() {
+        return relativeResidual;
+    }
+
+    /**
+     * Preconditioned conjugate gradient method, for symmetric positive definite A and
+     * preconditioner M. Starts from the initial guess in x and writes the solution to x.
+     *
+     * @return Whether the relative residual reached the tolerance.
+     */
+    public boolean conjugateGradient(Operator A, Operator M, double[] b, double[] x,
+                                     double tolerance, int maxIterations) {
+        checkSize(b, x);
+        double normB = normOrOne(b);
+
+        residual(A, b, x);
+        double[] z = sHat;
+        iterations = 0;
+        relativeResidual = norm(r) / normB;
+        if (relativeResidual <= tolerance) return true;
+
+        M.apply(r, z);
+        System.arraycopy(z, 0, p, 0, size);
+        double rz = dot(r, z);
+
+        double[] Ap = v;
+        while (iterations < maxIterations) {
+            iterations++;
+            A.apply(p, Ap);
+            double alpha = rz / dot(p, Ap);
+            axpy(alpha, p, x);
+            axpy(-alpha, Ap, r);
+
+            relativeResidual = norm(r) / normB;
+            if (relativeResidual <= tolerance) return true;
+
+            M.apply(r, z);
+            double rzNew = dot(r, z);
+            xpay(z, rzNew / rz, p);
+            rz = rzNew;
+        }
+        return false;
+    }
+
+    /**
+     * Right-preconditioned stabilized bi-conjugate gradient method (BiCGSTAB), for non-symmetric A.
+     * Starts from the initial guess in x and writes the solution to x.
+     *
+     * @return Whether the relative residual reached the tolerance.
+     */
+    public boolean bicgstab(Operator A, Operator M, double[] b, double[] x, double tolerance, int maxIterations) {
+        checkSize(b, x);
+        double normB = normOrOne(b);
+
+        residual(A, b, x);
+        iterations = 0;
+        relativeResidual = norm(r) / normB;
+        if (relativeResidual <= tolerance) return true;
+
+        System.arraycopy(r, 0, rHat, 0, size);
+        fill(p, 0.0);
+        fill(v, 0.0);
+        double rho = 1.0, alpha = 1.0, omega = 1.0;
+
+        while (iterations < maxIterations) {
+            iterations++;
+            double rhoNew = dot(rHat, r);
+            if (rhoNew == 0.0) {
+                // breakdown, restart with the current residual as the shadow residual
+                System.arraycopy(r, 0, rHat, 0, size);
+                rhoNew = dot(rHat, r);
+                fill(p, 0.0);
+                fill(v, 0.0);
+                rho = alpha = omega = 1.0;
+            }
+            double beta = (rhoNew / rho) * (alpha / omega);
+            rho = rhoNew;
+            // p = r + beta (p - omega v)
+            axpy(-omega, v, p);
+            xpay(r, beta, p);
+
+            M.apply(p, pHat);
+            A.apply(pHat, v);
+            alpha = rho / dot(rHat, v);
+
+            // s = r - alpha v, stored in r
+            axpy(alpha, pHat, x);
+            axpy(-alpha, v, r);
+            relativeResidual = norm(r) / normB;
+            if (relativeResidual <= tolerance) return true;
+
+            M.apply(r, sHat);
+            A.apply(sHat, t);
+            omega = dot(t, r) / dot(t, t);
+            axpy(omega, sHat, x);
+            axpy(-omega, t, r);
+
+            relativeResidual = norm(r) / normB;
+            if (relativeResidual <= tolerance) return true;
+        }
+        return false;
+    }
+
+    private void checkSize(double[] b, double[] x) {
+        if (b.length != size || x.length != size) {
+            throw new IllegalArgumentException("The vectors must have " + size + " entries.");
+        }
+    }
+
+    private double normOrOne(double[] b) {
+        double normB = norm(b);
+        return normB == 0.0 ? 1.0 : normB;
+    }
+
+    /**
+     * Sets r = b - A x.
+     */
+    private void residual(Operator A, double[] b, double[] x) {
+        A.apply(x, r);
+        Dispatch.range(size).forEach(i -> r[i] = b[i] - r[i]);
+    }
+
+    public double dot(double[] a, double[] b) {
+        int numBlocks = blockSums.length;
+        Dispatch.range(numBlocks, size).forEach(block -> {
+            int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+            double sum = 0.0;
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                sum += a[i] * b[i];
+            }
+            blockSums[block] = sum;
+        });
+
+        double sum = 0.0;
+        for (double blockSum : blockSums) {
+            sum += blockSum;
+        }
+        return sum;
+    }
+
+    public double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    /**
+     * Sets y = y + alpha x.
+     */
+    private void axpy(double alpha, double[] x, double[] y) {
+        Dispatch.range(size).forEach(i -> y[i] += alpha * x[i]);
+    }
+
+    /**
+     * Sets y = x + beta y.
+     */
+    private void xpay(double[] x, double beta, double[] y) {
+        Dispatch.range(size).forEach(i -> y[i] = x[i] + beta * y[i]);
+    }
+
+    private void fill(double[] a, double value) {
+        Dispatch.range(size).forEach(i -> a[i] = value);
+    }
+}
@@ -1,94 +1,98 @@
 package main.util;
 
-import main.geom.Point;
 import main.geom.VTKType;
-import main.io.DataFileReader;
+import main.io.ByteTokenizer;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
-import static java.util.Arrays.copyOfRange;
-
+/**
+ * Converts an SU2 mesh file to a cfdu mesh file in one pass. The points and the markers are
+ * written as they are read. The elements come before the points in the SU2 file and after them in
+ * the cfdu file, so only their connectivity is kept in memory, in a single array.
+ * <p>
+ * {@link main.mesh.factory.Su2MeshReader} reads an SU2 file directly into a mesh.
+ */
 public class Su2ToCfduConverter {
+    private static final int BUFFER_SIZE = 1 << 16;
+
     public static void convert(File s2uFile, File cfduFile) throws FileNotFoundException {
-        try (DataFileReader su2Reader = new DataFileReader(s2uFile, "%");
-             PrintWriter cfduWriter = new PrintWriter(cfduFile)) {
+        try (ByteTokenizer su2Reader = new ByteTokenizer(s2uFile, "%");
+             PrintWriter cfduWriter = new PrintWriter(new BufferedWriter(new OutputStreamWriter(
+                     new FileOutputStream(cfduFile), StandardCharsets.UTF_8), BUFFER_SIZE))) {
             int numDimensions = su2Reader.readIntParameter("NDIME");
+            if (numDimensions != 2 && numDimensions != 3) {
+                throw new IllegalArgumentException("Unable to create point of dimension " + numDimensions);
+            }
+            cfduWriter.println("dimension = " + numDimensions);
+            cfduWriter.println("mode = ASCII");
 
+            // The rows of the elements one after the other: the VTK type followed by the point indices
             int numElements = su2Reader.readIntParameter("NELEM");
-            Su2Element[] elements = new Su2Element[numElements];
+            int[] elements = new int[5 * numElements];
+            int length = 0;
             for (int ei = 0; ei < numElements; ei++) {
-                int[] conn = su2Reader.readIntArray();
-                VTKType vtkType = VTKType.get(conn[0]);
-                elements[ei] = new Su2Element(vtkType, copyOfRange(conn, 1, vtkType.numPoints() + 1));
+                int vtkId = su2Reader.nextInt();
+                int numElementPoints = VTKType.get(vtkId).numPoints();
+                if (elements.length < length + numElementPoints + 1) {
+                    elements = Arrays.copyOf(elements, 2 * elements.length + numElementPoints + 1);
+                }
+                elements[length++] = vtkId;
+                for (int i = 0; i < numElementPoints; i++) {
+                    elements[length++] = su2Reader.nextInt();
+                }
+                su2Reader.skipLine(); // index of the element
             }
 
             int numPoints = su2Reader.readIntParameter("NPOIN");
-            Point[] points = new Point[numPoints];
+            cfduWriter.println("points = " + numPoints);
             for (int i = 0; i < numPoints; i++) {
-                points[i] = createPoint(su2Reader.readDoubleArray(), numDimensions);
+                double x = su2Reader.nextDouble();
+                double y = su2Reader.nextDouble();
+                double z = numDimensions == 3 ? su2Reader.nextDouble() : 0.0;
+                su2Reader.skipLine(); // index of the point
+                cfduWriter.printf("%1.8g %1.8g %1.8g%n", x, y, z);
+            }
+
+            cfduWriter.println("elements = " + numElements);
+            for (int start = 0; start < length; ) {
+                int numElementPoints = VTKType.get(elements[start]).numPoints();
+                writeRow(cfduWriter, elements, start, numElementPoints + 1);
+                start += numElementPoints + 1;
             }
 
             int numBndMarkers = su2Reader.readIntParameter("NMARK");
-            Su2Boundary[] boundaries = new Su2Boundary[numBndMarkers];
+            cfduWriter.println("boundaries = " + numBndMarkers);
+            int[] bndElement = new int[VTKType.VTK_QUADRATIC_HEXAHEDRON.numPoints() + 1];
             for (int bnd = 0; bnd < numBndMarkers; bnd++) {
-                String markerTag = su2Reader.readParameter("MARKER_TAG");
+                cfduWriter.println("bname = " + su2Reader.readParameter("MARKER_TAG"));
                 int numBndElements = su2Reader.readIntParameter("MARKER_ELEMS");
-                Su2Element[] bndElements = new Su2Element[numBndElements];
+                cfduWriter.println("bfaces = " + numBndElements);
                 for (int ei = 0; ei < numBndElements; ei++) {
-                    int[] conn = su2Reader.readIntArray();
-                    VTKType vtkType = VTKType.get(conn[0]);
-                    bndElements[ei] = new Su2Element(vtkType, copyOfRange(conn, 1, vtkType.numPoints() + 1));
-                }
-                boundaries[bnd] = new Su2Boundary(markerTag, bndElements);
-            }
-
-            // ------ Finished reading su2 file, now writing to cfdu file
-
-            cfduWriter.println("dimension = " + numDimensions);
-            cfduWriter.println("mode = ASCII");
-
-            cfduWriter.println("points = " + points.length);
-            for (Point point : points) {
-                cfduWriter.printf("%1.8g %1.8g %1.8g%n", point.x, point.y, point.z);
-            }
-
-            cfduWriter.println("elements = " + elements.length);
-            for (Su2Element element : elements) {
-                cfduWriter.printf("%d", element.vtkType.ID);
-                for (int i = 0; i < element.connectivity.length; i++) {
-                    cfduWriter.printf(" %d", element.connectivity[i]);
-                }
-                cfduWriter.println();
-            }
-
-            cfduWriter.println("boundaries = " + boundaries.length);
-            for (Su2Boundary boundary : boundaries) {
-                cfduWriter.println("bname = " + boundary.tag);
-                cfduWriter.println("bfaces = " + boundary.bndElements.length);
-                for (Su2Element bndElement : boundary.bndElements) {
-                    cfduWriter.printf("%d", bndElement.vtkType.ID);
-                    for (int i = 0; i < bndElement.connectivity.length; i++) {
-                        cfduWriter.printf(" %d", bndElement.connectivity[i]);
+                    bndElement[0] = su2Reader.nextInt();
+                    int numElementPoints = VTKType.get(bndElement[0]).numPoints();
+                    for (int i = 1; i <= numElementPoints; i++) {
+                        bndElement[i] = su2Reader.nextInt();
                     }
-                    cfduWriter.println();
+                    su2Reader.skipLine();
+                    writeRow(cfduWriter, bndElement, 0, numElementPoints + 1);
                 }
             }
         }
     }
 
-    private static Point createPoint(double[] pointData, int dimension) {
-        return switch (dimension) {
-            case 2 -> new Point(pointData[0], pointData[1], 0.0);
-            case 3 -> new Point(pointData[0], pointData[1], pointData[2]);
-            default -> throw new IllegalArgumentException("Unable to create point of dimension " + dimension);
-        };
-    }
-
-    private record Su2Element(VTKType vtkType, int[] connectivity) {
-    }
-
-    private record Su2Boundary(String tag, Su2Element[] bndElements) {
+    private static void writeRow(PrintWriter cfduWriter, int[] values, int start, int length) {
+        cfduWriter.print(values[start]);
+        for (int i = start + 1; i < start + length; i++) {
+            cfduWriter.print(' ');
+            cfduWriter.print(values[i]);
+        }
+        cfduWriter.println();
     }
 }
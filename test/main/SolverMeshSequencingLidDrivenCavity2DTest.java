@@ -0,0 +1,145 @@
+package main;
+
+import main.geom.Vector;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.mesh.factory.StructuredMeshCoarsener;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.WallBC;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ArtificialCompressibilityEquations;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.problem.ProblemDefinition;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import main.util.DoubleArray;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolverMeshSequencingLidDrivenCavity2DTest {
+    private final double Re = 100;
+    private final double L = 1.0;
+    private final double rho = 1.0;
+    private final double lidVelocity = 1.0;
+    private final double mu = rho * lidVelocity * L / Re;
+
+    private final ArtificialCompressibilityEquations govEqn
+            = new ArtificialCompressibilityEquations(rho, mu, new Vector(0, 0, 0));
+
+    private void writeMeshFile(File meshFile, int numXCells, int numYCells) throws IOException {
+        int numXNodes = numXCells + 1;
+        int numYNodes = numYCells + 1;
+        try (FileWriter fileWriter = new FileWriter(meshFile);
+             PrintWriter writer = new PrintWriter(fileWriter)) {
+            writer.write("dimension = 2\n");
+            writer.write("mode = ASCII\n");
+            writer.printf("xi = %d\n", numXNodes);
+            writer.printf("eta = %d\n", numYNodes);
+            for (int i = 0; i < numXNodes; i++) {
+                double x = i / (numXNodes - 1.0) * L;
+                for (int j = 0; j < numYNodes; j++) {
+                    double y = j / (numYNodes - 1.0) * L;
+                    writer.printf("%-20.15f %-20.15f %-20.15f\n", x, y, 0.0);
+                }
+            }
+        }
+    }
+
+    private ProblemDefinition createProblem(File meshFile) throws FileNotFoundException {
+        BoundaryCondition stationaryWall = new WallBC(govEqn, new Vector(0, 0, 0));
+        BoundaryCondition movingLid = new WallBC(govEqn, new Vector(lidVelocity, 0, 0));
+        Mesh mesh = new Structured2DMesh(meshFile, govEqn.numVars(),
+                stationaryWall, stationaryWall, stationaryWall, movingLid);
+
+        CellNeighborCalculator cellNeighborCalculator = new FaceBasedCellNeighbors();
+        ConvectionResidual convectionResidual = new ConvectionResidual(
+                new VKLimiterReconstructor(mesh, govEqn, cellNeighborCalculator),
+                new RusanovRiemannSolver(govEqn), mesh);
+        DiffusionResidual diffusionResidual = new DiffusionResidual(mesh, govEqn);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh,
+                new LeastSquareCellGradient(mesh, cellNeighborCalculator),
+                List.of(convectionResidual, diffusionResidual));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        timeIntegrator.setCourantNum(1.0);
+
+        Config config = new Config();
+        config.setMaxIterations(10000);
+
+        return new ProblemDefinition() {
+            @Override
+            public String description() {
+                return "Lid Driven Cavity with mesh sequencing.";
+            }
+
+            @Override
+            public GoverningEquations govEqn() {
+                return govEqn;
+            }
+
+            @Override
+            public Mesh mesh() {
+                return mesh;
+            }
+
+            @Override
+            public SolutionInitializer solutionInitializer() {
+                return new FunctionInitializer(p -> new double[]{0, 0, 0, 0});
+            }
+
+            @Override
+            public TimeIntegrator timeIntegrator() {
+                return timeIntegrator;
+            }
+
+            @Override
+            public Convergence convergence() {
+                return new Convergence(DoubleArray.newFilledArray(govEqn.numVars(), 1e-3));
+            }
+
+            @Override
+            public Config config() {
+                return config;
+            }
+        };
+    }
+
+    @Test
+    public void solver() throws IOException {
+        File fineMeshFile = new File("test/test_data/lid_driven_cavity_fine.cfds");
+        File coarseMeshFile = new File("test/test_data/lid_driven_cavity_coarse.cfds");
+        writeMeshFile(fineMeshFile, 20, 20);
+        StructuredMeshCoarsener.coarsen(fineMeshFile, coarseMeshFile);
+
+        List<ProblemDefinition> levels = List.of(createProblem(coarseMeshFile), createProblem(fineMeshFile));
+        assertEquals(100, levels.get(0).mesh().cells().size());
+        assertEquals(400, levels.get(1).mesh().cells().size());
+
+        MeshSequencingSolver solver = new MeshSequencingSolver(levels,
+                new Convergence(DoubleArray.newFilledArray(govEqn.numVars(), 1e-2)));
+        List<MeshSequencingSolver.LevelResult> results = solver.solve();
+        for (MeshSequencingSolver.LevelResult result : results) {
+            System.out.println(result.numCells() + " cells: " + result.iterations() + " iterations, residual "
+                    + Arrays.toString(result.residual()));
+        }
+
+        // The same problem on the fine mesh alone takes about 3000 iterations (see SolverLidDrivenCavity2DTest)
+        assertTrue(results.stream().allMatch(MeshSequencingSolver.LevelResult::converged));
+        assertArrayEquals(new int[]{840, 1561},
+                results.stream().mapToInt(MeshSequencingSolver.LevelResult::iterations).toArray());
+    }
+}
@@ -0,0 +1,144 @@
+package main.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static main.util.TestHelper.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ByteTokenizerTest {
+
+    private static ByteTokenizer tokenizer(byte[] bytes, String commentStr, int bufferSize) {
+        return new ByteTokenizer(Channels.newChannel(new ByteArrayInputStream(bytes)), commentStr, bufferSize);
+    }
+
+    private static ByteTokenizer tokenizer(String text, String commentStr, int bufferSize) {
+        return tokenizer(text.getBytes(StandardCharsets.UTF_8), commentStr, bufferSize);
+    }
+
+    @Test
+    public void tokensLinesAndComments() {
+        String text = """
+                // Comment line
+                NDIME= 2 // dimension
+
+                name = Just a plain line   //
+                  12\t-7  +3 // ints
+                3.25 -1e-3 .5 7. 1E+2
+                last line""";
+        // The small buffers split the tokens and the comments
+        for (int bufferSize : new int[]{8, 9, 13, 1 << 16}) {
+            try (ByteTokenizer tokenizer = tokenizer(text, "//", bufferSize)) {
+                assertEquals("2", tokenizer.readParameter("NDIME"));
+                assertEquals("Just a plain line", tokenizer.readParameter("name"));
+                assertEquals(12, tokenizer.nextInt());
+                assertFalse(tokenizer.endOfLine());
+                assertEquals(-7, tokenizer.nextInt());
+                assertEquals(3L, tokenizer.nextLong());
+                assertTrue(tokenizer.endOfLine());
+                tokenizer.skipLine();
+                assertEquals(3.25, tokenizer.nextDouble());
+                assertEquals(-1e-3, tokenizer.nextDouble());
+                assertEquals(0.5, tokenizer.nextDouble());
+                assertEquals(7.0, tokenizer.nextDouble());
+                assertEquals(100.0, tokenizer.nextDouble());
+                assertEquals("last", tokenizer.nextToken());
+                assertEquals("line", tokenizer.restOfLine());
+                assertFalse(tokenizer.hasNext());
+                assertThrows(NoSuchElementException.class, tokenizer::nextToken);
+                assertThrows(NoSuchElementException.class, () -> tokenizer.readParameter("dummy"));
+            }
+        }
+    }
+
+    @Test
+    public void firstByteOfCommentInToken() {
+        for (int bufferSize : new int[]{8, 16}) {
+            try (ByteTokenizer tokenizer = tokenizer("a/b /c//d\n1/2 //x", "//", bufferSize)) {
+                assertEquals("a/b", tokenizer.nextToken());
+                assertEquals("/c", tokenizer.nextToken());
+                assertTrue(tokenizer.endOfLine());
+                assertEquals("1/2", tokenizer.nextToken());
+                assertFalse(tokenizer.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void wrongParameter() {
+        try (ByteTokenizer tokenizer = tokenizer("line=empty\n", "%", 16)) {
+            assertThrows(IllegalArgumentException.class, () -> tokenizer.readParameter("dummy"));
+        }
+    }
+
+    @Test
+    public void intParameterWithOtherNumbers() {
+        try (ByteTokenizer tokenizer = tokenizer("NDIME= 3\nNPOIN= 125 27 % partition\nNELEM=\t64 \n", "%", 8)) {
+            assertEquals(3, tokenizer.readIntParameter("NDIME"));
+            assertEquals(125, tokenizer.readIntParameter("NPOIN"));
+            assertEquals(64, tokenizer.readIntParameter("NELEM"));
+        }
+    }
+
+    @Test
+    public void doublesAsParseDouble() {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder text = new StringBuilder();
+        int numValues = 20000;
+        String[] values = new String[numValues];
+        for (int i = 0; i < numValues; i++) {
+            double value = Double.longBitsToDouble(random.nextLong()) % 1e30;
+            values[i] = switch (i % 5) {
+                case 0 -> String.valueOf(random.nextDouble(-1e3, 1e3));
+                case 1 -> String.format("%1.8g", random.nextDouble(-1, 1));
+                case 2 -> String.format("%.17e", random.nextDouble() * Math.pow(10, random.nextInt(-300, 300)));
+                case 3 -> Double.isNaN(value) ? "1" : String.valueOf(value);
+                default -> String.valueOf(random.nextInt());
+            };
+            text.append(values[i]).append(i % 7 == 0 ? '\n' : ' ');
+        }
+        try (ByteTokenizer tokenizer = tokenizer(text.toString(), null, 1024)) {
+            for (String value : values) {
+                assertEquals(Double.parseDouble(value), tokenizer.nextDouble(), value);
+            }
+        }
+    }
+
+    @Test
+    public void binaryValuesAfterText() {
+        ByteBuffer buffer = ByteBuffer.allocate(64).order(ByteOrder.BIG_ENDIAN);
+        buffer.put("$Nodes\n".getBytes(StandardCharsets.US_ASCII));
+        buffer.putInt(-5).putLong(1L << 40).putDouble(2.5);
+        buffer.put("\n$EndNodes\n".getBytes(StandardCharsets.US_ASCII));
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+
+        try (ByteTokenizer tokenizer = tokenizer(bytes, null, 8)) {
+            assertEquals("$Nodes", tokenizer.nextToken());
+            tokenizer.skipLine();
+            tokenizer.setByteOrder(ByteOrder.BIG_ENDIAN);
+            assertEquals(-5, tokenizer.readBinaryInt());
+            assertEquals(1L << 40, tokenizer.readBinaryLong());
+            assertEquals(2.5, tokenizer.readBinaryDouble());
+            assertEquals("$EndNodes", tokenizer.nextToken());
+            assertFalse(tokenizer.hasNext());
+            assertThrows(NoSuchElementException.class, tokenizer::readBinaryInt);
+        }
+    }
+
+    @Test
+    public void invalidNumbers() {
+        try (ByteTokenizer tokenizer = tokenizer("12a 3000000000 1.2.3", null, 16)) {
+            assertThrows(NumberFormatException.class, tokenizer::nextInt);
+            assertThrows(NumberFormatException.class, tokenizer::nextInt);
+            assertThrows(NumberFormatException.class, tokenizer::nextDouble);
+        }
+    }
+}
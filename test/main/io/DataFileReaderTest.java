@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.NoSuchElementException;
 
 import static main.util.TestHelper.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -103,4 +104,36 @@ public class DataFileReaderTest {
 
         if (!tempFile.delete()) System.out.println("Unable to delete temporary file: " + tempFile);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void largeFileWithWindowsLineEnds() throws IOException {
+        File tempFile = new File("test/test_data/dataFileTest.cfd");
+
+        // Larger than the buffer of the reader, so that the lines cross the end of the buffer
+        int numLines = 20000;
+        try (FileWriter writer = new FileWriter(tempFile)) {
+            writer.write("points = " + numLines + "\r\n");
+            for (int i = 0; i < numLines; i++) {
+                if (i % 1000 == 0) writer.write("\t% comment " + i + "\r\n\r\n");
+                writer.write(String.format("%1.8g\t%1.8g %1.8g %d\r\n", i * 0.1, -i / 3.0, i * 1e-7, i));
+            }
+            writer.write("elements = 1\r\n");
+            writer.write("  5 0 1 2   % triangle\r\n");
+        }
+        try (DataFileReader fileReader = new DataFileReader(tempFile, "%")) {
+            assertEquals(numLines, fileReader.readIntParameter("points"));
+            for (int i = 0; i < numLines; i++) {
+                Point expected = new Point(Double.parseDouble(String.format("%1.8g", i * 0.1)),
+                        Double.parseDouble(String.format("%1.8g", -i / 3.0)),
+                        Double.parseDouble(String.format("%1.8g", i * 1e-7)));
+                assertEquals(0, expected.distance(fileReader.readXYZ()), 0.0);
+            }
+            assertEquals(1, fileReader.readIntParameter("elements"));
+            assertArrayEquals(new int[]{5, 0, 1, 2}, fileReader.readIntArray());
+
+            assertThrows(NoSuchElementException.class, fileReader::readIntArray);
+        }
+
+        if (!tempFile.delete()) System.out.println("Unable to delete temporary file: " + tempFile);
+    }
+}
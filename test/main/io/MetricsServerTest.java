@@ -0,0 +1,78 @@
+package main.io;
+
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.SolverMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsServerTest {
+
+    @Test
+    public void metrics() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"),
+                govEqn.numVars(), null, null, null, null);
+        SolverMetrics metrics = new SolverMetrics(mesh, govEqn);
+        metrics.recordIteration(new double[]{1e-3, 2e-3, 3e-3, 0, 5e-3});
+        metrics.recordIteration(new double[]{1e-4, 2e-4, 3e-4, 0, 5e-4});
+        metrics.setCourantNum(0.8);
+        metrics.setRealTime(1.5, 0.01);
+        metrics.recordOutput(new File("out/sol_00001.vtu"));
+
+        try (MetricsServer server = new MetricsServer(metrics, 0)) {
+            HttpURLConnection connection = (HttpURLConnection)
+                    URI.create("http://localhost:" + server.port() + "/metrics").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            String text;
+            try (InputStream in = connection.getInputStream()) {
+                text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            assertTrue(text.contains("# TYPE cfdsolver_iterations_total counter\ncfdsolver_iterations_total 2\n"));
+            assertTrue(text.contains("cfdsolver_cells " + mesh.cells().size() + "\n"));
+            assertTrue(text.contains("cfdsolver_residual{variable=\"" + govEqn.conservativeVarNames()[0]
+                                     + "\"} 0.000100000000\n"));
+            assertTrue(text.contains("cfdsolver_residual{variable=\"" + govEqn.conservativeVarNames()[3]
+                                     + "\"} 0\n"));
+            assertTrue(text.contains("cfdsolver_courant_number 0.800000000\n"));
+            assertTrue(text.contains("cfdsolver_real_time_seconds 1.50000000\n"));
+            assertTrue(text.contains("cfdsolver_phase_seconds_total{phase=\"convective flux\"}"));
+            assertTrue(text.contains("cfdsolver_heap_used_bytes "));
+            assertTrue(text.contains("cfdsolver_gc_seconds_total{gc="));
+            assertTrue(text.contains("cfdsolver_last_output_info{file=\"out" + File.separator + "sol_00001.vtu\"} 1\n"));
+        }
+    }
+
+    @Test
+    public void metrics_before_first_iteration() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"),
+                govEqn.numVars(), null, null, null, null);
+        try (MetricsServer server = new MetricsServer(new SolverMetrics(mesh, govEqn), 0)) {
+            String text = server.scrape();
+            assertTrue(text.contains("cfdsolver_iterations_total 0\n"));
+            assertTrue(text.contains("cfdsolver_courant_number NaN\n"));
+            assertFalse(text.contains("cfdsolver_last_output_info"));
+        }
+    }
+
+    @Test
+    public void residual_of_wrong_length() {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        assertThrows(IllegalArgumentException.class, () -> new SolverMetrics(
+                new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"),
+                        govEqn.numVars(), null, null, null, null), govEqn).recordIteration(new double[2]));
+    }
+}
@@ -0,0 +1,60 @@
+package main.io;
+
+import main.mesh.Mesh;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ScalarAdvection;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeSeriesWriterTest {
+
+    @Test
+    public void write() throws IOException {
+        File meshFile = new File("test/test_data/mesh_unstructured_2d.cfdu");
+        GoverningEquations govEqn = new ScalarAdvection(1, 1, 1);
+        Mesh mesh = new Unstructured2DMesh(meshFile, govEqn.numVars(), Map.of());
+        File directory = new File("test/test_data");
+        TimeSeriesWriter writer = new TimeSeriesWriter(mesh, govEqn, directory, "test_series");
+
+        int numCells = mesh.cells().size();
+        int numNodes = mesh.nodes().size();
+        // 3 quads, 2 triangles and 1 polygon with 5 nodes, which also stores its number of nodes
+        long geometrySize = Files.size(new File(directory, "test_series_mesh.bin").toPath());
+        assertEquals((numNodes * 3 + 3 * 5 + 2 * 4 + 7) * 8, geometrySize);
+
+        for (int step = 0; step < 3; step++) {
+            int s = step;
+            mesh.cellStream().forEach(cell -> cell.U[0] = cell.index() + 100.0 * s);
+            writer.write(0.5 * step);
+        }
+        assertEquals(3, writer.numSteps());
+
+        // Only the fields are written for every step
+        byte[] fields = Files.readAllBytes(new File(directory, "test_series_fields.bin").toPath());
+        assertEquals(3 * numCells * 8, fields.length);
+        ByteBuffer buffer = ByteBuffer.wrap(fields).order(ByteOrder.LITTLE_ENDIAN);
+        for (int step = 0; step < 3; step++) {
+            for (int i = 0; i < numCells; i++) {
+                assertEquals(i + 100.0 * step, buffer.getDouble());
+            }
+        }
+
+        String series = Files.readString(new File(directory, "test_series.xmf").toPath());
+        assertTrue(series.contains("<Time Value=\"0.0\"/>"));
+        assertTrue(series.contains("<Time Value=\"0.5\"/>"));
+        assertTrue(series.contains("<Time Value=\"1.0\"/>"));
+        assertTrue(series.contains("Seek=\"" + 2 * numCells * 8 + "\""));
+        assertTrue(series.endsWith("</Xdmf>\n"));
+        assertEquals(1, series.split("</Xdmf>", -1).length - 1);
+        assertEquals(3, series.split("Center=\"Cell\"", -1).length - 1);
+    }
+}
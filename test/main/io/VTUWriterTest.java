@@ -0,0 +1,165 @@
+package main.io;
+
+import main.mesh.Mesh;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ScalarAdvection;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VTUWriterTest {
+
+    private static Mesh createMesh(GoverningEquations govEqn) throws IOException {
+        File meshFile = new File("test/test_data/mesh_unstructured_2d.cfdu");
+        Mesh mesh = new Unstructured2DMesh(meshFile, govEqn.numVars(), Map.of());
+
+        Random rnd = new Random(86);
+        mesh.cellStream()
+                .forEach(cell -> Arrays.fill(cell.U, rnd.nextDouble()));
+
+        return mesh;
+    }
+
+    @Test
+    public void raw() throws IOException, DataFormatException {
+        GoverningEquations govEqn = new ScalarAdvection(1, 1, 1);
+        Mesh mesh = createMesh(govEqn);
+        File vtuFile = new File("test/test_data/test_vtu_raw.vtu");
+        VTUWriter writer = new VTUWriter(mesh, govEqn);
+        writer.setWriteGradients(true);
+        writer.write(vtuFile);
+
+        assertArrays(mesh, vtuFile, false);
+    }
+
+    @Test
+    public void compressed() throws IOException, DataFormatException {
+        GoverningEquations govEqn = new ScalarAdvection(1, 1, 1);
+        Mesh mesh = createMesh(govEqn);
+        File vtuFile = new File("test/test_data/test_vtu_compressed.vtu");
+        VTUWriter writer = new VTUWriter(mesh, govEqn);
+        writer.setCompressed(true);
+        writer.setWriteGradients(true);
+        writer.write(vtuFile);
+
+        assertArrays(mesh, vtuFile, true);
+    }
+
+    @Test
+    public void invalid_compression_level() {
+        GoverningEquations govEqn = new ScalarAdvection(1, 1, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new VTUWriter(createMesh(govEqn), govEqn).setCompressionLevel(10));
+    }
+
+    private static void assertArrays(Mesh mesh, File vtuFile, boolean compressed) throws IOException, DataFormatException {
+        byte[] bytes = Files.readAllBytes(vtuFile.toPath());
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        int appendedStart = text.indexOf('_', text.indexOf("<AppendedData encoding=\"raw\">")) + 1;
+        String header = text.substring(0, appendedStart);
+
+        assertEquals(compressed, header.contains("compressor=\"vtkZLibDataCompressor\""));
+        assertTrue(text.endsWith("</AppendedData>\n</VTKFile>\n"));
+
+        int numCells = mesh.cells().size();
+        int numNodes = mesh.nodes().size();
+        assertTrue(header.contains("NumberOfPoints=\"" + numNodes + "\" NumberOfCells=\"" + numCells + "\""));
+
+        ByteBuffer points = array(bytes, header, "Points", appendedStart, compressed);
+        for (int i = 0; i < numNodes; i++) {
+            assertEquals(mesh.nodes().get(i).x, points.getDouble());
+            assertEquals(mesh.nodes().get(i).y, points.getDouble());
+            assertEquals(mesh.nodes().get(i).z, points.getDouble());
+        }
+
+        ByteBuffer offsets = array(bytes, header, "offsets", appendedStart, compressed);
+        ByteBuffer types = array(bytes, header, "types", appendedStart, compressed);
+        long offset = 0;
+        for (int i = 0; i < numCells; i++) {
+            offset += mesh.cells().get(i).nodes.length;
+            assertEquals(offset, offsets.getLong());
+            assertEquals(mesh.cells().get(i).vtkType.ID, types.get());
+        }
+
+        ByteBuffer connectivity = array(bytes, header, "connectivity", appendedStart, compressed);
+        assertEquals(offset * Long.BYTES, connectivity.remaining());
+        for (int i = 0; i < numCells; i++) {
+            for (int n = 0; n < mesh.cells().get(i).nodes.length; n++) {
+                assertSame(mesh.cells().get(i).nodes[n], mesh.nodes().get((int) connectivity.getLong()));
+            }
+        }
+
+        // The first array is the point data, the second one is the cell data with the same name
+        ByteBuffer pointValues = array(bytes, header, "phi", appendedStart, compressed);
+        assertEquals(numNodes * Double.BYTES, pointValues.remaining());
+        double min = mesh.cellStream().mapToDouble(cell -> cell.U[0]).min().orElseThrow();
+        double max = mesh.cellStream().mapToDouble(cell -> cell.U[0]).max().orElseThrow();
+        for (int i = 0; i < numNodes; i++) {
+            double value = pointValues.getDouble();
+            assertTrue(value >= min - 1e-15 && value <= max + 1e-15);
+        }
+
+        int cellDataStart = header.indexOf("<CellData>");
+        ByteBuffer cellValues = array(bytes, header.substring(cellDataStart), "phi", appendedStart, compressed);
+        for (int i = 0; i < numCells; i++) {
+            assertEquals(mesh.cells().get(i).U[0], cellValues.getDouble());
+        }
+
+        ByteBuffer gradients = array(bytes, header, "grad phi", appendedStart, compressed);
+        assertEquals(numCells * 3 * Double.BYTES, gradients.remaining());
+        assertTrue(header.contains("Name=\"grad phi\" NumberOfComponents=\"3\""));
+    }
+
+    private static ByteBuffer array(byte[] bytes, String header, String name, int appendedStart, boolean compressed)
+            throws DataFormatException {
+        Matcher matcher = Pattern.compile("Name=\"" + name + "\"[^>]*offset=\"(\\d+)\"").matcher(header);
+        assertTrue(matcher.find(), "Missing array " + name);
+        int offset = appendedStart + Integer.parseInt(matcher.group(1));
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(offset);
+        if (!compressed) {
+            int numBytes = (int) buffer.getLong();
+            return ByteBuffer.wrap(bytes, buffer.position(), numBytes).slice().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        int numBlocks = (int) buffer.getLong();
+        int blockSize = (int) buffer.getLong();
+        int lastBlockSize = (int) buffer.getLong();
+        int[] compressedSizes = new int[numBlocks];
+        for (int block = 0; block < numBlocks; block++) {
+            compressedSizes[block] = (int) buffer.getLong();
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int position = buffer.position();
+        for (int block = 0; block < numBlocks; block++) {
+            int size = block == numBlocks - 1 && lastBlockSize != 0 ? lastBlockSize : blockSize;
+            byte[] raw = new byte[size];
+            Inflater inflater = new Inflater();
+            inflater.setInput(bytes, position, compressedSizes[block]);
+            assertEquals(size, inflater.inflate(raw));
+            assertTrue(inflater.finished());
+            inflater.end();
+            output.write(raw, 0, size);
+            position += compressedSizes[block];
+        }
+        return ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
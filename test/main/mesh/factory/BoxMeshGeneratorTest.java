@@ -0,0 +1,190 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoxMeshGeneratorTest {
+    private static final BoundaryCondition dummyBC = new BoundaryCondition() {
+        @Override
+        public void setGhostCellValues(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+
+        @Override
+        public double[] convectiveFlux(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+    };
+
+    private static final Function<Point, Point> skew = p -> new Point(p.x + 0.2 * p.y + 0.1 * p.z * p.z,
+            p.y + 0.1 * Math.sin(p.x), p.z - 0.1 * p.x * p.y);
+
+    private static double totalVolume(Mesh mesh) {
+        return mesh.cells().stream().mapToDouble(cell -> cell.shape.volume).sum();
+    }
+
+    private static List<String> boundaryNames(Mesh mesh) {
+        return mesh.boundaries().stream().map(boundary -> boundary.name).toList();
+    }
+
+    /**
+     * The faces point from the left to the right cell, and the cells have all their faces.
+     */
+    private static void assertFacesOriented(Mesh mesh) {
+        for (Face face : mesh.internalFaces()) {
+            Vector leftToRight = new Vector(face.left.shape.centroid, face.right.shape.centroid);
+            assertTrue(face.surface.unitNormal().dot(leftToRight) > 0);
+        }
+        for (Boundary boundary : mesh.boundaries()) {
+            for (Face face : boundary.faces) {
+                Vector outward = new Vector(face.left.shape.centroid, face.surface.centroid);
+                assertTrue(face.surface.unitNormal().dot(outward) > 0);
+            }
+        }
+        int numBoundaryFaces = mesh.boundaries().stream().mapToInt(boundary -> boundary.faces.size()).sum();
+        int numCellFaces = mesh.cells().stream().mapToInt(cell -> cell.faces.size()).sum();
+        assertEquals(2 * mesh.internalFaces().size() + numBoundaryFaces, numCellFaces);
+    }
+
+    @Test
+    public void structured2DMesh_same_as_mesh_file() throws IOException {
+        BoxMeshGenerator generator = new BoxMeshGenerator(5, 4);
+        generator.setBox(new Point(-1, 2, 0), new Point(3, 4, 0));
+        generator.setStretching(1, BoxMeshGenerator.clusterAtMin(2.0));
+        generator.setMapping(skew);
+        Point[][] points = generator.points2D();
+
+        File meshFile = File.createTempFile("box_mesh", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\nxi = 6\neta = 5\n");
+            for (Point[] row : points) {
+                for (Point point : row) {
+                    writer.write(point.x + " " + point.y + " " + point.z + "\n");
+                }
+            }
+        }
+
+        Mesh expected = new Structured2DMesh(meshFile, 2, dummyBC, dummyBC, dummyBC, null);
+        Mesh actual = generator.structured2DMesh(2, dummyBC, dummyBC, dummyBC, null);
+
+        assertEquals(expected.nodes().size(), actual.nodes().size());
+        assertEquals(expected.cells().size(), actual.cells().size());
+        for (int c = 0; c < expected.cells().size(); c++) {
+            Cell expectedCell = expected.cells().get(c);
+            Cell actualCell = actual.cells().get(c);
+            assertEquals(expectedCell.shape.volume, actualCell.shape.volume, 1e-15);
+            assertEquals(0.0, expectedCell.shape.centroid.distance(actualCell.shape.centroid), 1e-15);
+        }
+        assertEquals(expected.internalFaces().size(), actual.internalFaces().size());
+        assertEquals(boundaryNames(expected), boundaryNames(actual));
+        for (int b = 0; b < 4; b++) {
+            assertEquals(expected.boundaries().get(b).faces.size(), actual.boundaries().get(b).faces.size());
+            assertEquals(expected.boundaries().get(b).bc().isPresent(), actual.boundaries().get(b).bc().isPresent());
+        }
+        assertFacesOriented(actual);
+    }
+
+    @Test
+    public void structured_meshes_fill_the_box() {
+        BoxMeshGenerator generator1D = new BoxMeshGenerator(7);
+        generator1D.setBox(new Point(2, 0, 0), new Point(5, 0, 0));
+        generator1D.setStretching(0, BoxMeshGenerator.clusterAtEnds(1.5));
+        Mesh mesh1D = generator1D.structured1DMesh(1, dummyBC, dummyBC);
+        assertEquals(7, mesh1D.cells().size());
+        assertEquals(3.0, totalVolume(mesh1D), 1e-12);
+        assertEquals(List.of("xi min", "xi max"), boundaryNames(mesh1D));
+
+        BoxMeshGenerator generator3D = new BoxMeshGenerator(3, 4, 2);
+        generator3D.setBox(new Point(0, 0, 0), new Point(2, 1, 0.5));
+        generator3D.setStretching(2, BoxMeshGenerator.clusterAtMin(3.0));
+        Mesh mesh3D = generator3D.structured3DMesh(1, dummyBC, dummyBC, dummyBC, dummyBC, dummyBC, dummyBC);
+        assertEquals(24, mesh3D.cells().size());
+        assertEquals(60, mesh3D.nodes().size());
+        assertEquals(2 * 4 * 2 + 3 * 3 * 2 + 3 * 4 * 1, mesh3D.internalFaces().size());
+        assertEquals(1.0, totalVolume(mesh3D), 1e-12);
+        assertEquals(List.of("xi min", "xi max", "eta min", "eta max", "zeta min", "zeta max"),
+                boundaryNames(mesh3D));
+        assertFacesOriented(mesh3D);
+    }
+
+    @Test
+    public void triangleMesh_splits_the_quadrilaterals() {
+        BoxMeshGenerator generator = new BoxMeshGenerator(6, 3);
+        generator.setBox(new Point(0, 0, 0), new Point(3, 2, 0));
+        generator.setStretching(0, BoxMeshGenerator.clusterAtEnds(2.0));
+        Mesh mesh = generator.triangleMesh(1, Map.of("xi min", dummyBC, "eta max", dummyBC));
+
+        assertEquals(36, mesh.cells().size());
+        assertEquals(28, mesh.nodes().size());
+        // Each quadrilateral has a diagonal, and shares two of its sides with the next quadrilaterals
+        assertEquals(18 + 5 * 3 + 6 * 2, mesh.internalFaces().size());
+        assertEquals(6.0, totalVolume(mesh), 1e-12);
+        assertEquals(List.of("xi min", "xi max", "eta min", "eta max"), boundaryNames(mesh));
+        assertEquals(List.of(3, 3, 6, 6), mesh.boundaries().stream().map(b -> b.faces.size()).toList());
+        assertTrue(mesh.boundaries().get(0).bc().isPresent());
+        assertFalse(mesh.boundaries().get(1).bc().isPresent());
+        assertTrue(mesh.cells().stream().allMatch(cell -> cell.shape.volume > 0));
+        assertFacesOriented(mesh);
+    }
+
+    @Test
+    public void tetrahedronMesh_of_mirrored_domain() {
+        int n = 3;
+        BoxMeshGenerator generator = new BoxMeshGenerator(n, n, n);
+        // The mirror reverses the orientation of the tetrahedra of the box
+        generator.setMapping(p -> new Point(-p.x, p.y, p.z));
+        Mesh mesh = generator.tetrahedronMesh(2, Map.of("zeta max", dummyBC));
+
+        assertEquals(6 * n * n * n, mesh.cells().size());
+        assertEquals(12 * n * n * n - 6 * n * n, mesh.internalFaces().size());
+        assertEquals(1.0, totalVolume(mesh), 1e-12);
+        assertTrue(mesh.cells().stream().allMatch(cell -> cell.shape.volume > 0));
+        assertEquals(List.of("xi min", "xi max", "eta min", "eta max", "zeta min", "zeta max"),
+                boundaryNames(mesh));
+        for (Boundary boundary : mesh.boundaries()) {
+            assertEquals(2 * n * n, boundary.faces.size());
+            assertEquals(boundary.name.equals("zeta max"), boundary.bc().isPresent());
+        }
+        assertFacesOriented(mesh);
+    }
+
+    @Test
+    public void stretching_keeps_the_ends() {
+        for (DoubleUnaryOperator stretching : List.of(
+                BoxMeshGenerator.clusterAtEnds(2.5), BoxMeshGenerator.clusterAtMin(2.5))) {
+            assertEquals(0.0, stretching.applyAsDouble(0.0), 1e-15);
+            assertEquals(1.0, stretching.applyAsDouble(1.0), 1e-15);
+            for (int i = 0; i < 10; i++) {
+                assertTrue(stretching.applyAsDouble(0.1 * i) < stretching.applyAsDouble(0.1 * (i + 1)));
+            }
+        }
+
+        DoubleUnaryOperator atMin = BoxMeshGenerator.clusterAtMin(2.5);
+        assertTrue(atMin.applyAsDouble(0.1) < 0.2 * (atMin.applyAsDouble(1.0) - atMin.applyAsDouble(0.9)));
+        DoubleUnaryOperator atEnds = BoxMeshGenerator.clusterAtEnds(2.5);
+        assertEquals(atEnds.applyAsDouble(0.1), 1.0 - atEnds.applyAsDouble(0.9), 1e-15);
+        assertTrue(atEnds.applyAsDouble(0.1) < 0.5 * (atEnds.applyAsDouble(0.6) - atEnds.applyAsDouble(0.5)));
+    }
+
+    @Test
+    public void mesh_must_match_dimension() {
+        assertThrows(IllegalArgumentException.class, () -> new BoxMeshGenerator(2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BoxMeshGenerator(1, 1, 1, 1));
+        assertThrows(IllegalStateException.class, () -> new BoxMeshGenerator(2, 2).points3D());
+        assertThrows(IllegalStateException.class, () -> new BoxMeshGenerator(2, 2, 2).triangleMesh(1, Map.of()));
+    }
+}
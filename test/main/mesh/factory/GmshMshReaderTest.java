@@ -0,0 +1,339 @@
+package main.mesh.factory;
+
+import main.geom.Point;
+import main.geom.VTKType;
+import main.geom.Vector;
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static main.util.TestHelper.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GmshMshReaderTest {
+
+    private static final int numVars = 3;
+
+    private static final BoundaryCondition dummyBC = new BoundaryCondition() {
+        @Override
+        public void setGhostCellValues(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+
+        @Override
+        public double[] convectiveFlux(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+    };
+
+    /**
+     * Writes the sections of a msh file, in ASCII or in binary. The values of a line are separated by
+     * spaces in ASCII and written one after the other in binary.
+     */
+    private static class MshWriter {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final boolean binary;
+        private final ByteOrder byteOrder;
+
+        MshWriter(boolean binary, ByteOrder byteOrder) {
+            this.binary = binary;
+            this.byteOrder = byteOrder;
+            text("$MeshFormat\n4.1 " + (binary ? 1 : 0) + " 8\n");
+            if (binary) {
+                ints(1);
+                text("\n");
+            }
+            text("$EndMeshFormat\n");
+        }
+
+        void text(String text) {
+            bytes.writeBytes(text.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        void ints(int... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * values.length).order(byteOrder);
+            for (int value : values) {
+                if (binary) buffer.putInt(value);
+                else text(value + " ");
+            }
+            if (binary) bytes.writeBytes(buffer.array());
+        }
+
+        void sizes(long... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * values.length).order(byteOrder);
+            for (long value : values) {
+                if (binary) buffer.putLong(value);
+                else text(value + " ");
+            }
+            if (binary) bytes.writeBytes(buffer.array());
+        }
+
+        void doubles(double... values) {
+            ByteBuffer buffer = ByteBuffer.allocate(8 * values.length).order(byteOrder);
+            for (double value : values) {
+                if (binary) buffer.putDouble(value);
+                else text(value + " ");
+            }
+            if (binary) bytes.writeBytes(buffer.array());
+        }
+
+        void endLine() {
+            if (!binary) text("\n");
+        }
+
+        /**
+         * @param blocks Rows of the entity dimension, the entity tag and the coordinates of the nodes.
+         */
+        void nodes(double[][] blocks) {
+            int numNodes = 0;
+            for (double[] block : blocks) numNodes += (block.length - 2) / 3;
+            text("$Nodes\n");
+            sizes(blocks.length, numNodes, 1, numNodes);
+            endLine();
+            int tag = 1;
+            for (double[] block : blocks) {
+                int numNodesInBlock = (block.length - 2) / 3;
+                ints((int) block[0], (int) block[1], 0);
+                sizes(numNodesInBlock);
+                endLine();
+                for (int i = 0; i < numNodesInBlock; i++) {
+                    sizes(tag + i);
+                    endLine();
+                }
+                for (int i = 0; i < numNodesInBlock; i++) {
+                    doubles(block[2 + 3 * i], block[3 + 3 * i], block[4 + 3 * i]);
+                    endLine();
+                }
+                tag += numNodesInBlock;
+            }
+            endSection("$EndNodes");
+        }
+
+        /**
+         * @param blocks Rows of the entity dimension, the entity tag, the element type and the node tags
+         *               of each element.
+         */
+        void elements(int[][][] blocks) {
+            int numElements = 0;
+            for (int[][] block : blocks) numElements += block.length - 1;
+            text("$Elements\n");
+            sizes(blocks.length, numElements, 1, numElements);
+            endLine();
+            int tag = 1;
+            for (int[][] block : blocks) {
+                ints(block[0]);
+                sizes(block.length - 1);
+                endLine();
+                for (int e = 1; e < block.length; e++) {
+                    sizes(tag++);
+                    for (int nodeTag : block[e]) sizes(nodeTag);
+                    endLine();
+                }
+            }
+            endSection("$EndElements");
+        }
+
+        void endSection(String end) {
+            if (binary) text("\n");
+            text(end + "\n");
+        }
+
+        File write(String fileName) throws IOException {
+            File file = new File("test/test_data/" + fileName);
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                bytes.writeTo(out);
+            }
+            return file;
+        }
+    }
+
+    /**
+     * A 2 x 1 rectangle: a quad on the left and two triangles on the right.
+     * <pre>
+     *  4 --- 5 --- 6
+     *  |     |   / |
+     *  |     |  /  |
+     *  1 --- 2 --- 3
+     * </pre>
+     */
+    private static File write2DMesh(boolean binary, ByteOrder byteOrder, String fileName) throws IOException {
+        MshWriter writer = new MshWriter(binary, byteOrder);
+        writer.text("""
+                $PhysicalNames
+                3
+                1 1 "bottom"
+                1 3 "top"
+                2 10 "fluid"
+                $EndPhysicalNames
+                $Comments
+                An unknown section is skipped
+                $EndComments
+                """);
+
+        writer.text("$Entities\n");
+        writer.sizes(0, 4, 1, 0);
+        writer.endLine();
+        int[][] curves = {{1, 1}, {2, 2}, {3, 3}, {4}}; // tag and physical tags
+        for (int[] curve : curves) {
+            writer.ints(curve[0]);
+            writer.doubles(0, 0, 0, 2, 1, 0);
+            writer.sizes(curve.length - 1);
+            for (int i = 1; i < curve.length; i++) writer.ints(curve[i]);
+            writer.sizes(0);
+            writer.endLine();
+        }
+        writer.ints(1);
+        writer.doubles(0, 0, 0, 2, 1, 0);
+        writer.sizes(1);
+        writer.ints(10);
+        writer.sizes(0);
+        writer.endLine();
+        writer.endSection("$EndEntities");
+
+        writer.nodes(new double[][]{
+                {0, 1, 0, 0, 0, 1, 0, 0, 2, 0, 0},
+                {2, 1, 0, 1, 0, 1, 1, 0, 2, 1, 0}});
+        writer.elements(new int[][][]{
+                {{2, 1, 3}, {1, 2, 5, 4}},
+                {{2, 1, 2}, {2, 3, 6}, {2, 6, 5}},
+                {{1, 1, 1}, {1, 2}, {2, 3}},
+                {{1, 2, 1}, {3, 6}},
+                {{1, 3, 1}, {6, 5}, {5, 4}},
+                {{1, 4, 1}, {4, 1}},
+                {{0, 1, 15}, {1}}});
+        return writer.write(fileName);
+    }
+
+    @Test
+    public void ascii2DMesh() throws IOException {
+        File mshFile = write2DMesh(false, ByteOrder.LITTLE_ENDIAN, "gmsh_2d_ascii.msh");
+        Mesh mesh = GmshMshReader.read(mshFile, numVars, Map.of("bottom", dummyBC, "top", dummyBC));
+        if (!mshFile.delete()) System.out.println("Unable to delete temporary file: " + mshFile);
+
+        assertTrue(mesh instanceof Unstructured2DMesh);
+        assertEquals(6, mesh.nodes().size());
+        assertEquals(0, mesh.nodes().get(5).location().distance(new Point(2, 1, 0)), 1e-15);
+
+        List<Cell> cells = mesh.cells();
+        assertEquals(3, cells.size());
+        assertEquals(VTKType.VTK_QUAD, cells.get(0).vtkType);
+        assertEquals(VTKType.VTK_TRIANGLE, cells.get(1).vtkType);
+        assertEquals(1.0, cells.get(0).shape.volume, 1e-15);
+        assertEquals(0.5, cells.get(1).shape.volume, 1e-15);
+        assertEquals(0.5, cells.get(2).shape.volume, 1e-15);
+        assertEquals(2, mesh.internalFaces().size());
+        assertOutwardNormals(mesh);
+
+        List<Boundary> boundaries = mesh.boundaries();
+        assertEquals(List.of("bottom", "2", "top", "entity 4"), boundaries.stream().map(b -> b.name).toList());
+        assertEquals(List.of(2, 1, 2, 1), boundaries.stream().map(b -> b.faces.size()).toList());
+        assertTrue(boundaries.get(0).bc().isPresent());
+        assertTrue(boundaries.get(1).bc().isEmpty());
+    }
+
+    @Test
+    public void binary2DMesh() throws IOException {
+        File asciiFile = write2DMesh(false, ByteOrder.LITTLE_ENDIAN, "gmsh_2d_ascii.msh");
+        Mesh expected = GmshMshReader.read(asciiFile, numVars, Map.of());
+        if (!asciiFile.delete()) System.out.println("Unable to delete temporary file: " + asciiFile);
+
+        for (ByteOrder byteOrder : new ByteOrder[]{ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN}) {
+            File binaryFile = write2DMesh(true, byteOrder, "gmsh_2d_binary.msh");
+            Mesh actual = GmshMshReader.read(binaryFile, numVars, Map.of());
+            if (!binaryFile.delete()) System.out.println("Unable to delete temporary file: " + binaryFile);
+
+            assertEquals(expected.cells().size(), actual.cells().size());
+            for (int i = 0; i < expected.cells().size(); i++) {
+                assertEquals(expected.cells().get(i).shape.volume, actual.cells().get(i).shape.volume, 1e-15);
+                assertEquals(0, expected.cells().get(i).shape.centroid
+                        .distance(actual.cells().get(i).shape.centroid), 1e-15);
+            }
+            assertEquals(expected.internalFaces().size(), actual.internalFaces().size());
+            assertEquals(expected.boundaries().stream().map(b -> b.name).toList(),
+                    actual.boundaries().stream().map(b -> b.name).toList());
+        }
+    }
+
+    /**
+     * A unit cube with a prism on its side at x = 1.
+     */
+    @Test
+    public void hexahedronAndPrism() throws IOException {
+        MshWriter writer = new MshWriter(false, ByteOrder.LITTLE_ENDIAN);
+        writer.nodes(new double[][]{{3, 1,
+                0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0,
+                0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1,
+                2, 0, 0, 2, 0, 1}});
+        writer.elements(new int[][][]{
+                {{3, 1, 5}, {1, 2, 3, 4, 5, 6, 7, 8}},
+                {{3, 2, 6}, {2, 9, 3, 6, 10, 7}},
+                {{2, 1, 3}, {1, 4, 3, 2}, {5, 6, 7, 8}, {1, 2, 6, 5}, {3, 4, 8, 7}, {1, 5, 8, 4},
+                        {2, 9, 10, 6}, {9, 3, 7, 10}},
+                {{2, 1, 2}, {2, 3, 9}, {6, 10, 7}}});
+        File mshFile = writer.write("gmsh_3d.msh");
+        Mesh mesh = GmshMshReader.read(mshFile, numVars, Map.of());
+        if (!mshFile.delete()) System.out.println("Unable to delete temporary file: " + mshFile);
+
+        assertTrue(mesh instanceof Unstructured3DMesh);
+        List<Cell> cells = mesh.cells();
+        assertEquals(VTKType.VTK_HEXAHEDRON, cells.get(0).vtkType);
+        assertEquals(VTKType.VTK_WEDGE, cells.get(1).vtkType);
+        assertEquals(1.0, cells.get(0).shape.volume, 1e-15);
+        assertEquals(0.5, cells.get(1).shape.volume, 1e-15);
+        assertEquals(1, mesh.internalFaces().size());
+        assertEquals(1, mesh.boundaries().size());
+        assertEquals("entity 1", mesh.boundaries().get(0).name);
+        assertEquals(9, mesh.boundaries().get(0).faces.size());
+        assertOutwardNormals(mesh);
+    }
+
+    @Test
+    public void unsupportedFiles() throws IOException {
+        File mshFile = new File("test/test_data/gmsh_unsupported.msh");
+        try (FileOutputStream out = new FileOutputStream(mshFile)) {
+            out.write("$MeshFormat\n2.2 0 8\n$EndMeshFormat\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        assertThrows(IllegalArgumentException.class, () -> GmshMshReader.read(mshFile, numVars, Map.of()));
+
+        // The version 4.0 has the same sections as 4.1, with a different layout of the entities
+        try (FileOutputStream out = new FileOutputStream(mshFile)) {
+            out.write("$MeshFormat\n4 0 8\n$EndMeshFormat\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        assertThrows(IllegalArgumentException.class, () -> GmshMshReader.read(mshFile, numVars, Map.of()));
+
+        MshWriter writer = new MshWriter(false, ByteOrder.LITTLE_ENDIAN);
+        writer.nodes(new double[][]{{2, 1, 0, 0, 0, 1, 0, 0, 0, 1, 0, 1, 1, 0, 0.5, 0, 0, 0.5, 0.5, 0}});
+        writer.elements(new int[][][]{{{2, 1, 9}, {1, 2, 3, 4, 5, 6}}}); // second order triangle
+        writer.write("gmsh_unsupported.msh");
+        assertThrows(UnsupportedOperationException.class, () -> GmshMshReader.read(mshFile, numVars, Map.of()));
+
+        if (!mshFile.delete()) System.out.println("Unable to delete temporary file: " + mshFile);
+    }
+
+    /**
+     * The normals of the internal faces point from the left to the right cell, and those of the
+     * boundary faces out of the domain.
+     */
+    private static void assertOutwardNormals(Mesh mesh) {
+        for (Face face : mesh.internalFaces()) {
+            Vector leftToRight = new Vector(face.left.shape.centroid, face.right.shape.centroid);
+            assertTrue(face.surface.unitNormal().dot(leftToRight) > 0);
+        }
+        for (Boundary boundary : mesh.boundaries()) {
+            for (Face face : boundary.faces) {
+                Vector leftToFace = new Vector(face.left.shape.centroid, face.surface.centroid);
+                assertTrue(face.surface.unitNormal().dot(leftToFace) > 0);
+            }
+        }
+    }
+}
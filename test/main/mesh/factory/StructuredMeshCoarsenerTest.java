@@ -0,0 +1,51 @@
+package main.mesh.factory;
+
+import main.mesh.Mesh;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StructuredMeshCoarsenerTest {
+
+    @Test
+    public void coarsen_2d() throws IOException {
+        // 5 x 4 nodes, coarsened to 3 x 3 nodes (the last node is kept)
+        File coarseMeshFile = new File("test/test_data/tempCoarseMesh.cfds");
+        StructuredMeshCoarsener.coarsen(new File("test/test_data/mesh_structured_2d.cfds"), coarseMeshFile);
+        Mesh fine = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"), 1,
+                null, null, null, null);
+        Mesh coarse = new Structured2DMesh(coarseMeshFile, 1, null, null, null, null);
+
+        assertEquals(9, coarse.nodes().size());
+        assertEquals(4, coarse.cells().size());
+        int[] fineNodes = {0, 2, 3, 8, 10, 11, 16, 18, 19};
+        for (int i = 0; i < fineNodes.length; i++) {
+            assertEquals(fine.nodes().get(fineNodes[i]).x, coarse.nodes().get(i).x, 1e-15);
+            assertEquals(fine.nodes().get(fineNodes[i]).y, coarse.nodes().get(i).y, 1e-15);
+            assertEquals(fine.nodes().get(fineNodes[i]).z, coarse.nodes().get(i).z, 1e-15);
+        }
+        double fineVolume = fine.cellStream().mapToDouble(cell -> cell.shape.volume).sum();
+        double coarseVolume = coarse.cellStream().mapToDouble(cell -> cell.shape.volume).sum();
+        assertEquals(fineVolume, coarseVolume, 1e-12);
+        coarseMeshFile.delete();
+    }
+
+    @Test
+    public void coarsen_3d() throws IOException {
+        File fineMeshFile = new File("test/test_data/mesh_structured_3d.cfds");
+        File coarseMeshFile = new File("test/test_data/tempCoarseMesh.cfds");
+        StructuredMeshCoarsener.coarsen(fineMeshFile, coarseMeshFile);
+        Mesh fine = new Structured3DMesh(fineMeshFile, 1, null, null, null, null, null, null);
+        Mesh coarse = new Structured3DMesh(coarseMeshFile, 1, null, null, null, null, null, null);
+
+        double fineVolume = fine.cellStream().mapToDouble(cell -> cell.shape.volume).sum();
+        double coarseVolume = coarse.cellStream().mapToDouble(cell -> cell.shape.volume).sum();
+        assertEquals(fineVolume, coarseVolume, 1e-9);
+        assertEquals(fine.nodes().get(0).x, coarse.nodes().get(0).x, 1e-15);
+        assertEquals(fine.nodes().get(fine.nodes().size() - 1).x, coarse.nodes().get(coarse.nodes().size() - 1).x, 1e-15);
+        coarseMeshFile.delete();
+    }
+}
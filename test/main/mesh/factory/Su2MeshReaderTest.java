@@ -0,0 +1,101 @@
+package main.mesh.factory;
+
+import main.mesh.*;
+import main.physics.bc.BoundaryCondition;
+import main.util.Su2ToCfduConverter;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class Su2MeshReaderTest {
+
+    private static final int numVars = 3;
+
+    private static final BoundaryCondition dummyBC = new BoundaryCondition() {
+        @Override
+        public void setGhostCellValues(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+
+        @Override
+        public double[] convectiveFlux(Face face) {
+            throw new UnsupportedOperationException("Not implemented.");
+        }
+    };
+
+    @Test
+    public void square() throws IOException {
+        File su2File = new File("test/test_data/su2_to_cfdu/square.su2");
+        File cfduFile = new File("test/test_data/su2_to_cfdu/square_reader.cfdu");
+        Su2ToCfduConverter.convert(su2File, cfduFile);
+        Map<String, BoundaryCondition> bcs = Map.of("lower", dummyBC, "right", dummyBC, "upper", dummyBC, "left", dummyBC);
+
+        Mesh mesh = Su2MeshReader.read(su2File, numVars, bcs);
+        assertTrue(mesh instanceof Unstructured2DMesh);
+        assertSameMesh(new Unstructured2DMesh(cfduFile, numVars, bcs), mesh);
+        assertEquals(1.0, mesh.cells().stream().mapToDouble(cell -> cell.shape.volume).sum(), 1e-12);
+
+        if (!cfduFile.delete()) System.out.println("Unable to delete temporary file: " + cfduFile);
+    }
+
+    @Test
+    public void cube() throws IOException {
+        File su2File = new File("test/test_data/su2_to_cfdu/cube.su2");
+        File cfduFile = new File("test/test_data/su2_to_cfdu/cube_reader.cfdu");
+        Su2ToCfduConverter.convert(su2File, cfduFile);
+        Map<String, BoundaryCondition> bcs = Map.of("left", dummyBC, "right", dummyBC, "upper", dummyBC,
+                "lower", dummyBC, "front", dummyBC, "back", dummyBC);
+
+        Mesh mesh = Su2MeshReader.read(su2File, numVars, bcs);
+        assertTrue(mesh instanceof Unstructured3DMesh);
+        assertSameMesh(new Unstructured3DMesh(cfduFile, numVars, bcs), mesh);
+        assertEquals(8.0, mesh.cells().stream().mapToDouble(cell -> cell.shape.volume).sum(), 1e-12);
+
+        if (!cfduFile.delete()) System.out.println("Unable to delete temporary file: " + cfduFile);
+    }
+
+    private static void assertSameMesh(Mesh expected, Mesh actual) {
+        assertEquals(expected.nodes().size(), actual.nodes().size());
+        for (int i = 0; i < expected.nodes().size(); i++) {
+            assertEquals(0, expected.nodes().get(i).location().distance(actual.nodes().get(i).location()), 1e-15);
+        }
+
+        assertEquals(expected.cells().size(), actual.cells().size());
+        for (int i = 0; i < expected.cells().size(); i++) {
+            Cell expectedCell = expected.cells().get(i);
+            Cell actualCell = actual.cells().get(i);
+            assertEquals(expectedCell.vtkType, actualCell.vtkType);
+            assertEquals(expectedCell.shape.volume, actualCell.shape.volume, 1e-15);
+            assertEquals(0, expectedCell.shape.centroid.distance(actualCell.shape.centroid), 1e-15);
+        }
+
+        assertEquals(expected.internalFaces().size(), actual.internalFaces().size());
+        for (int i = 0; i < expected.internalFaces().size(); i++) {
+            assertSameFace(expected.internalFaces().get(i), actual.internalFaces().get(i));
+        }
+
+        List<Boundary> expectedBoundaries = expected.boundaries();
+        List<Boundary> actualBoundaries = actual.boundaries();
+        assertEquals(expectedBoundaries.size(), actualBoundaries.size());
+        for (int b = 0; b < expectedBoundaries.size(); b++) {
+            assertEquals(expectedBoundaries.get(b).name, actualBoundaries.get(b).name);
+            assertEquals(expectedBoundaries.get(b).faces.size(), actualBoundaries.get(b).faces.size());
+            for (int i = 0; i < expectedBoundaries.get(b).faces.size(); i++) {
+                assertSameFace(expectedBoundaries.get(b).faces.get(i), actualBoundaries.get(b).faces.get(i));
+            }
+        }
+    }
+
+    private static void assertSameFace(Face expected, Face actual) {
+        assertEquals(expected.left.index(), actual.left.index());
+        assertEquals(expected.right.index(), actual.right.index());
+        assertEquals(expected.surface.area, actual.surface.area, 1e-15);
+        assertEquals(0, expected.surface.centroid.distance(actual.surface.centroid), 1e-15);
+        assertEquals(0, expected.surface.unitNormal().sub(actual.surface.unitNormal()).mag(), 1e-15);
+    }
+}
@@ -250,6 +250,34 @@ public class Unstructured3DMeshTest {
         TestHelper.assertBoundaryListEquals(expectedBoundaries, mesh.boundaries(), 1e-6);
     }
 
+    @Test
+    public void degenerateHexahedron() {
+        // The second hexahedron repeats a node: its edge at x = 2, y = 1, z = 1 is collapsed to a point
+        Point[] points = {
+                new Point(0, 0, 0), new Point(1, 0, 0), new Point(1, 1, 0), new Point(0, 1, 0),
+                new Point(0, 0, 1), new Point(1, 0, 1), new Point(1, 1, 1), new Point(0, 1, 1),
+                new Point(2, 0, 0), new Point(2, 1, 0), new Point(2, 0, 1)
+        };
+        int[][] elements = {{12, 0, 1, 2, 3, 4, 5, 6, 7}, {12, 1, 8, 9, 2, 5, 10, 10, 6}};
+        Map<String, int[][]> boundaryFaces = new LinkedHashMap<>();
+        boundaryFaces.put("top", new int[][]{{9, 4, 5, 6, 7}, {9, 5, 10, 10, 6}});
+        Unstructured3DMesh mesh = new Unstructured3DMesh(points, elements, boundaryFaces, numVars,
+                Map.of("top", dummyBC));
+
+        assertEquals(2, mesh.cells().size());
+        assertEquals(1, mesh.internalFaces().size());
+        Face internalFace = mesh.internalFaces().get(0);
+        assertEquals(mesh.cells().get(0), internalFace.left);
+        assertEquals(mesh.cells().get(1), internalFace.right);
+        assertEquals(1.0, internalFace.surface.area, 1e-12);
+
+        List<Face> topFaces = mesh.boundaries().get(0).faces;
+        assertEquals(2, topFaces.size());
+        assertEquals(mesh.cells().get(1), topFaces.get(1).left);
+        assertEquals(0.5, topFaces.get(1).surface.area, 1e-12);
+        assertEquals(1.0, topFaces.get(1).surface.unitNormal().z, 1e-12);
+    }
+
     @Test
     public void indexTest() throws FileNotFoundException {
         setupMesh();
@@ -0,0 +1,66 @@
+package main.physics.goveqn;
+
+import main.geom.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ConvectionTest {
+
+    /**
+     * Compares the flux Jacobian of the convection with central differences of its flux.
+     */
+    public static void assertFluxJacobian(Convection convection, double[] conservativeVars, Vector unitNormal,
+                                          double tolerance) {
+        int numVars = conservativeVars.length;
+        double[][] jacobian = new double[numVars][numVars];
+        convection.fluxJacobian(conservativeVars, unitNormal, jacobian);
+
+        for (int j = 0; j < numVars; j++) {
+            double h = 1e-6 * Math.max(1.0, Math.abs(conservativeVars[j]));
+            double[] U = conservativeVars.clone();
+            U[j] = conservativeVars[j] + h;
+            double[] fluxPlus = convection.flux(U, unitNormal);
+            U[j] = conservativeVars[j] - h;
+            double[] fluxMinus = convection.flux(U, unitNormal);
+            for (int i = 0; i < numVars; i++) {
+                double expected = (fluxPlus[i] - fluxMinus[i]) / (2 * h);
+                double scale = Math.max(1.0, Math.abs(expected));
+                assertEquals(expected / scale, jacobian[i][j] / scale, tolerance,
+                        "d flux[" + i + "] / d U[" + j + "]");
+            }
+        }
+    }
+
+    @Test
+    public void default_fluxJacobian_differentiates_flux() {
+        Convection convection = new Convection() {
+            @Override
+            public double[] flux(double[] conservativeVars, Vector unitNormal) {
+                double a = conservativeVars[0];
+                double b = conservativeVars[1];
+                return new double[]{a * b * unitNormal.x, a * a + 3 * b * unitNormal.y};
+            }
+
+            @Override
+            public double[] sortedEigenvalues(double[] conservativeVars, Vector unitNormal) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public double maxAbsEigenvalues(double[] conservativeVars, Vector unitNormal) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        double[] conservativeVars = {2.5, -1.5};
+        Vector unitNormal = new Vector(3, 4, 0).unit();
+        double[][] jacobian = new double[2][2];
+        convection.fluxJacobian(conservativeVars, unitNormal, jacobian);
+
+        assertEquals(-1.5 * 0.6, jacobian[0][0], 1e-6);
+        assertEquals(2.5 * 0.6, jacobian[0][1], 1e-6);
+        assertEquals(5.0, jacobian[1][0], 1e-6);
+        assertEquals(3 * 0.8, jacobian[1][1], 1e-6);
+    }
+}
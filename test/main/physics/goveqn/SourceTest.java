@@ -0,0 +1,31 @@
+package main.physics.goveqn;
+
+import main.geom.Point;
+import main.geom.Vector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SourceTest {
+
+    @Test
+    public void default_jacobian_differentiates_sourceVector() {
+        Source source = (at, conservativeVars, gradConservativeVars) -> {
+            double a = conservativeVars[0];
+            double b = conservativeVars[1];
+            return new double[]{a * b * at.x, a * a + 3 * b + gradConservativeVars[0].y};
+        };
+
+        double[] conservativeVars = {2.5, -1.5};
+        Vector[] gradients = {new Vector(1, 7, 0), new Vector(0, 0, 0)};
+        double[][] jacobian = new double[2][2];
+        source.jacobian(new Point(0.6, 0, 0), conservativeVars, gradients, jacobian);
+
+        assertEquals(-1.5 * 0.6, jacobian[0][0], 1e-6);
+        assertEquals(2.5 * 0.6, jacobian[0][1], 1e-6);
+        assertEquals(5.0, jacobian[1][0], 1e-6);
+        assertEquals(3.0, jacobian[1][1], 1e-6);
+        assertArrayEquals(new double[]{2.5, -1.5}, conservativeVars, 0.0);
+    }
+}
@@ -36,4 +36,16 @@ public class ZeroConvectionTest {
         assertEquals(0, new ZeroConvection(3).maxAbsEigenvalues(conservativeVars, unitNormal),
                 1e-15);
     }
+
+    @Test
+    public void fluxJacobian_is_always_zero() {
+        double[] conservativeVars = {8.2, 7.8, 3.47};
+        Vector unitNormal = new Vector(-5.9, -3, -0).unit();
+        double[][] jacobian = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+
+        new ZeroConvection(3).fluxJacobian(conservativeVars, unitNormal, jacobian);
+        for (double[] row : jacobian) {
+            assertArrayEquals(new double[]{0, 0, 0}, row, 1e-15);
+        }
+    }
 }
@@ -32,4 +32,16 @@ public class ZeroDiffusionTest {
 
         assertEquals(0, actualDiffusivity, 1e-15);
     }
+
+    @Test
+    public void fluxJacobian_is_always_zero() {
+        double[] conservativeVars = {1, 6, 4};
+        Vector unitNormal = new Vector(1, 2, 3).unit();
+        double[][] jacobian = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+
+        new ZeroDiffusion(3).fluxJacobian(conservativeVars, unitNormal, jacobian);
+        for (double[] row : jacobian) {
+            assertArrayEquals(new double[]{0, 0, 0}, row, 1e-15);
+        }
+    }
 }
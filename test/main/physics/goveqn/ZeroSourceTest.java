@@ -12,4 +12,14 @@ public class ZeroSourceTest {
         ZeroSource zeroSource = new ZeroSource(expectedVector.length);
         assertArrayEquals(expectedVector, zeroSource.sourceVector(null, null, null), 1e-15);
     }
+
+    @Test
+    public void jacobian_is_always_zero() {
+        double[][] jacobian = {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}};
+
+        new ZeroSource(3).jacobian(null, new double[]{8.2, 7.8, 3.47}, null, jacobian);
+        for (double[] row : jacobian) {
+            assertArrayEquals(new double[]{0, 0, 0}, row, 1e-15);
+        }
+    }
 }
@@ -4,6 +4,7 @@ import main.geom.Vector;
 import main.physics.goveqn.GoverningEquations;
 import org.junit.jupiter.api.Test;
 
+import static main.physics.goveqn.ConvectionTest.assertFluxJacobian;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -260,4 +261,12 @@ public class ArtificialCompressibilityEquationsTest {
         assertArrayEquals(new double[]{0, gravity.x, gravity.y, gravity.z},
                 govEqn.source().sourceVector(null, conservativeVars, gradConservativeVars), 1e-15);
     }
+
+    @Test
+    public void convection_fluxJacobian() {
+        GoverningEquations govEqn = new ArtificialCompressibilityEquations(5.0, 1e-5, new Vector(1, -8, 7));
+        Vector unitNormal = new Vector(1.2, -0.7, 2.3).unit();
+
+        assertFluxJacobian(govEqn.convection(), new double[]{120, 0.3, 1.2, -8.9}, unitNormal, 1e-7);
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 
+import static main.physics.goveqn.ConvectionTest.assertFluxJacobian;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -509,4 +510,42 @@ public class ArtificialCompressibilityVOFEquationsTest {
         };
         assertArrayEquals(expectedSource, govEqn.source().sourceVector(null, conservativeVars, gradientU), 1e-15);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void source_jacobian() {
+        Vector gravity = new Vector(-1, -5, 3.0);
+        ArtificialCompressibilityVOFEquations govEqn
+                = new ArtificialCompressibilityVOFEquations(1000, 1e-3, 100, 2.5e-3, gravity, BETA);
+
+        double[][] expected = new double[5][5];
+        expected[1][4] = 900 * gravity.x;
+        expected[2][4] = 900 * gravity.y;
+        expected[3][4] = 900 * gravity.z;
+        double[][] jacobian = new double[5][5];
+        govEqn.source().jacobian(null, new double[]{0.2, 3, 4, 5, 0.4}, null, jacobian);
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(expected[i], jacobian[i], 1e-12);
+        }
+
+        // the density is constant outside the interface
+        govEqn.source().jacobian(null, new double[]{0.2, 3, 4, 5, 1.0}, null, jacobian);
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(new double[5], jacobian[i], 0.0);
+        }
+    }
+
+    @Test
+    public void convection_fluxJacobian() {
+        ArtificialCompressibilityVOFEquations govEqn = new ArtificialCompressibilityVOFEquations(
+                1000, 1e-3, 1.2, 1.8e-5, new Vector(0, -9.81, 0), BETA);
+        Vector unitNormal = new Vector(0.8, -0.3, 0.5).unit();
+
+        // inside the interface, where the density depends on the volume fraction
+        double[] conservativeVars = govEqn.conservativeVars(new double[]{250, 1.3, -0.4, 0.7, 0.35});
+        assertFluxJacobian(govEqn.convection(), conservativeVars, unitNormal, 1e-6);
+
+        // inside one fluid
+        conservativeVars = govEqn.conservativeVars(new double[]{250, 1.3, -0.4, 0.7, 1.5});
+        assertFluxJacobian(govEqn.convection(), conservativeVars, unitNormal, 1e-6);
+    }
+}
@@ -7,6 +7,7 @@ import java.util.Random;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
+import static main.physics.goveqn.ConvectionTest.assertFluxJacobian;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -235,4 +236,23 @@ public class EulerEquationsTest {
             assertEquals(expected[i] / scale, actual[i] / scale, 1.0e-12);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void convection_fluxJacobian() {
+        Random rnd = new Random(rndSeedEulerEquationsTest);
+        double gamma = 1 + rnd.nextDouble();
+        EulerEquations eulerEquations = new EulerEquations(gamma);
+
+        double[] primitiveVars = {
+                0.5 + rnd.nextDouble(),
+                (rnd.nextDouble() - 0.5) * 400,
+                (rnd.nextDouble() - 0.5) * 400,
+                (rnd.nextDouble() - 0.5) * 400,
+                1e5 * (0.5 + rnd.nextDouble())
+        };
+        Vector unitNormal = new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5).unit();
+
+        assertFluxJacobian(eulerEquations.convection(), eulerEquations.conservativeVars(primitiveVars),
+                unitNormal, 1e-6);
+    }
+}
@@ -158,6 +158,32 @@ public class GrainGrowthFanChenEquationsTest {
                 govEqn.source().sourceVector(null, U, null), 1e-12);
     }
 
+    @Test
+    public void source_jacobian() {
+        var govEqn = new GrainGrowthFanChenEquations(6,
+                1.5, 2.8, 5.8,
+                new double[]{1.4, 2.3, -8.1, 8, 7, 4.2},
+                new double[]{56.7, -92.3, 7.5, -8, -9, 5});
+        double[] U = {
+                0.8, 0.7, 1.0, 0.0, 0.1, 0.005
+        };
+
+        double[][] jacobian = new double[U.length][U.length];
+        govEqn.source().jacobian(null, U, null, jacobian);
+        double h = 1e-6;
+        for (int j = 0; j < U.length; j++) {
+            double[] Up = U.clone();
+            double[] Um = U.clone();
+            Up[j] += h;
+            Um[j] -= h;
+            double[] Sp = govEqn.source().sourceVector(null, Up, null);
+            double[] Sm = govEqn.source().sourceVector(null, Um, null);
+            for (int i = 0; i < U.length; i++) {
+                assertEquals((Sp[i] - Sm[i]) / (2 * h), jacobian[i][j], 1e-6, "i = " + i + ", j = " + j);
+            }
+        }
+    }
+
     private double[] sourceTerm(double[] eta, double alpha, double beta, double gamma, double[] L) {
         double[] sourceTerm = new double[eta.length];
         for (int i = 0; i < eta.length; i++) {
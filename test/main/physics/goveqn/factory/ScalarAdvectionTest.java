@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Random;
 
+import static main.physics.goveqn.ConvectionTest.assertFluxJacobian;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -166,4 +167,16 @@ public class ScalarAdvectionTest {
                         }),
                 1e-12);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void convection_fluxJacobian() {
+        Random rnd = new Random(rndSeed);
+        double ax = (rnd.nextDouble() - 0.5) * 5;
+        double ay = (rnd.nextDouble() - 0.5) * 5;
+        double az = (rnd.nextDouble() - 0.5) * 5;
+        ScalarAdvection govEqn = new ScalarAdvection(ax, ay, az);
+        Vector unitNormal = new Vector(rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5, rnd.nextDouble() - 0.5).unit();
+
+        assertFluxJacobian(govEqn.convection(), new double[]{rnd.nextDouble() * 10}, unitNormal, 1e-8);
+    }
+}
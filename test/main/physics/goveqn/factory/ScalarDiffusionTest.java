@@ -97,4 +97,16 @@ public class ScalarDiffusionTest {
                         new Vector(1, 1, 1)
                 }), 1e-15);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void diffusion_fluxJacobian() {
+        Diffusion diffusion = new ScalarDiffusion(2.781).diffusion();
+        Vector unitNormal = new Vector(1, -2, 3).unit();
+        double[] conservativeVars = {4.5};
+        double[] flux = diffusion.flux(conservativeVars, new Vector[]{unitNormal.mult(1.7)}, unitNormal);
+
+        double[][] jacobian = new double[1][1];
+        diffusion.fluxJacobian(conservativeVars, unitNormal, jacobian);
+        assertEquals(flux[0] / 1.7, jacobian[0][0], 1e-12);
+    }
+}
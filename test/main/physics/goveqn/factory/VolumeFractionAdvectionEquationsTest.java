@@ -6,6 +6,7 @@ import main.physics.goveqn.Diffusion;
 import main.physics.goveqn.Source;
 import org.junit.jupiter.api.Test;
 
+import static main.physics.goveqn.ConvectionTest.assertFluxJacobian;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -195,4 +196,17 @@ public class VolumeFractionAdvectionEquationsTest {
                 source.sourceVector(null, conservativeVars, gradConservativeVars),
                 1e-15);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void convection_fluxJacobian() {
+        Convection convection = new VolumeFractionAdvectionEquations().convection();
+        Vector unitNormal = new Vector(0.6, -0.2, 0.9).unit();
+        Vector unitGradC = new Vector(0.3, -0.9, 0.2).unit();
+
+        double[] conservativeVars = {0.4, 1.2, -0.5, 0.8, unitGradC.x, unitGradC.y, unitGradC.z};
+        assertFluxJacobian(convection, conservativeVars, unitNormal, 1e-6);
+
+        conservativeVars = new double[]{0.7, -1.2, 0.5, -0.8, -unitGradC.x, -unitGradC.y, -unitGradC.z};
+        assertFluxJacobian(convection, conservativeVars, unitNormal, 1e-6);
+    }
+}
@@ -0,0 +1,177 @@
+package main.solver;
+
+import main.io.CheckpointWriter;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.EulerEquations;
+import main.physics.goveqn.factory.ScalarAdvection;
+import main.solver.time.ThreePointTimeDiscretization;
+import main.solver.time.TimeDiscretization;
+import main.solver.time.TwoPointTimeDiscretization;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointInitializerTest {
+
+    private static Mesh createMesh(GoverningEquations govEqn) throws IOException {
+        File meshFile = new File("test/test_data/mesh_unstructured_2d.cfdu");
+        return new Unstructured2DMesh(meshFile, govEqn.numVars(), Map.of());
+    }
+
+    private static void randomize(Mesh mesh) {
+        Random rnd = new Random(54);
+        mesh.cells().forEach(cell -> {
+            for (double[] array : new double[][]{cell.U, cell.Wn, cell.Wnm1, cell.Wnm2}) {
+                for (int var = 0; var < array.length; var++) {
+                    array[var] = rnd.nextDouble();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void restore() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        randomize(mesh);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        TimeDiscretization timeDiscretization = new ThreePointTimeDiscretization(mesh, govEqn, 0.25);
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 12.5, 50, 12345, timeDiscretization);
+
+        Mesh restoredMesh = createMesh(govEqn);
+        CheckpointInitializer initializer = new CheckpointInitializer(file);
+        initializer.initialize(restoredMesh, govEqn);
+
+        for (int i = 0; i < mesh.cells().size(); i++) {
+            assertArrayEquals(mesh.cells().get(i).U, restoredMesh.cells().get(i).U);
+            assertArrayEquals(mesh.cells().get(i).Wn, restoredMesh.cells().get(i).Wn);
+            assertArrayEquals(mesh.cells().get(i).Wnm1, restoredMesh.cells().get(i).Wnm1);
+            assertArrayEquals(mesh.cells().get(i).Wnm2, restoredMesh.cells().get(i).Wnm2);
+        }
+        assertEquals(12.5, initializer.realTime());
+        assertEquals(50, initializer.realTimeIteration());
+        assertEquals(12345, initializer.pseudoIteration());
+
+        TimeDiscretization restored = initializer.timeDiscretization(restoredMesh, govEqn);
+        assertTrue(restored instanceof ThreePointTimeDiscretization);
+        assertEquals(0.25, restored.dt());
+    }
+
+    @Test
+    public void steady_and_two_point() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        CheckpointWriter writer = new CheckpointWriter(mesh, govEqn.numVars());
+
+        writer.write(file, 0.0, 0, 10, null);
+        assertNull(new CheckpointInitializer(file).timeDiscretization(mesh, govEqn));
+
+        writer.write(file, 0.1, 1, 20, new TwoPointTimeDiscretization(mesh, govEqn, 0.1));
+        CheckpointInitializer initializer = new CheckpointInitializer(file);
+        assertTrue(initializer.timeDiscretization(mesh, govEqn) instanceof TwoPointTimeDiscretization);
+        assertEquals(20, initializer.pseudoIteration());
+    }
+
+    @Test
+    public void corrupted() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        randomize(mesh);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(100);
+            int b = raf.read();
+            raf.seek(100);
+            raf.write(b ^ 0xFF);
+        }
+
+        CheckpointInitializer initializer = new CheckpointInitializer(file);
+        assertThrows(UncheckedIOException.class, () -> initializer.initialize(createMesh(govEqn), govEqn));
+    }
+
+    @Test
+    public void mismatched_variables() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+
+        GoverningEquations otherGovEqn = new ScalarAdvection(1, 1, 1);
+        CheckpointInitializer initializer = new CheckpointInitializer(file);
+        assertThrows(IllegalArgumentException.class,
+                () -> initializer.initialize(createMesh(otherGovEqn), otherGovEqn));
+    }
+
+    @Test
+    public void several_chunks() throws IOException {
+        // More cells than a chunk of the writer, with a partial last chunk
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = new BoxMeshGenerator(40000).structured1DMesh(govEqn.numVars(), null, null);
+        randomize(mesh);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+
+        Mesh restoredMesh = new BoxMeshGenerator(40000).structured1DMesh(govEqn.numVars(), null, null);
+        new CheckpointInitializer(file).initialize(restoredMesh, govEqn);
+        for (int i = 0; i < mesh.cells().size(); i++) {
+            assertArrayEquals(mesh.cells().get(i).U, restoredMesh.cells().get(i).U);
+            assertArrayEquals(mesh.cells().get(i).Wnm2, restoredMesh.cells().get(i).Wnm2);
+        }
+    }
+
+    @Test
+    public void corrupted_leaves_cells_unchanged() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        randomize(mesh);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(raf.length() - 20);
+            int b = raf.read();
+            raf.seek(raf.length() - 20);
+            raf.write(b ^ 0xFF);
+        }
+
+        Mesh restoredMesh = createMesh(govEqn);
+        CheckpointInitializer initializer = new CheckpointInitializer(file);
+        assertThrows(UncheckedIOException.class, () -> initializer.initialize(restoredMesh, govEqn));
+        restoredMesh.cells().forEach(cell -> assertArrayEquals(new double[govEqn.numVars()], cell.U));
+    }
+
+    @Test
+    public void invalid_size() throws IOException {
+        GoverningEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = createMesh(govEqn);
+        File file = new File("test/test_data/test_checkpoint.bin");
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+
+        // Number of cells whose data size overflows
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(16);
+            raf.writeLong(Long.reverseBytes(Long.MAX_VALUE / 8));
+        }
+        assertThrows(IOException.class, () -> new CheckpointInitializer(file));
+
+        // Truncated file
+        new CheckpointWriter(mesh, govEqn.numVars()).write(file, 1.0, 1, 1, null);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+        assertThrows(IOException.class, () -> new CheckpointInitializer(file));
+    }
+}
@@ -0,0 +1,112 @@
+package main.solver;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.mesh.factory.Unstructured2DMesh;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ScalarAdvection;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MeshInterpolationInitializerTest {
+
+    private static double f(Point p) {
+        return 2.0 * p.x - 3.0 * p.y + 1.0;
+    }
+
+    /**
+     * Uniform mesh over [0, 4] x [0, 3] with the given spacing.
+     */
+    private static Mesh createMesh(GoverningEquations govEqn, double h) throws IOException {
+        int num_xi = (int) Math.round(4 / h) + 1;
+        int num_eta = (int) Math.round(3 / h) + 1;
+        File meshFile = new File("test/test_data/tempMeshFile.cfds");
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\n");
+            writer.write("xi = " + num_xi + "\neta = " + num_eta + "\n");
+            for (int i = 0; i < num_xi; i++) {
+                for (int j = 0; j < num_eta; j++) {
+                    writer.write(String.format("%-20.15f %-20.15f %-20.15f\n", i * h, j * h, 0.0));
+                }
+            }
+        }
+        return new Structured2DMesh(meshFile, govEqn.numVars(), null, null, null, null);
+    }
+
+    @Test
+    public void same_mesh() throws IOException {
+        GoverningEquations govEqn = new ScalarAdvection(1, 0, 0);
+        Mesh source = createMesh(govEqn, 1.0);
+        source.cellStream().forEach(cell -> cell.U[0] = cell.index());
+        Mesh target = createMesh(govEqn, 1.0);
+
+        new MeshInterpolationInitializer(source).initialize(target, govEqn);
+
+        for (Cell cell : target.cells()) {
+            assertEquals(cell.index(), cell.U[0], 1e-12);
+            assertEquals(cell.index(), cell.Wn[0], 1e-12);
+        }
+    }
+
+    @Test
+    public void coarse_to_fine_linear() throws IOException {
+        GoverningEquations govEqn = new ScalarAdvection(1, 0, 0);
+        Mesh source = createMesh(govEqn, 1.0);
+        source.cellStream().forEach(cell -> {
+            cell.U[0] = f(cell.shape.centroid);
+            cell.gradientU[0] = new Vector(2.0, -3.0, 0.0);
+        });
+        Mesh target = createMesh(govEqn, 0.5);
+
+        new MeshInterpolationInitializer(source).initialize(target, govEqn);
+
+        for (Cell cell : target.cells()) {
+            Point p = cell.shape.centroid;
+            Cell sourceCell = source.cells().get((int) Math.floor(p.x) * 3 + (int) Math.floor(p.y));
+            boolean interior = p.x > 1 && p.x < 3 && p.y > 1 && p.y < 2;
+            if (interior) {
+                assertEquals(f(p), cell.U[0], 1e-12);
+            } else { // linear reconstruction is limited at the boundary, but never outside the source range
+                assertTrue(cell.U[0] >= f(new Point(0.5, 2.5, 0)) - 1e-12);
+                assertTrue(cell.U[0] <= f(new Point(3.5, 0.5, 0)) + 1e-12);
+            }
+            assertTrue(Math.abs(cell.U[0] - sourceCell.U[0]) <= 1.25 + 1e-12);
+        }
+    }
+
+    @Test
+    public void coarse_to_fine_without_gradients() throws IOException {
+        GoverningEquations govEqn = new ScalarAdvection(1, 0, 0);
+        Mesh source = createMesh(govEqn, 1.0);
+        source.cellStream().forEach(cell -> {
+            cell.U[0] = f(cell.shape.centroid);
+            cell.gradientU[0] = new Vector(2.0, -3.0, 0.0);
+        });
+        Mesh target = createMesh(govEqn, 0.5);
+
+        MeshInterpolationInitializer initializer = new MeshInterpolationInitializer(source);
+        initializer.setUseGradients(false);
+        initializer.initialize(target, govEqn);
+
+        for (Cell cell : target.cells()) {
+            Point p = cell.shape.centroid;
+            Point sourceCentroid = new Point(Math.floor(p.x) + 0.5, Math.floor(p.y) + 0.5, 0);
+            assertEquals(f(sourceCentroid), cell.U[0], 1e-12);
+        }
+    }
+
+    @Test
+    public void empty_source_mesh() {
+        Mesh empty = new Unstructured2DMesh(new Point[0], new int[0][], Map.of(), 1, Map.of());
+        assertThrows(IllegalArgumentException.class, () -> new MeshInterpolationInitializer(empty));
+    }
+}
@@ -0,0 +1,192 @@
+package main.solver;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.factory.ArtificialCompressibilityVOFEquations;
+import main.physics.goveqn.factory.VolumeFractionAdvectionEquations;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NarrowBandTest {
+    private static final VolumeFractionAdvectionEquations govEqn = new VolumeFractionAdvectionEquations();
+    private static final int numCells = 20;
+
+    private static Mesh createMesh() throws IOException {
+        File meshFile = File.createTempFile("narrow_band", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\nxi = " + (numCells + 1) + "\neta = " + (numCells + 1) + "\n");
+            for (int i = 0; i <= numCells; i++) {
+                for (int j = 0; j <= numCells; j++) {
+                    writer.write((1.0 * i / numCells) + " " + (1.0 * j / numCells) + " 0\n");
+                }
+            }
+        }
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        return new Structured2DMesh(meshFile, govEqn.numVars(), bc, bc, bc, bc);
+    }
+
+    private static void setVolumeFraction(Mesh mesh, double interfaceX) {
+        for (Cell cell : mesh.cells()) {
+            double x = cell.shape.centroid.x;
+            double y = cell.shape.centroid.y;
+            cell.U[0] = x < interfaceX - 0.05 ? 1.0 : x > interfaceX + 0.05 ? 0.0 : 0.5 + 0.1 * y;
+            cell.U[1] = 1.0 + x * y;
+            cell.U[2] = x - y;
+        }
+        mesh.boundaryStream().forEach(b -> b.faces.forEach(f -> b.bc().orElseThrow().setGhostCellValues(f)));
+    }
+
+    private static boolean inExpectedBand(Cell cell, double interfaceX, int bufferLayers) {
+        double dx = 1.0 / numCells;
+        return Math.abs(cell.shape.centroid.x - interfaceX) < 0.05 + (1 + bufferLayers) * dx;
+    }
+
+    @Test
+    public void band_contains_interface_and_buffer_layers() throws IOException {
+        Mesh mesh = createMesh();
+        setVolumeFraction(mesh, 0.5);
+
+        NarrowBand band = new NarrowBand(mesh, 0, 0.0, new FaceBasedCellNeighbors(), 2);
+        band.update();
+        int expectedSize = 0;
+        for (Cell cell : mesh.cells()) {
+            boolean expected = inExpectedBand(cell, 0.5, 2);
+            assertEquals(expected, band.contains(cell), "x = " + cell.shape.centroid.x);
+            if (expected) expectedSize++;
+        }
+        assertEquals(expectedSize, band.size());
+    }
+
+    @Test
+    public void incremental_update_follows_interface() throws IOException {
+        Mesh mesh = createMesh();
+        setVolumeFraction(mesh, 0.5);
+        NarrowBand band = new NarrowBand(mesh, 0, 0.0, new FaceBasedCellNeighbors());
+        band.setIncremental(true);
+        band.update();
+
+        // move the interface by one cell per update, as in an explicit time step
+        for (double interfaceX = 0.55; interfaceX < 0.8; interfaceX += 0.05) {
+            setVolumeFraction(mesh, interfaceX);
+            band.update();
+            for (Cell cell : mesh.cells()) {
+                assertEquals(inExpectedBand(cell, interfaceX, 1), band.contains(cell),
+                        "interface = " + interfaceX + ", x = " + cell.shape.centroid.x);
+            }
+        }
+    }
+
+    @Test
+    public void artificial_compressibility_vof_changes_away_from_interface() throws IOException {
+        // The flux of C is C times the velocity, so that C changes in the whole liquid when the
+        // initial velocity is not divergence free
+        ArtificialCompressibilityVOFEquations acGovEqn = new ArtificialCompressibilityVOFEquations(
+                1000.0, 1e-3, 1.0, 1e-5, new Vector(0, 0, 0), 5.0);
+        ExtrapolatedBC bc = new ExtrapolatedBC(acGovEqn);
+        Mesh mesh = new BoxMeshGenerator(numCells, numCells).structured2DMesh(acGovEqn.numVars(), bc, bc, bc, bc);
+        for (Cell cell : mesh.cells()) {
+            double x = cell.shape.centroid.x;
+            double C = x < 0.7 ? 1.0 : 0.0;
+            System.arraycopy(acGovEqn.conservativeVars(new double[]{0.0, 0.1 * x, 0.0, 0.0, C}), 0,
+                    cell.U, 0, acGovEqn.numVars());
+        }
+
+        NarrowBand band = new NarrowBand(mesh, 4, 0.0, new FaceBasedCellNeighbors());
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(new ConvectionResidual(new PiecewiseConstantReconstructor(),
+                        new RusanovRiemannSolver(acGovEqn), mesh)));
+        spaceDiscretization.setNarrowBand(band);
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, acGovEqn), acGovEqn.numVars());
+        timeIntegrator.setCourantNum(0.5);
+        timeIntegrator.updateCellAverages();
+        band.update(); // as in the next stage
+
+        boolean changedAwayFromInterface = false;
+        for (Cell cell : mesh.cells()) {
+            double C = cell.U[4];
+            if (C != 0.0 && C != 1.0) {
+                assertTrue(band.contains(cell), "x = " + cell.shape.centroid.x + ", C = " + C);
+                changedAwayFromInterface |= cell.shape.centroid.x < 0.3;
+            }
+        }
+        assertTrue(changedAwayFromInterface);
+    }
+
+    @Test
+    public void gradients_and_reconstruction_equal_those_without_band() throws IOException {
+        Mesh mesh = createMesh();
+        setVolumeFraction(mesh, 0.3);
+        assertSameAsWithoutBand(mesh, new FaceBasedCellNeighbors(), 2);
+    }
+
+    @Test
+    public void node_based_stencil_on_triangle_mesh() {
+        // Sharp circular interface, where the node neighbours of a cell can be two faces away from
+        // the interface cells
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        Mesh mesh = new BoxMeshGenerator(numCells, numCells).triangleMesh(govEqn.numVars(), Map.of(
+                "xi min", bc, "xi max", bc, "eta min", bc, "eta max", bc));
+        Point centre = new Point(0.45, 0.55, 0.0);
+        for (Cell cell : mesh.cells()) {
+            cell.U[0] = cell.shape.centroid.distance(centre) < 0.27 ? 1.0 : 0.0;
+            cell.U[1] = 1.0 + cell.shape.centroid.x;
+            cell.U[2] = cell.shape.centroid.y;
+        }
+        mesh.boundaryStream().forEach(b -> b.faces.forEach(f -> b.bc().orElseThrow().setGhostCellValues(f)));
+
+        assertSameAsWithoutBand(mesh, new NodeBasedCellNeighbors(), 2);
+    }
+
+    private static void assertSameAsWithoutBand(Mesh mesh, CellNeighborCalculator stencil, int numVars) {
+        LeastSquareCellGradient gradient = new LeastSquareCellGradient(mesh, stencil);
+        VKLimiterReconstructor reconstructor = new VKLimiterReconstructor(mesh, govEqn, new NodeBasedCellNeighbors());
+        gradient.setupAllCells();
+        reconstructor.reconstruct();
+        Vector[][] expectedGradients = mesh.cells().stream()
+                .map(cell -> cell.gradientU.clone()).toArray(Vector[][]::new);
+        double[][][] expectedCoeffs = mesh.cells().stream()
+                .map(cell -> new double[][]{cell.reconstructCoeffs[0].clone(), cell.reconstructCoeffs[1].clone()})
+                .toArray(double[][][]::new);
+
+        NarrowBand band = new NarrowBand(mesh, 0, 0.0, stencil);
+        band.update();
+        gradient.setNarrowBand(band);
+        reconstructor.setNarrowBand(band);
+        gradient.setupAllCells();
+        reconstructor.reconstruct();
+
+        assertTrue(band.size() < mesh.cells().size());
+        for (Cell cell : mesh.cells()) {
+            int index = cell.index();
+            for (int var = 0; var < numVars; var++) {
+                Vector expected = expectedGradients[index][var];
+                Vector actual = cell.gradientU[var];
+                assertEquals(expected.x, actual.x, 0.0);
+                assertEquals(expected.y, actual.y, 0.0);
+                assertEquals(expected.z, actual.z, 0.0);
+                assertArrayEquals(expectedCoeffs[index][var], cell.reconstructCoeffs[var], 0.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package main.solver;
+
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.GoverningEquations;
+import main.physics.goveqn.factory.ScalarAdvection;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseProfilerTest {
+
+    @BeforeEach
+    public void setUp() {
+        PhaseProfiler.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        PhaseProfiler.disable();
+        PhaseProfiler.setLogInterval(0);
+        PhaseProfiler.reset();
+    }
+
+    private static TimeIntegrator createTimeIntegrator() throws IOException {
+        GoverningEquations govEqn = new ScalarAdvection(1.0, 0.5, 0.0);
+        BoundaryCondition bc = new ExtrapolatedBC(govEqn);
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"),
+                govEqn.numVars(), bc, bc, bc, bc);
+        new FunctionInitializer(p -> new double[]{p.x}).initialize(mesh, govEqn);
+        ResidualCalculator convection = new ConvectionResidual(new PiecewiseConstantReconstructor(),
+                new RusanovRiemannSolver(govEqn), mesh);
+        return new ExplicitEulerTimeIntegrator(mesh,
+                new SpaceDiscretization(mesh, new GreenGaussCellGradient(mesh), List.of(convection)),
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+    }
+
+    @Test
+    public void disabled() throws IOException {
+        TimeIntegrator timeIntegrator = createTimeIntegrator();
+        timeIntegrator.updateCellAverages();
+        timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+
+        assertEquals(0, PhaseProfiler.start());
+        assertEquals(0, PhaseProfiler.iterations());
+        for (PhaseProfiler.PhaseTime phaseTime : PhaseProfiler.summary()) {
+            assertEquals(0, phaseTime.calls());
+            assertEquals(0, phaseTime.nanos());
+        }
+    }
+
+    @Test
+    public void enabled() throws IOException {
+        TimeIntegrator timeIntegrator = createTimeIntegrator();
+        PhaseProfiler.enable();
+        for (int iter = 0; iter < 3; iter++) {
+            timeIntegrator.updateCellAverages();
+            timeIntegrator.currentTotalResidual(Norm.TWO_NORM);
+        }
+
+        assertEquals(3, PhaseProfiler.iterations());
+        List<PhaseProfiler.PhaseTime> summary = PhaseProfiler.summary();
+        assertEquals(Phase.values().length, summary.size());
+        for (PhaseProfiler.PhaseTime phaseTime : summary) {
+            long expectedCalls = switch (phaseTime.phase()) {
+                case PRIMITIVE_CACHE, NARROW_BAND, DIFFUSION, SOURCE, REAL_TIME -> 0;
+                case UPDATE -> 6; // save and update (with the residual norms) in each iteration
+                default -> 3;
+            };
+            assertEquals(expectedCalls, phaseTime.calls(), phaseTime.phase().label);
+            assertEquals(expectedCalls == 0, phaseTime.nanos() == 0, phaseTime.phase().label);
+        }
+        assertTrue(PhaseProfiler.summaryLine().contains("convective flux"));
+        assertFalse(PhaseProfiler.summaryLine().contains("diffusion"));
+    }
+
+    @Test
+    public void stop_ignores_phase_started_while_disabled() {
+        long start = PhaseProfiler.start();
+        PhaseProfiler.enable();
+        PhaseProfiler.stop(Phase.SOURCE, start);
+
+        assertEquals(0, PhaseProfiler.summary().get(Phase.SOURCE.ordinal()).calls());
+    }
+
+    @Test
+    public void invalid_log_interval() {
+        assertThrows(IllegalArgumentException.class, () -> PhaseProfiler.setLogInterval(-1));
+    }
+}
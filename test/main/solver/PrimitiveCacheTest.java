@@ -0,0 +1,106 @@
+package main.solver;
+
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.InviscidWallBC;
+import main.physics.goveqn.factory.EulerEquations;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.reconstructor.SolutionReconstructor;
+import main.solver.convection.reconstructor.VKLimiterReconstructor;
+import main.solver.convection.riemann.HLLRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+public class PrimitiveCacheTest {
+    private static final EulerEquations govEqn = new EulerEquations(1.4);
+
+    private static Mesh createMesh() throws FileNotFoundException {
+        InviscidWallBC bc = new InviscidWallBC(govEqn);
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_structured_2d.cfds"),
+                govEqn.numVars(), bc, bc, bc, bc);
+
+        Random rnd = new Random(523);
+        mesh.cells().forEach(cell -> System.arraycopy(govEqn.conservativeVars(new double[]{
+                1.0 + rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble(), 0.0, 1.0 + rnd.nextDouble()
+        }), 0, cell.U, 0, govEqn.numVars()));
+
+        return mesh;
+    }
+
+    @Test
+    public void primitive_vars_of_cells_and_ghost_cells() throws FileNotFoundException {
+        Mesh mesh = createMesh();
+        mesh.boundaryStream().forEach(b -> b.faces.forEach(f -> b.bc().orElseThrow().setGhostCellValues(f)));
+
+        PrimitiveCache cache = new PrimitiveCache(mesh, govEqn);
+        cache.update();
+        for (Cell cell : mesh.cells()) {
+            assertArrayEquals(govEqn.primitiveVars(cell.U), cache.primitiveVars(cell), 0.0);
+        }
+        for (Face face : mesh.boundaries().getFirst().faces) {
+            assertArrayEquals(govEqn.primitiveVars(face.right.U), cache.primitiveVars(face.right), 0.0);
+        }
+    }
+
+    @Test
+    public void iterations_with_and_without_cache_are_identical() throws FileNotFoundException {
+        assertSameIterations(false);
+    }
+
+    @Test
+    public void second_order_iterations_with_and_without_cache_are_identical() throws FileNotFoundException {
+        assertSameIterations(true);
+    }
+
+    private static void assertSameIterations(boolean secondOrder) throws FileNotFoundException {
+        // Same mesh for both, since the order of the faces of a cell may differ between mesh instances
+        Mesh mesh = createMesh();
+        double[][] initialU = mesh.cells().stream().map(cell -> cell.U.clone()).toArray(double[][]::new);
+
+        iterate(mesh, secondOrder, false);
+        double[][] expectedU = mesh.cells().stream().map(cell -> cell.U.clone()).toArray(double[][]::new);
+
+        mesh.cells().forEach(cell -> System.arraycopy(initialU[cell.index()], 0, cell.U, 0, cell.U.length));
+        iterate(mesh, secondOrder, true);
+
+        for (Cell cell : mesh.cells()) {
+            assertArrayEquals(expectedU[cell.index()], cell.U, 0.0);
+        }
+    }
+
+    private static void iterate(Mesh mesh, boolean secondOrder, boolean cached) {
+        CellNeighborCalculator neighborCalculator = new FaceBasedCellNeighbors();
+        CellGradientCalculator cellGradientCalculator = secondOrder
+                ? new LeastSquareCellGradient(mesh, neighborCalculator)
+                : new ZeroCellGradient(mesh);
+        SolutionReconstructor reconstructor = secondOrder
+                ? new VKLimiterReconstructor(mesh, govEqn, neighborCalculator)
+                : new PiecewiseConstantReconstructor();
+        ConvectionResidual convectionResidual = new ConvectionResidual(reconstructor,
+                new HLLRiemannSolver(govEqn), mesh);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, cellGradientCalculator,
+                List.of(convectionResidual));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        if (cached) {
+            // Set only in the space discretization, after the time integrator
+            spaceDiscretization.setPrimitiveCache(new PrimitiveCache(mesh, govEqn));
+        }
+        timeIntegrator.setCourantNum(0.5);
+        for (int iter = 0; iter < 10; iter++) {
+            timeIntegrator.updateCellAverages();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import main.geom.Point;
 import main.geom.Vector;
 import main.geom.factory.Line;
 import main.mesh.Cell;
+import main.mesh.Face;
 import main.mesh.Mesh;
 import main.mesh.factory.Unstructured2DMesh;
 import main.physics.goveqn.factory.EulerEquations;
@@ -241,6 +242,29 @@ public class VKLimiterReconstructorTest {
         assertArrayEquals(expVars3, consVars3, 1e-8);
     }
 
+    @Test
+    public void reconstruct_at_faces_equals_reconstruct_at_face_centroids() throws FileNotFoundException {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        Mesh mesh = new Unstructured2DMesh(
+                new File("test/test_data/mesh_unstructured_2d.cfdu"), govEqn.numVars(), Map.of());
+
+        Vector[] gradients = gradientsNotLimited();
+        Point origin = mesh.cells().get(1).shape.centroid;
+        mesh.cellStream().forEach(c -> copy(linearReconstruct(gradients, origin, c.shape.centroid), c.U));
+
+        CellNeighborCalculator neighborsCalculator = new FaceBasedCellNeighbors();
+        new LeastSquareCellGradient(mesh, neighborsCalculator).setupAllCells();
+        SolutionReconstructor reconstructor = new VKLimiterReconstructor(mesh, govEqn, neighborsCalculator);
+        reconstructor.reconstruct();
+
+        for (Face face : mesh.internalFaces()) {
+            assertArrayEquals(reconstructor.conservativeVars(face.left, face.surface.centroid),
+                    reconstructor.conservativeVars(face, face.left), 0.0);
+            assertArrayEquals(reconstructor.conservativeVars(face.right, face.surface.centroid),
+                    reconstructor.conservativeVars(face, face.right), 0.0);
+        }
+    }
+
     private static double[] Phi(double[] minU, double[] maxU, double[] Ui, double[] Uj) {
         return IntStream.range(0, Ui.length)
                 .mapToDouble(var
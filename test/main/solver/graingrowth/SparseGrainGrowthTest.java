@@ -0,0 +1,232 @@
+package main.solver.graingrowth;
+
+import main.mesh.Cell;
+import main.geom.Point;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.mesh.factory.Structured1DMesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.factory.GrainGrowthFanChenEquations;
+import main.solver.FaceBasedCellNeighbors;
+import main.solver.LeastSquareCellGradient;
+import main.solver.SpaceDiscretization;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.source.SourceResidual;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static main.util.DoubleArray.newFilledArray;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SparseGrainGrowthTest {
+
+    private static GrainGrowthFanChenEquations govEqn(int numOrientations, double kappa) {
+        return new GrainGrowthFanChenEquations(numOrientations, 1.0, 1.0, 1.0,
+                newFilledArray(numOrientations, kappa), newFilledArray(numOrientations, 1.0));
+    }
+
+    private static Mesh create1DMesh(int numCells) throws IOException {
+        File meshFile = File.createTempFile("sparse_grain_growth", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 1\nmode = ASCII\nxi = " + (numCells + 1) + "\n");
+            for (int i = 0; i <= numCells; i++) {
+                writer.write((0.1 * i) + " 0 0\n");
+            }
+        }
+        return new Structured1DMesh(meshFile, 1, null, null);
+    }
+
+    @Test
+    public void sparse_order_parameters_keep_largest_values_sorted_by_orientation() {
+        SparseOrderParameters parameters = new SparseOrderParameters(2, 3);
+        int[] orientations = {40, 7, 12, 3, 99};
+        double[] values = {0.2, 0.9, 1e-6, 0.5, 0.3};
+        parameters.set(1, orientations, values, 5, 1e-4);
+
+        assertEquals(0, parameters.count(0));
+        assertEquals(3, parameters.count(1));
+        assertArrayEquals(new int[]{3, 7, 99}, new int[]{
+                parameters.orientation(1, 0), parameters.orientation(1, 1), parameters.orientation(1, 2)});
+        assertEquals(0.9, parameters.get(1, 7));
+        assertEquals(0.0, parameters.get(1, 40));
+        assertEquals(0.0, parameters.get(0, 7));
+        assertEquals(7, parameters.maxOrientation(1));
+        assertEquals(-1, parameters.maxOrientation(0));
+        assertEquals(0.5, parameters.toDense(1, 100)[3]);
+    }
+
+    @Test
+    public void source_equals_dense_source() throws IOException {
+        int numOrientations = 20;
+        GrainGrowthFanChenEquations govEqn = govEqn(numOrientations, 0.0003);
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_1cell_structured_2d.cfds"),
+                1, null, null, null, null);
+
+        Random random = new Random(65);
+        double[] dense = new double[numOrientations];
+        for (int i = 0; i < numOrientations; i += 4) {
+            dense[i] = random.nextDouble();
+        }
+
+        SparseGrainGrowth grainGrowth = new SparseGrainGrowth(mesh, govEqn, numOrientations, 0.0);
+        grainGrowth.initialize(p -> dense);
+        double dt = 0.01;
+        grainGrowth.step(dt);
+
+        double[] source = govEqn.source().sourceVector(null, dense, null);
+        double[] expected = new double[numOrientations];
+        for (int i = 0; i < numOrientations; i++) {
+            expected[i] = dense[i] == 0.0 ? 0.0 : dense[i] + dt * source[i];
+        }
+        assertArrayEquals(expected, grainGrowth.orderParameters().toDense(0, numOrientations), 1e-15);
+    }
+
+    @Test
+    public void diffusion_conserves_order_parameters() throws IOException {
+        // no source
+        GrainGrowthFanChenEquations govEqn = new GrainGrowthFanChenEquations(10, 0.0, 0.0, 0.0,
+                newFilledArray(10, 0.01), newFilledArray(10, 1.0));
+        Mesh mesh = create1DMesh(20);
+        SparseGrainGrowth grainGrowth = new SparseGrainGrowth(mesh, govEqn, 4, 0.0);
+        grainGrowth.initialize(p -> {
+            double[] eta = new double[10];
+            eta[p.x < 1.0 ? 2 : 5] = 1.0;
+            return eta;
+        });
+
+        double dt = grainGrowth.stableTimeStep(1.0);
+        for (int iter = 0; iter < 50; iter++) {
+            grainGrowth.step(dt);
+        }
+
+        SparseOrderParameters parameters = grainGrowth.orderParameters();
+        double total2 = 0.0, total5 = 0.0;
+        for (Cell cell : mesh.cells()) {
+            total2 += parameters.get(cell.index(), 2) * cell.shape.volume;
+            total5 += parameters.get(cell.index(), 5) * cell.shape.volume;
+        }
+        assertEquals(1.0, total2, 1e-12);
+        assertEquals(1.0, total5, 1e-12);
+    }
+
+    @Test
+    public void orientations_are_activated_only_near_grain_boundaries() throws IOException {
+        int numOrientations = 1000;
+        GrainGrowthFanChenEquations govEqn = govEqn(numOrientations, 0.0003);
+        Mesh mesh = create1DMesh(40);
+        SparseGrainGrowth grainGrowth = new SparseGrainGrowth(mesh, govEqn, 3, 1e-6);
+        grainGrowth.initialize(p -> {
+            double[] eta = new double[numOrientations];
+            eta[p.x < 2.0 ? 17 : 923] = 1.0;
+            return eta;
+        });
+
+        double dt = grainGrowth.stableTimeStep(0.5);
+        for (int iter = 0; iter < 100; iter++) {
+            grainGrowth.step(dt);
+        }
+
+        SparseOrderParameters parameters = grainGrowth.orderParameters();
+        for (Cell cell : mesh.cells()) {
+            int index = cell.index();
+            double x = cell.shape.centroid.x;
+            assertTrue(parameters.count(index) <= 3);
+            assertEquals(x < 2.0 ? 17 : 923, parameters.maxOrientation(index));
+            boolean nearBoundary = Math.abs(x - 2.0) < 0.2;
+            if (nearBoundary) {
+                assertEquals(2, parameters.count(index), "x = " + x);
+            }
+            if (Math.abs(x - 2.0) > 1.0) {
+                assertEquals(1, parameters.count(index), "x = " + x);
+            }
+        }
+    }
+
+    @Test
+    public void steps_equal_dense_steps_without_diffusion() {
+        // The source of each cell, and the orientations which it keeps, are the same as the dense ones
+        double[] difference = differenceFromDenseSteps(govEqn(6, 0.0), 16, 12, 1.0);
+        assertEquals(0.0, difference[0], 1e-14);
+    }
+
+    @Test
+    public void steps_converge_to_dense_steps_on_cartesian_mesh() {
+        // The dense diffusion uses the least squares face gradients instead of the two-point
+        // gradients, so that the difference is of the order of the truncation error
+        GrainGrowthFanChenEquations govEqn = govEqn(6, 0.002);
+        double[] coarse = differenceFromDenseSteps(govEqn, 16, 12, 1.0);
+        double[] fine = differenceFromDenseSteps(govEqn, 32, 24, 1.0);
+        assertTrue(coarse[0] < 0.02 * coarse[1], "difference " + coarse[0] + ", change " + coarse[1]);
+        assertTrue(fine[0] < 0.5 * coarse[0], "coarse " + coarse[0] + ", fine " + fine[0]);
+    }
+
+    /**
+     * @return Largest difference between the sparse and the dense order parameters at the time, and
+     * largest change of the dense order parameters from the initial condition.
+     */
+    private static double[] differenceFromDenseSteps(GrainGrowthFanChenEquations govEqn, int numCellsX,
+                                                     int numCellsY, double time) {
+        int numOrientations = govEqn.numOrientations();
+        BoxMeshGenerator generator = new BoxMeshGenerator(numCellsX, numCellsY);
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        Mesh denseMesh = generator.structured2DMesh(numOrientations, bc, bc, bc, bc);
+        Mesh sparseMesh = generator.structured2DMesh(1, null, null, null, null);
+
+        // Overlapping Gaussian grains around random centres
+        Random random = new Random(311);
+        Point[] centres = new Point[numOrientations];
+        for (int i = 0; i < numOrientations; i++) {
+            centres[i] = new Point(random.nextDouble(), random.nextDouble(), 0.0);
+        }
+        Function<Point, double[]> initialCondition = p -> {
+            double[] eta = new double[numOrientations];
+            for (int i = 0; i < numOrientations; i++) {
+                double distance = p.distance(centres[i]);
+                eta[i] = Math.exp(-20.0 * distance * distance);
+            }
+            return eta;
+        };
+
+        SparseGrainGrowth grainGrowth = new SparseGrainGrowth(sparseMesh, govEqn, numOrientations, 0.0);
+        grainGrowth.initialize(initialCondition);
+        int numSteps = (int) Math.ceil(time / grainGrowth.stableTimeStep(0.5));
+        double dt = time / numSteps;
+
+        denseMesh.cells().forEach(cell -> System.arraycopy(initialCondition.apply(cell.shape.centroid), 0,
+                cell.U, 0, numOrientations));
+        FaceBasedCellNeighbors neighbors = new FaceBasedCellNeighbors();
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(denseMesh,
+                new LeastSquareCellGradient(denseMesh, neighbors),
+                List.of(new DiffusionResidual(denseMesh, govEqn), new SourceResidual(denseMesh, govEqn)));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(denseMesh, spaceDiscretization,
+                (courantNum, timeStepLimit) -> denseMesh.cellStream().forEach(cell -> cell.dt = dt),
+                numOrientations);
+
+        for (int iter = 0; iter < numSteps; iter++) {
+            grainGrowth.step(dt);
+            timeIntegrator.updateCellAverages();
+        }
+
+        SparseOrderParameters parameters = grainGrowth.orderParameters();
+        double maxDifference = 0.0, maxChange = 0.0;
+        for (Cell cell : denseMesh.cells()) {
+            double[] sparse = parameters.toDense(cell.index(), numOrientations);
+            double[] initial = initialCondition.apply(cell.shape.centroid);
+            for (int i = 0; i < numOrientations; i++) {
+                maxDifference = Math.max(maxDifference, Math.abs(sparse[i] - cell.U[i]));
+                maxChange = Math.max(maxChange, Math.abs(initial[i] - cell.U[i]));
+            }
+        }
+        return new double[]{maxDifference, maxChange};
+    }
+}
@@ -0,0 +1,166 @@
+package main.solver.linear;
+
+import main.util.BSRMatrix;
+import main.util.BlockILU0;
+import main.util.BlockJacobi;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinearSolversTest {
+
+    /**
+     * Five point Laplacian (negated) on an n x n grid, plus the convection term c du/dx.
+     */
+    private static BSRMatrix gridMatrix(int n, double c) {
+        int numRows = n * n;
+        int[] rowStart = new int[numRows + 1];
+        List<Integer> columns = new ArrayList<>();
+        List<Double> values = new ArrayList<>();
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < n; i++) {
+                int row = j * n + i;
+                if (j > 0) add(columns, values, row - n, -1.0);
+                if (i > 0) add(columns, values, row - 1, -1.0 - c);
+                add(columns, values, row, 4.0);
+                if (i < n - 1) add(columns, values, row + 1, -1.0 + c);
+                if (j < n - 1) add(columns, values, row + n, -1.0);
+                rowStart[row + 1] = columns.size();
+            }
+        }
+        BSRMatrix A = new BSRMatrix(numRows, 1, rowStart, columns.stream().mapToInt(Integer::intValue).toArray());
+        for (int k = 0; k < values.size(); k++) {
+            A.values()[k] = values.get(k);
+        }
+        return A;
+    }
+
+    private static void add(List<Integer> columns, List<Double> values, int column, double value) {
+        columns.add(column);
+        values.add(value);
+    }
+
+    private static double[] rhs(BSRMatrix A, double[] x) {
+        double[] b = new double[x.length];
+        A.multiply(x, b);
+        return b;
+    }
+
+    private static double[] randomVector(int size) {
+        Random random = new Random(44);
+        double[] x = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextDouble() - 0.5;
+        }
+        return x;
+    }
+
+    @Test
+    public void matrix_entries_and_product() {
+        BSRMatrix A = gridMatrix(3, 0.5);
+        assertEquals(9, A.numRows());
+        assertEquals(33, A.numBlocks());
+        assertEquals(4.0, A.get(4, 4));
+        assertEquals(-1.5, A.get(4, 3));
+        assertEquals(-0.5, A.get(4, 5));
+        assertEquals(0.0, A.get(0, 8));
+
+        double[] x = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        double[] y = rhs(A, x);
+        assertEquals(-1.0 * 2 - 1.5 * 4 + 4.0 * 5 - 0.5 * 6 - 1.0 * 8, y[4], 1e-15);
+    }
+
+    @Test
+    public void invalid_matrices_are_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BSRMatrix(2, 1, new int[]{0, 1, 2}, new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BSRMatrix(1, 1, new int[]{0, 2}, new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BSRMatrix(2, 1, new int[]{0, 1}, new int[]{0}));
+    }
+
+    @Test
+    public void ilu0_of_tridiagonal_matrix_is_exact() {
+        int n = 50;
+        int[] rowStart = new int[n + 1];
+        int[] columns = new int[3 * n - 2];
+        double[] values = new double[3 * n - 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                columns[k] = i - 1;
+                values[k++] = -1.0;
+            }
+            columns[k] = i;
+            values[k++] = 2.5;
+            if (i < n - 1) {
+                columns[k] = i + 1;
+                values[k++] = -1.2;
+            }
+            rowStart[i + 1] = k;
+        }
+        BSRMatrix A = new BSRMatrix(n, 1, rowStart, columns);
+        System.arraycopy(values, 0, A.values(), 0, values.length);
+        double[] x = randomVector(n);
+        double[] z = new double[n];
+        new BlockILU0(A).apply(rhs(A, x), z);
+        assertArrayEquals(x, z, 1e-13);
+    }
+
+    @Test
+    public void conjugate_gradient() {
+        BSRMatrix A = gridMatrix(30, 0.0);
+        double[] expected = randomVector(A.numRows());
+        double[] b = rhs(A, expected);
+
+        for (Preconditioner preconditioner : new Preconditioner[]{
+                new BlockJacobi(A), new BlockILU0(A)}) {
+            double[] x = new double[A.numRows()];
+            LinearSolver.Result result = new ConjugateGradientSolver(preconditioner, 1e-12, 500).solve(A, b, x);
+            assertTrue(result.converged());
+            assertTrue(result.relativeResidual() <= 1e-12);
+            assertArrayEquals(expected, x, 1e-10);
+        }
+    }
+
+    @Test
+    public void ilu0_needs_fewer_iterations_than_jacobi() {
+        BSRMatrix A = gridMatrix(30, 0.0);
+        double[] b = rhs(A, randomVector(A.numRows()));
+        int jacobi = new ConjugateGradientSolver(new BlockJacobi(A), 1e-10, 500)
+                .solve(A, b, new double[A.numRows()]).iterations();
+        int ilu0 = new ConjugateGradientSolver(new BlockILU0(A), 1e-10, 500)
+                .solve(A, b, new double[A.numRows()]).iterations();
+        assertTrue(ilu0 < jacobi, ilu0 + " >= " + jacobi);
+    }
+
+    @Test
+    public void bicgstab_non_symmetric() {
+        BSRMatrix A = gridMatrix(30, 0.7);
+        double[] expected = randomVector(A.numRows());
+        double[] b = rhs(A, expected);
+
+        for (Preconditioner preconditioner : new Preconditioner[]{
+                new BlockJacobi(A), new BlockILU0(A)}) {
+            double[] x = new double[A.numRows()];
+            LinearSolver.Result result = new BiCGSTABSolver(preconditioner, 1e-12, 500).solve(A, b, x);
+            assertTrue(result.converged());
+            assertArrayEquals(expected, x, 1e-10);
+        }
+    }
+
+    @Test
+    public void not_converged() {
+        BSRMatrix A = gridMatrix(30, 0.0);
+        double[] b = rhs(A, randomVector(A.numRows()));
+        LinearSolver.Result result = new ConjugateGradientSolver(new BlockJacobi(A), 1e-12, 3)
+                .solve(A, b, new double[A.numRows()]);
+        assertFalse(result.converged());
+        assertEquals(3, result.iterations());
+    }
+}
@@ -0,0 +1,138 @@
+package main.solver.linear;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.BoundaryCondition;
+import main.physics.goveqn.factory.PoissonEquation;
+import main.solver.LeastSquareCellGradient;
+import main.solver.NodeBasedCellNeighbors;
+import main.solver.SpaceDiscretization;
+import main.solver.diffusion.DiffusionResidual;
+import main.solver.source.SourceResidual;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import main.util.BSRMatrix;
+import main.util.BlockILU0;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinearSteadyStateTest {
+    private static final int numCells = 8;
+    private static final PoissonEquation govEqn = new PoissonEquation(2.5,
+            (at, conservativeVars, gradConservativeVars) -> new double[]{1.0 + at.x});
+
+    private static Mesh createMesh() throws IOException {
+        File meshFile = File.createTempFile("linear_steady_state", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\nxi = " + (numCells + 1) + "\neta = " + (numCells + 1) + "\n");
+            for (int i = 0; i <= numCells; i++) {
+                for (int j = 0; j <= numCells; j++) {
+                    // slightly skewed, so that the matrix is not symmetric
+                    double x = 1.0 * i / numCells + 0.02 * j / numCells;
+                    double y = 1.0 * j / numCells;
+                    writer.write(x + " " + y + " 0\n");
+                }
+            }
+        }
+        // phi = 0 at the left and the right boundaries, zero gradient at the bottom and the top
+        BoundaryCondition dirichlet = new BoundaryCondition() {
+            @Override
+            public void setGhostCellValues(Face face) {
+                face.right.U[0] = -face.left.U[0];
+            }
+
+            @Override
+            public double[] convectiveFlux(Face face) {
+                return new double[1];
+            }
+        };
+        BoundaryCondition neumann = new BoundaryCondition() {
+            @Override
+            public void setGhostCellValues(Face face) {
+                face.right.U[0] = face.left.U[0];
+            }
+
+            @Override
+            public double[] convectiveFlux(Face face) {
+                return new double[1];
+            }
+        };
+        return new Structured2DMesh(meshFile, govEqn.numVars(), dirichlet, dirichlet, neumann, neumann);
+    }
+
+    private static SpaceDiscretization spaceDiscretization(Mesh mesh) {
+        return new SpaceDiscretization(mesh, new LeastSquareCellGradient(mesh, new NodeBasedCellNeighbors()),
+                List.of(new DiffusionResidual(mesh, govEqn), new SourceResidual(mesh, govEqn)));
+    }
+
+    @Test
+    public void matrix_reproduces_residual() throws IOException {
+        Mesh mesh = createMesh();
+        SpaceDiscretization spaceDiscretization = spaceDiscretization(mesh);
+        LinearSteadyState steadyState = new LinearSteadyState(mesh, spaceDiscretization);
+        assertTrue(steadyState.numColors() < mesh.cells().size());
+
+        Random random = new Random(71);
+        mesh.cells().forEach(cell -> cell.U[0] = random.nextDouble());
+        double[] U = mesh.cells().stream().mapToDouble(cell -> cell.U[0]).toArray();
+        double[] AU = new double[U.length];
+        steadyState.matrix().multiply(U, AU);
+
+        spaceDiscretization.setResiduals();
+        for (Cell cell : mesh.cells()) {
+            int i = cell.index();
+            assertEquals(cell.residual[0], AU[i] - steadyState.rhs()[i], 1e-12);
+            // the cell values are not changed by the assembly
+            assertEquals(U[i], cell.U[0]);
+        }
+    }
+
+    @Test
+    public void solution_equals_pseudo_time_steady_state() throws IOException {
+        Mesh mesh = createMesh();
+        SpaceDiscretization spaceDiscretization = spaceDiscretization(mesh);
+        LinearSteadyState steadyState = new LinearSteadyState(mesh, spaceDiscretization);
+
+        mesh.cells().forEach(cell -> cell.U[0] = 0.0);
+        BSRMatrix A = steadyState.matrix();
+        LinearSolver.Result result = steadyState.solve(new BiCGSTABSolver(new BlockILU0(A), 1e-13, 200));
+        assertTrue(result.converged());
+        assertTrue(result.iterations() < 50, "iterations = " + result.iterations());
+        double[] solution = mesh.cells().stream().mapToDouble(cell -> cell.U[0]).toArray();
+
+        spaceDiscretization.setResiduals();
+        for (Cell cell : mesh.cells()) {
+            assertEquals(0.0, cell.residual[0], 1e-11);
+        }
+
+        mesh.cells().forEach(cell -> cell.U[0] = 0.0);
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        timeIntegrator.setCourantNum(0.9);
+        for (int iter = 0; iter < 3000; iter++) {
+            timeIntegrator.updateCellAverages();
+        }
+        for (Cell cell : mesh.cells()) {
+            assertEquals(solution[cell.index()], cell.U[0], 1e-9);
+        }
+    }
+
+    @Test
+    public void vector_variables_are_rejected() throws IOException {
+        Mesh mesh = new Structured2DMesh(new File("test/test_data/mesh_1cell_structured_2d.cfds"), 2,
+                null, null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> new LinearSteadyState(mesh, null));
+    }
+}
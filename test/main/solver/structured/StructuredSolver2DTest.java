@@ -0,0 +1,202 @@
+package main.solver.structured;
+
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.bc.InviscidWallBC;
+import main.physics.goveqn.factory.EulerEquations;
+import main.physics.goveqn.factory.ScalarDiffusion;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.riemann.HLLRiemannSolver;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredSolver2DTest {
+
+    /**
+     * Skewed and stretched grid of ni x nj cells.
+     */
+    private static File createMeshFile(int ni, int nj) throws IOException {
+        return createMeshFile(ni, nj, true);
+    }
+
+    private static File createMeshFile(int ni, int nj, boolean skewed) throws IOException {
+        File meshFile = File.createTempFile("structured_solver", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\nxi = " + (ni + 1) + "\neta = " + (nj + 1) + "\n");
+            for (int i = 0; i <= ni; i++) {
+                for (int j = 0; j <= nj; j++) {
+                    double xi = 1.0 * i / ni;
+                    double eta = 1.0 * j / nj;
+                    double x = skewed ? xi + 0.2 * eta + 0.05 * Math.sin(3 * eta) : xi * xi + xi;
+                    double y = eta * eta * 0.5 + eta * 0.5 + (skewed ? 0.1 * xi * xi : 0.0);
+                    writer.write(x + " " + y + " 0\n");
+                }
+            }
+        }
+        return meshFile;
+    }
+
+    @Test
+    public void grid_metrics_of_structured_mesh() throws IOException {
+        File meshFile = createMeshFile(5, 4);
+        StructuredGrid2D grid = new StructuredGrid2D(meshFile);
+        Mesh mesh = new Structured2DMesh(meshFile, 1, null, null, null, null);
+        assertEquals(5, grid.ni);
+        assertEquals(4, grid.nj);
+        assertEquals(mesh.cells().size(), grid.numCells());
+
+        for (int i = 0; i < grid.ni; i++) {
+            for (int j = 0; j < grid.nj; j++) {
+                Cell cell = mesh.cells().get(grid.cellIndex(i, j));
+                assertEquals(cell.shape.volume, grid.volume(i, j), 1e-15);
+                assertEquals(0.0, cell.shape.centroid.distance(grid.centroid(i, j)), 1e-15);
+            }
+        }
+
+        // The faces of the cell (1, 2) point out of it on the max sides
+        Cell cell = mesh.cells().get(grid.cellIndex(1, 2));
+        List<Vector> gridNormals = List.of(
+                grid.xiFace(1, 2).unitNormal().mult(-1), grid.xiFace(2, 2).unitNormal(),
+                grid.etaFace(1, 2).unitNormal().mult(-1), grid.etaFace(1, 3).unitNormal());
+        for (Face face : cell.faces) {
+            Vector outward = face.left == cell ? face.surface.unitNormal() : face.surface.unitNormal().mult(-1);
+            assertTrue(gridNormals.stream().anyMatch(n -> n.sub(outward).mag() < 1e-12));
+        }
+
+        for (int j = 0; j < grid.nj; j++) {
+            assertEquals(grid.node(0, j).distance(grid.node(0, j + 1)), grid.xiFace(0, j).area, 1e-15);
+        }
+    }
+
+    @Test
+    public void first_order_euler_same_as_mesh_solver() throws IOException {
+        int ni = 8, nj = 6;
+        File meshFile = createMeshFile(ni, nj);
+        EulerEquations govEqn = new EulerEquations(1.4);
+        BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+        BoundaryCondition wall = new InviscidWallBC(govEqn);
+
+        Mesh mesh = new Structured2DMesh(meshFile, govEqn.numVars(), extrapolated, extrapolated, wall, wall);
+        FunctionInitializer initializer = new FunctionInitializer(p -> govEqn.conservativeVars(new double[]{
+                1.2 + 0.3 * p.x, 150 + 50 * p.y, -30 + 20 * p.x, 0, 101325 * (1 + 0.1 * p.x * p.y)}));
+        initializer.initialize(mesh, govEqn);
+
+        ResidualCalculator convection = new ConvectionResidual(new PiecewiseConstantReconstructor(),
+                new HLLRiemannSolver(govEqn), mesh);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(convection));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        timeIntegrator.setCourantNum(0.8);
+
+        StructuredSolver2D solver = new StructuredSolver2D(new StructuredGrid2D(meshFile), govEqn,
+                new HLLRiemannSolver(govEqn), extrapolated, extrapolated, wall, wall);
+        solver.setCourantNum(0.8);
+        solver.copyFrom(mesh);
+
+        for (int iter = 0; iter < 10; iter++) {
+            timeIntegrator.updateCellAverages();
+            solver.updateCellAverages();
+        }
+
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                Cell cell = mesh.cells().get(solver.grid().cellIndex(i, j));
+                double[] U = solver.U(i, j);
+                for (int var = 0; var < govEqn.numVars(); var++) {
+                    assertEquals(cell.U[var], U[var], 1e-10 * Math.max(1.0, Math.abs(cell.U[var])));
+                }
+                assertEquals(cell.dt, solver.dt(i, j), 1e-10 * cell.dt);
+            }
+        }
+        assertArrayEquals(timeIntegrator.currentTotalResidual(Norm.ONE_NORM),
+                solver.currentTotalResidual(Norm.ONE_NORM), 1e-8);
+    }
+
+    @Test
+    public void second_order_preserves_uniform_flow() throws IOException {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+        StructuredSolver2D solver = new StructuredSolver2D(new StructuredGrid2D(createMeshFile(10, 7)), govEqn,
+                new RusanovRiemannSolver(govEqn), extrapolated, extrapolated, extrapolated, extrapolated);
+        solver.setSecondOrder(true);
+        double[] U = govEqn.conservativeVars(new double[]{1.1, 200, -40, 0, 90000});
+        solver.initialize(p -> U);
+
+        for (int iter = 0; iter < 5; iter++) {
+            solver.updateCellAverages();
+        }
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 7; j++) {
+                assertArrayEquals(U, solver.U(i, j), 1e-9 * U[4]);
+            }
+        }
+        assertArrayEquals(new double[5], solver.currentTotalResidual(Norm.INFINITY_NORM), 1e-6);
+    }
+
+    @Test
+    public void diffusion_keeps_linear_solution() throws IOException {
+        // The linear solution is steady on a stretched grid
+        ScalarDiffusion govEqn = new ScalarDiffusion(0.7);
+        BoundaryCondition linear = new BoundaryCondition() {
+            @Override
+            public void setGhostCellValues(Face face) {
+                face.right.U[0] = value(face.right);
+            }
+
+            @Override
+            public double[] convectiveFlux(Face face) {
+                return new double[1];
+            }
+
+            private double value(Cell cell) {
+                return 2.0 + 3.0 * cell.shape.centroid.x - 1.5 * cell.shape.centroid.y;
+            }
+        };
+        StructuredGrid2D grid = new StructuredGrid2D(createMeshFile(6, 6, false));
+        StructuredSolver2D solver = new StructuredSolver2D(grid, govEqn, new RusanovRiemannSolver(govEqn),
+                linear, linear, linear, linear);
+        solver.initialize(p -> new double[]{2.0 + 3.0 * p.x - 1.5 * p.y});
+        solver.setCourantNum(0.5);
+
+        for (int iter = 0; iter < 3; iter++) {
+            solver.updateCellAverages();
+        }
+        for (int i = 0; i < 6; i++) {
+            for (int j = 0; j < 6; j++) {
+                double expected = 2.0 + 3.0 * grid.centroid(i, j).x - 1.5 * grid.centroid(i, j).y;
+                assertEquals(expected, solver.U(i, j)[0], 1e-10);
+                assertTrue(solver.dt(i, j) > 0 && solver.dt(i, j) < Double.POSITIVE_INFINITY);
+            }
+        }
+    }
+
+    @Test
+    public void boundary_condition_must_be_defined() throws IOException {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        StructuredGrid2D grid = new StructuredGrid2D(createMeshFile(2, 2));
+        BoundaryCondition bc = new ExtrapolatedBC(govEqn);
+        assertThrows(IllegalArgumentException.class, () -> new StructuredSolver2D(grid, govEqn,
+                new RusanovRiemannSolver(govEqn), bc, bc, null, bc));
+        assertThrows(IllegalStateException.class, () -> new StructuredSolver2D(grid, govEqn,
+                new RusanovRiemannSolver(govEqn), bc, bc, bc, bc).currentTotalResidual(Norm.ONE_NORM));
+    }
+}
@@ -0,0 +1,208 @@
+package main.solver.structured;
+
+import main.geom.Point;
+import main.geom.Vector;
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
+import main.mesh.factory.Structured3DMesh;
+import main.physics.bc.BoundaryCondition;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.bc.InviscidWallBC;
+import main.physics.goveqn.factory.EulerEquations;
+import main.physics.goveqn.factory.ScalarDiffusion;
+import main.solver.*;
+import main.solver.convection.ConvectionResidual;
+import main.solver.convection.reconstructor.PiecewiseConstantReconstructor;
+import main.solver.convection.riemann.HLLRiemannSolver;
+import main.solver.convection.riemann.RusanovRiemannSolver;
+import main.solver.time.ExplicitEulerTimeIntegrator;
+import main.solver.time.LocalTimeStep;
+import main.solver.time.TimeIntegrator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StructuredSolver3DTest {
+
+    /**
+     * Nodes of a skewed and stretched grid of ni x nj x nk cells.
+     */
+    private static Point[][][] skewedNodes(int ni, int nj, int nk) {
+        BoxMeshGenerator generator = new BoxMeshGenerator(ni, nj, nk);
+        generator.setStretching(1, BoxMeshGenerator.clusterAtMin(1.5));
+        generator.setMapping(p -> new Point(p.x + 0.2 * p.y + 0.05 * Math.sin(3 * p.z),
+                p.y + 0.1 * p.x * p.x, p.z + 0.1 * p.x * p.y));
+        return generator.points3D();
+    }
+
+    @Test
+    public void grid_metrics_of_structured_mesh() {
+        Point[][][] nodes = skewedNodes(4, 3, 5);
+        StructuredGrid3D grid = new StructuredGrid3D(nodes);
+        Mesh mesh = new Structured3DMesh(nodes, 1, null, null, null, null, null, null);
+        assertEquals(4, grid.ni);
+        assertEquals(3, grid.nj);
+        assertEquals(5, grid.nk);
+        assertEquals(mesh.cells().size(), grid.numCells());
+
+        for (int i = 0; i < grid.ni; i++) {
+            for (int j = 0; j < grid.nj; j++) {
+                for (int k = 0; k < grid.nk; k++) {
+                    Cell cell = mesh.cells().get(grid.cellIndex(i, j, k));
+                    assertEquals(cell.shape.volume, grid.volume(i, j, k), 1e-15);
+                    assertEquals(0.0, cell.shape.centroid.distance(grid.centroid(i, j, k)), 1e-15);
+                }
+            }
+        }
+
+        // The faces of the cell (1, 2, 3) point out of it on the max sides
+        Cell cell = mesh.cells().get(grid.cellIndex(1, 2, 3));
+        List<Vector> gridNormals = List.of(
+                grid.xiFace(1, 2, 3).unitNormal().mult(-1), grid.xiFace(2, 2, 3).unitNormal(),
+                grid.etaFace(1, 2, 3).unitNormal().mult(-1), grid.etaFace(1, 3, 3).unitNormal(),
+                grid.zetaFace(1, 2, 3).unitNormal().mult(-1), grid.zetaFace(1, 2, 4).unitNormal());
+        assertEquals(6, cell.faces.size());
+        for (Face face : cell.faces) {
+            Vector outward = face.left == cell ? face.surface.unitNormal() : face.surface.unitNormal().mult(-1);
+            assertTrue(gridNormals.stream().anyMatch(n -> n.sub(outward).mag() < 1e-12));
+        }
+
+        // The boundary faces point out of the mesh and into the grid on the min sides
+        for (Face face : mesh.boundaries().get(0).faces) {
+            Vector gridNormal = grid.xiFace(0, 0, 0).unitNormal();
+            assertTrue(face.surface.unitNormal().dot(gridNormal) < 0.0);
+        }
+        for (Face face : mesh.boundaries().get(5).faces) {
+            Vector gridNormal = grid.zetaFace(0, 0, grid.nk).unitNormal();
+            assertTrue(face.surface.unitNormal().dot(gridNormal) > 0.0);
+        }
+    }
+
+    @Test
+    public void first_order_euler_same_as_mesh_solver() {
+        int ni = 6, nj = 5, nk = 4;
+        Point[][][] nodes = skewedNodes(ni, nj, nk);
+        EulerEquations govEqn = new EulerEquations(1.4);
+        BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+        BoundaryCondition wall = new InviscidWallBC(govEqn);
+
+        Mesh mesh = new Structured3DMesh(nodes, govEqn.numVars(), extrapolated, extrapolated, wall, wall,
+                extrapolated, wall);
+        FunctionInitializer initializer = new FunctionInitializer(p -> govEqn.conservativeVars(new double[]{
+                1.2 + 0.3 * p.x, 150 + 50 * p.y, -30 + 20 * p.x, 10 + 40 * p.z, 101325 * (1 + 0.1 * p.x * p.y)}));
+        initializer.initialize(mesh, govEqn);
+
+        ResidualCalculator convection = new ConvectionResidual(new PiecewiseConstantReconstructor(),
+                new HLLRiemannSolver(govEqn), mesh);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(convection));
+        TimeIntegrator timeIntegrator = new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization,
+                new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+        timeIntegrator.setCourantNum(0.8);
+
+        StructuredSolver3D solver = new StructuredSolver3D(new StructuredGrid3D(nodes), govEqn,
+                new HLLRiemannSolver(govEqn), extrapolated, extrapolated, wall, wall, extrapolated, wall);
+        solver.setCourantNum(0.8);
+        solver.copyFrom(mesh);
+
+        for (int iter = 0; iter < 10; iter++) {
+            timeIntegrator.updateCellAverages();
+            solver.updateCellAverages();
+        }
+
+        for (int i = 0; i < ni; i++) {
+            for (int j = 0; j < nj; j++) {
+                for (int k = 0; k < nk; k++) {
+                    Cell cell = mesh.cells().get(solver.grid().cellIndex(i, j, k));
+                    double[] U = solver.U(i, j, k);
+                    for (int var = 0; var < govEqn.numVars(); var++) {
+                        assertEquals(cell.U[var], U[var], 1e-10 * Math.max(1.0, Math.abs(cell.U[var])));
+                    }
+                    assertEquals(cell.dt, solver.dt(i, j, k), 1e-10 * cell.dt);
+                }
+            }
+        }
+        assertArrayEquals(timeIntegrator.currentTotalResidual(Norm.ONE_NORM),
+                solver.currentTotalResidual(Norm.ONE_NORM), 1e-8);
+    }
+
+    @Test
+    public void second_order_preserves_uniform_flow() {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        BoundaryCondition extrapolated = new ExtrapolatedBC(govEqn);
+        StructuredSolver3D solver = new StructuredSolver3D(new StructuredGrid3D(skewedNodes(5, 4, 3)), govEqn,
+                new RusanovRiemannSolver(govEqn), extrapolated, extrapolated, extrapolated, extrapolated,
+                extrapolated, extrapolated);
+        solver.setSecondOrder(true);
+        double[] U = govEqn.conservativeVars(new double[]{1.1, 200, -40, 30, 90000});
+        solver.initialize(p -> U);
+
+        for (int iter = 0; iter < 5; iter++) {
+            solver.updateCellAverages();
+        }
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 4; j++) {
+                for (int k = 0; k < 3; k++) {
+                    assertArrayEquals(U, solver.U(i, j, k), 1e-9 * U[4]);
+                }
+            }
+        }
+        assertArrayEquals(new double[5], solver.currentTotalResidual(Norm.INFINITY_NORM), 1e-6);
+    }
+
+    @Test
+    public void diffusion_keeps_linear_solution() {
+        // The linear solution is steady on a stretched grid
+        ScalarDiffusion govEqn = new ScalarDiffusion(0.7);
+        BoundaryCondition linear = new BoundaryCondition() {
+            @Override
+            public void setGhostCellValues(Face face) {
+                face.right.U[0] = value(face.right.shape.centroid);
+            }
+
+            @Override
+            public double[] convectiveFlux(Face face) {
+                return new double[1];
+            }
+        };
+        BoxMeshGenerator generator = new BoxMeshGenerator(4, 5, 3);
+        generator.setStretching(0, BoxMeshGenerator.clusterAtEnds(1.2));
+        generator.setStretching(2, BoxMeshGenerator.clusterAtMin(1.5));
+        StructuredGrid3D grid = new StructuredGrid3D(generator.points3D());
+        StructuredSolver3D solver = new StructuredSolver3D(grid, govEqn, new RusanovRiemannSolver(govEqn),
+                linear, linear, linear, linear, linear, linear);
+        solver.initialize(p -> new double[]{value(p)});
+        solver.setCourantNum(0.5);
+
+        for (int iter = 0; iter < 3; iter++) {
+            solver.updateCellAverages();
+        }
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                for (int k = 0; k < 3; k++) {
+                    assertEquals(value(grid.centroid(i, j, k)), solver.U(i, j, k)[0], 1e-10);
+                    assertTrue(solver.dt(i, j, k) > 0 && solver.dt(i, j, k) < Double.POSITIVE_INFINITY);
+                }
+            }
+        }
+    }
+
+    private static double value(Point p) {
+        return 2.0 + 3.0 * p.x - 1.5 * p.y + 0.5 * p.z;
+    }
+
+    @Test
+    public void boundary_condition_must_be_defined() {
+        EulerEquations govEqn = new EulerEquations(1.4);
+        StructuredGrid3D grid = new StructuredGrid3D(new BoxMeshGenerator(2, 2, 2).points3D());
+        BoundaryCondition bc = new ExtrapolatedBC(govEqn);
+        assertThrows(IllegalArgumentException.class, () -> new StructuredSolver3D(grid, govEqn,
+                new RusanovRiemannSolver(govEqn), bc, bc, bc, bc, null, bc));
+        assertThrows(IllegalStateException.class, () -> new StructuredSolver3D(grid, govEqn,
+                new RusanovRiemannSolver(govEqn), bc, bc, bc, bc, bc, bc).currentTotalResidual(Norm.ONE_NORM));
+    }
+}
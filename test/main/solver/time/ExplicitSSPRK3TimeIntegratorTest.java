@@ -3,6 +3,7 @@ package main.solver.time;
 import main.geom.Vector;
 import main.mesh.Cell;
 import main.mesh.Mesh;
+import main.mesh.factory.BoxMeshGenerator;
 import main.mesh.factory.Structured2DMesh;
 import main.physics.bc.BoundaryCondition;
 import main.physics.bc.ExtrapolatedBC;
@@ -92,6 +93,43 @@ public class ExplicitSSPRK3TimeIntegratorTest {
         assertArrayEquals(totalResidual, timeIntegrator.currentTotalResidual(Norm.ONE_NORM), 1e-15);
     }
 
+    @Test
+    public void two_norm_is_root_mean_square() {
+        // The two norm of the SSPRK3 integrator is sqrt(sum / n), unlike sqrt(sum) / n of the others
+        GoverningEquations govEqn = createGovEqn();
+        BoundaryCondition bc = new ExtrapolatedBC(govEqn);
+        Mesh mesh = new BoxMeshGenerator(3, 2).structured2DMesh(govEqn.numVars(), bc, bc, bc, bc);
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(new SourceResidual(mesh, govEqn)));
+
+        for (boolean fused : new boolean[]{false, true}) {
+            TimeIntegrator timeIntegrator = new ExplicitSSPRK3TimeIntegrator(mesh, spaceDiscretization,
+                    new LocalTimeStep(mesh, govEqn), govEqn.numVars());
+            timeIntegrator.setCourantNum(0.5);
+            timeIntegrator.setFusedResidualNorms(fused);
+            double[][] U0 = new double[mesh.cells().size()][];
+            for (Cell cell : mesh.cells()) {
+                cell.U[0] = 0.1 + 0.05 * cell.index();
+                cell.U[1] = 2.0 - 0.2 * cell.index();
+                U0[cell.index()] = copyOf(cell.U);
+            }
+            timeIntegrator.updateCellAverages();
+
+            int numCells = mesh.cells().size();
+            double[] sumSqr = new double[govEqn.numVars()];
+            double[] meanU = new double[govEqn.numVars()];
+            for (Cell cell : mesh.cells()) {
+                for (int var = 0; var < govEqn.numVars(); var++) {
+                    double r = (cell.U[var] - U0[cell.index()][var]) / cell.dt;
+                    sumSqr[var] += r * r;
+                    meanU[var] += Math.abs(cell.U[var]) / numCells;
+                }
+            }
+            double[] expected = {Math.sqrt(sumSqr[0] / numCells) / meanU[0], Math.sqrt(sumSqr[1] / numCells) / meanU[1]};
+            assertArrayEquals(expected, timeIntegrator.currentTotalResidual(Norm.TWO_NORM), 1e-12 * expected[1]);
+        }
+    }
+
     private GoverningEquations createGovEqn() {
         return new GoverningEquations() {
             @Override
@@ -0,0 +1,125 @@
+package main.solver.time;
+
+import main.mesh.Cell;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured2DMesh;
+import main.physics.bc.ExtrapolatedBC;
+import main.physics.goveqn.Source;
+import main.physics.goveqn.factory.GrainGrowthFanChenEquations;
+import main.solver.SpaceDiscretization;
+import main.solver.ZeroCellGradient;
+import main.solver.source.SourceResidual;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PointImplicitSourceTest {
+
+    private static Mesh createMesh(GrainGrowthFanChenEquations govEqn) throws FileNotFoundException {
+        ExtrapolatedBC bc = new ExtrapolatedBC(govEqn);
+        return new Structured2DMesh(new File("test/test_data/mesh_1cell_structured_2d.cfds"),
+                govEqn.numVars(), bc, bc, bc, bc);
+    }
+
+    private static TimeIntegrator createTimeIntegrator(Mesh mesh, GrainGrowthFanChenEquations govEqn,
+                                                       boolean rk3, double dt, boolean pointImplicit) {
+        SpaceDiscretization spaceDiscretization = new SpaceDiscretization(mesh, new ZeroCellGradient(mesh),
+                List.of(new SourceResidual(mesh, govEqn)));
+        TimeStep timeStep = (courantNum, timeStepLimit) -> mesh.cells().forEach(cell -> cell.dt = dt);
+        TimeIntegrator timeIntegrator = rk3
+                ? new ExplicitSSPRK3TimeIntegrator(mesh, spaceDiscretization, timeStep, govEqn.numVars())
+                : new ExplicitEulerTimeIntegrator(mesh, spaceDiscretization, timeStep, govEqn.numVars());
+        if (pointImplicit) {
+            timeIntegrator.setPointImplicitSource(new PointImplicitSource(govEqn));
+        }
+        return timeIntegrator;
+    }
+
+    @Test
+    public void solve_with_pivoting() {
+        double[][] A = {
+                {0, 2, 1},
+                {1, 1, 1},
+                {4, -1, 2}
+        };
+        double[] x = {1, -2, 3};
+        double[] b = new double[3];
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                b[i] += A[i][j] * x[j];
+            }
+        }
+        PointImplicitSource.solve(A, b);
+        assertArrayEquals(x, b, 1e-14);
+    }
+
+    @Test
+    public void finite_difference_jacobian_without_analytic_jacobian() throws FileNotFoundException {
+        // source = -2 eta, without the analytic Jacobian
+        var govEqn = new GrainGrowthFanChenEquations(1, -2.0, 0.0, 0.0, new double[]{1.0}, new double[]{1.0}) {
+            private final Source source = super.source()::sourceVector;
+
+            @Override
+            public Source source() {
+                return source;
+            }
+        };
+        Mesh mesh = createMesh(govEqn);
+        Cell cell = mesh.cells().getFirst();
+        cell.U[0] = 0.8;
+
+        double dt = 10.0;
+        TimeIntegrator timeIntegrator = createTimeIntegrator(mesh, govEqn, false, dt, true);
+        timeIntegrator.updateCellAverages();
+
+        assertEquals(0.8 / (1 + 2 * dt), cell.U[0], 1e-6);
+    }
+
+    @Test
+    public void linear_decay_is_backward_euler() throws FileNotFoundException {
+        // source = -2 eta
+        var govEqn = new GrainGrowthFanChenEquations(1, -2.0, 0.0, 0.0, new double[]{1.0}, new double[]{1.0});
+        Mesh mesh = createMesh(govEqn);
+        Cell cell = mesh.cells().getFirst();
+        cell.U[0] = 0.8;
+
+        double dt = 10.0;
+        TimeIntegrator timeIntegrator = createTimeIntegrator(mesh, govEqn, false, dt, true);
+        timeIntegrator.updateCellAverages();
+
+        assertEquals(0.8 / (1 + 2 * dt), cell.U[0], 1e-15);
+    }
+
+    @Test
+    public void stiff_source_converges_with_large_time_step() throws FileNotFoundException {
+        var govEqn = new GrainGrowthFanChenEquations(2, 1.0, 1.0, 1.0,
+                new double[]{1.0, 1.0}, new double[]{1.0, 1.0});
+        // the explicit Euler time step is limited to 2 / |d source / d eta| = 1 near eta = (1, 0)
+        double dt = 5.0;
+
+        for (boolean rk3 : new boolean[]{false, true}) {
+            Mesh mesh = createMesh(govEqn);
+            Cell cell = mesh.cells().getFirst();
+
+            cell.U[0] = 0.8;
+            cell.U[1] = 0.1;
+            TimeIntegrator explicit = createTimeIntegrator(mesh, govEqn, rk3, dt, false);
+            for (int iter = 0; iter < 30; iter++) {
+                explicit.updateCellAverages();
+            }
+            assertFalse(Math.abs(cell.U[0] - 1.0) < 1e-3, "RK3 = " + rk3);
+
+            cell.U[0] = 0.8;
+            cell.U[1] = 0.1;
+            TimeIntegrator pointImplicit = createTimeIntegrator(mesh, govEqn, rk3, dt, true);
+            for (int iter = 0; iter < 30; iter++) {
+                pointImplicit.updateCellAverages();
+            }
+            assertArrayEquals(new double[]{1.0, 0.0}, cell.U, 1e-10, "RK3 = " + rk3);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package main.solver.time;
+
+import main.solver.Norm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class ResidualNormsTest {
+
+    private static final double[][] U = {{1.0, -2.0}, {3.0, 0.0}, {-1.5, 0.5}};
+    private static final double[][] OLD_U = {{0.5, -2.0}, {3.5, 1.0}, {-1.0, 0.25}};
+    private static final double[] DT = {0.5, 2.0, 0.25};
+
+    // |U - oldU| / dt = {1, 0}, {0.25, 0.5}, {2, 1}; mean |U| = {5.5 / 3, 2.5 / 3}
+    private static final double[] MEAN_U = {5.5 / 3, 2.5 / 3};
+
+    private static ResidualNorms accumulate(int from, int to) {
+        ResidualNorms norms = new ResidualNorms(2);
+        for (int i = from; i < to; i++) {
+            norms.accumulate(U[i], OLD_U[i], DT[i]);
+        }
+        return norms;
+    }
+
+    @Test
+    public void norms() {
+        ResidualNorms norms = accumulate(0, 3);
+
+        assertArrayEquals(new double[]{3.25 / 3 / MEAN_U[0], 1.5 / 3 / MEAN_U[1]},
+                norms.norm(Norm.ONE_NORM), 1e-15);
+        assertArrayEquals(new double[]{Math.sqrt(1 + 0.0625 + 4) / 3 / MEAN_U[0], Math.sqrt(0.25 + 1) / 3 / MEAN_U[1]},
+                norms.norm(Norm.TWO_NORM), 1e-15);
+        assertArrayEquals(new double[]{Math.sqrt((1 + 0.0625 + 4) / 3) / MEAN_U[0], Math.sqrt((0.25 + 1) / 3) / MEAN_U[1]},
+                norms.norm(Norm.TWO_NORM, true), 1e-15);
+        assertArrayEquals(new double[]{2 / MEAN_U[0], 1 / MEAN_U[1]},
+                norms.norm(Norm.INFINITY_NORM), 1e-15);
+    }
+
+    @Test
+    public void combine() {
+        ResidualNorms norms = accumulate(0, 1);
+        norms.combine(accumulate(1, 3));
+
+        for (Norm norm : Norm.values()) {
+            assertArrayEquals(accumulate(0, 3).norm(norm), norms.norm(norm), 1e-15);
+        }
+    }
+
+    @Test
+    public void zero_magnitude() {
+        ResidualNorms norms = new ResidualNorms(1);
+        norms.accumulate(new double[]{0.0}, new double[]{0.5}, 1.0);
+
+        assertArrayEquals(new double[]{0.5}, norms.norm(Norm.ONE_NORM), 1e-15);
+    }
+
+    @Test
+    public void blocked_is_independent_of_threads() {
+        int size = 5 * ResidualNorms.BLOCK_SIZE + 17;
+        Random rnd = new Random(37);
+        double[][] newU = new double[size][2];
+        double[][] oldU = new double[size][2];
+        double[] dt = new double[size];
+        for (int i = 0; i < size; i++) {
+            newU[i] = new double[]{rnd.nextGaussian(), 1e6 * rnd.nextGaussian()};
+            oldU[i] = new double[]{rnd.nextGaussian(), 1e6 * rnd.nextGaussian()};
+            dt[i] = 1e-3 + rnd.nextDouble();
+        }
+
+        ResidualNorms sequential = new ResidualNorms(2);
+        for (int i = 0; i < size; i++) {
+            sequential.accumulate(newU[i], oldU[i], dt[i]);
+        }
+
+        double[][] expected = null;
+        for (int threads : new int[]{1, 3, 8}) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ResidualNorms norms = pool.submit(() -> ResidualNorms.blocked(2, size,
+                    (n, i) -> n.accumulate(newU[i], oldU[i], dt[i]))).join();
+            pool.shutdown();
+
+            double[][] actual = {norms.norm(Norm.ONE_NORM), norms.norm(Norm.TWO_NORM), norms.norm(Norm.INFINITY_NORM)};
+            if (expected == null) expected = actual;
+            for (int n = 0; n < 3; n++) {
+                assertArrayEquals(expected[n], actual[n], 0.0);
+                assertArrayEquals(sequential.norm(Norm.values()[n]), actual[n], 1e-12 * Math.abs(actual[n][1]));
+            }
+        }
+    }
+
+    @Test
+    public void blocked_empty() {
+        ResidualNorms norms = ResidualNorms.blocked(1, 0, (n, i) -> {
+            throw new AssertionError();
+        });
+
+        assertNotNull(norms);
+    }
+}
@@ -0,0 +1,218 @@
+package main.util;
+
+import main.mesh.Cell;
+import main.mesh.Face;
+import main.mesh.Mesh;
+import main.mesh.factory.Structured1DMesh;
+import main.mesh.factory.Structured2DMesh;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BSRMatrixTest {
+
+    private static Mesh create2DMesh(int n) throws IOException {
+        File meshFile = File.createTempFile("bsr_matrix", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 2\nmode = ASCII\nxi = " + (n + 1) + "\neta = " + (n + 1) + "\n");
+            for (int i = 0; i <= n; i++) {
+                for (int j = 0; j <= n; j++) {
+                    writer.write((1.0 * i / n) + " " + (1.0 * j / n) + " 0\n");
+                }
+            }
+        }
+        return new Structured2DMesh(meshFile, 1, null, null, null, null);
+    }
+
+    private static Mesh create1DMesh(int n) throws IOException {
+        File meshFile = File.createTempFile("bsr_matrix", ".cfds");
+        meshFile.deleteOnExit();
+        try (FileWriter writer = new FileWriter(meshFile)) {
+            writer.write("dimension = 1\nmode = ASCII\nxi = " + (n + 1) + "\n");
+            for (int i = 0; i <= n; i++) {
+                writer.write((1.0 * i / n) + " 0 0\n");
+            }
+        }
+        return new Structured1DMesh(meshFile, 1, null, null);
+    }
+
+    /**
+     * Random values with block-diagonally dominant rows.
+     */
+    private static void setRandomValues(BSRMatrix A, long seed) {
+        Random random = new Random(seed);
+        int blockSize = A.blockSize();
+        for (int row = 0; row < A.numBlockRows(); row++) {
+            for (int k = A.rowStart()[row]; k < A.rowStart()[row + 1]; k++) {
+                for (int i = 0; i < blockSize; i++) {
+                    for (int j = 0; j < blockSize; j++) {
+                        A.add(k, i, j, random.nextDouble() - 0.5);
+                    }
+                }
+            }
+            for (int i = 0; i < blockSize; i++) {
+                A.add(A.diagonalIndex(row), i, i, 3.0 * blockSize);
+            }
+        }
+    }
+
+    private static double[] randomVector(int size) {
+        Random random = new Random(81);
+        double[] x = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextDouble() - 0.5;
+        }
+        return x;
+    }
+
+    private static double[] multiply(BSRMatrix A, double[] x) {
+        double[] y = new double[A.numRows()];
+        A.multiply(x, y);
+        return y;
+    }
+
+    @Test
+    public void pattern_of_mesh_face_graph() throws IOException {
+        Mesh mesh = create2DMesh(4);
+        BSRMatrix A = new BSRMatrix(mesh, 3);
+        assertEquals(16, A.numBlockRows());
+        assertEquals(48, A.numRows());
+        // 16 diagonal blocks and 2 blocks for each of the 24 internal faces
+        assertEquals(16 + 2 * 24, A.numBlocks());
+        for (Cell cell : mesh.cells()) {
+            int row = cell.index();
+            assertEquals(row, A.columns()[A.diagonalIndex(row)]);
+            for (Face face : cell.faces) {
+                Cell neighbor = face.left == cell ? face.right : face.left;
+                if (neighbor.index() >= 0) {
+                    assertTrue(A.blockIndex(row, neighbor.index()) >= 0);
+                }
+            }
+        }
+        assertEquals(-1, A.blockIndex(0, 15));
+    }
+
+    @Test
+    public void invalid_patterns_are_rejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BSRMatrix(2, 2, new int[]{0, 1, 2}, new int[]{0, 0}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BSRMatrix(2, 2, new int[]{0, 2, 3}, new int[]{1, 0, 1}));
+    }
+
+    @Test
+    public void multiply_equals_dense_product() throws IOException {
+        BSRMatrix A = new BSRMatrix(create2DMesh(5), 4);
+        setRandomValues(A, 3);
+        double[] x = randomVector(A.numRows());
+        double[] y = multiply(A, x);
+        for (int i = 0; i < A.numRows(); i++) {
+            double expected = 0.0;
+            for (int j = 0; j < A.numRows(); j++) {
+                expected += A.get(i, j) * x[j];
+            }
+            assertEquals(expected, y[i], 1e-13);
+        }
+    }
+
+    @Test
+    public void block_jacobi_inverts_diagonal_blocks() throws IOException {
+        BSRMatrix A = new BSRMatrix(create2DMesh(3), 5);
+        setRandomValues(A, 5);
+        double[] r = randomVector(A.numRows());
+        double[] z = new double[A.numRows()];
+        new BlockJacobi(A).apply(r, z);
+
+        for (int row = 0; row < A.numBlockRows(); row++) {
+            for (int i = 0; i < 5; i++) {
+                double Dz = 0.0;
+                for (int j = 0; j < 5; j++) {
+                    Dz += A.get(row * 5 + i, row * 5 + j) * z[row * 5 + j];
+                }
+                assertEquals(r[row * 5 + i], Dz, 1e-13);
+            }
+        }
+    }
+
+    @Test
+    public void block_ilu0_of_block_tridiagonal_matrix_is_exact() throws IOException {
+        BSRMatrix A = new BSRMatrix(create1DMesh(40), 3);
+        setRandomValues(A, 7);
+        BlockILU0 ilu = new BlockILU0(A);
+        double[] x = randomVector(A.numRows());
+        double[] z = new double[A.numRows()];
+        ilu.apply(multiply(A, x), z);
+        assertArrayEquals(x, z, 1e-12);
+
+        // refactorized after the values change
+        Arrays.fill(A.values(), 0.0);
+        setRandomValues(A, 8);
+        ilu.factorize();
+        ilu.apply(multiply(A, x), z);
+        assertArrayEquals(x, z, 1e-12);
+    }
+
+    @Test
+    public void level_scheduling_of_structured_mesh() throws IOException {
+        int n = 10;
+        BSRMatrix A = new BSRMatrix(create2DMesh(n), 1);
+        setRandomValues(A, 11);
+        // the rows of each anti-diagonal of the grid are independent
+        assertArrayEquals(new int[]{2 * n - 1, 2 * n - 1}, new BlockILU0(A).numLevels());
+    }
+
+    @Test
+    public void krylov_solvers_with_block_preconditioners() throws IOException {
+        BSRMatrix A = new BSRMatrix(create2DMesh(12), 4);
+        setRandomValues(A, 9);
+        double[] expected = randomVector(A.numRows());
+        double[] b = multiply(A, expected);
+
+        KrylovWorkspace workspace = new KrylovWorkspace(A.numRows());
+        BlockJacobi jacobi = new BlockJacobi(A);
+        BlockILU0 ilu = new BlockILU0(A);
+
+        double[] x = new double[A.numRows()];
+        assertTrue(workspace.bicgstab(A::multiply, jacobi::apply, b, x, 1e-12, 200));
+        assertArrayEquals(expected, x, 1e-10);
+        int jacobiIterations = workspace.iterations();
+
+        x = new double[A.numRows()];
+        assertTrue(workspace.bicgstab(A::multiply, ilu::apply, b, x, 1e-12, 200));
+        assertArrayEquals(expected, x, 1e-10);
+        assertTrue(workspace.iterations() <= jacobiIterations);
+        assertTrue(workspace.relativeResidual() <= 1e-12);
+    }
+
+    @Test
+    public void conjugate_gradient_of_symmetric_matrix() throws IOException {
+        Mesh mesh = create2DMesh(12);
+        BSRMatrix A = new BSRMatrix(mesh, 1);
+        // graph Laplacian plus identity
+        for (int row = 0; row < A.numBlockRows(); row++) {
+            for (int k = A.rowStart()[row]; k < A.rowStart()[row + 1]; k++) {
+                if (k != A.diagonalIndex(row)) {
+                    A.add(k, 0, 0, -1.0);
+                    A.add(A.diagonalIndex(row), 0, 0, 1.0);
+                }
+            }
+            A.add(A.diagonalIndex(row), 0, 0, 1.0);
+        }
+        double[] expected = randomVector(A.numRows());
+        double[] b = multiply(A, expected);
+
+        KrylovWorkspace workspace = new KrylovWorkspace(A.numRows());
+        double[] x = new double[A.numRows()];
+        assertTrue(workspace.conjugateGradient(A::multiply, new BlockILU0(A)::apply, b, x, 1e-12, 200));
+        assertArrayEquals(expected, x, 1e-10);
+        assertThrows(IllegalArgumentException.class,
+                () -> workspace.conjugateGradient(A::multiply, A::multiply, new double[3], new double[3], 1e-12, 10));
+    }
+}
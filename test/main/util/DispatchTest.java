@@ -0,0 +1,105 @@
+package main.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DispatchTest {
+    // A task costs as much as 100 elements, so that a thread must have at least 1600 elements
+    private static final Dispatch.Calibration CALIBRATION = new Dispatch.Calibration(1000.0, 10.0);
+
+    @AfterEach
+    public void restoreMode() {
+        Dispatch.setMode(Dispatch.Mode.AUTO);
+    }
+
+    @Test
+    public void small_loops_are_sequential() {
+        assertFalse(Dispatch.decide(1, 1, 64, CALIBRATION).parallel());
+        assertFalse(Dispatch.decide(100, 100, 64, CALIBRATION).parallel());
+        assertFalse(Dispatch.decide(5000, 5000, 4, CALIBRATION).parallel());
+    }
+
+    @Test
+    public void single_thread_is_sequential() {
+        assertFalse(Dispatch.decide(10_000_000, 10_000_000, 1, CALIBRATION).parallel());
+    }
+
+    @Test
+    public void large_loops_are_parallel_with_grain_size() {
+        Dispatch.Decision decision = Dispatch.decide(1_000_000, 1_000_000, 8, CALIBRATION);
+        assertTrue(decision.parallel());
+        // Four tasks per thread
+        assertEquals(31250, decision.grainSize());
+    }
+
+    @Test
+    public void grain_size_does_not_depend_on_the_calibration() {
+        Dispatch.Calibration slowTasks = new Dispatch.Calibration(50_000.0, 10.0);
+        Dispatch.Calibration slowElements = new Dispatch.Calibration(1000.0, 500.0);
+        int grainSize = Dispatch.decide(1_000_000, 1_000_000, 8, CALIBRATION).grainSize();
+        assertEquals(grainSize, Dispatch.decide(1_000_000, 1_000_000, 8, slowTasks).grainSize());
+        assertEquals(grainSize, Dispatch.decide(1_000_000, 1_000_000, 8, slowElements).grainSize());
+        assertEquals(grainSize, Dispatch.grainSize(1_000_000, 8));
+        assertEquals(1, Dispatch.grainSize(3, 8));
+        assertEquals(3, Dispatch.grainSize(9, 1));
+    }
+
+    @Test
+    public void heavy_elements_have_smaller_grain() {
+        // Few boundaries with many faces each
+        Dispatch.Decision decision = Dispatch.decide(4, 40_000, 4, CALIBRATION);
+        assertTrue(decision.parallel());
+        assertEquals(1, decision.grainSize());
+
+        assertFalse(Dispatch.decide(4, 400, 4, CALIBRATION).parallel());
+    }
+
+    @Test
+    public void mode_overrides_the_calibration() {
+        Dispatch.setMode(Dispatch.Mode.SEQUENTIAL);
+        assertFalse(Dispatch.decide(10_000_000, 10_000_000, 64).parallel());
+        assertFalse(Dispatch.stream(List.of(1, 2, 3)).isParallel());
+
+        Dispatch.setMode(Dispatch.Mode.PARALLEL);
+        assertTrue(Dispatch.decide(2, 2, 1).parallel());
+        assertTrue(Dispatch.range(3).isParallel());
+    }
+
+    @Test
+    public void invalid_calibration() {
+        assertThrows(IllegalArgumentException.class, () -> new Dispatch.Calibration(0.0, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new Dispatch.Calibration(1.0, Double.NaN));
+    }
+
+    @Test
+    public void parallel_streams_visit_all_elements_in_order() throws Exception {
+        Dispatch.setMode(Dispatch.Mode.PARALLEL);
+        List<Integer> elements = Dispatch.range(10_000).boxed().collect(Collectors.toList());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Integer> collected = pool.submit(() -> Dispatch.stream(elements).toList()).get();
+            assertEquals(elements, collected);
+
+            AtomicInteger sum = new AtomicInteger();
+            pool.submit(() -> Dispatch.range(10_000, 100).forEach(sum::addAndGet)).get();
+            assertEquals(10_000 * 9_999 / 2, sum.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void calibration_is_positive() {
+        Dispatch.Calibration calibration = Dispatch.calibration();
+        assertTrue(calibration.taskNanos() > 0);
+        assertTrue(calibration.elementNanos() > 0);
+    }
+}
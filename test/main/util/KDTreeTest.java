@@ -0,0 +1,67 @@
+package main.util;
+
+import main.geom.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class KDTreeTest {
+
+    private static int bruteForceNearest(List<Point> points, Point p) {
+        int nearest = -1;
+        double minDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < points.size(); i++) {
+            double distance = points.get(i).distance(p);
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = i;
+            }
+        }
+        return nearest;
+    }
+
+    @Test
+    public void nearest_random_points() {
+        Random rnd = new Random(42);
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            points.add(new Point(rnd.nextDouble(), rnd.nextDouble(), rnd.nextDouble()));
+        }
+        KDTree tree = new KDTree(points);
+        assertEquals(points.size(), tree.size());
+
+        for (int i = 0; i < 1000; i++) {
+            Point p = new Point(rnd.nextDouble() * 1.2 - 0.1, rnd.nextDouble() * 1.2 - 0.1, rnd.nextDouble() * 1.2 - 0.1);
+            int expected = bruteForceNearest(points, p);
+            int actual = tree.nearest(p);
+            assertEquals(points.get(expected).distance(p), points.get(actual).distance(p), 1e-15);
+        }
+    }
+
+    @Test
+    public void nearest_planar_grid_points() {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 30; j++) {
+                points.add(new Point(i, j, 0));
+            }
+        }
+        KDTree tree = new KDTree(points);
+
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 30; j++) {
+                assertEquals(i * 30 + j, tree.nearest(i + 0.1, j - 0.2, 0.5));
+            }
+        }
+    }
+
+    @Test
+    public void empty_and_single_point() {
+        assertEquals(-1, new KDTree(List.of()).nearest(0, 0, 0));
+        assertEquals(0, new KDTree(List.of(new Point(1, 2, 3))).nearest(-5, 0, 0));
+    }
+}